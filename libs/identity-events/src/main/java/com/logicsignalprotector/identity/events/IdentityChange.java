@@ -0,0 +1,7 @@
+package com.logicsignalprotector.identity.events;
+
+/**
+ * A user's links, roles or overrides changed, as published by the gateway on {@code
+ * identity.events.channel}. The account fields are set for link/unlink only.
+ */
+public record IdentityChange(Long userId, String providerCode, String externalUserId) {}
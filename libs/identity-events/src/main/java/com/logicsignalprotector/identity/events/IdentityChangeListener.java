@@ -0,0 +1,16 @@
+package com.logicsignalprotector.identity.events;
+
+/**
+ * A local cache fed by {@link IdentityEventsSubscription}. Declaring a bean of this type is enough
+ * to get the subscription.
+ */
+public interface IdentityChangeListener {
+
+  void identityChanged(IdentityChange change);
+
+  /**
+   * Events may have been missed (an unreadable message, or a subscription restored after a Redis
+   * outage): drop everything.
+   */
+  void identityEventsLost();
+}
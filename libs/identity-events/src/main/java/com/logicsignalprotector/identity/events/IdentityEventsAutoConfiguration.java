@@ -0,0 +1,38 @@
+package com.logicsignalprotector.identity.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+/**
+ * One identity events subscription per service that has both Redis and at least one {@link
+ * IdentityChangeListener}; {@code identity.events.enabled=false} turns it off.
+ */
+@AutoConfiguration(after = {RedisAutoConfiguration.class, JacksonAutoConfiguration.class})
+@ConditionalOnProperty(
+    name = "identity.events.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+@ConditionalOnBean({RedisConnectionFactory.class, IdentityChangeListener.class})
+public class IdentityEventsAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public IdentityEventsSubscription identityEventsSubscription(
+      RedisConnectionFactory connectionFactory,
+      ObjectProvider<ObjectMapper> json,
+      List<IdentityChangeListener> listeners,
+      @Value("${identity.events.channel:lsp:identity:changed}") String channel) {
+    return new IdentityEventsSubscription(
+        connectionFactory, json.getIfAvailable(ObjectMapper::new), channel, listeners);
+  }
+}
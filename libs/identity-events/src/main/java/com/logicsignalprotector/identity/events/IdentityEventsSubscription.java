@@ -0,0 +1,89 @@
+package com.logicsignalprotector.identity.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Subscribes to the gateway's identity change channel (Redis pub/sub) and hands every event to the
+ * {@link IdentityChangeListener}s of the service.
+ *
+ * <p>Services must start without Redis, so the subscription is made (and retried) by a scheduled
+ * task rather than at startup; once subscribed, the container itself recovers from disconnects.
+ * Events published while nobody listened are lost, so the listeners drop everything when a failed
+ * subscription comes back. Until then their TTLs bound staleness.
+ */
+public class IdentityEventsSubscription implements MessageListener, DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(IdentityEventsSubscription.class);
+
+  private final List<IdentityChangeListener> listeners;
+  private final ObjectMapper json;
+  private final RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+  private volatile boolean failing;
+
+  public IdentityEventsSubscription(
+      RedisConnectionFactory connectionFactory,
+      ObjectMapper json,
+      String channel,
+      List<IdentityChangeListener> listeners) {
+    this.listeners = List.copyOf(listeners);
+    this.json = json;
+    container.setConnectionFactory(connectionFactory);
+    container.addMessageListener(this, new ChannelTopic(channel));
+    container.afterPropertiesSet();
+  }
+
+  @Scheduled(fixedDelayString = "${identity.events.resubscribe-delay:PT10S}")
+  public void subscribe() {
+    if (container.isListening() || (container.isRunning() && !failing)) {
+      return;
+    }
+    try {
+      container.stop();
+      container.start();
+      if (failing) {
+        listeners.forEach(IdentityChangeListener::identityEventsLost);
+      }
+      failing = false;
+      log.info("Subscribed to identity change events");
+    } catch (RuntimeException e) {
+      if (!failing) {
+        log.warn("Identity change events are not subscribed, retrying: {}", e.getMessage());
+      }
+      failing = true;
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    IdentityChange change;
+    try {
+      change = json.readValue(message.getBody(), IdentityChange.class);
+    } catch (Exception e) {
+      log.warn(
+          "Bad identity change event, dropping everything: {} ({})",
+          new String(message.getBody(), StandardCharsets.UTF_8),
+          e.getMessage());
+      listeners.forEach(IdentityChangeListener::identityEventsLost);
+      return;
+    }
+    for (IdentityChangeListener listener : listeners) {
+      listener.identityChanged(change);
+    }
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    container.destroy();
+  }
+}
@@ -0,0 +1,66 @@
+package com.logicsignalprotector.identity.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+class IdentityEventsSubscriptionTest {
+
+  private final IdentityChangeListener first = mock(IdentityChangeListener.class);
+  private final IdentityChangeListener second = mock(IdentityChangeListener.class);
+  private final IdentityEventsSubscription subscription =
+      new IdentityEventsSubscription(
+          mock(RedisConnectionFactory.class), new ObjectMapper(), "ch", List.of(first, second));
+
+  private final ApplicationContextRunner runner =
+      new ApplicationContextRunner()
+          .withConfiguration(AutoConfigurations.of(IdentityEventsAutoConfiguration.class))
+          .withBean(RedisConnectionFactory.class, () -> mock(RedisConnectionFactory.class));
+
+  @Test
+  void everyListenerGetsTheChange() {
+    subscription.onMessage(
+        message("{\"userId\":7,\"providerCode\":\"telegram\",\"externalUserId\":\"42\"}"), null);
+
+    IdentityChange change = new IdentityChange(7L, "telegram", "42");
+    verify(first).identityChanged(change);
+    verify(second).identityChanged(change);
+    verifyNoMoreInteractions(first, second);
+  }
+
+  @Test
+  void unreadableEventDropsEverything() {
+    subscription.onMessage(message("not json"), null);
+
+    verify(first).identityEventsLost();
+    verify(second).identityEventsLost();
+    verifyNoMoreInteractions(first, second);
+  }
+
+  @Test
+  void subscribesOnlyWhenSomebodyListens() {
+    runner.run(ctx -> assertThat(ctx).doesNotHaveBean(IdentityEventsSubscription.class));
+    runner
+        .withBean(IdentityChangeListener.class, () -> first)
+        .run(ctx -> assertThat(ctx).hasSingleBean(IdentityEventsSubscription.class));
+    runner
+        .withBean(IdentityChangeListener.class, () -> first)
+        .withPropertyValues("identity.events.enabled=false")
+        .run(ctx -> assertThat(ctx).doesNotHaveBean(IdentityEventsSubscription.class));
+  }
+
+  private static DefaultMessage message(String body) {
+    return new DefaultMessage(
+        "ch".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,102 @@
+package com.logicsignalprotector.security.jwt;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Step 1.3: maps JWT claims to Spring Security authorities.
+ *
+ * <p>Expected claims: - roles: ["USER", "ADMIN", ...] -> ROLE_USER, ROLE_ADMIN - pv + pb:
+ * permission dictionary version and base64url bitmask (bit i = i-th code of the dictionary) ->
+ * PERM_..., or the list form perms: ["MARKETDATA_READ", ...] -> PERM_MARKETDATA_READ
+ *
+ * <p>Authority sets are immutable and cached by the claims they are built from, so all tokens with
+ * the same roles and perms share one set. If the dictionary version is unknown, only roles are
+ * granted and nothing is cached.
+ *
+ * <p>Shared by the gateway (dictionaries from its own catalogue) and the resource servers ({@link
+ * PermissionDictionaryClient}).
+ */
+public class JwtAuthConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+  private static final int MAX_CACHED = 10_000;
+
+  // Dictionary version -> codes in bit order, or null if it cannot be resolved.
+  private final Function<String, List<String>> dictionaries;
+  private final Map<String, Collection<GrantedAuthority>> cache = new ConcurrentHashMap<>();
+
+  public JwtAuthConverter(Function<String, List<String>> dictionaries) {
+    this.dictionaries = dictionaries;
+  }
+
+  @Override
+  public Collection<GrantedAuthority> convert(Jwt jwt) {
+    Object rolesClaim = jwt.getClaim("roles");
+    Object version = jwt.getClaim("pv");
+    Object bits = jwt.getClaim("pb");
+    Object permsClaim = jwt.getClaim("perms");
+    String key = rolesClaim + "|" + version + "|" + bits + "|" + permsClaim;
+    Collection<GrantedAuthority> cached = cache.get(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    List<String> roles = safeStringList(rolesClaim);
+    List<String> perms =
+        bits == null
+            ? safeStringList(permsClaim)
+            : decode(String.valueOf(version), String.valueOf(bits));
+
+    Set<String> out = new LinkedHashSet<>();
+    for (String r : roles) {
+      if (r != null && !r.isBlank()) {
+        out.add("ROLE_" + r);
+      }
+    }
+    if (perms != null) {
+      for (String p : perms) {
+        if (p != null && !p.isBlank()) {
+          out.add("PERM_" + p);
+        }
+      }
+    }
+
+    Collection<GrantedAuthority> authorities =
+        out.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toUnmodifiableSet());
+    if (perms != null) {
+      if (cache.size() >= MAX_CACHED) {
+        cache.clear();
+      }
+      cache.put(key, authorities);
+    }
+    return authorities;
+  }
+
+  private List<String> decode(String version, String encoded) {
+    List<String> codes = dictionaries.apply(version);
+    return codes == null ? null : PermissionBitmask.decode(encoded, codes);
+  }
+
+  private static List<String> safeStringList(Object claim) {
+    if (claim == null) {
+      return List.of();
+    }
+    if (claim instanceof List<?> list) {
+      List<String> out = new ArrayList<>(list.size());
+      for (Object o : list) {
+        if (o != null) {
+          out.add(String.valueOf(o));
+        }
+      }
+      return out;
+    }
+    // Fallback for wrong type
+    return List.of(String.valueOf(claim));
+  }
+}
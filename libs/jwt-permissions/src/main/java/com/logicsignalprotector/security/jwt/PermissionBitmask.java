@@ -0,0 +1,39 @@
+package com.logicsignalprotector.security.jwt;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Wire form of the {@code pb} claim: base64url (no padding) of {@link BitSet#toByteArray()}, bit i
+ * = i-th code of the dictionary named by {@code pv}. The gateway encodes, resource servers decode.
+ */
+public final class PermissionBitmask {
+
+  private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+
+  private PermissionBitmask() {}
+
+  public static String encode(BitSet bits) {
+    return B64.encodeToString(bits.toByteArray());
+  }
+
+  /** Codes of the set bits, or null if the mask is malformed or has a bit beyond {@code codes}. */
+  public static List<String> decode(String encoded, List<String> codes) {
+    BitSet set;
+    try {
+      set = BitSet.valueOf(Base64.getUrlDecoder().decode(encoded));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+    if (set.length() > codes.size()) {
+      return null;
+    }
+    List<String> out = new ArrayList<>(set.cardinality());
+    for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+      out.add(codes.get(i));
+    }
+    return out;
+  }
+}
@@ -0,0 +1,106 @@
+package com.logicsignalprotector.security.jwt;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Permission dictionaries published by the gateway ({@code GET /api/auth/permissions/{pv}}), by
+ * version, for decoding the {@code pb} claim. A version is fetched when a token first carries it,
+ * so tokens signed before a catalogue change still decode after a restart. A version the gateway
+ * does not know (404) or could not serve is asked for again after {@code RETRY}. Concurrent first
+ * uses of one version share a single request; other versions do not wait for it. The endpoint is
+ * internal: requests carry the {@code X-Internal-Token} header.
+ */
+public class PermissionDictionaryClient implements Function<String, List<String>> {
+
+  private static final Logger log = LoggerFactory.getLogger(PermissionDictionaryClient.class);
+  private static final Duration RETRY = Duration.ofSeconds(5);
+  private static final int MAX_MISSES = 100;
+
+  private final RestClient rest;
+  private final Map<String, List<String>> byVersion = new ConcurrentHashMap<>();
+  // Version -> System.nanoTime() before which it is not fetched again.
+  private final Map<String, Long> misses = new ConcurrentHashMap<>();
+  // Version -> the fetch in flight for it.
+  private final Map<String, CompletableFuture<List<String>>> fetching = new ConcurrentHashMap<>();
+
+  /**
+   * @param url the gateway's dictionary endpoint without the version, e.g. {@code
+   *     http://gateway/api/auth/permissions}
+   * @param internalToken the gateway's {@code internal.auth.token}
+   */
+  public PermissionDictionaryClient(String url, String internalToken) {
+    SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+    factory.setConnectTimeout(Duration.ofSeconds(2));
+    factory.setReadTimeout(Duration.ofSeconds(2));
+    this.rest =
+        RestClient.builder()
+            .baseUrl(url)
+            .defaultHeader("X-Internal-Token", internalToken)
+            .requestFactory(factory)
+            .build();
+  }
+
+  @Override
+  public List<String> apply(String version) {
+    List<String> codes = byVersion.get(version);
+    if (codes != null || !due(version)) {
+      return codes;
+    }
+    CompletableFuture<List<String>> mine = new CompletableFuture<>();
+    CompletableFuture<List<String>> running = fetching.putIfAbsent(version, mine);
+    if (running != null) {
+      return running.join();
+    }
+    try {
+      // A fetch that finished between the checks above and putIfAbsent has already decided.
+      codes = byVersion.get(version);
+      if (codes == null && due(version)) {
+        codes = fetch(version);
+        if (codes == null) {
+          if (misses.size() >= MAX_MISSES) {
+            misses.clear();
+          }
+          misses.put(version, System.nanoTime() + RETRY.toNanos());
+        } else {
+          misses.remove(version);
+          byVersion.put(version, codes);
+        }
+      }
+      return codes;
+    } finally {
+      mine.complete(codes);
+      fetching.remove(version, mine);
+    }
+  }
+
+  private boolean due(String version) {
+    Long retryAt = misses.get(version);
+    return retryAt == null || System.nanoTime() - retryAt >= 0;
+  }
+
+  private List<String> fetch(String version) {
+    try {
+      Dictionary d = rest.get().uri("/{version}", version).retrieve().body(Dictionary.class);
+      if (d != null && version.equals(d.version()) && d.codes() != null) {
+        return List.copyOf(d.codes());
+      }
+    } catch (HttpClientErrorException.NotFound e) {
+      log.warn("Gateway does not know permission dictionary {}", version);
+    } catch (Exception e) {
+      log.warn("Failed to fetch permission dictionary {}: {}", version, e.getMessage());
+    }
+    return null;
+  }
+
+  record Dictionary(String version, List<String> codes) {}
+}
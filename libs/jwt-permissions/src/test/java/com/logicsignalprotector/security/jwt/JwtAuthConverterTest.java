@@ -0,0 +1,115 @@
+package com.logicsignalprotector.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+class JwtAuthConverterTest {
+
+  private static final List<String> CODES = List.of("ALERTS_READ", "BROKER_TRADE", "MARKET_READ");
+
+  private final AtomicInteger lookups = new AtomicInteger();
+  private final JwtAuthConverter converter =
+      new JwtAuthConverter(
+          version -> {
+            lookups.incrementAndGet();
+            return "v1".equals(version) ? CODES : null;
+          });
+
+  @Test
+  void bitmaskRoundTripsThroughTheDictionary() {
+    BitSet bits = new BitSet();
+    bits.set(0);
+    bits.set(2);
+
+    Collection<GrantedAuthority> authorities =
+        converter.convert(
+            jwt(
+                Map.of(
+                    "roles", List.of("USER"), "pv", "v1", "pb", PermissionBitmask.encode(bits))));
+
+    assertThat(names(authorities))
+        .containsExactlyInAnyOrder("ROLE_USER", "PERM_ALERTS_READ", "PERM_MARKET_READ");
+  }
+
+  @Test
+  void emptyMaskGrantsOnlyRoles() {
+    Collection<GrantedAuthority> authorities =
+        converter.convert(
+            jwt(
+                Map.of(
+                    "roles", List.of("USER"),
+                    "pv", "v1",
+                    "pb", PermissionBitmask.encode(new BitSet()))));
+
+    assertThat(names(authorities)).containsExactly("ROLE_USER");
+  }
+
+  @Test
+  void bitBeyondTheDictionaryGrantsNoPermissions() {
+    BitSet bits = new BitSet();
+    bits.set(0);
+    bits.set(CODES.size());
+
+    Collection<GrantedAuthority> authorities =
+        converter.convert(
+            jwt(
+                Map.of(
+                    "roles", List.of("USER"), "pv", "v1", "pb", PermissionBitmask.encode(bits))));
+
+    assertThat(names(authorities)).containsExactly("ROLE_USER");
+  }
+
+  @Test
+  void malformedMaskGrantsNoPermissions() {
+    Collection<GrantedAuthority> authorities =
+        converter.convert(jwt(Map.of("roles", List.of("USER"), "pv", "v1", "pb", "*not base64*")));
+
+    assertThat(names(authorities)).containsExactly("ROLE_USER");
+  }
+
+  @Test
+  void unknownVersionGrantsOnlyRolesAndIsAskedForAgain() {
+    BitSet bits = new BitSet();
+    bits.set(1);
+    Jwt jwt =
+        jwt(Map.of("roles", List.of("USER"), "pv", "v0", "pb", PermissionBitmask.encode(bits)));
+
+    assertThat(names(converter.convert(jwt))).containsExactly("ROLE_USER");
+    converter.convert(jwt);
+
+    assertThat(lookups).hasValue(2);
+  }
+
+  @Test
+  void listFormIsUsedWithoutBitmask() {
+    Collection<GrantedAuthority> authorities =
+        converter.convert(
+            jwt(Map.of("roles", List.of("ADMIN"), "perms", List.of("MARKET_READ", " "))));
+
+    assertThat(names(authorities)).containsExactlyInAnyOrder("ROLE_ADMIN", "PERM_MARKET_READ");
+    assertThat(lookups).hasValue(0);
+  }
+
+  @Test
+  void sameClaimsShareOneAuthoritySet() {
+    Jwt jwt = jwt(Map.of("roles", List.of("USER"), "perms", List.of("MARKET_READ")));
+
+    assertThat(converter.convert(jwt)).isSameAs(converter.convert(jwt));
+  }
+
+  private static Jwt jwt(Map<String, Object> claims) {
+    return Jwt.withTokenValue("t").header("alg", "HS256").claims(c -> c.putAll(claims)).build();
+  }
+
+  private static List<String> names(Collection<GrantedAuthority> authorities) {
+    return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+  }
+}
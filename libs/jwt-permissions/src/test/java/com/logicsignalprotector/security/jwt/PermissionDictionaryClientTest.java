@@ -0,0 +1,160 @@
+package com.logicsignalprotector.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PermissionDictionaryClientTest {
+
+  private static final String TOKEN = "internal";
+
+  private final Map<String, String> served = new ConcurrentHashMap<>();
+  private final AtomicInteger requests = new AtomicInteger();
+  // Requests for v1 wait for this before answering.
+  private final CountDownLatch v1Gate = new CountDownLatch(1);
+  private volatile boolean holdV1;
+  private HttpServer server;
+  private PermissionDictionaryClient client;
+
+  @BeforeEach
+  void startGateway() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/api/auth/permissions/",
+        exchange -> {
+          requests.incrementAndGet();
+          String path = exchange.getRequestURI().getPath();
+          String version = path.substring(path.lastIndexOf('/') + 1);
+          if (holdV1 && version.equals("v1")) {
+            await(v1Gate);
+          }
+          String body = served.get(version);
+          if (!TOKEN.equals(exchange.getRequestHeaders().getFirst("X-Internal-Token"))) {
+            exchange.sendResponseHeaders(401, -1);
+          } else if (body == null) {
+            exchange.sendResponseHeaders(404, -1);
+          } else {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+          }
+          exchange.close();
+        });
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.start();
+    client = client(TOKEN);
+  }
+
+  private PermissionDictionaryClient client(String token) {
+    return new PermissionDictionaryClient(
+        "http://127.0.0.1:" + server.getAddress().getPort() + "/api/auth/permissions", token);
+  }
+
+  @AfterEach
+  void stopGateway() {
+    server.stop(0);
+  }
+
+  @Test
+  void fetchesEachVersionOnceByItsOwnPath() {
+    served.put("v1", "{\"version\":\"v1\",\"codes\":[\"A\",\"B\"]}");
+    served.put("v2", "{\"version\":\"v2\",\"codes\":[\"A\",\"B\",\"C\"]}");
+
+    assertThat(client.apply("v1")).containsExactly("A", "B");
+    assertThat(client.apply("v2")).containsExactly("A", "B", "C");
+    assertThat(client.apply("v1")).containsExactly("A", "B");
+
+    assertThat(requests).hasValue(2);
+  }
+
+  @Test
+  void unknownVersionIsNotAskedForAgainRightAway() {
+    assertThat(client.apply("v0")).isNull();
+    assertThat(client.apply("v0")).isNull();
+
+    assertThat(requests).hasValue(1);
+  }
+
+  @Test
+  void answerForAnotherVersionIsIgnored() {
+    served.put("v1", "{\"version\":\"v2\",\"codes\":[\"A\"]}");
+
+    assertThat(client.apply("v1")).isNull();
+  }
+
+  @Test
+  void unreachableGatewayGrantsNothing() {
+    server.stop(0);
+
+    assertThat(client.apply("v1")).isNull();
+  }
+
+  @Test
+  void wrongInternalTokenGetsNoDictionary() {
+    served.put("v1", "{\"version\":\"v1\",\"codes\":[\"A\"]}");
+
+    assertThat(client("wrong").apply("v1")).isNull();
+    assertThat(client.apply("v1")).containsExactly("A");
+  }
+
+  @Test
+  void concurrentFirstUsesShareOneRequest() throws Exception {
+    served.put("v1", "{\"version\":\"v1\",\"codes\":[\"A\"]}");
+    holdV1 = true;
+
+    List<CompletableFuture<List<String>>> results = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      results.add(CompletableFuture.supplyAsync(() -> client.apply("v1")));
+    }
+    while (requests.get() == 0) {
+      Thread.sleep(10);
+    }
+    Thread.sleep(200);
+    v1Gate.countDown();
+
+    for (CompletableFuture<List<String>> r : results) {
+      assertThat(r.get(5, TimeUnit.SECONDS)).containsExactly("A");
+    }
+    assertThat(requests).hasValue(1);
+  }
+
+  @Test
+  void slowVersionDoesNotHoldUpAnother() throws Exception {
+    served.put("v1", "{\"version\":\"v1\",\"codes\":[\"A\"]}");
+    served.put("v2", "{\"version\":\"v2\",\"codes\":[\"B\"]}");
+    holdV1 = true;
+
+    CompletableFuture<List<String>> slow = CompletableFuture.supplyAsync(() -> client.apply("v1"));
+    while (requests.get() == 0) {
+      Thread.sleep(10);
+    }
+
+    assertThat(client.apply("v2")).containsExactly("B");
+    assertThat(slow).isNotDone();
+    v1Gate.countDown();
+    assertThat(slow.get(5, TimeUnit.SECONDS)).containsExactly("A");
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
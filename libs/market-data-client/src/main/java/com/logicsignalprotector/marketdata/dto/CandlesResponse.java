@@ -3,6 +3,7 @@ package com.logicsignalprotector.marketdata.dto;
 import java.time.OffsetDateTime;
 import java.util.List;
 
+/** {@code stale}: ISS was unavailable and part of the candles come from the last loaded data. */
 public record CandlesResponse(
     String correlationId,
     String secId,
@@ -10,4 +11,5 @@ public record CandlesResponse(
     int interval,
     OffsetDateTime from,
     OffsetDateTime till,
-    List<CandleDto> candles) {}
+    List<CandleDto> candles,
+    boolean stale) {}
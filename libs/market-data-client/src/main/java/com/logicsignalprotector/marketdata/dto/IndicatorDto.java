@@ -0,0 +1,7 @@
+package com.logicsignalprotector.marketdata.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/** Values per line ({@code value}, or e.g. {@code macd/signal/histogram}); null while undefined. */
+public record IndicatorDto(String id, Map<String, List<Double>> lines) {}
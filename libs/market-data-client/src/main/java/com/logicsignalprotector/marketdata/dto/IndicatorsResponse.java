@@ -0,0 +1,14 @@
+package com.logicsignalprotector.marketdata.dto;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record IndicatorsResponse(
+    String correlationId,
+    String secId,
+    String board,
+    int interval,
+    List<OffsetDateTime> time,
+    List<BigDecimal> close,
+    List<IndicatorDto> indicators) {}
@@ -0,0 +1,4 @@
+package com.logicsignalprotector.marketdata.dto;
+
+public record InstrumentCandidateDto(
+    String secId, String shortName, String name, String board, double score, String match) {}
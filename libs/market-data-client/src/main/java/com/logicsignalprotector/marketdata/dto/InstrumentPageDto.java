@@ -0,0 +1,6 @@
+package com.logicsignalprotector.marketdata.dto;
+
+import java.util.List;
+
+/** One page of matching instruments; {@code total} counts all matches on the board. */
+public record InstrumentPageDto(List<InstrumentDto> instruments, int total) {}
@@ -0,0 +1,6 @@
+package com.logicsignalprotector.marketdata.dto;
+
+import java.util.List;
+
+public record InstrumentResolveResponse(
+    String correlationId, String query, List<InstrumentCandidateDto> candidates) {}
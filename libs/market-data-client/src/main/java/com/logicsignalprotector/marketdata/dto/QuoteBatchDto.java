@@ -0,0 +1,5 @@
+package com.logicsignalprotector.marketdata.dto;
+
+import java.util.List;
+
+public record QuoteBatchDto(List<QuoteDto> quotes, List<QuoteErrorDto> errors) {}
@@ -0,0 +1,3 @@
+package com.logicsignalprotector.marketdata.dto;
+
+public record QuoteErrorDto(String secId, String error, String message) {}
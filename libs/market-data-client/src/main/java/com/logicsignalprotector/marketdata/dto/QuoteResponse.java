@@ -1,3 +1,4 @@
 package com.logicsignalprotector.marketdata.dto;
 
-public record QuoteResponse(String correlationId, QuoteDto quote) {}
+/** {@code stale}: ISS was unavailable and the quote is the last one loaded before. */
+public record QuoteResponse(String correlationId, QuoteDto quote, boolean stale) {}
@@ -0,0 +1,23 @@
+package com.logicsignalprotector.marketdata.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Streamed quote. With {@code full} every field is set; otherwise only fields that changed since
+ * the previous event of the same ticker are present, and fields that changed to no value are named
+ * in {@code cleared}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record QuoteUpdateDto(
+    String secId,
+    String board,
+    boolean full,
+    BigDecimal lastPrice,
+    BigDecimal change,
+    BigDecimal changePercent,
+    BigDecimal volume,
+    OffsetDateTime time,
+    List<String> cleared) {}
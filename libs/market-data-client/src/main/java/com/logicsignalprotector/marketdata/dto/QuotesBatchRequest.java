@@ -0,0 +1,19 @@
+package com.logicsignalprotector.marketdata.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record QuotesBatchRequest(
+    String engine,
+    String market,
+    String board,
+    @NotEmpty @Size(max = 500) List<@NotBlank String> secs,
+    String correlationId) {
+  public QuotesBatchRequest {
+    engine = engine == null || engine.isBlank() ? "stock" : engine;
+    market = market == null || market.isBlank() ? "shares" : market;
+    board = board == null || board.isBlank() ? "TQBR" : board;
+  }
+}
@@ -0,0 +1,6 @@
+package com.logicsignalprotector.marketdata.dto;
+
+import java.util.List;
+
+public record QuotesBatchResponse(
+    String correlationId, String board, List<QuoteDto> quotes, List<QuoteErrorDto> errors) {}
@@ -0,0 +1,42 @@
+package com.logicsignalprotector.marketdata.wire;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * CBOR and Smile converters for the server ({@code Accept}) and {@code RestClient} sides. Spring's
+ * default binary converters use a bare mapper; these are built from Boot's {@link
+ * Jackson2ObjectMapperBuilder}, so {@code spring.jackson.*} (ISO dates with offsets, modules)
+ * applies to every format the same way. They replace the defaults in place, after the JSON
+ * converter, so clients that accept anything still get JSON.
+ */
+@AutoConfiguration(
+    after = JacksonAutoConfiguration.class,
+    before = HttpMessageConvertersAutoConfiguration.class)
+@ConditionalOnBean(Jackson2ObjectMapperBuilder.class)
+public class MarketDataWireAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2SmileHttpMessageConverter(
+        builder.factory(new SmileFactory()).build());
+  }
+}
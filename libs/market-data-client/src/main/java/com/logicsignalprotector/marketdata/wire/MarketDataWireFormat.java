@@ -0,0 +1,27 @@
+package com.logicsignalprotector.marketdata.wire;
+
+/**
+ * Encoding of {@code /api/market/v1/**} responses, chosen by the client via {@code Accept}. Binary
+ * formats keep JSON as a lower-quality fallback, so a market-data instance without the binary
+ * converters still answers.
+ */
+public enum MarketDataWireFormat {
+  JSON("application/json"),
+  CBOR("application/cbor"),
+  SMILE("application/x-jackson-smile");
+
+  private final String mediaType;
+
+  MarketDataWireFormat(String mediaType) {
+    this.mediaType = mediaType;
+  }
+
+  public String mediaType() {
+    return mediaType;
+  }
+
+  /** Value of the {@code Accept} header for market-data requests. */
+  public String accept() {
+    return this == JSON ? mediaType : mediaType + ", " + JSON.mediaType + ";q=0.5";
+  }
+}
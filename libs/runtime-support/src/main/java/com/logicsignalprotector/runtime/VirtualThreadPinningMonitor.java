@@ -0,0 +1,101 @@
+package com.logicsignalprotector.runtime;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Reports virtual threads that blocked while pinned to their carrier (JFR {@code
+ * jdk.VirtualThreadPinned}: blocking inside {@code synchronized} or a native frame) for longer than
+ * {@code jvm.virtual-threads.pinned-threshold}. Every such block is recorded in the timer {@code
+ * jvm.threads.virtual.pinned}. The first one at each code location is logged with its stack.
+ *
+ * <p>Registered by {@link VirtualThreadsAutoConfiguration}.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+  private static final String EVENT = "jdk.VirtualThreadPinned";
+  private static final String OWN_CODE = "com.logicsignalprotector.";
+  private static final int MAX_REPORTED_SITES = 100;
+  private static final int LOGGED_FRAMES = 12;
+
+  private final Duration threshold;
+  private final Timer pinned;
+  private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+  private volatile RecordingStream stream;
+
+  public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+    this.threshold = threshold;
+    this.pinned =
+        Timer.builder("jvm.threads.virtual.pinned")
+            .description("Virtual threads blocked while pinned to a carrier thread")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public void start() {
+    RecordingStream recording = new RecordingStream();
+    recording.enable(EVENT).withThreshold(threshold).withStackTrace();
+    recording.onEvent(EVENT, this::record);
+    recording.startAsync();
+    stream = recording;
+  }
+
+  @Override
+  public void stop() {
+    RecordingStream recording = stream;
+    stream = null;
+    if (recording != null) {
+      recording.close();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return stream != null;
+  }
+
+  private void record(RecordedEvent event) {
+    pinned.record(event.getDuration());
+    RecordedStackTrace stack = event.getStackTrace();
+    if (stack == null || stack.getFrames().isEmpty()) {
+      return;
+    }
+    List<RecordedFrame> frames = stack.getFrames();
+    String site =
+        frames.stream()
+            .filter(frame -> frame.getMethod().getType().getName().startsWith(OWN_CODE))
+            .findFirst()
+            .map(VirtualThreadPinningMonitor::format)
+            .orElseGet(() -> format(frames.get(0)));
+    if (reportedSites.size() < MAX_REPORTED_SITES && reportedSites.add(site)) {
+      log.warn(
+          "Virtual thread pinned for {} ms at {}:\n  {}",
+          event.getDuration().toMillis(),
+          site,
+          frames.stream()
+              .limit(LOGGED_FRAMES)
+              .map(VirtualThreadPinningMonitor::format)
+              .collect(Collectors.joining("\n  ")));
+    }
+  }
+
+  private static String format(RecordedFrame frame) {
+    return frame.getMethod().getType().getName()
+        + "."
+        + frame.getMethod().getName()
+        + ":"
+        + frame.getLineNumber();
+  }
+}
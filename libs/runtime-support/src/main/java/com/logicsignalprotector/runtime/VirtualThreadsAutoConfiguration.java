@@ -0,0 +1,27 @@
+package com.logicsignalprotector.runtime;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Pinning monitor for every service that runs on virtual threads ({@code
+ * spring.threads.virtual.enabled=true}, {@code VIRTUAL_THREADS} in the services' configs).
+ */
+@AutoConfiguration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean
+  public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+      MeterRegistry meterRegistry,
+      @Value("${jvm.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+    return new VirtualThreadPinningMonitor(meterRegistry, threshold);
+  }
+}
@@ -0,0 +1,43 @@
+package com.logicsignalprotector.runtime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+class VirtualThreadsAutoConfigurationTest {
+
+  private final ApplicationContextRunner runner =
+      new ApplicationContextRunner()
+          // SpringApplication installs it; @Value durations like "20ms" need it.
+          .withInitializer(
+              ctx ->
+                  ctx.getBeanFactory()
+                      .setConversionService(ApplicationConversionService.getSharedInstance()))
+          .withConfiguration(AutoConfigurations.of(VirtualThreadsAutoConfiguration.class))
+          .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+  @Test
+  void platformThreadsHaveNoMonitor() {
+    runner.run(ctx -> assertThat(ctx).doesNotHaveBean(VirtualThreadPinningMonitor.class));
+  }
+
+  @Test
+  void virtualThreadsStartTheMonitorAndRegisterTheTimer() {
+    runner
+        .withPropertyValues(
+            "spring.threads.virtual.enabled=true", "jvm.virtual-threads.pinned-threshold=5ms")
+        .run(
+            ctx -> {
+              assertThat(ctx).hasSingleBean(VirtualThreadPinningMonitor.class);
+              assertThat(ctx.getBean(VirtualThreadPinningMonitor.class).isRunning()).isTrue();
+              assertThat(
+                      ctx.getBean(MeterRegistry.class).find("jvm.threads.virtual.pinned").timer())
+                  .isNotNull();
+            });
+  }
+}
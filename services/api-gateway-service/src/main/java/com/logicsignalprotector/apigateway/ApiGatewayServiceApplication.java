@@ -2,8 +2,10 @@ package com.logicsignalprotector.apigateway;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class ApiGatewayServiceApplication {
 
   public static void main(String[] args) {
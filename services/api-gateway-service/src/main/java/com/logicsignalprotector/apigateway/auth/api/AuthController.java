@@ -2,6 +2,7 @@ package com.logicsignalprotector.apigateway.auth.api;
 
 import com.logicsignalprotector.apigateway.auth.api.dto.LoginRequest;
 import com.logicsignalprotector.apigateway.auth.api.dto.LogoutRequest;
+import com.logicsignalprotector.apigateway.auth.api.dto.PermissionDictionaryResponse;
 import com.logicsignalprotector.apigateway.auth.api.dto.RefreshRequest;
 import com.logicsignalprotector.apigateway.auth.api.dto.RegisterRequest;
 import com.logicsignalprotector.apigateway.auth.api.dto.RegisterResponse;
@@ -9,6 +10,7 @@ import com.logicsignalprotector.apigateway.auth.api.dto.TokensResponse;
 import com.logicsignalprotector.apigateway.auth.api.mapper.AuthApiMapper;
 import com.logicsignalprotector.apigateway.auth.domain.UserEntity;
 import com.logicsignalprotector.apigateway.auth.service.AuthAuditService;
+import com.logicsignalprotector.apigateway.auth.service.PermissionService;
 import com.logicsignalprotector.apigateway.auth.service.RefreshTokenService;
 import com.logicsignalprotector.apigateway.auth.service.TokenService;
 import com.logicsignalprotector.apigateway.auth.service.UserService;
@@ -31,6 +33,26 @@ public class AuthController {
   private final AuthAuditService audit;
   private final RedisRateLimitService rateLimit;
   private final AuthApiMapper mapper;
+  private final PermissionService permissionService;
+
+  /** Current dictionary of the {@code pv}/{@code pb} access token claims. */
+  @GetMapping("/permissions")
+  public PermissionDictionaryResponse permissions() {
+    var dict = permissionService.currentDictionary();
+    return new PermissionDictionaryResponse(dict.version(), dict.codes());
+  }
+
+  /**
+   * Dictionary of one version; resource servers fetch the one a token names, which may be older
+   * than the current one. 404 if this instance has never seen it.
+   */
+  @GetMapping("/permissions/{version}")
+  public ResponseEntity<PermissionDictionaryResponse> permissions(@PathVariable String version) {
+    var dict = permissionService.dictionary(version);
+    return dict == null
+        ? ResponseEntity.notFound().build()
+        : ResponseEntity.ok(new PermissionDictionaryResponse(dict.version(), dict.codes()));
+  }
 
   @PostMapping("/register")
   public ResponseEntity<RegisterResponse> register(
@@ -0,0 +1,8 @@
+package com.logicsignalprotector.apigateway.auth.api.dto;
+
+import java.util.List;
+
+/**
+ * Permission catalogue for decoding the {@code pb} claim: bit i of the mask is {@code codes[i]}.
+ */
+public record PermissionDictionaryResponse(String version, List<String> codes) {}
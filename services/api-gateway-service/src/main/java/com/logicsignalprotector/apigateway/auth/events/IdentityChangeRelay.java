@@ -0,0 +1,41 @@
+package com.logicsignalprotector.apigateway.auth.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Publishes {@link IdentityChangedEvent} to Redis pub/sub after the transaction commits, so
+ * services caching resolve results (command-center) drop them. Best effort: the consumers' TTL
+ * bounds staleness if Redis is down.
+ */
+@Component
+@Slf4j
+public class IdentityChangeRelay {
+
+  private final StringRedisTemplate redis;
+  private final ObjectMapper json;
+  private final String channel;
+
+  public IdentityChangeRelay(
+      StringRedisTemplate redis,
+      ObjectMapper json,
+      @Value("${identity.events.channel:lsp:identity:changed}") String channel) {
+    this.redis = redis;
+    this.json = json;
+    this.channel = channel;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onChanged(IdentityChangedEvent event) {
+    try {
+      redis.convertAndSend(channel, json.writeValueAsString(event));
+    } catch (Exception e) {
+      log.warn(
+          "Failed to publish identity change for userId={}: {}", event.userId(), e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.logicsignalprotector.apigateway.auth.events;
+
+/**
+ * A user's links, roles or permission overrides changed. {@code providerCode}/{@code
+ * externalUserId} are set for link/unlink, so caches can also drop a negative (not linked) entry.
+ */
+public record IdentityChangedEvent(Long userId, String providerCode, String externalUserId) {
+
+  public static IdentityChangedEvent user(Long userId) {
+    return new IdentityChangedEvent(userId, null, null);
+  }
+}
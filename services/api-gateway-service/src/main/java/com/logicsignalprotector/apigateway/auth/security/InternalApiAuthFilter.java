@@ -10,7 +10,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-/** Step 1.3: protects /internal/** endpoints with a shared token header. */
+/**
+ * Step 1.3: protects /internal/** endpoints with a shared token header. The permission dictionaries
+ * ({@code /api/auth/permissions}, fetched by resource servers) are guarded the same way.
+ */
 @Component
 @Slf4j
 public class InternalApiAuthFilter extends OncePerRequestFilter {
@@ -24,7 +27,10 @@ public class InternalApiAuthFilter extends OncePerRequestFilter {
   @Override
   protected boolean shouldNotFilter(HttpServletRequest request) {
     String path = request.getServletPath();
-    return path == null || !path.startsWith("/internal/");
+    return path == null
+        || !(path.startsWith("/internal/")
+            || path.equals("/api/auth/permissions")
+            || path.startsWith("/api/auth/permissions/"));
   }
 
   @Override
@@ -1,5 +1,7 @@
 package com.logicsignalprotector.apigateway.auth.security;
 
+import com.logicsignalprotector.apigateway.auth.service.PermissionService;
+import com.logicsignalprotector.security.jwt.JwtAuthConverter;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import java.nio.charset.StandardCharsets;
 import javax.crypto.SecretKey;
@@ -27,7 +29,10 @@ public class SecurityConfig {
 
   @Bean
   public SecurityFilterChain securityFilterChain(
-      HttpSecurity http, InternalApiAuthFilter internalApiAuthFilter) throws Exception {
+      HttpSecurity http,
+      InternalApiAuthFilter internalApiAuthFilter,
+      JwtAuthenticationConverter jwtAuthenticationConverter)
+      throws Exception {
     http.csrf(csrf -> csrf.disable())
         .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(
@@ -43,24 +48,34 @@ public class SecurityConfig {
                         "/api/auth/refresh",
                         "/api/auth/logout",
                         "/actuator/info",
+                        // Guarded by InternalApiAuthFilter instead of a JWT.
+                        "/api/auth/permissions",
+                        "/api/auth/permissions/*",
                         "/internal/**")
                     .permitAll()
                     .anyRequest()
                     .authenticated())
         .oauth2ResourceServer(
             oauth2 ->
-                oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())));
+                oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter)));
 
-    // Step 1.3: internal endpoints are protected by a shared header token.
+    // Step 1.3: internal endpoints (and permission dictionaries) are protected by a shared header
+    // token.
     http.addFilterBefore(internalApiAuthFilter, BearerTokenAuthenticationFilter.class);
 
     return http.build();
   }
 
   @Bean
-  public JwtAuthenticationConverter jwtAuthenticationConverter() {
+  public JwtAuthenticationConverter jwtAuthenticationConverter(
+      PermissionService permissionService) {
     JwtAuthenticationConverter c = new JwtAuthenticationConverter();
-    c.setJwtGrantedAuthoritiesConverter(new JwtAuthConverter());
+    c.setJwtGrantedAuthoritiesConverter(
+        new JwtAuthConverter(
+            version -> {
+              var dict = permissionService.dictionary(version);
+              return dict == null ? null : dict.codes();
+            }));
     return c;
   }
 
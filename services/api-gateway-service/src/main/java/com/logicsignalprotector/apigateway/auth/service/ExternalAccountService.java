@@ -2,10 +2,12 @@ package com.logicsignalprotector.apigateway.auth.service;
 
 import com.logicsignalprotector.apigateway.auth.domain.ExternalAccountEntity;
 import com.logicsignalprotector.apigateway.auth.domain.UserEntity;
+import com.logicsignalprotector.apigateway.auth.events.IdentityChangedEvent;
 import com.logicsignalprotector.apigateway.auth.repository.ExternalAccountRepository;
 import com.logicsignalprotector.apigateway.common.web.ConflictException;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +19,7 @@ public class ExternalAccountService {
       "TELEGRAM"; // reserved for Telegram adapter (step 1.3)
 
   private final ExternalAccountRepository externalAccountRepository;
+  private final ApplicationEventPublisher events;
 
   /** Step 1.3: generic method (needed for multiple chat providers in the future). */
   @Transactional
@@ -46,5 +49,6 @@ public class ExternalAccountService {
 
     ExternalAccountEntity entity = new ExternalAccountEntity(user, providerCode, externalId);
     externalAccountRepository.save(entity);
+    events.publishEvent(new IdentityChangedEvent(user.getId(), providerCode, externalId));
   }
 }
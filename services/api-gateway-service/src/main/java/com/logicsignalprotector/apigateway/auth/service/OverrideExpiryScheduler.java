@@ -0,0 +1,53 @@
+package com.logicsignalprotector.apigateway.auth.service;
+
+import com.logicsignalprotector.apigateway.auth.events.IdentityChangedEvent;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Announces permission overrides that expired since the previous run as {@link
+ * IdentityChangedEvent}s, so cached permissions (here, and on other gateway instances and in
+ * command-center via Redis pub/sub) change when the override ends rather than on their TTL. Each
+ * instance scans independently; a duplicate event only costs a re-materialization.
+ */
+@Component
+@Slf4j
+public class OverrideExpiryScheduler {
+
+  private final JdbcTemplate jdbc;
+  private final ApplicationEventPublisher events;
+  private Instant lastRun = Instant.now();
+
+  public OverrideExpiryScheduler(JdbcTemplate jdbc, ApplicationEventPublisher events) {
+    this.jdbc = jdbc;
+    this.events = events;
+  }
+
+  @Scheduled(fixedDelayString = "${permissions.overrides.expiry-check:PT15S}")
+  public void announceExpired() {
+    Instant now = Instant.now();
+    List<Long> userIds;
+    try {
+      userIds =
+          jdbc.query(
+              "SELECT DISTINCT user_id FROM user_permission_overrides "
+                  + "WHERE expires_at > ? AND expires_at <= ?",
+              (rs, rowNum) -> rs.getLong(1),
+              Timestamp.from(lastRun),
+              Timestamp.from(now));
+    } catch (Exception e) {
+      log.warn("Failed to scan expired permission overrides: {}", e.getMessage());
+      return;
+    }
+    lastRun = now;
+    for (Long userId : userIds) {
+      events.publishEvent(IdentityChangedEvent.user(userId));
+    }
+  }
+}
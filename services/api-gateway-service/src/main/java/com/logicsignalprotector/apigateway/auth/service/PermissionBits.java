@@ -0,0 +1,59 @@
+package com.logicsignalprotector.apigateway.auth.service;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable permission set stored as one bit per {@link PermissionDictionary} entry: {@code
+ * contains} is a map lookup plus a bit test, iteration is in code order.
+ */
+final class PermissionBits extends AbstractSet<String> {
+
+  private final PermissionDictionary dictionary;
+  private final BitSet bits;
+  private final int size;
+
+  PermissionBits(PermissionDictionary dictionary, BitSet bits) {
+    this.dictionary = dictionary;
+    this.bits = (BitSet) bits.clone();
+    this.size = this.bits.cardinality();
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof String code)) {
+      return false;
+    }
+    int i = dictionary.indexOf(code);
+    return i >= 0 && bits.get(i);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<>() {
+      private int next = bits.nextSetBit(0);
+
+      @Override
+      public boolean hasNext() {
+        return next >= 0;
+      }
+
+      @Override
+      public String next() {
+        if (next < 0) {
+          throw new NoSuchElementException();
+        }
+        String code = dictionary.code(next);
+        next = bits.nextSetBit(next + 1);
+        return code;
+      }
+    };
+  }
+}
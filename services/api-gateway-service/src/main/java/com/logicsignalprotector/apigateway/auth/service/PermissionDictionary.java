@@ -0,0 +1,78 @@
+package com.logicsignalprotector.apigateway.auth.service;
+
+import com.logicsignalprotector.security.jwt.PermissionBitmask;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All permission codes in code order; the position of a code is its bit in {@link PermissionBits}
+ * and in the {@code pb} claim of access tokens. The version is derived from the codes, so every
+ * gateway instance with the same catalogue publishes the same one.
+ */
+public final class PermissionDictionary {
+
+  private final List<String> codes;
+  private final Map<String, Integer> index;
+  private final String version;
+
+  PermissionDictionary(List<String> sortedCodes) {
+    this.codes = List.copyOf(sortedCodes);
+    this.index = new HashMap<>(codes.size() * 2);
+    for (int i = 0; i < codes.size(); i++) {
+      index.put(codes.get(i), i);
+    }
+    this.version = versionOf(codes);
+  }
+
+  public String version() {
+    return version;
+  }
+
+  public List<String> codes() {
+    return codes;
+  }
+
+  int size() {
+    return codes.size();
+  }
+
+  /** Bit of the code, or -1 if the permission is unknown. */
+  int indexOf(String code) {
+    Integer i = index.get(code);
+    return i == null ? -1 : i;
+  }
+
+  String code(int index) {
+    return codes.get(index);
+  }
+
+  /** Base64url bitmask of the codes, or null if one of them is not in this dictionary. */
+  public String encode(Collection<String> permCodes) {
+    BitSet bits = new BitSet(codes.size());
+    for (String code : permCodes) {
+      int i = indexOf(code);
+      if (i < 0) {
+        return null;
+      }
+      bits.set(i);
+    }
+    return PermissionBitmask.encode(bits);
+  }
+
+  private static String versionOf(List<String> codes) {
+    try {
+      MessageDigest sha = MessageDigest.getInstance("SHA-256");
+      byte[] digest = sha.digest(String.join("\n", codes).getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest, 0, 4);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
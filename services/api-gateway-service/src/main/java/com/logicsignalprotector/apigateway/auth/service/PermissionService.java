@@ -1,50 +1,289 @@
 package com.logicsignalprotector.apigateway.auth.service;
 
+import com.logicsignalprotector.apigateway.auth.events.IdentityChangeRelay;
+import com.logicsignalprotector.apigateway.auth.events.IdentityChangedEvent;
+import com.logicsignalprotector.identity.events.IdentityChange;
+import com.logicsignalprotector.identity.events.IdentityChangeListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
- * Step 1.3 (stub): calculates effective permissions for a user.
+ * Effective permissions of a user, materialized and cached per user.
  *
  * <p>Model: - role-based permissions (user_roles -> role_permissions -> permissions) - per-user
  * overrides (user_permission_overrides)
  *
  * <p>Rules: - if override exists and is_allowed=false -> permission is denied (DENY wins) - if
  * override exists and is_allowed=true -> permission is granted - expired overrides are ignored
+ *
+ * <p>Effective permissions are materialized per user as {@link PermissionBits} on first use and
+ * kept until {@code permissions.cache.ttl} or the earliest expiry of the user's overrides,
+ * whichever comes first. An entry is dropped on every {@link IdentityChangedEvent} (roles,
+ * overrides, links) once the transaction completes; other instances drop it when the event reaches
+ * them over {@code identity.events.channel} (as an {@link IdentityChangeListener}). The Redis
+ * counter {@code permissions.cache.version-key} is bumped only when the permission catalogue
+ * changes, and every instance clears everything when it sees the counter move (an {@code INCR} by
+ * hand is a full flush). If Redis is down, other instances lag by at most the TTL.
  */
 @Service
-@RequiredArgsConstructor
-public class PermissionService {
+@Slf4j
+public class PermissionService implements IdentityChangeListener {
 
   private final JdbcTemplate jdbc;
+  private final StringRedisTemplate redis;
   private static final String PERM_DEVGOD = "DEVGOD";
 
+  private final long ttlNanos;
+  private final int maxSize;
+  private final String versionKey;
+
+  private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+  // When each user (or everyone) was last dropped; a set materialized concurrently with its user's
+  // invalidation is returned, not stored. Past maxSize users the map is forgotten in favour of all.
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicLong allInvalidated = new AtomicLong();
+  private final Map<Long, Long> invalidated = new ConcurrentHashMap<>();
+  private volatile PermissionDictionary dictionary;
+  // Version of the last catalogue loaded, to notice a change (set once the first one is loaded).
+  private volatile String catalogueVersion;
+  // Every dictionary seen by this instance, for tokens issued before a catalogue change.
+  private final Map<String, PermissionDictionary> dictionaries = new ConcurrentHashMap<>();
+  private volatile long nextDictionaryReload;
+  private volatile String lastVersion;
+  private final Counter hits;
+  private final Counter misses;
+
+  public PermissionService(
+      JdbcTemplate jdbc,
+      StringRedisTemplate redis,
+      MeterRegistry meterRegistry,
+      @Value("${permissions.cache.ttl:PT10M}") Duration ttl,
+      @Value("${permissions.cache.max-size:10000}") int maxSize,
+      @Value("${permissions.cache.version-key:lsp:perms:version}") String versionKey) {
+    this.jdbc = jdbc;
+    this.redis = redis;
+    this.ttlNanos = ttl.toNanos();
+    this.maxSize = maxSize;
+    this.versionKey = versionKey;
+    this.hits = meterRegistry.counter("permissions.cache.requests", "result", "hit");
+    this.misses = meterRegistry.counter("permissions.cache.requests", "result", "miss");
+    Gauge.builder("permissions.cache.size", entries, Map::size).register(meterRegistry);
+  }
+
   public Set<String> getEffectivePermissionCodes(long userId) {
-    Set<String> raw = getRawPermissionCodes(userId);
-    if (raw.contains(PERM_DEVGOD)) {
-      return Collections.unmodifiableSet(new HashSet<>(loadAllPermissionCodes()));
+    long now = System.nanoTime();
+    Entry cached = entries.get(userId);
+    if (cached != null && now - cached.validUntil() < 0) {
+      hits.increment();
+      return cached.perms();
+    }
+    misses.increment();
+
+    long stamp = clock.get();
+    Entry entry = materialize(userId);
+    if (ttlNanos > 0 && !invalidatedSince(stamp, userId)) {
+      if (entries.size() >= maxSize) {
+        evictExpired();
+      }
+      entries.put(userId, entry);
+      if (invalidatedSince(stamp, userId)) {
+        entries.remove(userId, entry);
+      }
     }
-    return Collections.unmodifiableSet(raw);
+    return entry.perms();
   }
 
   public Set<String> getRawPermissionCodes(long userId) {
     Set<String> effective = new HashSet<>(loadRolePermissions(userId));
-    Map<String, Boolean> overrides = loadActiveOverrides(userId);
-    for (Map.Entry<String, Boolean> e : overrides.entrySet()) {
-      String code = e.getKey();
-      boolean allowed = e.getValue();
-      if (allowed) {
-        effective.add(code);
+    for (OverrideRow o : loadActiveOverrides(userId)) {
+      if (o.allowed()) {
+        effective.add(o.code());
       } else {
-        effective.remove(code);
+        effective.remove(o.code());
       }
     }
 
     return Collections.unmodifiableSet(effective);
   }
 
+  /** Drops the user's materialized permissions on this instance (e.g. inside an RBAC change). */
+  public void invalidate(Long userId) {
+    if (userId == null) {
+      return;
+    }
+    invalidated.put(userId, clock.incrementAndGet());
+    if (invalidated.size() > maxSize) {
+      forgetInvalidations(clock.get());
+    }
+    entries.remove(userId);
+  }
+
+  /** Drops everything materialized on this instance. */
+  public void invalidateAll() {
+    forgetInvalidations(clock.incrementAndGet());
+    entries.clear();
+    dictionary = null;
+  }
+
+  private boolean invalidatedSince(long stamp, long userId) {
+    return allInvalidated.get() > stamp || invalidated.getOrDefault(userId, 0L) > stamp;
+  }
+
+  private void forgetInvalidations(long at) {
+    allInvalidated.accumulateAndGet(at, Math::max);
+    invalidated.clear();
+  }
+
+  /**
+   * Roles, overrides or links changed: drop locally. The other instances get the same event from
+   * {@link IdentityChangeRelay}'s channel.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+  public void onIdentityChanged(IdentityChangedEvent event) {
+    invalidate(event.userId());
+  }
+
+  /** Published by some gateway instance, this one included (costs one extra materialization). */
+  @Override
+  public void identityChanged(IdentityChange change) {
+    invalidate(change.userId());
+  }
+
+  @Override
+  public void identityEventsLost() {
+    invalidateAll();
+  }
+
+  @Scheduled(fixedDelayString = "${permissions.cache.version-poll:PT2S}")
+  public void pollVersion() {
+    String version;
+    try {
+      version = redis.opsForValue().get(versionKey);
+    } catch (Exception e) {
+      log.debug("Failed to read permissions version: {}", e.getMessage());
+      return;
+    }
+    if (!Objects.equals(version, lastVersion)) {
+      if (lastVersion != null) {
+        invalidateAll();
+      }
+      lastVersion = version;
+    }
+  }
+
+  private Entry materialize(long userId) {
+    Set<String> raw = new HashSet<>(loadRolePermissions(userId));
+    Instant nextExpiry = null;
+    for (OverrideRow o : loadActiveOverrides(userId)) {
+      if (o.allowed()) {
+        raw.add(o.code());
+      } else {
+        raw.remove(o.code());
+      }
+      if (o.expiresAt() != null && (nextExpiry == null || o.expiresAt().isBefore(nextExpiry))) {
+        nextExpiry = o.expiresAt();
+      }
+    }
+
+    PermissionDictionary dict = currentDictionary();
+    BitSet bits = toBits(dict, raw);
+    if (bits == null) {
+      // A permission added after the dictionary was loaded (migration by a newer instance).
+      dictionary = null;
+      dict = currentDictionary();
+      bits = toBits(dict, raw);
+      if (bits == null) {
+        throw new IllegalStateException("Unknown permission code for userId=" + userId);
+      }
+    }
+    if (raw.contains(PERM_DEVGOD)) {
+      bits.set(0, dict.size());
+    }
+
+    long now = System.nanoTime();
+    long validUntil = now + ttlNanos;
+    if (nextExpiry != null) {
+      // The set changes when the first override expires; OverrideExpiryScheduler tells the others.
+      long untilExpiry = Duration.between(Instant.now(), nextExpiry).toNanos();
+      validUntil = Math.min(validUntil, now + Math.max(0, untilExpiry));
+    }
+    return new Entry(new PermissionBits(dict, bits), validUntil);
+  }
+
+  private static BitSet toBits(PermissionDictionary dict, Set<String> codes) {
+    BitSet bits = new BitSet(dict.size());
+    for (String code : codes) {
+      int i = dict.indexOf(code);
+      if (i < 0) {
+        return null;
+      }
+      bits.set(i);
+    }
+    return bits;
+  }
+
+  /** Dictionary of the current permission catalogue, published to resource servers. */
+  public PermissionDictionary currentDictionary() {
+    PermissionDictionary dict = dictionary;
+    if (dict == null) {
+      dict = new PermissionDictionary(loadAllPermissionCodes());
+      dictionaries.putIfAbsent(dict.version(), dict);
+      dictionary = dict;
+      String previous = catalogueVersion;
+      catalogueVersion = dict.version();
+      if (previous != null && !previous.equals(dict.version())) {
+        // Bits materialized elsewhere use the old catalogue; make every instance start over.
+        bumpVersion();
+      }
+    }
+    return dict;
+  }
+
+  private void bumpVersion() {
+    try {
+      redis.opsForValue().increment(versionKey);
+    } catch (Exception e) {
+      log.debug("Failed to bump permissions version: {}", e.getMessage());
+    }
+  }
+
+  /** Dictionary a token was encoded with, or null if this instance has never seen it. */
+  public PermissionDictionary dictionary(String version) {
+    PermissionDictionary dict = dictionaries.get(version);
+    if (dict == null && System.nanoTime() - nextDictionaryReload >= 0) {
+      // Issued by an instance with a newer catalogue; reload at most once per second.
+      nextDictionaryReload = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+      dictionary = null;
+      currentDictionary();
+      dict = dictionaries.get(version);
+    }
+    return dict;
+  }
+
+  private void evictExpired() {
+    long now = System.nanoTime();
+    entries.values().removeIf(e -> now - e.validUntil() >= 0);
+    if (entries.size() >= maxSize) {
+      log.debug("Permissions cache is full ({} entries), clearing", entries.size());
+      entries.clear();
+    }
+  }
+
   private List<String> loadAllPermissionCodes() {
     String sql = "SELECT code FROM permissions ORDER BY code";
     return jdbc.query(sql, (rs, rowNum) -> rs.getString(1));
@@ -61,22 +300,25 @@ public class PermissionService {
     return jdbc.query(sql, (rs, rowNum) -> rs.getString(1), userId);
   }
 
-  private Map<String, Boolean> loadActiveOverrides(long userId) {
+  private List<OverrideRow> loadActiveOverrides(long userId) {
     String sql =
-        "SELECT p.code, uo.is_allowed "
+        "SELECT p.code, uo.is_allowed, uo.expires_at "
             + "FROM user_permission_overrides uo "
             + "JOIN permissions p ON p.id = uo.permission_id "
             + "WHERE uo.user_id = ? "
             + "  AND (uo.expires_at IS NULL OR uo.expires_at > NOW())";
 
-    Map<String, Boolean> out = new HashMap<>();
-    jdbc.query(
+    return jdbc.query(
         sql,
-        rs -> {
-          out.put(rs.getString(1), rs.getBoolean(2));
+        (rs, rowNum) -> {
+          Timestamp expiresAt = rs.getTimestamp(3);
+          return new OverrideRow(
+              rs.getString(1), rs.getBoolean(2), expiresAt == null ? null : expiresAt.toInstant());
         },
         userId);
-
-    return out;
   }
+
+  private record OverrideRow(String code, boolean allowed, Instant expiresAt) {}
+
+  private record Entry(Set<String> perms, long validUntil) {}
 }
@@ -1,42 +1,74 @@
 package com.logicsignalprotector.apigateway.auth.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.logicsignalprotector.apigateway.auth.domain.UserEntity;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.stereotype.Service;
 
 @Service
-@RequiredArgsConstructor
 public class TokenService {
 
   private final JwtEncoder jwtEncoder;
   private final PermissionService permissionService;
+  private final String issuer;
+  private final Duration accessTtl;
+  private final Duration reuseMinRemaining;
+  // pv/pb claims (dictionary version + bitmask) instead of the perms list.
+  private final boolean permBits;
 
-  @Value("${security.jwt.issuer:lsp-api-gateway}")
-  private String issuer;
+  // userId -> last session token from accessTokenFor (in-process, per gateway instance). An entry
+  // is reusable only until less than reuseMinRemaining is left, so it expires then.
+  private final Cache<Long, IssuedToken> sessions;
 
-  @Value("${security.jwt.access-ttl:PT15M}")
-  private Duration accessTtl;
+  public TokenService(
+      JwtEncoder jwtEncoder,
+      PermissionService permissionService,
+      @Value("${security.jwt.issuer:lsp-api-gateway}") String issuer,
+      @Value("${security.jwt.access-ttl:PT15M}") Duration accessTtl,
+      @Value("${security.jwt.access-reuse-min-remaining:PT10M}") Duration reuseMinRemaining,
+      @Value("${security.jwt.access-reuse-max-entries:10000}") int reuseMaxEntries,
+      @Value("${security.jwt.perm-bits:true}") boolean permBits) {
+    this.jwtEncoder = jwtEncoder;
+    this.permissionService = permissionService;
+    this.issuer = issuer;
+    this.accessTtl = accessTtl;
+    this.reuseMinRemaining = reuseMinRemaining;
+    this.permBits = permBits;
+    Duration reusable = accessTtl.minus(reuseMinRemaining);
+    this.sessions =
+        Caffeine.newBuilder()
+            .maximumSize(reuseMaxEntries)
+            .expireAfterWrite(reusable.isNegative() ? Duration.ZERO : reusable)
+            .build();
+  }
 
   public TokenResult issueAccessToken(UserEntity user) {
-    Instant now = Instant.now();
-    Duration ttl = accessTtl;
-
     // Step 1.3: compute effective permissions from DB (role-permissions + user overrides)
-    var roleCodes = user.getRoles().stream().map(r -> r.getCode()).collect(Collectors.toList());
+    var roleCodes =
+        user.getRoles().stream().map(r -> r.getCode()).sorted().collect(Collectors.toList());
     var permCodes =
         permissionService
             .getEffectivePermissionCodes(user.getId() == null ? -1L : user.getId())
             .stream()
             .sorted()
             .collect(Collectors.toList());
+    return issueAccessToken(user, roleCodes, permCodes);
+  }
+
+  /** Same as {@link #issueAccessToken(UserEntity)} for callers that already computed the claims. */
+  public TokenResult issueAccessToken(
+      UserEntity user, List<String> roleCodes, List<String> permCodes) {
+    Instant now = Instant.now();
+    Duration ttl = accessTtl;
 
-    JwtClaimsSet claims =
+    JwtClaimsSet.Builder claims =
         JwtClaimsSet.builder()
             .issuer(issuer) // из security.jwt.issuer (по умолчанию lsp-api-gateway)
             .issuedAt(now) // текущее время
@@ -46,15 +78,69 @@ public class TokenService {
             // PT15M)
             .subject(user.getLogin())
             .claim("uid", user.getId()) // userId
-            .claim("roles", roleCodes)
-            .claim("perms", permCodes)
-            .build();
+            .claim("roles", roleCodes);
+    PermissionDictionary dict = permBits ? permissionService.currentDictionary() : null;
+    String encoded = dict == null ? null : dict.encode(permCodes);
+    if (encoded != null) {
+      claims.claim("pv", dict.version()).claim("pb", encoded);
+    } else {
+      claims.claim("perms", permCodes);
+    }
 
     JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
 
-    return new TokenResult(
-        jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue(), ttl);
+    String token =
+        jwtEncoder.encode(JwtEncoderParameters.from(header, claims.build())).getTokenValue();
+    return new TokenResult(token, ttl, encoded == null ? null : dict.version());
   }
 
-  public record TokenResult(String token, Duration ttl) {}
+  /**
+   * Internal session: hands out the user's last token again while its claims (login, roles, perms)
+   * are unchanged and at least {@code security.jwt.access-reuse-min-remaining} is left, instead of
+   * signing a new one per request. A permission change changes the claims, so a stale token is
+   * never reused. Nor is a token encoded with a dictionary that is no longer current: resource
+   * servers that never saw the old version could not decode it. Only tokens handed out here are
+   * remembered, not the login/refresh ones.
+   */
+  public TokenResult accessTokenFor(
+      UserEntity user, List<String> roleCodes, List<String> permCodes) {
+    if (user.getId() == null) {
+      return issueAccessToken(user, roleCodes, permCodes);
+    }
+    IssuedToken last = sessions.getIfPresent(user.getId());
+    if (last != null
+        && last.login().equals(user.getLogin())
+        && last.roleCodes().equals(roleCodes)
+        && last.permCodes().equals(permCodes)
+        && (last.permVersion() == null
+            || last.permVersion().equals(permissionService.currentDictionary().version()))) {
+      Duration remaining = Duration.between(Instant.now(), last.expiresAt());
+      if (remaining.compareTo(reuseMinRemaining) >= 0) {
+        return new TokenResult(last.token(), remaining, last.permVersion());
+      }
+    }
+    Instant now = Instant.now();
+    TokenResult fresh = issueAccessToken(user, roleCodes, permCodes);
+    sessions.put(
+        user.getId(),
+        new IssuedToken(
+            user.getLogin(),
+            List.copyOf(roleCodes),
+            List.copyOf(permCodes),
+            fresh.permVersion(),
+            fresh.token(),
+            now.plus(fresh.ttl())));
+    return fresh;
+  }
+
+  private record IssuedToken(
+      String login,
+      List<String> roleCodes,
+      List<String> permCodes,
+      String permVersion,
+      String token,
+      Instant expiresAt) {}
+
+  /** {@code permVersion} is the {@code pv} claim, null when the token carries the perms list. */
+  public record TokenResult(String token, Duration ttl, String permVersion) {}
 }
@@ -75,7 +75,6 @@ public class InternalAuthController {
   }
 
   private InternalDtos.TokensResponse issueAccessForUser(UserEntity user) {
-    var access = tokenService.issueAccessToken(user);
     Long userId = user.getId();
     List<String> roles =
         user.getRoles().stream().map(r -> r.getCode()).sorted().collect(Collectors.toList());
@@ -83,6 +82,7 @@ public class InternalAuthController {
         permissionService.getEffectivePermissionCodes(userId).stream()
             .sorted()
             .collect(Collectors.toList());
+    var access = tokenService.issueAccessToken(user, roles, perms);
 
     return new InternalDtos.TokensResponse(
         access.token(), "Bearer", access.ttl().toSeconds(), userId, user.getLogin(), roles, perms);
@@ -1,12 +1,15 @@
 package com.logicsignalprotector.apigateway.internal.api;
 
+import com.logicsignalprotector.apigateway.auth.events.IdentityChangedEvent;
 import com.logicsignalprotector.apigateway.auth.repository.ExternalAccountRepository;
 import com.logicsignalprotector.apigateway.auth.service.AuthAuditService;
 import com.logicsignalprotector.apigateway.auth.service.PermissionService;
+import com.logicsignalprotector.apigateway.auth.service.TokenService;
 import com.logicsignalprotector.apigateway.internal.api.dto.InternalDtos;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -19,15 +22,21 @@ public class InternalIdentityController {
 
   private final ExternalAccountRepository externalAccounts;
   private final PermissionService permissionService;
+  private final TokenService tokenService;
   private final AuthAuditService audit;
+  private final ApplicationEventPublisher events;
 
   public InternalIdentityController(
       ExternalAccountRepository externalAccounts,
       PermissionService permissionService,
-      AuthAuditService audit) {
+      TokenService tokenService,
+      AuthAuditService audit,
+      ApplicationEventPublisher events) {
     this.externalAccounts = externalAccounts;
     this.permissionService = permissionService;
+    this.tokenService = tokenService;
     this.audit = audit;
+    this.events = events;
   }
 
   /** Step 1.3: resolve our internal user by (providerCode, externalUserId). */
@@ -54,6 +63,43 @@ public class InternalIdentityController {
         true, userId, user.getLogin(), displayName, roles, perms);
   }
 
+  /**
+   * Resolve and issue-access in one round trip: link status, roles, perms and an access token built
+   * from the same permission computation. The token is reused while its claims are unchanged (see
+   * {@link TokenService#accessTokenFor}).
+   */
+  @PostMapping("/session")
+  @Transactional(readOnly = true)
+  public InternalDtos.SessionResponse session(@Valid @RequestBody InternalDtos.ResolveRequest req) {
+    var opt =
+        externalAccounts.findByProviderCodeAndExternalId(req.providerCode(), req.externalUserId());
+    if (opt.isEmpty()) {
+      return new InternalDtos.SessionResponse(
+          false, null, null, null, List.of(), List.of(), null, null, 0);
+    }
+
+    var user = opt.get().getUser();
+    Long userId = user.getId();
+    List<String> roles =
+        user.getRoles().stream().map(r -> r.getCode()).sorted().collect(Collectors.toList());
+    List<String> perms =
+        permissionService.getEffectivePermissionCodes(userId).stream()
+            .sorted()
+            .collect(Collectors.toList());
+    var access = tokenService.accessTokenFor(user, roles, perms);
+
+    return new InternalDtos.SessionResponse(
+        true,
+        userId,
+        user.getLogin(),
+        user.getLogin(),
+        roles,
+        perms,
+        access.token(),
+        "Bearer",
+        access.ttl().toSeconds());
+  }
+
   /** Step 1.4: unlink external account by (providerCode, externalUserId). Idempotent. */
   @PostMapping("/unlink")
   @Transactional
@@ -65,6 +111,8 @@ public class InternalIdentityController {
       var user = ext.getUser();
       externalAccounts.delete(ext);
       audit.log(user, "TELEGRAM_UNLINK", "internal", "internal", null);
+      events.publishEvent(
+          new IdentityChangedEvent(user.getId(), req.providerCode(), req.externalUserId()));
     }
     return new InternalDtos.OkResponse(true);
   }
@@ -16,6 +16,18 @@ public final class InternalDtos {
       java.util.List<String> roles,
       java.util.List<String> perms) {}
 
+  /** Resolve + access token in one response; token fields are null when not linked. */
+  public record SessionResponse(
+      boolean linked,
+      Long userId,
+      String login,
+      String displayName,
+      java.util.List<String> roles,
+      java.util.List<String> perms,
+      String accessToken,
+      String tokenType,
+      long expiresInSeconds) {}
+
   public record CredentialsLinkRequest(
       @NotBlank String providerCode,
       @NotBlank String externalUserId,
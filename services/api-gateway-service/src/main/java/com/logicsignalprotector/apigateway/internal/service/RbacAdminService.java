@@ -2,6 +2,7 @@ package com.logicsignalprotector.apigateway.internal.service;
 
 import com.logicsignalprotector.apigateway.auth.domain.RoleEntity;
 import com.logicsignalprotector.apigateway.auth.domain.UserEntity;
+import com.logicsignalprotector.apigateway.auth.events.IdentityChangedEvent;
 import com.logicsignalprotector.apigateway.auth.repository.ExternalAccountRepository;
 import com.logicsignalprotector.apigateway.auth.repository.RoleRepository;
 import com.logicsignalprotector.apigateway.auth.repository.UserRepository;
@@ -14,6 +15,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,6 +30,7 @@ public class RbacAdminService {
   private final JdbcTemplate jdbc;
   private final PermissionService permissionService;
   private final AuthAuditService audit;
+  private final ApplicationEventPublisher events;
 
   @Value("${dev.admin-code.enabled:false}")
   private boolean devAdminCodeEnabled;
@@ -67,6 +70,8 @@ public class RbacAdminService {
 
     boolean added = user.getRoles().add(admin);
     users.save(user);
+    permissionService.invalidate(user.getId());
+    events.publishEvent(IdentityChangedEvent.user(user.getId()));
 
     audit.log(
         user, added ? "ADMIN_CODE_SUCCESS" : "ADMIN_CODE_SUCCESS", "internal", "internal", null);
@@ -132,6 +137,8 @@ public class RbacAdminService {
 
     user.getRoles().add(role);
     users.save(user);
+    permissionService.invalidate(user.getId());
+    events.publishEvent(IdentityChangedEvent.user(user.getId()));
 
     audit.log(
         null,
@@ -162,6 +169,8 @@ public class RbacAdminService {
 
     user.getRoles().remove(role);
     users.save(user);
+    permissionService.invalidate(user.getId());
+    events.publishEvent(IdentityChangedEvent.user(user.getId()));
 
     audit.log(
         null,
@@ -213,6 +222,8 @@ public class RbacAdminService {
         "DELETE FROM user_permission_overrides WHERE user_id = ? AND permission_id = ?",
         user.getId(),
         permId);
+    permissionService.invalidate(user.getId());
+    events.publishEvent(IdentityChangedEvent.user(user.getId()));
 
     audit.log(
         null,
@@ -255,6 +266,8 @@ public class RbacAdminService {
             + "  created_at = NOW()";
 
     jdbc.update(sql, user.getId(), permId, allowed, expiresAt, trimOrNull(reason));
+    permissionService.invalidate(user.getId());
+    events.publishEvent(IdentityChangedEvent.user(user.getId()));
 
     audit.log(
         null,
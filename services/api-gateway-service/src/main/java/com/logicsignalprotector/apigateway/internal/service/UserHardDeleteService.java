@@ -1,6 +1,7 @@
 package com.logicsignalprotector.apigateway.internal.service;
 
 import com.logicsignalprotector.apigateway.auth.domain.UserEntity;
+import com.logicsignalprotector.apigateway.auth.events.IdentityChangedEvent;
 import com.logicsignalprotector.apigateway.auth.repository.UserRepository;
 import com.logicsignalprotector.apigateway.auth.service.AuthAuditService;
 import com.logicsignalprotector.apigateway.auth.service.PermissionService;
@@ -9,6 +10,7 @@ import com.logicsignalprotector.apigateway.common.web.NotFoundException;
 import com.logicsignalprotector.apigateway.internal.api.dto.InternalUsersDtos;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,7 @@ public class UserHardDeleteService {
   private final UserRepository users;
   private final PermissionService permissions;
   private final AuthAuditService audit;
+  private final ApplicationEventPublisher events;
 
   @Transactional
   public InternalUsersDtos.HardDeleteResponse hardDelete(
@@ -39,6 +42,7 @@ public class UserHardDeleteService {
     }
 
     users.delete(target);
+    events.publishEvent(IdentityChangedEvent.user(target.getId()));
 
     audit.log(
         null,
@@ -0,0 +1,37 @@
+package com.logicsignalprotector.apigateway.auth.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class InternalApiAuthFilterTest {
+
+  private final InternalApiAuthFilter filter = new InternalApiAuthFilter("secret");
+
+  @Test
+  void permissionDictionariesNeedTheToken() throws Exception {
+    assertThat(status("/api/auth/permissions/f31f0cc1", null)).isEqualTo(401);
+    assertThat(status("/api/auth/permissions", "wrong")).isEqualTo(401);
+    assertThat(status("/api/auth/permissions/f31f0cc1", "secret")).isEqualTo(200);
+  }
+
+  @Test
+  void publicAuthEndpointsAreNotFiltered() throws Exception {
+    assertThat(status("/api/auth/login", null)).isEqualTo(200);
+    assertThat(status("/api/auth/permissionsx", null)).isEqualTo(200);
+  }
+
+  private int status(String path, String token) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+    request.setServletPath(path);
+    if (token != null) {
+      request.addHeader("X-Internal-Token", token);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, new MockFilterChain());
+    return response.getStatus();
+  }
+}
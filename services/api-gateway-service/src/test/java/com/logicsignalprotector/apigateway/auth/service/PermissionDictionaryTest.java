@@ -0,0 +1,52 @@
+package com.logicsignalprotector.apigateway.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.logicsignalprotector.security.jwt.JwtAuthConverter;
+import com.logicsignalprotector.security.jwt.PermissionBitmask;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+class PermissionDictionaryTest {
+
+  private final PermissionDictionary dict =
+      new PermissionDictionary(List.of("ALERTS_READ", "BROKER_TRADE", "DEVGOD", "MARKET_READ"));
+
+  @Test
+  void encodedCodesDecodeBackOnTheResourceServer() {
+    String pb = dict.encode(List.of("MARKET_READ", "ALERTS_READ"));
+
+    assertThat(PermissionBitmask.decode(pb, dict.codes()))
+        .containsExactly("ALERTS_READ", "MARKET_READ");
+
+    JwtAuthConverter converter =
+        new JwtAuthConverter(v -> v.equals(dict.version()) ? dict.codes() : null);
+    Jwt jwt =
+        Jwt.withTokenValue("t")
+            .header("alg", "HS256")
+            .claim("roles", List.of("USER"))
+            .claim("pv", dict.version())
+            .claim("pb", pb)
+            .build();
+    assertThat(converter.convert(jwt).stream().map(GrantedAuthority::getAuthority))
+        .containsExactlyInAnyOrder("ROLE_USER", "PERM_ALERTS_READ", "PERM_MARKET_READ");
+  }
+
+  @Test
+  void unknownCodeCannotBeEncoded() {
+    assertThat(dict.encode(List.of("MARKET_READ", "NOT_A_PERMISSION"))).isNull();
+  }
+
+  @Test
+  void versionDependsOnlyOnTheCodes() {
+    PermissionDictionary same = new PermissionDictionary(List.copyOf(dict.codes()));
+    PermissionDictionary grown =
+        new PermissionDictionary(
+            List.of("ALERTS_READ", "BROKER_TRADE", "DEVGOD", "MARKET_READ", "MARKET_WRITE"));
+
+    assertThat(same.version()).isEqualTo(dict.version());
+    assertThat(grown.version()).isNotEqualTo(dict.version());
+  }
+}
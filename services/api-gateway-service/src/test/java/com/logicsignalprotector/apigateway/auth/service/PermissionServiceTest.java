@@ -0,0 +1,178 @@
+package com.logicsignalprotector.apigateway.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.logicsignalprotector.apigateway.auth.events.IdentityChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+class PermissionServiceTest {
+
+  private static final long USER = 1L;
+  private static final String VERSION_KEY = "test:perms:version";
+
+  private List<String> catalogue = List.of("A", "B", "C", "DEVGOD");
+  private List<String> roles = List.of();
+  private final List<Object[]> overrides = new ArrayList<>();
+  private final AtomicInteger roleQueries = new AtomicInteger();
+  private Runnable duringRoleQuery = () -> {};
+
+  @SuppressWarnings("unchecked")
+  private final ValueOperations<String, String> ops = mock(ValueOperations.class);
+
+  private PermissionService service;
+
+  @BeforeEach
+  void setUp() {
+    StringRedisTemplate redis = mock(StringRedisTemplate.class);
+    when(redis.opsForValue()).thenReturn(ops);
+    JdbcTemplate jdbc = mock(JdbcTemplate.class, this::query);
+    service =
+        new PermissionService(
+            jdbc, redis, new SimpleMeterRegistry(), Duration.ofMinutes(10), 100, VERSION_KEY);
+  }
+
+  @Test
+  void devgodGetsEveryBitOfTheDictionary() {
+    roles = List.of("DEVGOD");
+
+    assertThat(service.getEffectivePermissionCodes(USER))
+        .containsExactlyInAnyOrder("A", "B", "C", "DEVGOD");
+  }
+
+  @Test
+  void denyOverrideWinsOverRoleAndAllowAdds() {
+    roles = List.of("A", "B");
+    overrides.add(new Object[] {"B", false, null});
+    overrides.add(new Object[] {"C", true, null});
+
+    assertThat(service.getEffectivePermissionCodes(USER)).containsExactlyInAnyOrder("A", "C");
+  }
+
+  @Test
+  void entryLivesUntilTheNextOverrideExpiry() throws InterruptedException {
+    roles = List.of("A");
+    overrides.add(new Object[] {"C", true, Timestamp.from(Instant.now().plusSeconds(1))});
+
+    service.getEffectivePermissionCodes(USER);
+    service.getEffectivePermissionCodes(USER);
+    assertThat(roleQueries).hasValue(1);
+
+    Thread.sleep(1_500);
+    service.getEffectivePermissionCodes(USER);
+    assertThat(roleQueries).hasValue(2);
+  }
+
+  @Test
+  void setMaterializedDuringAnInvalidationIsNotCached() {
+    roles = List.of("A");
+    duringRoleQuery =
+        () -> {
+          duringRoleQuery = () -> {};
+          service.invalidate(USER); // RBAC change committed while we were reading
+        };
+
+    assertThat(service.getEffectivePermissionCodes(USER)).containsExactly("A");
+    roles = List.of("A", "B");
+
+    assertThat(service.getEffectivePermissionCodes(USER)).containsExactlyInAnyOrder("A", "B");
+    assertThat(roleQueries).hasValue(2);
+  }
+
+  @Test
+  void anotherUsersInvalidationDoesNotStopCaching() {
+    roles = List.of("A");
+    duringRoleQuery =
+        () -> {
+          duringRoleQuery = () -> {};
+          service.invalidate(USER + 1);
+        };
+
+    service.getEffectivePermissionCodes(USER);
+    service.getEffectivePermissionCodes(USER);
+
+    assertThat(roleQueries).hasValue(1);
+  }
+
+  @Test
+  void identityEventDropsTheUserWithoutBumpingTheCounter() {
+    roles = List.of("A");
+    service.getEffectivePermissionCodes(USER);
+
+    service.onIdentityChanged(IdentityChangedEvent.user(USER));
+    service.getEffectivePermissionCodes(USER);
+
+    assertThat(roleQueries).hasValue(2);
+    verify(ops, never()).increment(anyString());
+  }
+
+  @Test
+  void catalogueChangeBumpsTheCounter() {
+    roles = List.of("A");
+    service.getEffectivePermissionCodes(USER);
+
+    catalogue = List.of("A", "B", "C", "D", "DEVGOD");
+    roles = List.of("A", "D");
+    service.invalidate(USER);
+
+    assertThat(service.getEffectivePermissionCodes(USER)).containsExactlyInAnyOrder("A", "D");
+    verify(ops).increment(VERSION_KEY);
+  }
+
+  @Test
+  void counterMoveClearsEverything() {
+    roles = List.of("A");
+    when(ops.get(VERSION_KEY)).thenReturn("1");
+    service.pollVersion();
+    service.getEffectivePermissionCodes(USER);
+
+    when(ops.get(VERSION_KEY)).thenReturn("2");
+    service.pollVersion();
+    service.getEffectivePermissionCodes(USER);
+
+    assertThat(roleQueries).hasValue(2);
+  }
+
+  private Object query(InvocationOnMock inv) throws Exception {
+    if (!inv.getMethod().getName().equals("query")) {
+      return null;
+    }
+    String sql = inv.getArgument(0);
+    if (sql.startsWith("SELECT code FROM permissions")) {
+      return catalogue;
+    }
+    if (sql.contains("role_permissions")) {
+      roleQueries.incrementAndGet();
+      duringRoleQuery.run();
+      return roles;
+    }
+    RowMapper<?> mapper = inv.getArgument(1);
+    List<Object> rows = new ArrayList<>();
+    for (Object[] row : overrides) {
+      ResultSet rs = mock(ResultSet.class);
+      when(rs.getString(1)).thenReturn((String) row[0]);
+      when(rs.getBoolean(2)).thenReturn((Boolean) row[1]);
+      when(rs.getTimestamp(3)).thenReturn((Timestamp) row[2]);
+      rows.add(mapper.mapRow(rs, rows.size()));
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,127 @@
+package com.logicsignalprotector.apigateway.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.logicsignalprotector.apigateway.auth.domain.UserEntity;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+class TokenServiceTest {
+
+  private final JwtEncoder encoder = mock(JwtEncoder.class);
+  private final AtomicInteger signed = new AtomicInteger();
+
+  @BeforeEach
+  void signsDistinctTokens() {
+    when(encoder.encode(any(JwtEncoderParameters.class)))
+        .thenAnswer(
+            inv ->
+                Jwt.withTokenValue("t" + signed.incrementAndGet())
+                    .header("alg", "HS256")
+                    .claim("sub", "u")
+                    .issuedAt(Instant.now())
+                    .expiresAt(Instant.now().plusSeconds(900))
+                    .build());
+  }
+
+  @Test
+  void sessionTokenIsReusedWhileClaimsAreUnchanged() {
+    TokenService tokens = service(Duration.ofMinutes(15), Duration.ofMinutes(10));
+    UserEntity user = user(1L);
+
+    String first = tokens.accessTokenFor(user, List.of("USER"), List.of("A")).token();
+    TokenService.TokenResult again = tokens.accessTokenFor(user, List.of("USER"), List.of("A"));
+
+    assertThat(again.token()).isEqualTo(first);
+    assertThat(again.ttl()).isLessThanOrEqualTo(Duration.ofMinutes(15));
+    verify(encoder, times(1)).encode(any());
+  }
+
+  @Test
+  void changedPermissionsSignANewToken() {
+    TokenService tokens = service(Duration.ofMinutes(15), Duration.ofMinutes(10));
+    UserEntity user = user(1L);
+
+    String first = tokens.accessTokenFor(user, List.of("USER"), List.of("A")).token();
+    String second = tokens.accessTokenFor(user, List.of("USER"), List.of("A", "B")).token();
+
+    assertThat(second).isNotEqualTo(first);
+  }
+
+  @Test
+  void loginTokensAreNotRememberedForSessions() {
+    TokenService tokens = service(Duration.ofMinutes(15), Duration.ofMinutes(10));
+    UserEntity user = user(1L);
+
+    String login = tokens.issueAccessToken(user, List.of("USER"), List.of("A")).token();
+    String session = tokens.accessTokenFor(user, List.of("USER"), List.of("A")).token();
+
+    assertThat(session).isNotEqualTo(login);
+    verify(encoder, times(2)).encode(any());
+  }
+
+  @Test
+  void noReuseWhenTheTokenWouldBeTooShortLived() {
+    TokenService tokens = service(Duration.ofMinutes(5), Duration.ofMinutes(10));
+    UserEntity user = user(1L);
+
+    String first = tokens.accessTokenFor(user, List.of("USER"), List.of("A")).token();
+    String second = tokens.accessTokenFor(user, List.of("USER"), List.of("A")).token();
+
+    assertThat(second).isNotEqualTo(first);
+  }
+
+  @Test
+  void tokenOfAnOldDictionaryIsNotReused() {
+    PermissionService permissions = mock(PermissionService.class);
+    PermissionDictionary before = new PermissionDictionary(List.of("A", "B"));
+    PermissionDictionary after = new PermissionDictionary(List.of("A", "B", "C"));
+    when(permissions.currentDictionary()).thenReturn(before);
+    TokenService tokens =
+        new TokenService(
+            encoder,
+            permissions,
+            "test",
+            Duration.ofMinutes(15),
+            Duration.ofMinutes(10),
+            100,
+            true);
+    UserEntity user = user(1L);
+
+    TokenService.TokenResult first = tokens.accessTokenFor(user, List.of("USER"), List.of("A"));
+    assertThat(first.permVersion()).isEqualTo(before.version());
+    assertThat(tokens.accessTokenFor(user, List.of("USER"), List.of("A")).token())
+        .isEqualTo(first.token());
+
+    when(permissions.currentDictionary()).thenReturn(after);
+    TokenService.TokenResult second = tokens.accessTokenFor(user, List.of("USER"), List.of("A"));
+
+    assertThat(second.token()).isNotEqualTo(first.token());
+    assertThat(second.permVersion()).isEqualTo(after.version());
+  }
+
+  private TokenService service(Duration ttl, Duration reuseMinRemaining) {
+    // perm-bits off: the perms list needs no dictionary.
+    return new TokenService(
+        encoder, mock(PermissionService.class), "test", ttl, reuseMinRemaining, 100, false);
+  }
+
+  private static UserEntity user(long id) {
+    UserEntity user = mock(UserEntity.class);
+    when(user.getId()).thenReturn(id);
+    when(user.getLogin()).thenReturn("user" + id);
+    return user;
+  }
+}
@@ -1,8 +1,18 @@
 package com.logicsignalprotector.commandcenter.client;
 
+import com.logicsignalprotector.marketdata.dto.CandlesResponse;
+import com.logicsignalprotector.marketdata.dto.IndicatorsResponse;
+import com.logicsignalprotector.marketdata.dto.InstrumentResolveResponse;
+import com.logicsignalprotector.marketdata.dto.InstrumentsResponse;
+import com.logicsignalprotector.marketdata.dto.MarketStatusResponse;
+import com.logicsignalprotector.marketdata.dto.OrderBookResponse;
+import com.logicsignalprotector.marketdata.dto.QuoteResponse;
+import com.logicsignalprotector.marketdata.dto.TradesResponse;
+import com.logicsignalprotector.marketdata.wire.MarketDataWireFormat;
 import java.util.Map;
 import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -14,19 +24,21 @@ public class DownstreamClients {
   private final RestClient market;
   private final RestClient alerts;
   private final RestClient broker;
+  private final String marketAccept;
 
   public DownstreamClients(
       RestClient.Builder builder,
       @Value("${services.market-data.base-url}") String marketBase,
+      @Value("${services.market-data.wire-format:json}") MarketDataWireFormat marketWireFormat,
       @Value("${services.alerts.base-url}") String alertsBase,
       @Value("${services.broker.base-url}") String brokerBase) {
     this.market = builder.baseUrl(marketBase).build();
+    this.marketAccept = marketWireFormat.accept();
     this.alerts = builder.baseUrl(alertsBase).build();
     this.broker = builder.baseUrl(brokerBase).build();
   }
 
-  @SuppressWarnings("unchecked")
-  public Map<String, Object> marketInstruments(
+  public InstrumentsResponse marketInstruments(
       String bearerToken,
       String engine,
       String market,
@@ -54,12 +66,43 @@ public class DownstreamClients {
                             }))
                     .build())
         .header("Authorization", "Bearer " + bearerToken)
+        .header(HttpHeaders.ACCEPT, marketAccept)
         .retrieve()
-        .body(Map.class);
+        .body(InstrumentsResponse.class);
   }
 
-  @SuppressWarnings("unchecked")
-  public Map<String, Object> marketQuote(
+  public InstrumentResolveResponse marketResolve(
+      String bearerToken,
+      String engine,
+      String market,
+      String board,
+      String query,
+      Integer limit,
+      String correlationId) {
+    return this.market
+        .get()
+        .uri(
+            uriBuilder ->
+                uriBuilder
+                    .path("/api/market/v1/instruments/resolve")
+                    .queryParams(
+                        marketParams(
+                            params -> {
+                              add(params, "engine", engine);
+                              add(params, "market", market);
+                              add(params, "board", board);
+                              add(params, "q", query);
+                              add(params, "limit", limit);
+                              add(params, "correlationId", correlationId);
+                            }))
+                    .build())
+        .header("Authorization", "Bearer " + bearerToken)
+        .header(HttpHeaders.ACCEPT, marketAccept)
+        .retrieve()
+        .body(InstrumentResolveResponse.class);
+  }
+
+  public QuoteResponse marketQuote(
       String bearerToken,
       String engine,
       String market,
@@ -83,12 +126,12 @@ public class DownstreamClients {
                             }))
                     .build())
         .header("Authorization", "Bearer " + bearerToken)
+        .header(HttpHeaders.ACCEPT, marketAccept)
         .retrieve()
-        .body(Map.class);
+        .body(QuoteResponse.class);
   }
 
-  @SuppressWarnings("unchecked")
-  public Map<String, Object> marketCandles(
+  public CandlesResponse marketCandles(
       String bearerToken,
       String engine,
       String market,
@@ -97,6 +140,7 @@ public class DownstreamClients {
       Integer interval,
       String from,
       String till,
+      Integer limit,
       String correlationId) {
     return this.market
         .get()
@@ -114,16 +158,52 @@ public class DownstreamClients {
                               add(params, "interval", interval);
                               add(params, "from", from);
                               add(params, "till", till);
+                              add(params, "limit", limit);
                               add(params, "correlationId", correlationId);
                             }))
                     .build())
         .header("Authorization", "Bearer " + bearerToken)
+        .header(HttpHeaders.ACCEPT, marketAccept)
         .retrieve()
-        .body(Map.class);
+        .body(CandlesResponse.class);
   }
 
-  @SuppressWarnings("unchecked")
-  public Map<String, Object> marketOrderBook(
+  public IndicatorsResponse marketIndicators(
+      String bearerToken,
+      String engine,
+      String market,
+      String board,
+      String sec,
+      Integer interval,
+      String indicators,
+      Integer limit,
+      String correlationId) {
+    return this.market
+        .get()
+        .uri(
+            uriBuilder ->
+                uriBuilder
+                    .path("/api/market/v1/indicators")
+                    .queryParams(
+                        marketParams(
+                            params -> {
+                              add(params, "engine", engine);
+                              add(params, "market", market);
+                              add(params, "board", board);
+                              add(params, "sec", sec);
+                              add(params, "interval", interval);
+                              add(params, "indicators", indicators);
+                              add(params, "limit", limit);
+                              add(params, "correlationId", correlationId);
+                            }))
+                    .build())
+        .header("Authorization", "Bearer " + bearerToken)
+        .header(HttpHeaders.ACCEPT, marketAccept)
+        .retrieve()
+        .body(IndicatorsResponse.class);
+  }
+
+  public OrderBookResponse marketOrderBook(
       String bearerToken,
       String engine,
       String market,
@@ -149,12 +229,12 @@ public class DownstreamClients {
                             }))
                     .build())
         .header("Authorization", "Bearer " + bearerToken)
+        .header(HttpHeaders.ACCEPT, marketAccept)
         .retrieve()
-        .body(Map.class);
+        .body(OrderBookResponse.class);
   }
 
-  @SuppressWarnings("unchecked")
-  public Map<String, Object> marketTrades(
+  public TradesResponse marketTrades(
       String bearerToken,
       String engine,
       String market,
@@ -182,12 +262,12 @@ public class DownstreamClients {
                             }))
                     .build())
         .header("Authorization", "Bearer " + bearerToken)
+        .header(HttpHeaders.ACCEPT, marketAccept)
         .retrieve()
-        .body(Map.class);
+        .body(TradesResponse.class);
   }
 
-  @SuppressWarnings("unchecked")
-  public Map<String, Object> marketStatus(
+  public MarketStatusResponse marketStatus(
       String bearerToken,
       String engine,
       String market,
@@ -211,8 +291,9 @@ public class DownstreamClients {
                             }))
                     .build())
         .header("Authorization", "Bearer " + bearerToken)
+        .header(HttpHeaders.ACCEPT, marketAccept)
         .retrieve()
-        .body(Map.class);
+        .body(MarketStatusResponse.class);
   }
 
   @SuppressWarnings("unchecked")
@@ -1,7 +1,6 @@
 package com.logicsignalprotector.commandcenter.client;
 
 import java.util.List;
-import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -22,15 +21,18 @@ public class GatewayInternalClient {
     this.internalToken = internalToken == null ? "" : internalToken.trim();
   }
 
-  public ResolveResponse resolve(String providerCode, String externalUserId) {
-    ResolveResponse res =
+  /** Resolve + access token in one call (gateway {@code /internal/identity/session}). */
+  public SessionResponse session(String providerCode, String externalUserId) {
+    SessionResponse res =
         rest.post()
-            .uri("/internal/identity/resolve")
+            .uri("/internal/identity/session")
             .header("X-Internal-Token", internalToken)
             .body(new ResolveRequest(providerCode, externalUserId))
             .retrieve()
-            .body(ResolveResponse.class);
-    return res == null ? new ResolveResponse(false, null, null, null, List.of(), List.of()) : res;
+            .body(SessionResponse.class);
+    return res == null
+        ? new SessionResponse(false, null, null, null, List.of(), List.of(), null, null, 0)
+        : res;
   }
 
   public TokensResponse registerAndLink(
@@ -57,17 +59,6 @@ public class GatewayInternalClient {
     return res;
   }
 
-  public TokensResponse issueAccess(String providerCode, String externalUserId) {
-    TokensResponse res =
-        rest.post()
-            .uri("/internal/auth/issue-access")
-            .header("X-Internal-Token", internalToken)
-            .body(Map.of("providerCode", providerCode, "externalUserId", externalUserId))
-            .retrieve()
-            .body(TokensResponse.class);
-    return res;
-  }
-
   // Step 1.4: unlink external account (logout semantics for Telegram).
   public OkResponse unlink(String providerCode, String externalUserId) {
     OkResponse res =
@@ -229,6 +220,33 @@ public class GatewayInternalClient {
       List<String> roles,
       List<String> perms) {}
 
+  public record SessionResponse(
+      boolean linked,
+      Long userId,
+      String login,
+      String displayName,
+      List<String> roles,
+      List<String> perms,
+      String accessToken,
+      String tokenType,
+      long expiresInSeconds) {
+
+    public ResolveResponse resolve() {
+      return new ResolveResponse(
+          linked,
+          userId,
+          login,
+          displayName,
+          roles == null ? List.of() : roles,
+          perms == null ? List.of() : perms);
+    }
+
+    public TokensResponse tokens() {
+      return new TokensResponse(
+          accessToken, tokenType, expiresInSeconds, userId, login, roles, perms);
+    }
+  }
+
   public record CredentialsLinkRequest(
       String providerCode, String externalUserId, String login, String password) {}
 
@@ -0,0 +1,193 @@
+package com.logicsignalprotector.commandcenter.domain;
+
+import com.logicsignalprotector.commandcenter.client.GatewayInternalClient;
+import com.logicsignalprotector.commandcenter.client.GatewayInternalClient.TokensResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reuses access tokens from {@code /internal/identity/session} per (providerCode, externalUserId)
+ * instead of fetching one for every market/alerts/broker command. The token of a cold user usually
+ * arrives together with the resolve ({@link IdentityCache} hands it over via {@link #offer}), so
+ * the first command after a resolve costs no extra gateway call.
+ *
+ * <p>A token is handed out while it has more than {@code access-token.cache.min-remaining} left, so
+ * the downstream call never sees an expired one. Tokens of users active within {@code
+ * access-token.cache.idle} are re-issued in the background once they get within {@code
+ * access-token.cache.refresh-ahead} of expiry; idle ones are dropped. Tokens carry perms, so they
+ * are dropped together with {@link IdentityCache} entries ({@link IdentityInvalidated}); a token
+ * issued while its own account or user was invalidated is returned but not kept ({@link
+ * InvalidationLog}).
+ */
+@Service
+@Slf4j
+public class AccessTokenCache {
+
+  private final GatewayInternalClient gateway;
+  private final boolean enabled;
+  private final long minRemainingNanos;
+  private final long refreshAheadNanos;
+  private final long idleNanos;
+
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+  private final InvalidationLog<Key> invalidations;
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter refreshes;
+
+  public AccessTokenCache(
+      GatewayInternalClient gateway,
+      MeterRegistry meterRegistry,
+      @Value("${access-token.cache.enabled:true}") boolean enabled,
+      @Value("${access-token.cache.min-remaining:PT1M}") Duration minRemaining,
+      @Value("${access-token.cache.refresh-ahead:PT3M}") Duration refreshAhead,
+      @Value("${access-token.cache.idle:PT10M}") Duration idle,
+      @Value("${identity.cache.max-size:10000}") int maxTracked) {
+    this.gateway = gateway;
+    this.enabled = enabled;
+    this.minRemainingNanos = minRemaining.toNanos();
+    this.refreshAheadNanos = refreshAhead.toNanos();
+    this.idleNanos = idle.toNanos();
+    this.invalidations = new InvalidationLog<>(maxTracked);
+    this.hits = meterRegistry.counter("access.token.cache.requests", "result", "hit");
+    this.misses = meterRegistry.counter("access.token.cache.requests", "result", "miss");
+    this.refreshes = meterRegistry.counter("access.token.cache.refreshes");
+    Gauge.builder("access.token.cache.size", entries, Map::size).register(meterRegistry);
+  }
+
+  public TokensResponse get(String providerCode, String externalUserId) {
+    if (!enabled) {
+      return gateway.session(providerCode, externalUserId).tokens();
+    }
+    Key key = new Key(providerCode, externalUserId);
+    long now = System.nanoTime();
+    Entry cached = entries.get(key);
+    if (cached != null && cached.expiresAt() - now > minRemainingNanos) {
+      cached.touch(now);
+      hits.increment();
+      return cached.tokens();
+    }
+    misses.increment();
+    return issue(key, false);
+  }
+
+  @Scheduled(fixedDelayString = "${access-token.cache.refresh-interval:PT30S}")
+  public void refreshExpiring() {
+    long now = System.nanoTime();
+    for (var e : entries.entrySet()) {
+      Entry entry = e.getValue();
+      if (now - entry.lastUsed() > idleNanos) {
+        entries.remove(e.getKey(), entry);
+      } else if (entry.expiresAt() - now <= refreshAheadNanos) {
+        try {
+          issue(e.getKey(), true);
+          refreshes.increment();
+        } catch (Exception ex) {
+          // The request path re-issues on demand; keep the old token while it is still usable.
+          log.debug("Background token refresh failed: {}", ex.getMessage());
+        }
+      }
+    }
+  }
+
+  @EventListener
+  public void onInvalidated(IdentityInvalidated event) {
+    if (event.all()) {
+      invalidations.all();
+      entries.clear();
+      return;
+    }
+    if (event.providerCode() != null && event.externalUserId() != null) {
+      Key key = new Key(event.providerCode(), event.externalUserId());
+      invalidations.key(key);
+      entries.remove(key);
+    }
+    if (event.userId() != null) {
+      invalidations.user(event.userId());
+      entries.values().removeIf(e -> Objects.equals(event.userId(), e.tokens().userId()));
+    }
+  }
+
+  /** Take before fetching a token elsewhere and pass it back to {@link #offer}. */
+  long stamp() {
+    return invalidations.stamp();
+  }
+
+  /** Stores a token fetched elsewhere (a session call by {@link IdentityCache}). */
+  void offer(String providerCode, String externalUserId, TokensResponse tokens, long stamp) {
+    if (enabled) {
+      store(new Key(providerCode, externalUserId), tokens, stamp, false);
+    }
+  }
+
+  private TokensResponse issue(Key key, boolean background) {
+    long stamp = invalidations.stamp();
+    TokensResponse tokens = gateway.session(key.providerCode(), key.externalUserId()).tokens();
+    store(key, tokens, stamp, background);
+    return tokens;
+  }
+
+  private void store(Key key, TokensResponse tokens, long stamp, boolean background) {
+    boolean stale = invalidations.changedSince(stamp, key, tokens == null ? null : tokens.userId());
+    if (tokens == null || tokens.accessToken() == null || tokens.accessToken().isBlank()) {
+      // Not linked: nothing to reuse.
+      if (!stale) {
+        entries.remove(key);
+      }
+      return;
+    }
+    if (stale) {
+      return;
+    }
+    long now = System.nanoTime();
+    Entry previous = entries.get(key);
+    // A background refresh must not count as use, or idle users would be refreshed forever.
+    long lastUsed = background && previous != null ? previous.lastUsed() : now;
+    Entry entry =
+        new Entry(tokens, now + Duration.ofSeconds(tokens.expiresInSeconds()).toNanos(), lastUsed);
+    entries.put(key, entry);
+    if (invalidations.changedSince(stamp, key, tokens.userId())) {
+      entries.remove(key, entry);
+    }
+  }
+
+  private record Key(String providerCode, String externalUserId) {}
+
+  private static final class Entry {
+    private final TokensResponse tokens;
+    private final long expiresAt;
+    private volatile long lastUsed;
+
+    Entry(TokensResponse tokens, long expiresAt, long lastUsed) {
+      this.tokens = tokens;
+      this.expiresAt = expiresAt;
+      this.lastUsed = lastUsed;
+    }
+
+    TokensResponse tokens() {
+      return tokens;
+    }
+
+    long expiresAt() {
+      return expiresAt;
+    }
+
+    long lastUsed() {
+      return lastUsed;
+    }
+
+    void touch(long now) {
+      lastUsed = now;
+    }
+  }
+}
@@ -7,8 +7,24 @@ import com.logicsignalprotector.commandcenter.api.dto.OutgoingMessage;
 import com.logicsignalprotector.commandcenter.client.DownstreamClients;
 import com.logicsignalprotector.commandcenter.client.GatewayInternalClient;
 import com.logicsignalprotector.commandcenter.domain.CommandRegistry.CommandDef;
+import com.logicsignalprotector.marketdata.dto.CandleDto;
+import com.logicsignalprotector.marketdata.dto.CandlesResponse;
+import com.logicsignalprotector.marketdata.dto.IndicatorDto;
+import com.logicsignalprotector.marketdata.dto.IndicatorsResponse;
+import com.logicsignalprotector.marketdata.dto.InstrumentDto;
+import com.logicsignalprotector.marketdata.dto.InstrumentsResponse;
+import com.logicsignalprotector.marketdata.dto.OrderBookDto;
+import com.logicsignalprotector.marketdata.dto.OrderBookEntryDto;
+import com.logicsignalprotector.marketdata.dto.OrderBookResponse;
+import com.logicsignalprotector.marketdata.dto.QuoteDto;
+import com.logicsignalprotector.marketdata.dto.QuoteResponse;
+import com.logicsignalprotector.marketdata.dto.TradeDto;
+import com.logicsignalprotector.marketdata.dto.TradesResponse;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -52,6 +68,8 @@ public class ChatCommandHandler {
           + "order by installed_rank";
 
   private final GatewayInternalClient gateway;
+  private final IdentityCache identity;
+  private final AccessTokenCache accessTokens;
   private final DownstreamClients downstream;
   private final ChatStateStore stateStore;
   private final AdminCodeRateLimiter adminCodeLimiter;
@@ -66,6 +84,8 @@ public class ChatCommandHandler {
 
   public ChatCommandHandler(
       GatewayInternalClient gateway,
+      IdentityCache identity,
+      AccessTokenCache accessTokens,
       DownstreamClients downstream,
       ChatStateStore stateStore,
       AdminCodeRateLimiter adminCodeLimiter,
@@ -75,6 +95,8 @@ public class ChatCommandHandler {
       @Value("${chat.hard-delete.confirm-ttl:PT60S}") Duration hardDeleteConfirmTtl,
       @Value("${dev.console.enabled:false}") boolean devConsoleEnabled) {
     this.gateway = gateway;
+    this.identity = identity;
+    this.accessTokens = accessTokens;
     this.downstream = downstream;
     this.stateStore = stateStore;
     this.adminCodeLimiter = adminCodeLimiter;
@@ -181,7 +203,7 @@ public class ChatCommandHandler {
 
   private ChatResponse doHelp(ChatMessageEnvelope env) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       Set<String> perms =
           res != null && res.perms() != null ? new HashSet<>(res.perms()) : Set.of();
       boolean linked = res != null && res.linked();
@@ -204,7 +226,7 @@ public class ChatCommandHandler {
 
   private ChatResponse doHelpDev(ChatMessageEnvelope env) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       if (!res.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login или /register.");
       }
@@ -230,7 +252,7 @@ public class ChatCommandHandler {
 
   private ChatResponse doCommands(ChatMessageEnvelope env, Parsed p) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       if (!res.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login или /register.");
       }
@@ -300,7 +322,7 @@ public class ChatCommandHandler {
     }
 
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       if (!res.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login или /register.");
       }
@@ -369,6 +391,7 @@ public class ChatCommandHandler {
 
     try {
       gateway.unlink(providerCode(env), env.externalUserId());
+      identity.invalidate(providerCode(env), env.externalUserId());
       stateStore.clear(key);
       return ChatResponse.ofText(
           "Ок. Привязка удалена (logout). Используй /login чтобы привязать заново.");
@@ -396,7 +419,7 @@ public class ChatCommandHandler {
     }
 
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       if (!res.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login или /register.");
       }
@@ -405,7 +428,9 @@ public class ChatCommandHandler {
       }
 
       Long targetId = parseLongOrNull(target);
-      gateway.hardDeleteUser(res.userId(), targetId, targetId == null ? target : null);
+      var deleted =
+          gateway.hardDeleteUser(res.userId(), targetId, targetId == null ? target : null);
+      identity.invalidateUser(deleted == null ? targetId : deleted.deletedUserId());
       stateStore.clear(key);
       return ChatResponse.ofText("Удалено: " + target);
     } catch (RestClientResponseException e) {
@@ -418,7 +443,7 @@ public class ChatCommandHandler {
       return ChatResponse.ofText("Использование: /user delete <login|id>");
     }
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       if (!res.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login или /register.");
       }
@@ -436,7 +461,7 @@ public class ChatCommandHandler {
 
   private ChatResponse doMe(ChatMessageEnvelope env) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       if (!res.linked()) {
         return ChatResponse.ofText("Аккаунт не привязан. Используй /login или /register.");
       }
@@ -462,7 +487,7 @@ public class ChatCommandHandler {
 
   private ChatResponse doDbMenu(ChatMessageEnvelope env) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       if (!isDevAdmin(res)) {
         return ChatResponse.ofText("DB меню недоступно. Проверь dev-права.");
       }
@@ -485,7 +510,7 @@ public class ChatCommandHandler {
 
   private ChatResponse doDb(ChatMessageEnvelope env, String input) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       if (!isDevAdmin(res)) {
         return ChatResponse.ofText("DB команда недоступна. Проверь dev-права.");
       }
@@ -533,6 +558,7 @@ public class ChatCommandHandler {
 
     try {
       var t = gateway.loginAndLink(providerCode(env), env.externalUserId(), tokens[0], tokens[1]);
+      identity.invalidate(providerCode(env), env.externalUserId());
       stateStore.clear(key);
 
       boolean canRaw = t != null && t.perms() != null && t.perms().contains(PERM_ADMIN_ANSWERS_LOG);
@@ -566,6 +592,7 @@ public class ChatCommandHandler {
     try {
       var t =
           gateway.registerAndLink(providerCode(env), env.externalUserId(), tokens[0], tokens[1]);
+      identity.invalidate(providerCode(env), env.externalUserId());
       stateStore.clear(key);
 
       boolean canRaw = t != null && t.perms() != null && t.perms().contains(PERM_ADMIN_ANSWERS_LOG);
@@ -595,7 +622,7 @@ public class ChatCommandHandler {
 
   private ChatResponse doProtectedCall(ChatMessageEnvelope env, String kind, String requiredPerm) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       if (!res.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login или /register.");
       }
@@ -604,7 +631,7 @@ public class ChatCommandHandler {
       }
 
       boolean canRaw = res.perms().contains(PERM_ADMIN_ANSWERS_LOG);
-      var tokens = gateway.issueAccess(providerCode(env), env.externalUserId());
+      var tokens = accessTokens.get(providerCode(env), env.externalUserId());
       if (tokens == null || tokens.accessToken() == null || tokens.accessToken().isBlank()) {
         return ChatResponse.ofText("Не удалось получить access token.");
       }
@@ -636,7 +663,7 @@ public class ChatCommandHandler {
     }
 
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       if (!res.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login или /register.");
       }
@@ -644,7 +671,7 @@ public class ChatCommandHandler {
         return ChatResponse.ofText("Нет прав для операции.");
       }
 
-      var tokens = gateway.issueAccess(providerCode(env), env.externalUserId());
+      var tokens = accessTokens.get(providerCode(env), env.externalUserId());
       if (tokens == null || tokens.accessToken() == null || tokens.accessToken().isBlank()) {
         return ChatResponse.ofText("Не удалось получить access token.");
       }
@@ -659,6 +686,8 @@ public class ChatCommandHandler {
             marketInstruments(env, tokens.accessToken(), p, opts, engine, market, board);
         case "quote" -> marketQuote(env, tokens.accessToken(), p, opts, engine, market, board);
         case "candles" -> marketCandles(env, tokens.accessToken(), p, opts, engine, market, board);
+        case "indicators" ->
+            marketIndicators(env, tokens.accessToken(), p, opts, engine, market, board);
         case "orderbook" ->
             marketOrderBook(env, tokens.accessToken(), p, opts, engine, market, board);
         case "trades" -> marketTrades(env, tokens.accessToken(), p, opts, engine, market, board);
@@ -699,24 +728,24 @@ public class ChatCommandHandler {
       return ChatResponse.ofText("offset должен быть >= 0.");
     }
 
-    Map<String, Object> resp =
+    InstrumentsResponse resp =
         downstream.marketInstruments(
             token, engine, market, board, filter, limit, offset, env.correlationId());
-    List<Map<String, Object>> items = listOfMaps(resp.get("instruments"));
+    List<InstrumentDto> items = orEmpty(resp == null ? null : resp.instruments());
     if (items.isEmpty()) {
       return ChatResponse.ofText("Пусто.");
     }
 
     List<List<String>> rows = new ArrayList<>();
-    for (Map<String, Object> item : items) {
+    for (InstrumentDto item : items) {
       rows.add(
           List.of(
-              s(item.get("secId")),
-              s(item.get("shortName")),
-              n(item.get("lastPrice")),
-              n(item.get("prevPrice")),
-              s(item.get("currency")),
-              s(item.get("board"))));
+              s(item.secId()),
+              s(item.shortName()),
+              n(item.lastPrice()),
+              n(item.prevPrice()),
+              s(item.currency()),
+              s(item.board())));
     }
     String header =
         "Инструменты"
@@ -748,22 +777,22 @@ public class ChatCommandHandler {
       return ChatResponse.ofText("Использование: /market_quote <SEC> [board=TQBR]");
     }
 
-    Map<String, Object> resp =
+    QuoteResponse resp =
         downstream.marketQuote(token, engine, market, board, sec, env.correlationId());
-    Map<String, Object> quote = mapOf(resp.get("quote"));
-    if (quote.isEmpty()) {
+    QuoteDto quote = resp == null ? null : resp.quote();
+    if (quote == null) {
       return ChatResponse.ofText("Нет данных по тикеру " + sec + ".");
     }
 
     List<List<String>> rows =
         List.of(
             List.of(
-                s(quote.get("secId")),
-                n(quote.get("lastPrice")),
-                n(quote.get("change")),
-                n(quote.get("changePercent")),
-                n(quote.get("volume")),
-                s(quote.get("time"))));
+                s(quote.secId()),
+                n(quote.lastPrice()),
+                n(quote.change()),
+                n(quote.changePercent()),
+                n(quote.volume()),
+                t(quote.time())));
     String header = "Котировка " + sec + " (board=" + board + ")";
     String table = textTable.render(List.of("SEC", "LAST", "CHG", "CHG%", "VOL", "TIME"), rows);
     return ChatResponse.of(OutgoingMessage.pre(header + "\n" + table));
@@ -801,28 +830,28 @@ public class ChatCommandHandler {
     String from = opts.get("from");
     String till = opts.get("till");
 
-    Map<String, Object> resp =
+    CandlesResponse resp =
         downstream.marketCandles(
-            token, engine, market, board, sec, interval, from, till, env.correlationId());
-    List<Map<String, Object>> candles = listOfMaps(resp.get("candles"));
+            token, engine, market, board, sec, interval, from, till, null, env.correlationId());
+    List<CandleDto> candles = orEmpty(resp == null ? null : resp.candles());
     if (candles.isEmpty()) {
       return ChatResponse.ofText("Пусто.");
     }
 
     int total = candles.size();
     int fromIdx = Math.max(0, total - limit);
-    List<Map<String, Object>> slice = candles.subList(fromIdx, total);
+    List<CandleDto> slice = candles.subList(fromIdx, total);
 
     List<List<String>> rows = new ArrayList<>();
-    for (Map<String, Object> candle : slice) {
+    for (CandleDto candle : slice) {
       rows.add(
           List.of(
-              s(candle.get("begin")),
-              n(candle.get("open")),
-              n(candle.get("high")),
-              n(candle.get("low")),
-              n(candle.get("close")),
-              n(candle.get("volume"))));
+              t(candle.begin()),
+              n(candle.open()),
+              n(candle.high()),
+              n(candle.low()),
+              n(candle.close()),
+              n(candle.volume())));
     }
     String header =
         "Свечи " + sec + " (interval=" + interval + ", shown=" + slice.size() + "/" + total + ")";
@@ -830,6 +859,88 @@ public class ChatCommandHandler {
     return ChatResponse.of(OutgoingMessage.pre(header + "\n" + table));
   }
 
+  private ChatResponse marketIndicators(
+      ChatMessageEnvelope env,
+      String token,
+      Parsed p,
+      Map<String, String> opts,
+      String engine,
+      String market,
+      String board) {
+    String sec = positional(p.arg2());
+    if (sec == null) {
+      sec = opts.get("sec");
+    }
+    if (sec == null) {
+      return ChatResponse.ofText(
+          "Использование: /market_indicators <SEC> [interval=60 ind=sma:20,rsi:14 limit=10 board=TQBR]");
+    }
+
+    Integer interval = parseInt(opts.get("interval"));
+    if (interval == null) interval = 60;
+    if (interval < 1 || !(1440 % interval == 0 || interval == 10080)) {
+      return ChatResponse.ofText(
+          "interval должен делить 1440 (1, 5, 15, 30, 60, 240, 1440) или быть 10080.");
+    }
+
+    Integer limit = parseInt(opts.get("limit"));
+    if (limit == null) limit = 10;
+    if (limit < 1 || limit > 50) {
+      return ChatResponse.ofText("limit должен быть от 1 до 50.");
+    }
+
+    String indicators = opt(opts, "ind", opt(opts, "indicators", "sma:20,rsi:14"));
+
+    IndicatorsResponse resp;
+    try {
+      resp =
+          downstream.marketIndicators(
+              token, engine, market, board, sec, interval, indicators, limit, env.correlationId());
+    } catch (RestClientResponseException e) {
+      if (e.getStatusCode().value() == 400) {
+        return ChatResponse.ofText(
+            "Не удалось разобрать индикаторы: "
+                + indicators
+                + "\nДоступны sma:N, ema:N, rsi:N, macd:F:S:SIG, bb:N:K, atr:N.");
+      }
+      throw e;
+    }
+    List<OffsetDateTime> time = orEmpty(resp == null ? null : resp.time());
+    if (time.isEmpty()) {
+      return ChatResponse.ofText("Пусто.");
+    }
+    List<BigDecimal> close = orEmpty(resp.close());
+
+    List<String> columnsHeader = new ArrayList<>(List.of("TIME", "CLOSE"));
+    List<List<Double>> columns = new ArrayList<>();
+    for (IndicatorDto indicator : orEmpty(resp.indicators())) {
+      Map<String, List<Double>> lines = indicator.lines() == null ? Map.of() : indicator.lines();
+      String id = s(indicator.id()).toUpperCase(Locale.ROOT);
+      for (Map.Entry<String, List<Double>> line : lines.entrySet()) {
+        columnsHeader.add(lines.size() == 1 ? id : id + " " + line.getKey());
+        columns.add(orEmpty(line.getValue()));
+      }
+    }
+
+    List<List<String>> rows = new ArrayList<>();
+    for (int i = 0; i < time.size(); i++) {
+      List<String> row = new ArrayList<>();
+      row.add(t(time.get(i)));
+      row.add(i < close.size() ? n(close.get(i)) : "");
+      for (List<Double> column : columns) {
+        Double value = i < column.size() ? column.get(i) : null;
+        row.add(
+            value == null || value.isNaN() || value.isInfinite()
+                ? ""
+                : n(BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP)));
+      }
+      rows.add(row);
+    }
+    String header = "Индикаторы " + sec + " (interval=" + interval + ", ind=" + indicators + ")";
+    String table = textTable.render(columnsHeader, rows);
+    return ChatResponse.of(OutgoingMessage.pre(header + "\n" + table));
+  }
+
   private ChatResponse marketOrderBook(
       ChatMessageEnvelope env,
       String token,
@@ -852,11 +963,11 @@ public class ChatCommandHandler {
       return ChatResponse.ofText("depth должен быть от 1 до 50.");
     }
 
-    Map<String, Object> resp =
+    OrderBookResponse resp =
         downstream.marketOrderBook(token, engine, market, board, sec, depth, env.correlationId());
-    Map<String, Object> orderBook = mapOf(resp.get("orderBook"));
-    List<Map<String, Object>> bids = listOfMaps(orderBook.get("bids"));
-    List<Map<String, Object>> asks = listOfMaps(orderBook.get("asks"));
+    OrderBookDto orderBook = resp == null ? null : resp.orderBook();
+    List<OrderBookEntryDto> bids = orEmpty(orderBook == null ? null : orderBook.bids());
+    List<OrderBookEntryDto> asks = orEmpty(orderBook == null ? null : orderBook.asks());
     if (bids.isEmpty() && asks.isEmpty()) {
       return ChatResponse.ofText("Пусто.");
     }
@@ -866,15 +977,11 @@ public class ChatCommandHandler {
 
     if (!bids.isEmpty()) {
       sb.append("\nBids:\n");
-      sb.append(
-          textTable.render(
-              List.of("PRICE", "QTY"), rowsFromEntries(bids, List.of("price", "quantity"))));
+      sb.append(textTable.render(List.of("PRICE", "QTY"), rowsFromEntries(bids)));
     }
     if (!asks.isEmpty()) {
       sb.append("\n\nAsks:\n");
-      sb.append(
-          textTable.render(
-              List.of("PRICE", "QTY"), rowsFromEntries(asks, List.of("price", "quantity"))));
+      sb.append(textTable.render(List.of("PRICE", "QTY"), rowsFromEntries(asks)));
     }
 
     return ChatResponse.of(OutgoingMessage.pre(sb.toString().trim()));
@@ -905,23 +1012,23 @@ public class ChatCommandHandler {
 
     String from = opts.get("from");
 
-    Map<String, Object> resp =
+    TradesResponse resp =
         downstream.marketTrades(
             token, engine, market, board, sec, from, limit, env.correlationId());
-    List<Map<String, Object>> trades = listOfMaps(resp.get("trades"));
+    List<TradeDto> trades = orEmpty(resp == null ? null : resp.trades());
     if (trades.isEmpty()) {
       return ChatResponse.ofText("Пусто.");
     }
 
     List<List<String>> rows = new ArrayList<>();
-    for (Map<String, Object> trade : trades) {
+    for (TradeDto trade : trades) {
       rows.add(
           List.of(
-              s(trade.get("tradeNo")),
-              s(trade.get("time")),
-              n(trade.get("price")),
-              n(trade.get("quantity")),
-              s(trade.get("side"))));
+              s(trade.tradeNo()),
+              t(trade.time()),
+              n(trade.price()),
+              n(trade.quantity()),
+              s(trade.side())));
     }
     String header =
         "Сделки " + sec + " (limit=" + limit + (from == null ? "" : ", from=" + from) + ")";
@@ -944,12 +1051,13 @@ public class ChatCommandHandler {
 
     // must be linked, otherwise gateway cannot elevate
     try {
-      var r = gateway.resolve(providerCode(env), env.externalUserId());
+      var r = identity.resolve(providerCode(env), env.externalUserId());
       if (!r.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login");
       }
 
       var res = gateway.elevateByCode(providerCode(env), env.externalUserId(), p.arg1());
+      identity.invalidate(providerCode(env), env.externalUserId());
       if (res == null || !res.ok()) {
         return ChatResponse.ofText("Не удалось выполнить adminlogin.");
       }
@@ -965,7 +1073,7 @@ public class ChatCommandHandler {
       return ChatResponse.ofText("Использование: user <login>");
     }
     try {
-      var r = gateway.resolve(providerCode(env), env.externalUserId());
+      var r = identity.resolve(providerCode(env), env.externalUserId());
       if (!r.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login");
       }
@@ -986,7 +1094,7 @@ public class ChatCommandHandler {
 
   private ChatResponse doAdminUsers(ChatMessageEnvelope env) {
     try {
-      var r = gateway.resolve(providerCode(env), env.externalUserId());
+      var r = identity.resolve(providerCode(env), env.externalUserId());
       if (!r.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login");
       }
@@ -1010,7 +1118,7 @@ public class ChatCommandHandler {
 
   private ChatResponse doAdminRoles(ChatMessageEnvelope env) {
     try {
-      var r = gateway.resolve(providerCode(env), env.externalUserId());
+      var r = identity.resolve(providerCode(env), env.externalUserId());
       if (!r.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login");
       }
@@ -1033,7 +1141,7 @@ public class ChatCommandHandler {
 
   private ChatResponse doAdminPerms(ChatMessageEnvelope env) {
     try {
-      var r = gateway.resolve(providerCode(env), env.externalUserId());
+      var r = identity.resolve(providerCode(env), env.externalUserId());
       if (!r.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login");
       }
@@ -1071,7 +1179,7 @@ public class ChatCommandHandler {
   private ChatResponse doRoleMutation(
       ChatMessageEnvelope env, String targetLogin, String roleCode, boolean grant) {
     try {
-      var r = gateway.resolve(providerCode(env), env.externalUserId());
+      var r = identity.resolve(providerCode(env), env.externalUserId());
       if (!r.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login");
       }
@@ -1084,6 +1192,7 @@ public class ChatCommandHandler {
           grant
               ? gateway.grantRole(r.userId(), targetLogin, roleCode)
               : gateway.revokeRole(r.userId(), targetLogin, roleCode);
+      identity.invalidateUser(u == null ? null : u.userId());
 
       return ChatResponse.ofText(
           (grant ? "Ок. Роль выдана." : "Ок. Роль отозвана.") + "\n" + formatUserInfo(canRaw, u));
@@ -1101,7 +1210,7 @@ public class ChatCommandHandler {
     String reason = p.arg3();
 
     try {
-      var r = gateway.resolve(providerCode(env), env.externalUserId());
+      var r = identity.resolve(providerCode(env), env.externalUserId());
       if (!r.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login");
       }
@@ -1114,6 +1223,7 @@ public class ChatCommandHandler {
           allow
               ? gateway.grantPerm(r.userId(), p.arg1(), p.arg2(), reason)
               : gateway.denyPerm(r.userId(), p.arg1(), p.arg2(), reason);
+      identity.invalidateUser(u == null ? null : u.userId());
 
       return ChatResponse.ofText(
           (allow ? "Ок. Override allow задан." : "Ок. Override deny задан.")
@@ -1130,7 +1240,7 @@ public class ChatCommandHandler {
     }
 
     try {
-      var r = gateway.resolve(providerCode(env), env.externalUserId());
+      var r = identity.resolve(providerCode(env), env.externalUserId());
       if (!r.linked()) {
         return ChatResponse.ofText("Сначала привяжи аккаунт: /login");
       }
@@ -1140,6 +1250,7 @@ public class ChatCommandHandler {
       boolean canRaw = r.perms().contains(PERM_ADMIN_ANSWERS_LOG);
 
       var u = gateway.revokePerm(r.userId(), p.arg1(), p.arg2());
+      identity.invalidateUser(u == null ? null : u.userId());
 
       return ChatResponse.ofText("Ок. Override удалён.\n" + formatUserInfo(canRaw, u));
     } catch (RestClientResponseException e) {
@@ -1158,6 +1269,7 @@ public class ChatCommandHandler {
         "/market_instruments [filter] [limit=10 offset=0 board=TQBR engine=stock market=shares]",
         "/market_quote <SEC> [board=TQBR]",
         "/market_candles <SEC> [interval=60 from=YYYY-MM-DD till=YYYY-MM-DD limit=10 board=TQBR]",
+        "/market_indicators <SEC> [interval=60 ind=sma:20,rsi:14 limit=10 board=TQBR]",
         "/market_orderbook <SEC> [depth=10 board=TQBR]",
         "/market_trades <SEC> [limit=10 from=<id|ISO> board=TQBR]",
         "",
@@ -1165,6 +1277,7 @@ public class ChatCommandHandler {
         "/market_instruments *Id* limit=20",
         "/market_quote *Id*",
         "/market_candles *Id* interval=60 from=2024-01-01 till=2024-01-31",
+        "/market_indicators *Id* interval=60 ind=sma:20,rsi:14",
         "/market_orderbook *Id* depth=5",
         "/market_trades *Id* limit=100");
   }
@@ -1302,35 +1415,14 @@ public class ChatCommandHandler {
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private static List<Map<String, Object>> listOfMaps(Object value) {
-    if (!(value instanceof List<?> list)) return List.of();
-    List<Map<String, Object>> out = new ArrayList<>();
-    for (Object item : list) {
-      if (item instanceof Map<?, ?> map) {
-        out.add((Map<String, Object>) map);
-      }
-    }
-    return out;
+  private static <T> List<T> orEmpty(List<T> list) {
+    return list == null ? List.of() : list;
   }
 
-  @SuppressWarnings("unchecked")
-  private static Map<String, Object> mapOf(Object value) {
-    if (value instanceof Map<?, ?> map) {
-      return (Map<String, Object>) map;
-    }
-    return Map.of();
-  }
-
-  private static List<List<String>> rowsFromEntries(
-      List<Map<String, Object>> entries, List<String> fields) {
+  private static List<List<String>> rowsFromEntries(List<OrderBookEntryDto> entries) {
     List<List<String>> rows = new ArrayList<>();
-    for (Map<String, Object> entry : entries) {
-      List<String> row = new ArrayList<>();
-      for (String field : fields) {
-        row.add(n(entry.get(field)));
-      }
-      rows.add(row);
+    for (OrderBookEntryDto entry : entries) {
+      rows.add(List.of(n(entry.price()), n(entry.quantity())));
     }
     return rows;
   }
@@ -1339,6 +1431,10 @@ public class ChatCommandHandler {
     return value == null ? "" : String.valueOf(value);
   }
 
+  private static String t(OffsetDateTime value) {
+    return value == null ? "" : value.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+  }
+
   private static String n(Object value) {
     if (value == null) return "";
     if (value instanceof BigDecimal decimal) {
@@ -1560,7 +1656,7 @@ public class ChatCommandHandler {
    */
   private boolean canSeeRaw(ChatMessageEnvelope env) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       return res.linked() && res.perms().contains(PERM_ADMIN_ANSWERS_LOG);
     } catch (Exception ignore) {
       return false;
@@ -5,6 +5,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -18,6 +19,8 @@ public class CommandSwitchCache {
 
   private volatile Map<String, Boolean> cache = Map.of();
   private volatile Instant expiresAt = Instant.EPOCH;
+  // Not synchronized: the refresh blocks on HTTP and would pin a virtual thread to its carrier.
+  private final ReentrantLock refreshLock = new ReentrantLock();
 
   public CommandSwitchCache(
       GatewayInternalClient gateway, @Value("${command.switch.cache-ttl:PT10S}") Duration ttl) {
@@ -35,7 +38,8 @@ public class CommandSwitchCache {
     if (Instant.now().isBefore(expiresAt)) {
       return;
     }
-    synchronized (this) {
+    refreshLock.lock();
+    try {
       if (Instant.now().isBefore(expiresAt)) {
         return;
       }
@@ -55,6 +59,8 @@ public class CommandSwitchCache {
         log.warn("Failed to refresh command switches: {}", e.getMessage());
         expiresAt = Instant.now().plus(ttl);
       }
+    } finally {
+      refreshLock.unlock();
     }
   }
 }
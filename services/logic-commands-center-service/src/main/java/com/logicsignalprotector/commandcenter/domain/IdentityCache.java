@@ -0,0 +1,185 @@
+package com.logicsignalprotector.commandcenter.domain;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.logicsignalprotector.commandcenter.client.GatewayInternalClient;
+import com.logicsignalprotector.commandcenter.client.GatewayInternalClient.ResolveResponse;
+import com.logicsignalprotector.commandcenter.client.GatewayInternalClient.SessionResponse;
+import com.logicsignalprotector.identity.events.IdentityChange;
+import com.logicsignalprotector.identity.events.IdentityChangeListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * Local cache of the identity resolve keyed by (providerCode, externalUserId), so a chat message or
+ * pager button does not cost a gateway round trip and its permission queries. Misses go to {@code
+ * /internal/identity/session}, which also returns an access token; it is handed to {@link
+ * AccessTokenCache} so a cold market command needs one gateway call instead of two.
+ *
+ * <p>Linked users are kept for {@code identity.cache.ttl}, "not linked" answers for the shorter
+ * {@code identity.cache.negative-ttl}. Entries are dropped explicitly when this service links or
+ * unlinks an account or changes roles/overrides, and when the gateway publishes an identity change
+ * (as an {@link IdentityChangeListener}); the TTL only bounds staleness for changes nobody
+ * announced. Gateway errors are never cached. Every invalidation is also published as {@link
+ * IdentityInvalidated}.
+ *
+ * <p>Backed by a Caffeine {@link AsyncCache}: concurrent misses for one account wait for the same
+ * gateway call. A resolve that raced with an invalidation of the same account or user is returned
+ * but not kept ({@link InvalidationLog}); resolves of other users are unaffected.
+ */
+@Service
+public class IdentityCache implements IdentityChangeListener {
+
+  private final GatewayInternalClient gateway;
+  private final AccessTokenCache accessTokens;
+  private final ApplicationEventPublisher events;
+  private final Duration ttl;
+  private final Duration negativeTtl;
+
+  private final AsyncCache<Key, Entry> cache;
+  private final InvalidationLog<Key> invalidations;
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter coalesced;
+
+  public IdentityCache(
+      GatewayInternalClient gateway,
+      AccessTokenCache accessTokens,
+      ApplicationEventPublisher events,
+      MeterRegistry meterRegistry,
+      @Value("${identity.cache.ttl:PT30S}") Duration ttl,
+      @Value("${identity.cache.negative-ttl:PT5S}") Duration negativeTtl,
+      @Value("${identity.cache.max-size:10000}") int maxSize) {
+    this.gateway = gateway;
+    this.accessTokens = accessTokens;
+    this.events = events;
+    this.ttl = ttl;
+    this.negativeTtl = negativeTtl;
+    this.cache =
+        Caffeine.newBuilder().maximumSize(maxSize).expireAfter(new EntryExpiry()).buildAsync();
+    this.invalidations = new InvalidationLog<>(maxSize);
+    this.hits = meterRegistry.counter("identity.cache.requests", "result", "hit");
+    this.misses = meterRegistry.counter("identity.cache.requests", "result", "miss");
+    this.coalesced = meterRegistry.counter("identity.cache.requests", "result", "coalesced");
+    Gauge.builder("identity.cache.size", cache, c -> c.synchronous().estimatedSize())
+        .register(meterRegistry);
+  }
+
+  public ResolveResponse resolve(String providerCode, String externalUserId) {
+    Key key = new Key(providerCode, externalUserId);
+    CompletableFuture<Entry> mine = new CompletableFuture<>();
+    CompletableFuture<Entry> future = cache.get(key, (k, executor) -> mine);
+    if (future != mine) {
+      (future.isDone() ? hits : coalesced).increment();
+      return join(future).value();
+    }
+    misses.increment();
+
+    long stamp = invalidations.stamp();
+    long tokenStamp = accessTokens.stamp();
+    Entry entry;
+    try {
+      SessionResponse session = gateway.session(providerCode, externalUserId);
+      ResolveResponse res = session.resolve();
+      if (res.linked()) {
+        accessTokens.offer(providerCode, externalUserId, session.tokens(), tokenStamp);
+      }
+      entry = new Entry(res, (res.linked() ? ttl : negativeTtl).toNanos());
+    } catch (RuntimeException e) {
+      // Caffeine drops a failed future, so the next call asks the gateway again.
+      mine.completeExceptionally(e);
+      throw e;
+    }
+    mine.complete(entry);
+    if (invalidations.changedSince(stamp, key, entry.value().userId())) {
+      cache.asMap().remove(key, mine);
+    }
+    return entry.value();
+  }
+
+  /** Link state of this external account changed (login, register, logout). */
+  public void invalidate(String providerCode, String externalUserId) {
+    Key key = new Key(providerCode, externalUserId);
+    invalidations.key(key);
+    cache.asMap().remove(key);
+    events.publishEvent(new IdentityInvalidated(providerCode, externalUserId, null));
+  }
+
+  /** Roles or overrides of the user changed, or the user was deleted. */
+  public void invalidateUser(Long userId) {
+    if (userId == null) {
+      return;
+    }
+    invalidations.user(userId);
+    // Resolves still in flight are checked against the log when they complete.
+    cache
+        .asMap()
+        .values()
+        .removeIf(
+            f ->
+                f.isDone()
+                    && !f.isCompletedExceptionally()
+                    && Objects.equals(userId, f.join().value().userId()));
+    events.publishEvent(new IdentityInvalidated(null, null, userId));
+  }
+
+  @Override
+  public void identityChanged(IdentityChange change) {
+    if (change.providerCode() != null && change.externalUserId() != null) {
+      invalidate(change.providerCode(), change.externalUserId());
+    }
+    invalidateUser(change.userId());
+  }
+
+  @Override
+  public void identityEventsLost() {
+    invalidateAll();
+  }
+
+  public void invalidateAll() {
+    invalidations.all();
+    cache.synchronous().invalidateAll();
+    events.publishEvent(new IdentityInvalidated(null, null, null));
+  }
+
+  private static Entry join(CompletableFuture<Entry> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private record Key(String providerCode, String externalUserId) {}
+
+  private record Entry(ResolveResponse value, long keepNanos) {}
+
+  private static final class EntryExpiry implements Expiry<Key, Entry> {
+    @Override
+    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+      return Math.max(0, entry.keepNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+      return Math.max(0, entry.keepNanos());
+    }
+
+    @Override
+    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.logicsignalprotector.commandcenter.domain;
+
+/**
+ * Published by {@link IdentityCache} when cached identity data went stale, so other per-user caches
+ * (access tokens) drop theirs too. {@code providerCode}/{@code externalUserId} address one external
+ * account, {@code userId} every account of a user; all null means everything.
+ */
+public record IdentityInvalidated(String providerCode, String externalUserId, Long userId) {
+
+  boolean all() {
+    return providerCode == null && externalUserId == null && userId == null;
+  }
+}
@@ -0,0 +1,65 @@
+package com.logicsignalprotector.commandcenter.domain;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * When each external account and each user was last invalidated, so a load that raced with an
+ * invalidation of <em>its</em> account or user is not stored, while loads of everyone else are.
+ * Take {@link #stamp()} before calling the gateway and ask {@link #changedSince} before storing.
+ *
+ * <p>At most {@code maxTracked} keys and users are remembered; past that the log forgets them and
+ * treats every load in flight as stale instead, which costs a reload, never a stale entry.
+ */
+final class InvalidationLog<K> {
+
+  private final int maxTracked;
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicLong all = new AtomicLong();
+  private final Map<K, Long> keys = new ConcurrentHashMap<>();
+  private final Map<Long, Long> users = new ConcurrentHashMap<>();
+
+  InvalidationLog(int maxTracked) {
+    this.maxTracked = maxTracked;
+  }
+
+  long stamp() {
+    return clock.get();
+  }
+
+  void key(K key) {
+    keys.put(key, clock.incrementAndGet());
+    trim();
+  }
+
+  void user(Long userId) {
+    if (userId != null) {
+      users.put(userId, clock.incrementAndGet());
+      trim();
+    }
+  }
+
+  void all() {
+    forget(clock.incrementAndGet());
+  }
+
+  /** Whether the key, the user or everything was invalidated after {@code stamp} was taken. */
+  boolean changedSince(long stamp, K key, Long userId) {
+    return all.get() > stamp
+        || keys.getOrDefault(key, 0L) > stamp
+        || (userId != null && users.getOrDefault(userId, 0L) > stamp);
+  }
+
+  private void trim() {
+    if (keys.size() + users.size() > maxTracked) {
+      forget(clock.get());
+    }
+  }
+
+  private void forget(long at) {
+    all.accumulateAndGet(at, Math::max);
+    keys.clear();
+    users.clear();
+  }
+}
@@ -13,12 +13,34 @@ import com.logicsignalprotector.commandcenter.api.dto.v2.TableBlock;
 import com.logicsignalprotector.commandcenter.api.dto.v2.UiHintsV2;
 import com.logicsignalprotector.commandcenter.client.DownstreamClients;
 import com.logicsignalprotector.commandcenter.client.GatewayInternalClient;
+import com.logicsignalprotector.commandcenter.domain.AccessTokenCache;
 import com.logicsignalprotector.commandcenter.domain.ChatState;
 import com.logicsignalprotector.commandcenter.domain.ChatStateStore;
+import com.logicsignalprotector.commandcenter.domain.IdentityCache;
+import com.logicsignalprotector.marketdata.dto.CandleDto;
+import com.logicsignalprotector.marketdata.dto.CandlesResponse;
+import com.logicsignalprotector.marketdata.dto.IndicatorDto;
+import com.logicsignalprotector.marketdata.dto.IndicatorsResponse;
+import com.logicsignalprotector.marketdata.dto.InstrumentCandidateDto;
+import com.logicsignalprotector.marketdata.dto.InstrumentDto;
+import com.logicsignalprotector.marketdata.dto.InstrumentResolveResponse;
+import com.logicsignalprotector.marketdata.dto.InstrumentsResponse;
+import com.logicsignalprotector.marketdata.dto.MarketStatusDto;
+import com.logicsignalprotector.marketdata.dto.MarketStatusResponse;
+import com.logicsignalprotector.marketdata.dto.OrderBookDto;
+import com.logicsignalprotector.marketdata.dto.OrderBookEntryDto;
+import com.logicsignalprotector.marketdata.dto.OrderBookResponse;
+import com.logicsignalprotector.marketdata.dto.QuoteDto;
+import com.logicsignalprotector.marketdata.dto.QuoteResponse;
+import com.logicsignalprotector.marketdata.dto.TradeDto;
+import com.logicsignalprotector.marketdata.dto.TradesResponse;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -30,6 +52,7 @@ import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestClientResponseException;
 
 @Service
@@ -50,6 +73,8 @@ public class ChatCommandHandlerV2 {
       Set.of("ADMIN_USERS_PERMS_REVOKE", "COMMANDS_TOGGLE", "USERS_HARD_DELETE");
 
   private final GatewayInternalClient gateway;
+  private final IdentityCache identity;
+  private final AccessTokenCache accessTokens;
   private final DownstreamClients downstream;
   private final HelpBuilder helpBuilder;
   private final MenuBuilder menuBuilder;
@@ -59,12 +84,16 @@ public class ChatCommandHandlerV2 {
 
   public ChatCommandHandlerV2(
       GatewayInternalClient gateway,
+      IdentityCache identity,
+      AccessTokenCache accessTokens,
       DownstreamClients downstream,
       HelpBuilder helpBuilder,
       MenuBuilder menuBuilder,
       ChatStateStore stateStore,
       @Value("${dev.console.enabled:false}") boolean devConsoleEnabled) {
     this.gateway = gateway;
+    this.identity = identity;
+    this.accessTokens = accessTokens;
     this.downstream = downstream;
     this.helpBuilder = helpBuilder;
     this.menuBuilder = menuBuilder;
@@ -107,7 +136,7 @@ public class ChatCommandHandlerV2 {
 
   private ChatResponseV2 doHelp(ChatMessageEnvelope env, String sessionId) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       Set<String> perms =
           res != null && res.perms() != null ? new HashSet<>(res.perms()) : Set.of();
       boolean linked = res != null && res.linked();
@@ -120,7 +149,7 @@ public class ChatCommandHandlerV2 {
 
   private ChatResponseV2 doMenu(ChatMessageEnvelope env, String sessionId) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       Set<String> perms =
           res != null && res.perms() != null ? new HashSet<>(res.perms()) : Set.of();
       boolean linked = res != null && res.linked();
@@ -139,7 +168,7 @@ public class ChatCommandHandlerV2 {
 
   private ChatResponseV2 doMenuMarket(ChatMessageEnvelope env, String sessionId) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       Set<String> perms =
           res != null && res.perms() != null ? new HashSet<>(res.perms()) : Set.of();
       boolean linked = res != null && res.linked();
@@ -166,7 +195,7 @@ public class ChatCommandHandlerV2 {
 
   private ChatResponseV2 doMenuAccount(ChatMessageEnvelope env, String sessionId) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       Set<String> perms =
           res != null && res.perms() != null ? new HashSet<>(res.perms()) : Set.of();
       boolean linked = res != null && res.linked();
@@ -183,7 +212,7 @@ public class ChatCommandHandlerV2 {
 
   private ChatResponseV2 doMenuDev(ChatMessageEnvelope env, String sessionId) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       Set<String> perms =
           res != null && res.perms() != null ? new HashSet<>(res.perms()) : Set.of();
       boolean linked = res != null && res.linked();
@@ -202,7 +231,7 @@ public class ChatCommandHandlerV2 {
 
   private ChatResponseV2 doDbMenu(ChatMessageEnvelope env, String sessionId) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       Set<String> perms =
           res != null && res.perms() != null ? new HashSet<>(res.perms()) : Set.of();
       boolean linked = res != null && res.linked();
@@ -221,7 +250,7 @@ public class ChatCommandHandlerV2 {
 
   private ChatResponseV2 doDb(ChatMessageEnvelope env, String sessionId, String input) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       Set<String> perms =
           res != null && res.perms() != null ? new HashSet<>(res.perms()) : Set.of();
       boolean linked = res != null && res.linked();
@@ -265,7 +294,7 @@ public class ChatCommandHandlerV2 {
 
     String sessionId = ensureSessionId(env, null);
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       if (res == null || !res.linked()) {
         return error(
             "NOT_LINKED", "Сначала привяжи аккаунт.", "Используй /login или /register.", env);
@@ -275,7 +304,7 @@ public class ChatCommandHandlerV2 {
             "FORBIDDEN", "Нет прав для операции.", "Если цель доступ, нужен MARKETDATA_READ.", env);
       }
 
-      var tokens = gateway.issueAccess(providerCode(env), env.externalUserId());
+      var tokens = accessTokens.get(providerCode(env), env.externalUserId());
       if (tokens == null || tokens.accessToken() == null || tokens.accessToken().isBlank()) {
         return error("NO_TOKEN", "Не удалось получить токен доступа.", "Попробуй позже.", env);
       }
@@ -292,6 +321,8 @@ public class ChatCommandHandlerV2 {
             marketQuote(env, sessionId, tokens.accessToken(), p, opts, engine, market, board);
         case "candles" ->
             marketCandles(env, sessionId, tokens.accessToken(), p, opts, engine, market, board);
+        case "indicators" ->
+            marketIndicators(env, sessionId, tokens.accessToken(), p, opts, engine, market, board);
         case "orderbook" ->
             marketOrderBook(env, sessionId, tokens.accessToken(), p, opts, engine, market, board);
         case "trades" ->
@@ -323,7 +354,7 @@ public class ChatCommandHandlerV2 {
     }
 
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       if (res == null || !res.linked()) {
         return error(
             "NOT_LINKED", "Сначала привяжи аккаунт.", "Используй /login или /register.", env);
@@ -333,7 +364,7 @@ public class ChatCommandHandlerV2 {
             "FORBIDDEN", "Нет прав для операции.", "Если цель доступ, нужен MARKETDATA_READ.", env);
       }
 
-      var tokens = gateway.issueAccess(providerCode(env), env.externalUserId());
+      var tokens = accessTokens.get(providerCode(env), env.externalUserId());
       if (tokens == null || tokens.accessToken() == null || tokens.accessToken().isBlank()) {
         return error("NO_TOKEN", "Не удалось получить токен доступа.", "Попробуй позже.", env);
       }
@@ -391,30 +422,31 @@ public class ChatCommandHandlerV2 {
 
     MarketParams params = new MarketParams(limit, filter, board, engine, market);
     storeMarketParams(sessionId, params);
-    Map<String, Object> resp =
+    InstrumentsResponse resp =
         downstream.marketInstruments(
             token, engine, market, board, filter, limit, offset, env.correlationId());
-    List<Map<String, Object>> items = listOfMaps(resp.get("instruments"));
+    List<InstrumentDto> items = orEmpty(resp == null ? null : resp.instruments());
     if (items.isEmpty()) {
       return response(List.of(new NoticeBlock("market_empty")), env, sessionId);
     }
 
     List<List<String>> rows = new ArrayList<>();
-    for (Map<String, Object> item : items) {
+    for (InstrumentDto item : items) {
       rows.add(
           List.of(
-              s(item.get("secId")),
-              s(item.get("shortName")),
-              n(item.get("lastPrice")),
-              n(item.get("prevPrice")),
-              s(item.get("currency")),
-              s(item.get("board"))));
+              s(item.secId()),
+              s(item.shortName()),
+              n(item.lastPrice()),
+              n(item.prevPrice()),
+              s(item.currency()),
+              s(item.board())));
     }
 
     List<ResponseBlock> blocks = new ArrayList<>();
     blocks.add(new TableBlock(List.of("SEC", "NAME", "LAST", "PREV", "CUR", "BOARD"), rows, null));
 
-    ActionBlock pager = buildMarketPager(sessionId, limit, offset, items.size());
+    int total = resp.total();
+    ActionBlock pager = buildMarketPager(sessionId, limit, offset, items.size(), total);
     if (pager != null) {
       blocks.add(pager);
     }
@@ -438,24 +470,80 @@ public class ChatCommandHandlerV2 {
       return error("BAD_INPUT", "Нужен тикер.", "Пример: /market_quote *Id*", env);
     }
 
-    Map<String, Object> resp =
+    List<InstrumentCandidateDto> candidates =
+        resolveTicker(token, engine, market, board, sec, env.correlationId());
+    if (candidates != null) {
+      if (candidates.isEmpty()) {
+        return error(
+            "UNKNOWN_TICKER",
+            "Тикер " + sec + " не найден на " + board + ".",
+            "Найди инструмент: /market_instruments " + sec,
+            env);
+      }
+      InstrumentCandidateDto top = candidates.get(0);
+      if (!"EXACT".equals(top.match())) {
+        return tickerSuggestions(sec, board, candidates, env, sessionId);
+      }
+      sec = s(top.secId());
+    }
+
+    QuoteResponse resp =
         downstream.marketQuote(token, engine, market, board, sec, env.correlationId());
-    Map<String, Object> quote = mapOf(resp.get("quote"));
-    if (quote.isEmpty()) {
+    QuoteDto quote = resp == null ? null : resp.quote();
+    if (quote == null) {
       return response(List.of(new NoticeBlock("market_empty")), env, sessionId);
     }
 
     List<List<String>> rows =
         List.of(
             List.of(
-                s(quote.get("secId")),
-                n(quote.get("lastPrice")),
-                n(quote.get("change")),
-                n(quote.get("changePercent")),
-                n(quote.get("volume")),
-                s(quote.get("time"))));
+                s(quote.secId()),
+                n(quote.lastPrice()),
+                n(quote.change()),
+                n(quote.changePercent()),
+                n(quote.volume()),
+                t(quote.time())));
     List<ResponseBlock> blocks = new ArrayList<>();
     blocks.add(new TableBlock(List.of("SEC", "LAST", "CHG", "CHG%", "VOL", "TIME"), rows, null));
+    addStaleNotice(blocks, resp.stale());
+    return response(blocks, env, sessionId);
+  }
+
+  /**
+   * Ranked candidates for a typed ticker, or {@code null} if market-data cannot resolve it (the
+   * quote is then requested as typed).
+   */
+  private List<InstrumentCandidateDto> resolveTicker(
+      String token, String engine, String market, String board, String sec, String correlationId) {
+    try {
+      InstrumentResolveResponse resp =
+          downstream.marketResolve(token, engine, market, board, sec, 5, correlationId);
+      return resp == null ? null : orEmpty(resp.candidates());
+    } catch (RestClientException e) {
+      return null;
+    }
+  }
+
+  private static ChatResponseV2 tickerSuggestions(
+      String sec,
+      String board,
+      List<InstrumentCandidateDto> candidates,
+      ChatMessageEnvelope env,
+      String sessionId) {
+    List<ActionItem> actions = new ArrayList<>();
+    for (InstrumentCandidateDto candidate : candidates) {
+      String secId = s(candidate.secId());
+      actions.add(
+          new ActionItem(
+              "market_quote_pick",
+              secId + " · " + s(candidate.shortName()),
+              "cmd:market_quote:" + secId + ":board=" + board));
+    }
+    List<ResponseBlock> blocks = new ArrayList<>();
+    blocks.add(
+        new ErrorBlock(
+            "UNKNOWN_TICKER", "Тикер " + sec + " не найден на " + board + ".", "Возможно:", null));
+    blocks.add(new ActionBlock(actions));
     return response(blocks, env, sessionId);
   }
 
@@ -478,9 +566,12 @@ public class ChatCommandHandlerV2 {
 
     Integer interval = parseInt(opts.get("interval"));
     if (interval == null) interval = 60;
-    if (!(interval == 1 || interval == 10 || interval == 60 || interval == 1440)) {
+    if (interval < 1 || !(1440 % interval == 0 || interval == 10080)) {
       return error(
-          "BAD_INTERVAL", "interval должен быть 1, 10, 60 или 1440.", "Проверь параметры.", env);
+          "BAD_INTERVAL",
+          "interval должен делить 1440 (1, 5, 15, 30, 60, 240, 1440) или быть 10080.",
+          "Проверь параметры.",
+          env);
     }
 
     Integer limit = parseInt(opts.get("limit"));
@@ -492,35 +583,128 @@ public class ChatCommandHandlerV2 {
     String from = opts.get("from");
     String till = opts.get("till");
 
-    Map<String, Object> resp =
+    CandlesResponse resp =
         downstream.marketCandles(
-            token, engine, market, board, sec, interval, from, till, env.correlationId());
-    List<Map<String, Object>> candles = listOfMaps(resp.get("candles"));
+            token, engine, market, board, sec, interval, from, till, limit, env.correlationId());
+    List<CandleDto> candles = orEmpty(resp == null ? null : resp.candles());
     if (candles.isEmpty()) {
       return response(List.of(new NoticeBlock("market_empty")), env, sessionId);
     }
 
-    int total = candles.size();
-    int fromIdx = Math.max(0, total - limit);
-    List<Map<String, Object>> slice = candles.subList(fromIdx, total);
-
     List<List<String>> rows = new ArrayList<>();
-    for (Map<String, Object> candle : slice) {
+    for (CandleDto candle : candles) {
       rows.add(
           List.of(
-              s(candle.get("begin")),
-              n(candle.get("open")),
-              n(candle.get("high")),
-              n(candle.get("low")),
-              n(candle.get("close")),
-              n(candle.get("volume"))));
+              t(candle.begin()),
+              n(candle.open()),
+              n(candle.high()),
+              n(candle.low()),
+              n(candle.close()),
+              n(candle.volume())));
     }
 
     List<ResponseBlock> blocks = new ArrayList<>();
     blocks.add(new TableBlock(List.of("BEGIN", "OPEN", "HIGH", "LOW", "CLOSE", "VOL"), rows, null));
+    addStaleNotice(blocks, resp.stale());
     return response(blocks, env, sessionId);
   }
 
+  /** market-data answered from last-known-good data because MOEX ISS is unavailable. */
+  private static void addStaleNotice(List<ResponseBlock> blocks, boolean stale) {
+    if (stale) {
+      blocks.add(new NoticeBlock("market_stale"));
+    }
+  }
+
+  /** Indicators are computed by market-data; only the last rows travel to the chat. */
+  private ChatResponseV2 marketIndicators(
+      ChatMessageEnvelope env,
+      String sessionId,
+      String token,
+      Parsed p,
+      Map<String, String> opts,
+      String engine,
+      String market,
+      String board) {
+    String sec = positional(p.arg2());
+    if (sec == null) {
+      sec = opts.get("sec");
+    }
+    if (sec == null) {
+      return error(
+          "BAD_INPUT", "Нужен тикер.", "Пример: /market_indicators *Id* ind=sma:20,rsi:14", env);
+    }
+
+    Integer interval = parseInt(opts.get("interval"));
+    if (interval == null) interval = 60;
+    if (interval < 1 || !(1440 % interval == 0 || interval == 10080)) {
+      return error(
+          "BAD_INTERVAL",
+          "interval должен делить 1440 (1, 5, 15, 30, 60, 240, 1440) или быть 10080.",
+          "Проверь параметры.",
+          env);
+    }
+
+    Integer limit = parseInt(opts.get("limit"));
+    if (limit == null) limit = 10;
+    if (limit < 1 || limit > 50) {
+      return error("BAD_LIMIT", "limit должен быть от 1 до 50.", "Проверь параметры.", env);
+    }
+
+    String indicators = opt(opts, "ind", opt(opts, "indicators", "sma:20,rsi:14"));
+
+    IndicatorsResponse resp;
+    try {
+      resp =
+          downstream.marketIndicators(
+              token, engine, market, board, sec, interval, indicators, limit, env.correlationId());
+    } catch (RestClientResponseException e) {
+      if (e.getStatusCode().value() == 400) {
+        return error(
+            "BAD_INDICATORS",
+            "Не удалось разобрать индикаторы: " + indicators,
+            "Доступны sma:N, ema:N, rsi:N, macd:F:S:SIG, bb:N:K, atr:N.",
+            env);
+      }
+      throw e;
+    }
+    List<OffsetDateTime> time = orEmpty(resp == null ? null : resp.time());
+    if (time.isEmpty()) {
+      return response(List.of(new NoticeBlock("market_empty")), env, sessionId);
+    }
+    List<BigDecimal> close = orEmpty(resp.close());
+
+    List<String> header = new ArrayList<>(List.of("TIME", "CLOSE"));
+    List<List<Double>> columns = new ArrayList<>();
+    for (IndicatorDto indicator : orEmpty(resp.indicators())) {
+      Map<String, List<Double>> lines = indicator.lines() == null ? Map.of() : indicator.lines();
+      String id = s(indicator.id()).toUpperCase(Locale.ROOT);
+      for (Map.Entry<String, List<Double>> line : lines.entrySet()) {
+        header.add(lines.size() == 1 ? id : id + " " + line.getKey());
+        columns.add(orEmpty(line.getValue()));
+      }
+    }
+
+    List<List<String>> rows = new ArrayList<>();
+    for (int i = 0; i < time.size(); i++) {
+      List<String> row = new ArrayList<>();
+      row.add(t(time.get(i)));
+      row.add(i < close.size() ? n(close.get(i)) : "");
+      for (List<Double> column : columns) {
+        row.add(i < column.size() ? rounded(column.get(i)) : "");
+      }
+      rows.add(row);
+    }
+    return response(List.of(new TableBlock(header, rows, null)), env, sessionId);
+  }
+
+  private static String rounded(Double value) {
+    if (value == null || value.isNaN() || value.isInfinite()) {
+      return "";
+    }
+    return n(BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP));
+  }
+
   private ChatResponseV2 marketOrderBook(
       ChatMessageEnvelope env,
       String sessionId,
@@ -544,11 +728,11 @@ public class ChatCommandHandlerV2 {
       return error("BAD_DEPTH", "depth должен быть от 1 до 50.", "Проверь параметры.", env);
     }
 
-    Map<String, Object> resp =
+    OrderBookResponse resp =
         downstream.marketOrderBook(token, engine, market, board, sec, depth, env.correlationId());
-    Map<String, Object> orderBook = mapOf(resp.get("orderBook"));
-    List<Map<String, Object>> bids = listOfMaps(orderBook.get("bids"));
-    List<Map<String, Object>> asks = listOfMaps(orderBook.get("asks"));
+    OrderBookDto orderBook = resp == null ? null : resp.orderBook();
+    List<OrderBookEntryDto> bids = orEmpty(orderBook == null ? null : orderBook.bids());
+    List<OrderBookEntryDto> asks = orEmpty(orderBook == null ? null : orderBook.asks());
     if (bids.isEmpty() && asks.isEmpty()) {
       return response(List.of(new NoticeBlock("market_empty")), env, sessionId);
     }
@@ -591,23 +775,23 @@ public class ChatCommandHandlerV2 {
 
     String from = opts.get("from");
 
-    Map<String, Object> resp =
+    TradesResponse resp =
         downstream.marketTrades(
             token, engine, market, board, sec, from, limit, env.correlationId());
-    List<Map<String, Object>> trades = listOfMaps(resp.get("trades"));
+    List<TradeDto> trades = orEmpty(resp == null ? null : resp.trades());
     if (trades.isEmpty()) {
       return response(List.of(new NoticeBlock("market_empty")), env, sessionId);
     }
 
     List<List<String>> rows = new ArrayList<>();
-    for (Map<String, Object> trade : trades) {
+    for (TradeDto trade : trades) {
       rows.add(
           List.of(
-              s(trade.get("tradeNo")),
-              s(trade.get("time")),
-              n(trade.get("price")),
-              n(trade.get("quantity")),
-              s(trade.get("side"))));
+              s(trade.tradeNo()),
+              t(trade.time()),
+              n(trade.price()),
+              n(trade.quantity()),
+              s(trade.side())));
     }
     List<ResponseBlock> blocks = new ArrayList<>();
     blocks.add(new TableBlock(List.of("NO", "TIME", "PRICE", "QTY", "SIDE"), rows, null));
@@ -761,7 +945,7 @@ public class ChatCommandHandlerV2 {
 
   private MarketStatusInfo resolveMarketStatusForHelp(ChatMessageEnvelope env) {
     try {
-      var res = gateway.resolve(providerCode(env), env.externalUserId());
+      var res = identity.resolve(providerCode(env), env.externalUserId());
       Set<String> perms =
           res != null && res.perms() != null ? new HashSet<>(res.perms()) : Set.of();
       boolean linked = res != null && res.linked();
@@ -777,11 +961,11 @@ public class ChatCommandHandlerV2 {
   private MarketStatusInfo fetchMarketStatus(
       ChatMessageEnvelope env, String engine, String market, String board, String sec) {
     try {
-      var tokens = gateway.issueAccess(providerCode(env), env.externalUserId());
+      var tokens = accessTokens.get(providerCode(env), env.externalUserId());
       if (tokens == null || tokens.accessToken() == null || tokens.accessToken().isBlank()) {
         return MarketStatusInfo.error("нет токена доступа");
       }
-      Map<String, Object> resp =
+      MarketStatusResponse resp =
           downstream.marketStatus(
               tokens.accessToken(), engine, market, board, sec, env.correlationId());
       return parseMarketStatus(resp, board, sec);
@@ -793,16 +977,16 @@ public class ChatCommandHandlerV2 {
   }
 
   private static MarketStatusInfo parseMarketStatus(
-      Map<String, Object> resp, String defaultBoard, String defaultSec) {
-    Map<String, Object> status = mapOf(resp == null ? null : resp.get("status"));
-    if (status.isEmpty()) {
+      MarketStatusResponse resp, String defaultBoard, String defaultSec) {
+    MarketStatusDto status = resp == null ? null : resp.status();
+    if (status == null) {
       return MarketStatusInfo.error("нет данных");
     }
-    String exchange = s(status.get("exchange"));
-    String board = s(status.get("board"));
-    String secId = s(status.get("secId"));
-    String code = s(status.get("tradingStatus"));
-    String time = s(status.get("time"));
+    String exchange = s(status.exchange());
+    String board = s(status.board());
+    String secId = s(status.secId());
+    String code = s(status.tradingStatus());
+    String time = t(status.time());
     return new MarketStatusInfo(
         normalize(exchange, "MOEX"),
         normalize(board, defaultBoard),
@@ -1214,14 +1398,14 @@ public class ChatCommandHandlerV2 {
   }
 
   private static ActionBlock buildMarketPager(
-      String sessionId, int limit, int offset, int actualSize) {
+      String sessionId, int limit, int offset, int actualSize, int total) {
     List<ActionItem> actions = new ArrayList<>();
     if (offset > 0) {
       actions.add(
           new ActionItem(
               "market_prev", "Назад", "mi:" + sessionId + ":" + Math.max(0, offset - limit)));
     }
-    if (actualSize >= limit) {
+    if (actualSize >= limit && offset + actualSize < total) {
       actions.add(
           new ActionItem("market_next", "Дальше", "mi:" + sessionId + ":" + (offset + limit)));
     }
@@ -1526,30 +1710,14 @@ public class ChatCommandHandlerV2 {
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private static List<Map<String, Object>> listOfMaps(Object value) {
-    if (!(value instanceof List<?> list)) return List.of();
-    List<Map<String, Object>> out = new ArrayList<>();
-    for (Object item : list) {
-      if (item instanceof Map<?, ?> map) {
-        out.add((Map<String, Object>) map);
-      }
-    }
-    return out;
-  }
-
-  @SuppressWarnings("unchecked")
-  private static Map<String, Object> mapOf(Object value) {
-    if (value instanceof Map<?, ?> map) {
-      return (Map<String, Object>) map;
-    }
-    return Map.of();
+  private static <T> List<T> orEmpty(List<T> list) {
+    return list == null ? List.of() : list;
   }
 
-  private static List<String> toPairs(List<Map<String, Object>> entries) {
+  private static List<String> toPairs(List<OrderBookEntryDto> entries) {
     List<String> out = new ArrayList<>();
-    for (Map<String, Object> entry : entries) {
-      out.add(n(entry.get("price")) + " x " + n(entry.get("quantity")));
+    for (OrderBookEntryDto entry : entries) {
+      out.add(n(entry.price()) + " x " + n(entry.quantity()));
     }
     return out;
   }
@@ -1558,6 +1726,11 @@ public class ChatCommandHandlerV2 {
     return value == null ? "" : String.valueOf(value);
   }
 
+  /** Same text as the JSON value: ISO-8601 with seconds and the exchange offset. */
+  private static String t(OffsetDateTime value) {
+    return value == null ? "" : value.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+  }
+
   private static String n(Object value) {
     if (value == null) return "";
     if (value instanceof BigDecimal decimal) {
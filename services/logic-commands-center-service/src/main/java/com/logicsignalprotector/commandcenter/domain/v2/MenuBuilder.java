@@ -46,6 +46,7 @@ public class MenuBuilder {
     items.add("Найди тикер через /market_instruments (можно с фильтром)");
     items.add("Запроси цену: /market_quote *Id*");
     items.add("Свечи: /market_candles *Id* interval=60 limit=10");
+    items.add("Индикаторы: /market_indicators *Id* interval=60 ind=sma:20,rsi:14");
     items.add("Глубина: /market_orderbook *Id* depth=10");
     items.add("Сделки: /market_trades *Id* limit=10");
     return new Section("Памятка", "Команды доступны в форме /market_*.", items);
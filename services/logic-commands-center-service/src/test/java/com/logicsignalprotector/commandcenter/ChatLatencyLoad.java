@@ -0,0 +1,143 @@
+package com.logicsignalprotector.commandcenter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Chat latency with and without the identity resolve cache: {@code USERS} users send {@code
+ * MESSAGES} {@code /menu} messages one after another (a user browsing menus and pager buttons). The
+ * gateway stub answers {@code /internal/identity/session} after {@code RESOLVE_DELAY}, roughly the
+ * cost of the HTTP hop plus the account lookup and permission queries. The service runs once with
+ * {@code identity.cache.ttl=0} (every message resolves) and once with the defaults; for each run it
+ * prints p50/p95/p99 message latency and the number of resolve calls the gateway received.
+ *
+ * <p>Run manually via {@link #main}; it is not part of the test suite.
+ */
+public final class ChatLatencyLoad {
+  private static final int USERS = 20;
+  private static final int MESSAGES = 1000;
+  private static final Duration RESOLVE_DELAY = Duration.ofMillis(15);
+
+  private static final String SESSION =
+      "{\"linked\":true,\"userId\":1,\"login\":\"load\",\"displayName\":\"load\","
+          + "\"roles\":[\"USER\"],\"perms\":[\"MARKETDATA_READ\"],\"accessToken\":\"load-token\","
+          + "\"tokenType\":\"Bearer\",\"expiresInSeconds\":900}";
+  private static final String SWITCHES = "{\"switches\":[]}";
+
+  private static final AtomicInteger resolves = new AtomicInteger();
+
+  public static void main(String[] args) throws Exception {
+    HttpServer gateway = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+    gateway.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    gateway.createContext(
+        "/internal/identity/session",
+        exchange -> {
+          resolves.incrementAndGet();
+          reply(exchange, SESSION, RESOLVE_DELAY);
+        });
+    gateway.createContext(
+        "/internal/commands/list", exchange -> reply(exchange, SWITCHES, Duration.ZERO));
+    gateway.start();
+    try {
+      String url = "http://127.0.0.1:" + gateway.getAddress().getPort();
+      run(url, false);
+      run(url, true);
+    } finally {
+      gateway.stop(0);
+    }
+  }
+
+  private static void reply(HttpExchange exchange, String json, Duration delay) throws IOException {
+    try {
+      exchange.getRequestBody().readAllBytes();
+      Thread.sleep(delay.toMillis());
+      byte[] body = json.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      // JDK HttpServer answers on a reused connection only after the client's delayed ACK
+      // (~40 ms on Linux); a real gateway (Tomcat, TCP_NODELAY) does not, so do not reuse.
+      exchange.getResponseHeaders().add("Connection", "close");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void run(String gatewayUrl, boolean cached) throws Exception {
+    ConfigurableApplicationContext context =
+        SpringApplication.run(
+            LogicCommandsCenterApplication.class,
+            "--server.port=0",
+            "--gateway.internal.base-url=" + gatewayUrl,
+            "--identity.cache.ttl=" + (cached ? "PT30S" : "PT0S"),
+            "--identity.cache.negative-ttl=" + (cached ? "PT5S" : "PT0S"),
+            "--identity.events.enabled=false",
+            "--logging.level.com.logicsignalprotector=WARN");
+    try {
+      String base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+      HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+      // Warm-up so both modes are measured on a JIT-compiled, connected service.
+      for (int i = 0; i < 200; i++) {
+        send(client, base, "warmup" + i % USERS);
+      }
+      resolves.set(0);
+      long[] latencies = new long[MESSAGES];
+      for (int i = 0; i < MESSAGES; i++) {
+        long start = System.nanoTime();
+        send(client, base, "u" + i % USERS);
+        latencies[i] = System.nanoTime() - start;
+      }
+      Arrays.sort(latencies);
+      System.out.printf(
+          "%s: p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, gateway resolves %d for %d messages%n",
+          cached ? "resolve cache" : "no cache",
+          percentile(latencies, 0.50),
+          percentile(latencies, 0.95),
+          percentile(latencies, 0.99),
+          resolves.get(),
+          MESSAGES);
+    } finally {
+      context.close();
+    }
+  }
+
+  private static void send(HttpClient client, String base, String user) throws Exception {
+    String json =
+        "{\"channel\":\"telegram\",\"externalUserId\":\""
+            + user
+            + "\",\"chatId\":\""
+            + user
+            + "\",\"text\":\"/menu\"}";
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create(base + "/internal/chat/message/v2"))
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofSeconds(10))
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("HTTP " + response.statusCode());
+    }
+  }
+
+  private static double percentile(long[] sorted, double p) {
+    int index = (int) Math.ceil(p * sorted.length) - 1;
+    return sorted[Math.max(0, index)] / 1e6;
+  }
+}
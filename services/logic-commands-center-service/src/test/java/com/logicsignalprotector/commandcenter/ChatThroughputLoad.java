@@ -0,0 +1,147 @@
+package com.logicsignalprotector.commandcenter;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Chat throughput under platform vs virtual threads: {@code MESSAGES} concurrent {@code
+ * /menu_market} messages to {@code POST /internal/chat/message/v2}. Each message makes two blocking
+ * downstream calls (gateway identity session, market-data status), served by a local stub after
+ * {@code DOWNSTREAM_DELAY}. The service runs once with a Tomcat pool of {@code TOMCAT_THREADS} and
+ * once with {@code spring.threads.virtual.enabled}; for each mode it prints messages per second,
+ * the peak number of downstream calls in flight and, in virtual mode, the pinned-thread count from
+ * {@code jvm.threads.virtual.pinned}.
+ *
+ * <p>Run manually via {@link #main}; it is not part of the test suite.
+ */
+public final class ChatThroughputLoad {
+  private static final int MESSAGES = 1000;
+  private static final int TOMCAT_THREADS = 32;
+  private static final Duration DOWNSTREAM_DELAY = Duration.ofMillis(250);
+
+  private static final String SESSION =
+      "{\"linked\":true,\"userId\":1,\"login\":\"load\",\"displayName\":\"load\","
+          + "\"roles\":[\"USER\"],\"perms\":[\"MARKETDATA_READ\"],\"accessToken\":\"load-token\","
+          + "\"tokenType\":\"Bearer\",\"expiresInSeconds\":900}";
+  private static final String STATUS =
+      "{\"status\":{\"exchange\":\"MOEX\",\"board\":\"TQBR\",\"secId\":\"SBER\","
+          + "\"tradingStatus\":\"T\",\"time\":\"10:00:00\"}}";
+
+  private static final AtomicInteger inFlight = new AtomicInteger();
+  private static final AtomicInteger peak = new AtomicInteger();
+
+  public static void main(String[] args) throws Exception {
+    HttpServer downstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+    downstream.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    downstream.createContext("/internal/identity/session", exchange -> reply(exchange, SESSION));
+    downstream.createContext("/api/market/v1/status", exchange -> reply(exchange, STATUS));
+    downstream.start();
+    try {
+      String url = "http://127.0.0.1:" + downstream.getAddress().getPort();
+      run(url, false);
+      run(url, true);
+    } finally {
+      downstream.stop(0);
+    }
+  }
+
+  private static void reply(HttpExchange exchange, String json) throws IOException {
+    peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    try {
+      exchange.getRequestBody().readAllBytes();
+      Thread.sleep(DOWNSTREAM_DELAY.toMillis());
+      byte[] body = json.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  private static void run(String downstreamUrl, boolean virtualThreads) {
+    ConfigurableApplicationContext context =
+        SpringApplication.run(
+            LogicCommandsCenterApplication.class,
+            "--server.port=0",
+            "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+            "--spring.threads.virtual.enabled=" + virtualThreads,
+            "--gateway.internal.base-url=" + downstreamUrl,
+            "--services.market-data.base-url=" + downstreamUrl,
+            "--identity.events.enabled=false",
+            "--logging.level.com.logicsignalprotector=WARN");
+    try {
+      String base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+      HttpClient client =
+          HttpClient.newBuilder()
+              .executor(Executors.newVirtualThreadPerTaskExecutor())
+              .connectTimeout(Duration.ofSeconds(5))
+              .build();
+      // Warm-up so both modes are measured on a JIT-compiled, connected service.
+      send(client, base, 50);
+      peak.set(0);
+      long start = System.nanoTime();
+      long ok = send(client, base, MESSAGES);
+      double seconds = (System.nanoTime() - start) / 1e9;
+      Timer pinned =
+          context.getBean(MeterRegistry.class).find("jvm.threads.virtual.pinned").timer();
+      System.out.printf(
+          "%s: %d/%d ok in %.2f s, %.0f msg/s, peak downstream calls %d (tomcat pool %d)%s%n",
+          virtualThreads ? "virtual threads" : "platform pool",
+          ok,
+          MESSAGES,
+          seconds,
+          MESSAGES / seconds,
+          peak.get(),
+          TOMCAT_THREADS,
+          pinned == null ? "" : ", pinned " + pinned.count());
+    } finally {
+      context.close();
+    }
+  }
+
+  private static long send(HttpClient client, String base, int count) {
+    List<CompletableFuture<HttpResponse<Void>>> calls = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      String json =
+          "{\"channel\":\"telegram\",\"externalUserId\":\"u"
+              + i
+              + "\",\"chatId\":\"c"
+              + i
+              + "\",\"text\":\"/menu_market\"}";
+      HttpRequest request =
+          HttpRequest.newBuilder(URI.create(base + "/internal/chat/message/v2"))
+              .header("Content-Type", "application/json")
+              .timeout(Duration.ofSeconds(60))
+              .POST(HttpRequest.BodyPublishers.ofString(json))
+              .build();
+      calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+    }
+    return calls.stream()
+        .map(CompletableFuture::join)
+        .filter(response -> response.statusCode() == 200)
+        .count();
+  }
+}
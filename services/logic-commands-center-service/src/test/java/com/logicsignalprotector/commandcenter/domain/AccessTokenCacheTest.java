@@ -0,0 +1,154 @@
+package com.logicsignalprotector.commandcenter.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.logicsignalprotector.commandcenter.client.GatewayInternalClient;
+import com.logicsignalprotector.commandcenter.client.GatewayInternalClient.SessionResponse;
+import com.logicsignalprotector.commandcenter.client.GatewayInternalClient.TokensResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class AccessTokenCacheTest {
+
+  private final GatewayInternalClient gateway = mock(GatewayInternalClient.class);
+  private final AtomicInteger issued = new AtomicInteger();
+  private long expiresInSeconds = 900;
+
+  @Test
+  void tokenIsReusedWhileMoreThanTheMarginIsLeft() {
+    answer();
+    AccessTokenCache cache = cache(Duration.ofMinutes(10));
+
+    String first = cache.get("telegram", "a").accessToken();
+    String second = cache.get("telegram", "a").accessToken();
+
+    assertThat(second).isEqualTo(first);
+    verify(gateway, times(1)).session("telegram", "a");
+  }
+
+  @Test
+  void tokenWithinTheMarginIsNotHandedOut() {
+    expiresInSeconds = 30; // min-remaining is one minute
+    answer();
+    AccessTokenCache cache = cache(Duration.ofMinutes(10));
+
+    String first = cache.get("telegram", "a").accessToken();
+    String second = cache.get("telegram", "a").accessToken();
+
+    assertThat(second).isNotEqualTo(first);
+    verify(gateway, times(2)).session("telegram", "a");
+  }
+
+  @Test
+  void offeredTokenIsReused() {
+    answer();
+    AccessTokenCache cache = cache(Duration.ofMinutes(10));
+
+    cache.offer("telegram", "a", tokens("offered", 1L), cache.stamp());
+
+    assertThat(cache.get("telegram", "a").accessToken()).isEqualTo("offered");
+    verify(gateway, never()).session(anyString(), anyString());
+  }
+
+  @Test
+  void offerThatRacedWithItsAccountOrUserIsDropped() {
+    answer();
+    AccessTokenCache cache = cache(Duration.ofMinutes(10));
+
+    long stamp = cache.stamp();
+    cache.onInvalidated(new IdentityInvalidated("telegram", "a", null));
+    cache.onInvalidated(new IdentityInvalidated(null, null, 2L));
+    cache.offer("telegram", "a", tokens("stale", 1L), stamp);
+    cache.offer("telegram", "b", tokens("stale-user", 2L), stamp);
+    cache.offer("telegram", "c", tokens("kept", 3L), stamp);
+
+    assertThat(cache.get("telegram", "a").accessToken()).isNotEqualTo("stale");
+    assertThat(cache.get("telegram", "b").accessToken()).isNotEqualTo("stale-user");
+    assertThat(cache.get("telegram", "c").accessToken()).isEqualTo("kept");
+  }
+
+  @Test
+  void invalidationDropsTheRightTokens() {
+    answer();
+    AccessTokenCache cache = cache(Duration.ofMinutes(10));
+    cache.offer("telegram", "a", tokens("a1", 1L), cache.stamp());
+    cache.offer("telegram", "b", tokens("b1", 1L), cache.stamp());
+    cache.offer("telegram", "c", tokens("c2", 2L), cache.stamp());
+
+    cache.onInvalidated(new IdentityInvalidated(null, null, 1L));
+
+    assertThat(cache.get("telegram", "a").accessToken()).isNotEqualTo("a1");
+    assertThat(cache.get("telegram", "b").accessToken()).isNotEqualTo("b1");
+    assertThat(cache.get("telegram", "c").accessToken()).isEqualTo("c2");
+
+    cache.onInvalidated(new IdentityInvalidated(null, null, null));
+    assertThat(cache.get("telegram", "c").accessToken()).isNotEqualTo("c2");
+  }
+
+  @Test
+  void refreshReissuesTokensCloseToExpiry() {
+    expiresInSeconds = 120; // usable (over one minute left) but within the 3m refresh-ahead
+    answer();
+    AccessTokenCache cache = cache(Duration.ofMinutes(10));
+    String first = cache.get("telegram", "a").accessToken();
+
+    cache.refreshExpiring();
+
+    String refreshed = cache.get("telegram", "a").accessToken();
+    assertThat(refreshed).isNotEqualTo(first);
+    verify(gateway, times(2)).session("telegram", "a");
+  }
+
+  @Test
+  void refreshDropsIdleTokens() throws InterruptedException {
+    answer();
+    AccessTokenCache cache = cache(Duration.ofMillis(1));
+    cache.get("telegram", "a");
+    Thread.sleep(20);
+
+    cache.refreshExpiring();
+    cache.get("telegram", "a");
+
+    verify(gateway, times(2)).session("telegram", "a");
+  }
+
+  private AccessTokenCache cache(Duration idle) {
+    return new AccessTokenCache(
+        gateway,
+        new SimpleMeterRegistry(),
+        true,
+        Duration.ofMinutes(1),
+        Duration.ofMinutes(3),
+        idle,
+        100);
+  }
+
+  private void answer() {
+    when(gateway.session(anyString(), anyString()))
+        .thenAnswer(
+            inv ->
+                new SessionResponse(
+                    true,
+                    1L,
+                    "user",
+                    null,
+                    List.of("USER"),
+                    List.of(),
+                    "t" + issued.incrementAndGet(),
+                    "Bearer",
+                    expiresInSeconds));
+  }
+
+  private static TokensResponse tokens(String token, long userId) {
+    return new TokensResponse(token, "Bearer", 900, userId, "user", List.of("USER"), List.of());
+  }
+}
@@ -0,0 +1,208 @@
+package com.logicsignalprotector.commandcenter.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.logicsignalprotector.commandcenter.client.GatewayInternalClient;
+import com.logicsignalprotector.commandcenter.client.GatewayInternalClient.ResolveResponse;
+import com.logicsignalprotector.commandcenter.client.GatewayInternalClient.SessionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+class IdentityCacheTest {
+
+  // externalUserId -> userId; missing accounts are not linked.
+  private static final Map<String, Long> LINKS = Map.of("a", 1L, "b", 1L, "c", 2L);
+
+  private final GatewayInternalClient gateway = mock(GatewayInternalClient.class);
+  private final IdentityCache cache = cache(Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+  @Test
+  void linkedAccountIsServedFromCacheWithinTtl() {
+    answerFromLinks();
+
+    ResolveResponse first = cache.resolve("telegram", "a");
+    ResolveResponse second = cache.resolve("telegram", "a");
+
+    assertThat(second).isEqualTo(first);
+    assertThat(second.userId()).isEqualTo(1L);
+    verify(gateway, times(1)).session("telegram", "a");
+  }
+
+  @Test
+  void notLinkedAnswerLivesForTheNegativeTtl() throws InterruptedException {
+    IdentityCache shortNegative = cache(Duration.ofMinutes(1), Duration.ofMillis(100));
+    answerFromLinks();
+
+    assertThat(shortNegative.resolve("telegram", "x").linked()).isFalse();
+    shortNegative.resolve("telegram", "x");
+    shortNegative.resolve("telegram", "a");
+    verify(gateway, times(1)).session("telegram", "x");
+
+    Thread.sleep(300);
+    shortNegative.resolve("telegram", "x");
+    shortNegative.resolve("telegram", "a");
+    verify(gateway, times(2)).session("telegram", "x");
+    verify(gateway, times(1)).session("telegram", "a");
+  }
+
+  @Test
+  void invalidateDropsOnlyThatAccount() {
+    answerFromLinks();
+    resolveAll("a", "c");
+
+    cache.invalidate("telegram", "a");
+    resolveAll("a", "c");
+
+    verify(gateway, times(2)).session("telegram", "a");
+    verify(gateway, times(1)).session("telegram", "c");
+  }
+
+  @Test
+  void invalidateUserDropsEveryAccountOfTheUser() {
+    answerFromLinks();
+    resolveAll("a", "b", "c");
+
+    cache.invalidateUser(1L);
+    resolveAll("a", "b", "c");
+
+    verify(gateway, times(2)).session("telegram", "a");
+    verify(gateway, times(2)).session("telegram", "b");
+    verify(gateway, times(1)).session("telegram", "c");
+  }
+
+  @Test
+  void invalidateAllDropsEverything() {
+    answerFromLinks();
+    resolveAll("a", "c", "x");
+
+    cache.invalidateAll();
+    resolveAll("a", "c", "x");
+
+    verify(gateway, times(6)).session(anyString(), anyString());
+  }
+
+  @Test
+  void resolveThatRacedWithItsUsersInvalidationIsNotKept() {
+    when(gateway.session("telegram", "a"))
+        .thenAnswer(
+            inv -> {
+              cache.invalidateUser(1L); // role change committed while the gateway answered
+              return linked(1L);
+            })
+        .thenReturn(linked(1L));
+
+    cache.resolve("telegram", "a");
+    cache.resolve("telegram", "a");
+    cache.resolve("telegram", "a");
+
+    verify(gateway, times(2)).session("telegram", "a");
+  }
+
+  @Test
+  void invalidationOfAnotherUserDoesNotStopCaching() {
+    when(gateway.session("telegram", "c"))
+        .thenAnswer(
+            inv -> {
+              cache.invalidateUser(1L);
+              cache.invalidate("telegram", "a");
+              return linked(2L);
+            });
+
+    cache.resolve("telegram", "c");
+    cache.resolve("telegram", "c");
+
+    verify(gateway, times(1)).session("telegram", "c");
+  }
+
+  @Test
+  void concurrentMissesShareOneGatewayCall() throws Exception {
+    CountDownLatch called = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(gateway.session("telegram", "a"))
+        .thenAnswer(
+            inv -> {
+              called.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return linked(1L);
+            });
+
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<ResolveResponse>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(pool.submit(() -> cache.resolve("telegram", "a")));
+      }
+      assertThat(called.await(5, TimeUnit.SECONDS)).isTrue();
+      Thread.sleep(100);
+      release.countDown();
+      for (Future<ResolveResponse> r : results) {
+        assertThat(r.get(5, TimeUnit.SECONDS).userId()).isEqualTo(1L);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    verify(gateway, times(1)).session("telegram", "a");
+  }
+
+  @Test
+  void gatewayErrorIsNotCached() {
+    when(gateway.session("telegram", "a"))
+        .thenThrow(new IllegalStateException("gateway down"))
+        .thenReturn(linked(1L));
+
+    assertThatThrownBy(() -> cache.resolve("telegram", "a"))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(cache.resolve("telegram", "a").linked()).isTrue();
+  }
+
+  private IdentityCache cache(Duration ttl, Duration negativeTtl) {
+    return new IdentityCache(
+        gateway,
+        mock(AccessTokenCache.class),
+        mock(ApplicationEventPublisher.class),
+        new SimpleMeterRegistry(),
+        ttl,
+        negativeTtl,
+        100);
+  }
+
+  private void answerFromLinks() {
+    when(gateway.session(anyString(), anyString()))
+        .thenAnswer(
+            inv -> {
+              Long userId = LINKS.get(inv.<String>getArgument(1));
+              return userId == null ? notLinked() : linked(userId);
+            });
+  }
+
+  private void resolveAll(String... externalUserIds) {
+    for (String id : externalUserIds) {
+      cache.resolve("telegram", id);
+    }
+  }
+
+  private static SessionResponse linked(long userId) {
+    return new SessionResponse(
+        true, userId, "user" + userId, null, List.of("USER"), List.of(), "token", "Bearer", 900);
+  }
+
+  private static SessionResponse notLinked() {
+    return new SessionResponse(false, null, null, null, List.of(), List.of(), null, null, 0);
+  }
+}
@@ -1,5 +1,6 @@
 package com.logicsignalprotector.marketdata.api;
 
+import com.logicsignalprotector.marketdata.client.IssRangeTooLargeException;
 import com.logicsignalprotector.marketdata.client.MoexClientException;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -13,6 +14,12 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 public class ApiExceptionHandler {
   private static final Logger log = LoggerFactory.getLogger(ApiExceptionHandler.class);
 
+  @ExceptionHandler(IssRangeTooLargeException.class)
+  public ResponseEntity<Map<String, Object>> handleRangeTooLarge(IssRangeTooLargeException ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+        .body(Map.of("error", "RANGE_TOO_LARGE", "message", ex.getMessage()));
+  }
+
   @ExceptionHandler(MoexClientException.class)
   public ResponseEntity<Map<String, Object>> handleMoexClientException(MoexClientException ex) {
     log.error("MOEX ISS error", ex);
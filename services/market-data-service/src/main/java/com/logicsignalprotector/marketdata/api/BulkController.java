@@ -0,0 +1,107 @@
+package com.logicsignalprotector.marketdata.api;
+
+import com.logicsignalprotector.marketdata.config.BulkProperties;
+import com.logicsignalprotector.marketdata.dto.CandleDto;
+import com.logicsignalprotector.marketdata.dto.MarketStatusDto;
+import com.logicsignalprotector.marketdata.dto.QuoteDto;
+import com.logicsignalprotector.marketdata.model.CandleResampler;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import com.logicsignalprotector.marketdata.model.TickerResult;
+import com.logicsignalprotector.marketdata.usecase.MarketDataUseCase;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+/**
+ * Multi-ticker reads. One result per ticker, streamed as NDJSON in completion order; with {@code
+ * Accept: application/json} the same results come as one array once all are done.
+ */
+@RestController
+@RequestMapping("/api/market/v1/bulk")
+@Validated
+public class BulkController {
+  private final MarketDataUseCase marketDataUseCase;
+  private final BulkProperties properties;
+
+  public BulkController(MarketDataUseCase marketDataUseCase, BulkProperties properties) {
+    this.marketDataUseCase = marketDataUseCase;
+    this.properties = properties;
+  }
+
+  @GetMapping(
+      path = "/quotes",
+      produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+  @PreAuthorize("hasAuthority('PERM_MARKETDATA_READ')")
+  public Flux<TickerResult<QuoteDto>> getQuotes(
+      @RequestParam(defaultValue = "stock") String engine,
+      @RequestParam(defaultValue = "shares") String market,
+      @RequestParam(defaultValue = "TQBR") String board,
+      @RequestParam @NotEmpty List<@NotBlank String> sec) {
+    return marketDataUseCase.getQuotesBulk(engine, market, board, tickers(sec));
+  }
+
+  @GetMapping(
+      path = "/status",
+      produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+  @PreAuthorize("hasAuthority('PERM_MARKETDATA_READ')")
+  public Flux<TickerResult<MarketStatusDto>> getMarketStatus(
+      @RequestParam(defaultValue = "stock") String engine,
+      @RequestParam(defaultValue = "shares") String market,
+      @RequestParam(defaultValue = "TQBR") String board,
+      @RequestParam @NotEmpty List<@NotBlank String> sec) {
+    return marketDataUseCase.getMarketStatusBulk(engine, market, board, tickers(sec));
+  }
+
+  @GetMapping(
+      path = "/candles",
+      produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+  @PreAuthorize("hasAuthority('PERM_MARKETDATA_READ')")
+  public Flux<TickerResult<List<CandleDto>>> getCandles(
+      @RequestParam(defaultValue = "stock") String engine,
+      @RequestParam(defaultValue = "shares") String market,
+      @RequestParam(defaultValue = "TQBR") String board,
+      @RequestParam @NotEmpty List<@NotBlank String> sec,
+      @RequestParam @Min(1) @Max(CandleResampler.WEEK) int interval,
+      @RequestParam(required = false) String from,
+      @RequestParam(required = false) String till,
+      @RequestParam(required = false) @Min(1) @Max(10000) Integer limit) {
+    if (!CandleResampler.supported(interval)) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST,
+          "interval must divide 1440 (e.g. 1, 5, 10, 15, 30, 60, 240, 1440) or be 10080");
+    }
+    return marketDataUseCase
+        .getCandlesBulk(
+            engine,
+            market,
+            board,
+            tickers(sec),
+            interval,
+            CandlesController.parseDate(from, false),
+            CandlesController.parseDate(till, true),
+            Optional.ofNullable(limit))
+        .map(result -> result.map(CandleSeries::toDtos));
+  }
+
+  private List<String> tickers(List<String> sec) {
+    List<String> tickers = sec.stream().distinct().toList();
+    if (tickers.size() > properties.maxTickers()) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "at most " + properties.maxTickers() + " tickers per request");
+    }
+    return tickers;
+  }
+}
@@ -1,7 +1,10 @@
 package com.logicsignalprotector.marketdata.api;
 
+import com.logicsignalprotector.marketdata.client.StaleReads;
 import com.logicsignalprotector.marketdata.dto.CandleDto;
 import com.logicsignalprotector.marketdata.dto.CandlesResponse;
+import com.logicsignalprotector.marketdata.model.CandleResampler;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
 import com.logicsignalprotector.marketdata.usecase.MarketDataUseCase;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -12,6 +15,7 @@ import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -40,23 +44,36 @@ public class CandlesController {
       @RequestParam(defaultValue = "shares") String market,
       @RequestParam(defaultValue = "TQBR") String board,
       @RequestParam @NotBlank String sec,
-      @RequestParam @Min(1) @Max(1440) int interval,
+      @RequestParam @Min(1) @Max(CandleResampler.WEEK) int interval,
       @RequestParam(required = false) String from,
       @RequestParam(required = false) String till,
+      @RequestParam(required = false) @Min(1) @Max(10000) Integer limit,
       @RequestParam(required = false) String correlationId) {
-    if (!(interval == 1 || interval == 10 || interval == 60 || interval == 1440)) {
+    if (!CandleResampler.supported(interval)) {
       throw new ResponseStatusException(
           org.springframework.http.HttpStatus.BAD_REQUEST,
-          "interval must be one of: 1, 10, 60, 1440");
+          "interval must divide 1440 (e.g. 1, 5, 10, 15, 30, 60, 240, 1440) or be 10080");
     }
     OffsetDateTime fromDate = parseDate(from, false);
     OffsetDateTime tillDate = parseDate(till, true);
-    List<CandleDto> candles =
-        marketDataUseCase.getCandles(engine, market, board, sec, interval, fromDate, tillDate);
-    return new CandlesResponse(correlationId, sec, board, interval, fromDate, tillDate, candles);
+    StaleReads.Tracked<CandleSeries> series =
+        StaleReads.track(
+            () ->
+                marketDataUseCase.getCandles(
+                    engine,
+                    market,
+                    board,
+                    sec,
+                    interval,
+                    fromDate,
+                    tillDate,
+                    Optional.ofNullable(limit)));
+    List<CandleDto> candles = series.value().toDtos();
+    return new CandlesResponse(
+        correlationId, sec, board, interval, fromDate, tillDate, candles, series.stale());
   }
 
-  private static OffsetDateTime parseDate(String value, boolean endOfDay) {
+  static OffsetDateTime parseDate(String value, boolean endOfDay) {
     if (value == null || value.isBlank()) {
       return null;
     }
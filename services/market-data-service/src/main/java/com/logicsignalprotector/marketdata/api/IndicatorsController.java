@@ -0,0 +1,125 @@
+package com.logicsignalprotector.marketdata.api;
+
+import com.logicsignalprotector.marketdata.dto.IndicatorDto;
+import com.logicsignalprotector.marketdata.dto.IndicatorsResponse;
+import com.logicsignalprotector.marketdata.model.CandleResampler;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import com.logicsignalprotector.marketdata.model.IndicatorSpec;
+import com.logicsignalprotector.marketdata.model.IndicatorTable;
+import com.logicsignalprotector.marketdata.usecase.MarketDataUseCase;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/market/v1/indicators")
+@Validated
+public class IndicatorsController {
+  private static final int MAX_INDICATORS = 10;
+
+  private final MarketDataUseCase marketDataUseCase;
+
+  public IndicatorsController(MarketDataUseCase marketDataUseCase) {
+    this.marketDataUseCase = marketDataUseCase;
+  }
+
+  @GetMapping
+  @PreAuthorize("hasAuthority('PERM_MARKETDATA_READ')")
+  public IndicatorsResponse getIndicators(
+      @RequestParam(defaultValue = "stock") String engine,
+      @RequestParam(defaultValue = "shares") String market,
+      @RequestParam(defaultValue = "TQBR") String board,
+      @RequestParam @NotBlank String sec,
+      @RequestParam @Min(1) @Max(CandleResampler.WEEK) int interval,
+      @RequestParam @NotBlank String indicators,
+      @RequestParam(required = false) String from,
+      @RequestParam(required = false) String till,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit,
+      @RequestParam(required = false) String correlationId) {
+    if (!CandleResampler.supported(interval)) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST,
+          "interval must divide 1440 (e.g. 1, 5, 10, 15, 30, 60, 240, 1440) or be 10080");
+    }
+    List<IndicatorSpec> specs = parseSpecs(indicators);
+    IndicatorTable table =
+        marketDataUseCase.getIndicators(
+            engine,
+            market,
+            board,
+            sec,
+            interval,
+            specs,
+            CandlesController.parseDate(from, false),
+            CandlesController.parseDate(till, true),
+            limit);
+
+    CandleSeries bars = table.bars();
+    List<OffsetDateTime> time = new ArrayList<>(bars.size());
+    List<BigDecimal> close = new ArrayList<>(bars.size());
+    for (int i = 0; i < bars.size(); i++) {
+      time.add(
+          bars.begin(i) == CandleSeries.NULL
+              ? null
+              : OffsetDateTime.ofInstant(Instant.ofEpochMilli(bars.begin(i)), ZoneOffset.UTC));
+      close.add(CandleSeries.decimal(bars.close(i), bars.priceScale()));
+    }
+    List<IndicatorDto> out = new ArrayList<>(specs.size());
+    for (int k = 0; k < specs.size(); k++) {
+      IndicatorSpec spec = specs.get(k);
+      double[][] values = table.values().get(k);
+      Map<String, List<Double>> lines = new LinkedHashMap<>();
+      for (int line = 0; line < values.length; line++) {
+        List<Double> column = new ArrayList<>(values[line].length);
+        for (double value : values[line]) {
+          column.add(Double.isFinite(value) ? value : null);
+        }
+        lines.put(spec.lines().get(line), column);
+      }
+      out.add(new IndicatorDto(spec.id(), lines));
+    }
+    return new IndicatorsResponse(correlationId, sec, board, interval, time, close, out);
+  }
+
+  private static List<IndicatorSpec> parseSpecs(String indicators) {
+    Set<String> seen = new LinkedHashSet<>();
+    List<IndicatorSpec> specs = new ArrayList<>();
+    for (String part : indicators.split(",")) {
+      if (part.isBlank()) {
+        continue;
+      }
+      IndicatorSpec spec;
+      try {
+        spec = IndicatorSpec.parse(part);
+      } catch (IllegalArgumentException ex) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+      }
+      if (seen.add(spec.id())) {
+        specs.add(spec);
+      }
+    }
+    if (specs.isEmpty() || specs.size() > MAX_INDICATORS) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "indicators must list 1.." + MAX_INDICATORS + " indicators");
+    }
+    return specs;
+  }
+}
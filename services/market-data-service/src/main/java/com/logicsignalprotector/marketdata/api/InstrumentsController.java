@@ -1,11 +1,13 @@
 package com.logicsignalprotector.marketdata.api;
 
-import com.logicsignalprotector.marketdata.dto.InstrumentDto;
+import com.logicsignalprotector.marketdata.dto.InstrumentPageDto;
+import com.logicsignalprotector.marketdata.dto.InstrumentResolveResponse;
 import com.logicsignalprotector.marketdata.dto.InstrumentsResponse;
 import com.logicsignalprotector.marketdata.usecase.MarketDataUseCase;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
-import java.util.List;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import java.util.Optional;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -34,9 +36,25 @@ public class InstrumentsController {
       @RequestParam(defaultValue = "100") @Min(1) @Max(5000) int limit,
       @RequestParam(defaultValue = "0") @Min(0) int offset,
       @RequestParam(required = false) String correlationId) {
-    List<InstrumentDto> instruments =
+    InstrumentPageDto page =
         marketDataUseCase.getInstruments(
             engine, market, board, Optional.ofNullable(filter), limit, offset);
-    return new InstrumentsResponse(correlationId, instruments, offset, limit, instruments.size());
+    return new InstrumentsResponse(correlationId, page.instruments(), offset, limit, page.total());
+  }
+
+  /**
+   * Ranked candidates for a typed ticker or name, tolerant to typos, layout and transliteration.
+   */
+  @GetMapping("/resolve")
+  @PreAuthorize("hasAuthority('PERM_MARKETDATA_READ')")
+  public InstrumentResolveResponse resolve(
+      @RequestParam(defaultValue = "stock") String engine,
+      @RequestParam(defaultValue = "shares") String market,
+      @RequestParam(defaultValue = "TQBR") String board,
+      @RequestParam @NotBlank @Size(max = 64) String q,
+      @RequestParam(defaultValue = "5") @Min(1) @Max(20) int limit,
+      @RequestParam(required = false) String correlationId) {
+    return new InstrumentResolveResponse(
+        correlationId, q, marketDataUseCase.resolveInstrument(engine, market, board, q, limit));
   }
 }
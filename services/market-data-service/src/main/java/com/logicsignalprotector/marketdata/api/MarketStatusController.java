@@ -2,7 +2,9 @@ package com.logicsignalprotector.marketdata.api;
 
 import com.logicsignalprotector.marketdata.dto.MarketStatusDto;
 import com.logicsignalprotector.marketdata.dto.MarketStatusResponse;
+import com.logicsignalprotector.marketdata.model.SnapshotRead;
 import com.logicsignalprotector.marketdata.usecase.MarketDataUseCase;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,13 +24,15 @@ public class MarketStatusController {
 
   @GetMapping
   @PreAuthorize("hasAuthority('PERM_MARKETDATA_READ')")
-  public MarketStatusResponse getStatus(
+  public ResponseEntity<MarketStatusResponse> getStatus(
       @RequestParam(defaultValue = "stock") String engine,
       @RequestParam(defaultValue = "shares") String market,
       @RequestParam(defaultValue = "TQBR") String board,
       @RequestParam(defaultValue = "SBER") String sec,
       @RequestParam(required = false) String correlationId) {
-    MarketStatusDto status = marketDataUseCase.getMarketStatus(engine, market, board, sec);
-    return new MarketStatusResponse(correlationId, status);
+    SnapshotRead<MarketStatusDto> status =
+        marketDataUseCase.getMarketStatus(engine, market, board, sec);
+    return SnapshotAgeHeader.ok(
+        new MarketStatusResponse(correlationId, status.value()), status.snapshotAge());
   }
 }
@@ -0,0 +1,64 @@
+package com.logicsignalprotector.marketdata.api;
+
+import com.logicsignalprotector.marketdata.config.StreamProperties;
+import com.logicsignalprotector.marketdata.dto.QuoteUpdateDto;
+import com.logicsignalprotector.marketdata.usecase.QuoteStreamHub;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+/**
+ * Server-Sent Events with quote updates. The first event per ticker is {@code quote} (all fields),
+ * then {@code update} events carry only changed fields.
+ */
+@RestController
+@RequestMapping("/api/market/v1/stream")
+@Validated
+public class QuoteStreamController {
+  private final QuoteStreamHub hub;
+  private final StreamProperties properties;
+
+  public QuoteStreamController(QuoteStreamHub hub, StreamProperties properties) {
+    this.hub = hub;
+    this.properties = properties;
+  }
+
+  @GetMapping(path = "/quotes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @PreAuthorize("hasAuthority('PERM_MARKETDATA_READ')")
+  public Flux<ServerSentEvent<QuoteUpdateDto>> streamQuotes(
+      @RequestParam(defaultValue = "stock") String engine,
+      @RequestParam(defaultValue = "shares") String market,
+      @RequestParam(defaultValue = "TQBR") String board,
+      @RequestParam @NotEmpty List<@NotBlank String> sec) {
+    List<String> tickers = sec.stream().distinct().toList();
+    if (tickers.size() > properties.maxTickers()) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST, "at most " + properties.maxTickers() + " tickers per stream");
+    }
+    // prefetch 1 keeps conflation in the per-ticker flux instead of merge queues
+    Flux<ServerSentEvent<QuoteUpdateDto>> quotes =
+        Flux.fromIterable(tickers)
+            .flatMap(ticker -> hub.subscribe(engine, market, board, ticker), tickers.size(), 1)
+            .map(
+                update ->
+                    ServerSentEvent.builder(update)
+                        .event(update.full() ? "quote" : "update")
+                        .build());
+    Flux<ServerSentEvent<QuoteUpdateDto>> heartbeat =
+        Flux.interval(properties.heartbeat())
+            .onBackpressureDrop()
+            .map(tick -> ServerSentEvent.<QuoteUpdateDto>builder().comment("keep-alive").build());
+    return Flux.merge(quotes, heartbeat);
+  }
+}
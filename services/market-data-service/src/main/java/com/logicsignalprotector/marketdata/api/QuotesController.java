@@ -1,12 +1,21 @@
 package com.logicsignalprotector.marketdata.api;
 
+import com.logicsignalprotector.marketdata.client.StaleReads;
+import com.logicsignalprotector.marketdata.dto.QuoteBatchDto;
 import com.logicsignalprotector.marketdata.dto.QuoteDto;
 import com.logicsignalprotector.marketdata.dto.QuoteResponse;
+import com.logicsignalprotector.marketdata.dto.QuotesBatchRequest;
+import com.logicsignalprotector.marketdata.dto.QuotesBatchResponse;
+import com.logicsignalprotector.marketdata.model.SnapshotRead;
 import com.logicsignalprotector.marketdata.usecase.MarketDataUseCase;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -23,13 +32,32 @@ public class QuotesController {
 
   @GetMapping
   @PreAuthorize("hasAuthority('PERM_MARKETDATA_READ')")
-  public QuoteResponse getQuotes(
+  public ResponseEntity<QuoteResponse> getQuotes(
       @RequestParam(defaultValue = "stock") String engine,
       @RequestParam(defaultValue = "shares") String market,
       @RequestParam(defaultValue = "TQBR") String board,
       @RequestParam @NotBlank String sec,
       @RequestParam(required = false) String correlationId) {
-    QuoteDto quote = marketDataUseCase.getQuote(engine, market, board, sec);
-    return new QuoteResponse(correlationId, quote);
+    StaleReads.Tracked<SnapshotRead<QuoteDto>> quote =
+        StaleReads.track(() -> marketDataUseCase.getQuote(engine, market, board, sec));
+    return SnapshotAgeHeader.ok(
+        new QuoteResponse(correlationId, quote.value().value(), quote.stale()),
+        quote.value().snapshotAge());
+  }
+
+  @PostMapping("/batch")
+  @PreAuthorize("hasAuthority('PERM_MARKETDATA_READ')")
+  public ResponseEntity<QuotesBatchResponse> getQuotesBatch(
+      @RequestBody @Valid QuotesBatchRequest request) {
+    SnapshotRead<QuoteBatchDto> batch =
+        marketDataUseCase.getQuotes(
+            request.engine(), request.market(), request.board(), request.secs());
+    return SnapshotAgeHeader.ok(
+        new QuotesBatchResponse(
+            request.correlationId(),
+            request.board(),
+            batch.value().quotes(),
+            batch.value().errors()),
+        batch.snapshotAge());
   }
 }
@@ -0,0 +1,18 @@
+package com.logicsignalprotector.marketdata.api;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.http.ResponseEntity;
+
+/** Adds {@code X-Snapshot-Age-Ms} when the use case served the value from the board snapshot. */
+final class SnapshotAgeHeader {
+  static final String NAME = "X-Snapshot-Age-Ms";
+
+  private SnapshotAgeHeader() {}
+
+  static <T> ResponseEntity<T> ok(T body, Optional<Duration> age) {
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+    age.ifPresent(value -> builder.header(NAME, Long.toString(value.toMillis())));
+    return builder.body(body);
+  }
+}
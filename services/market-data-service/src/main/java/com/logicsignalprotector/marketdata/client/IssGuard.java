@@ -0,0 +1,96 @@
+package com.logicsignalprotector.marketdata.client;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Protection around every ISS exchange. The rate limiter paces requests (a request waits for a
+ * permit up to the limiter's timeout), an open circuit breaker rejects them at once instead of
+ * letting each caller wait for the timeout, and {@link IssRequestBudget} is the bulkhead on
+ * requests in flight.
+ *
+ * <p>The wait for a permit, the wait for a slot and the request itself share one deadline, {@code
+ * timeout} after the call is subscribed. Running out of it before the request is sent is an {@link
+ * IssThrottledException}; running out while ISS is answering is a timeout.
+ *
+ * <p>Only {@link IssUnavailableException} from ISS itself (timeout, connection failure, 5xx) counts
+ * as a failure for the breaker; any other ISS error (4xx, non-JSON body) means ISS answered, and a
+ * throttled request never reached it.
+ */
+final class IssGuard {
+  private final RateLimiter rateLimiter;
+  private final CircuitBreaker circuitBreaker;
+  private final IssRequestBudget budget;
+  private final Duration timeout;
+
+  IssGuard(
+      RateLimiter rateLimiter,
+      CircuitBreaker circuitBreaker,
+      IssRequestBudget budget,
+      Duration timeout) {
+    this.rateLimiter = rateLimiter;
+    this.circuitBreaker = circuitBreaker;
+    this.budget = budget;
+    this.timeout = timeout;
+  }
+
+  <T> Mono<T> call(Mono<T> request) {
+    return Mono.defer(
+        () -> {
+          long deadline = System.nanoTime() + timeout.toNanos();
+          long waitNanos = rateLimiter.reservePermission();
+          if (waitNanos < 0) {
+            return Mono.error(new IssThrottledException("MOEX ISS rate limit reached"));
+          }
+          if (waitNanos >= timeout.toNanos()) {
+            return Mono.error(
+                new IssThrottledException(
+                    "MOEX ISS rate limit: next permit after the " + timeout + " deadline"));
+          }
+          Mono<T> guarded = Mono.defer(() -> withBreaker(request, deadline));
+          return waitNanos == 0 ? guarded : Mono.delay(Duration.ofNanos(waitNanos)).then(guarded);
+        });
+  }
+
+  private <T> Mono<T> withBreaker(Mono<T> request, long deadline) {
+    if (!circuitBreaker.tryAcquirePermission()) {
+      return Mono.error(
+          new IssUnavailableException(
+              "MOEX ISS circuit breaker is "
+                  + circuitBreaker.getState().name().toLowerCase(Locale.ROOT)));
+    }
+    return budget
+        .limit(Mono.defer(() -> timed(request, deadline)), deadline)
+        .doOnError(IssThrottledException.class, ex -> circuitBreaker.releasePermission())
+        .doOnCancel(circuitBreaker::releasePermission);
+  }
+
+  private <T> Mono<T> timed(Mono<T> request, long deadline) {
+    long start = System.nanoTime();
+    if (deadline - start <= 0) {
+      return Mono.error(
+          new IssThrottledException("MOEX ISS request budget: no slot within " + timeout));
+    }
+    return request
+        .timeout(Duration.ofNanos(deadline - start))
+        .onErrorMap(
+            TimeoutException.class,
+            ex -> new IssUnavailableException("MOEX ISS timeout after " + timeout, ex))
+        .doOnSuccess(
+            value -> circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+        .doOnError(
+            ex -> {
+              long elapsed = System.nanoTime() - start;
+              if (ex instanceof IssUnavailableException) {
+                circuitBreaker.onError(elapsed, TimeUnit.NANOSECONDS, ex);
+              } else {
+                circuitBreaker.onSuccess(elapsed, TimeUnit.NANOSECONDS);
+              }
+            });
+  }
+}
@@ -0,0 +1,38 @@
+package com.logicsignalprotector.marketdata.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+
+/**
+ * Value parsed from the last full ISS response per request key, with its {@code ETag} / {@code
+ * Last-Modified} if ISS sent any. Entries outlive the response cache: when a cached value expires
+ * the reload is sent as a conditional GET and a {@code 304} reuses the stored value, and while ISS
+ * is unavailable the stored value is the last-known-good answer (see {@link StaleReads}).
+ */
+final class IssLastGood {
+  private final Cache<String, Response> cache;
+
+  IssLastGood(long maximumSize, Duration retention) {
+    this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(retention).build();
+  }
+
+  Response get(String key) {
+    return cache.getIfPresent(key);
+  }
+
+  void put(String key, String etag, String lastModified, Object value) {
+    cache.put(key, new Response(etag, lastModified, value));
+  }
+
+  record Response(String etag, String lastModified, Object value) {
+    boolean revalidatable() {
+      return etag != null || lastModified != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T typed() {
+      return (T) value;
+    }
+  }
+}
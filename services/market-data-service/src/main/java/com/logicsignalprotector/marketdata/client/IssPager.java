@@ -0,0 +1,76 @@
+package com.logicsignalprotector.marketdata.client;
+
+import com.logicsignalprotector.marketdata.client.IssTableReader.Cursor;
+import com.logicsignalprotector.marketdata.client.IssTableReader.Page;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Follows ISS {@code start} pagination and emits pages in order.
+ *
+ * <p>If the first page carries a {@code <section>.cursor}, the remaining offsets are known and all
+ * pages are fetched concurrently. Otherwise pages of a fixed size are requested ahead, at most
+ * {@code parallelism} at a time, until the first short page. Either way at most {@code maxRows}
+ * rows are read; a longer range fails with {@link IssRangeTooLargeException} instead of being
+ * truncated.
+ */
+final class IssPager {
+  private IssPager() {}
+
+  static <R> Flux<R> pages(
+      int pageSize,
+      int parallelism,
+      int maxRows,
+      ToIntFunction<R> sizeOf,
+      IntFunction<Mono<Page<R>>> fetchPage) {
+    return fetchPage
+        .apply(0)
+        .flatMapMany(
+            first ->
+                Flux.concat(
+                    Mono.just(first),
+                    rest(first, pageSize, parallelism, maxRows, sizeOf, fetchPage)))
+        .map(Page::rows);
+  }
+
+  private static <R> Flux<Page<R>> rest(
+      Page<R> first,
+      int pageSize,
+      int parallelism,
+      int maxRows,
+      ToIntFunction<R> sizeOf,
+      IntFunction<Mono<Page<R>>> fetchPage) {
+    Cursor cursor = first.cursor();
+    if (cursor != null && cursor.pageSize() > 0) {
+      if (cursor.total() > maxRows) {
+        return Flux.error(new IssRangeTooLargeException(cursor.total(), maxRows));
+      }
+      int size = Math.toIntExact(cursor.pageSize());
+      int pages = Math.toIntExact((cursor.total() + size - 1) / size);
+      return Flux.range(1, Math.max(0, pages - 1))
+          .flatMapSequential(i -> Mono.defer(() -> fetchPage.apply(i * size)), parallelism);
+    }
+    if (sizeOf.applyAsInt(first.rows()) < pageSize) {
+      return Flux.empty();
+    }
+    int maxPages = Math.max(1, maxRows / pageSize);
+    if (maxPages == 1) {
+      return Flux.error(new IssRangeTooLargeException(maxRows + 1L, maxRows));
+    }
+    return Flux.range(1, maxPages - 1)
+        .flatMapSequential(
+            i ->
+                Mono.defer(() -> fetchPage.apply(i * pageSize))
+                    .flatMap(
+                        page ->
+                            i == maxPages - 1 && sizeOf.applyAsInt(page.rows()) >= pageSize
+                                ? Mono.error(
+                                    new IssRangeTooLargeException(
+                                        (long) maxPages * pageSize + 1, maxRows))
+                                : Mono.just(page)),
+            parallelism)
+        .takeUntil(page -> sizeOf.applyAsInt(page.rows()) < pageSize);
+  }
+}
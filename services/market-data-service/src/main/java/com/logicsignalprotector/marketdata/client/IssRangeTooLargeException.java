@@ -0,0 +1,13 @@
+package com.logicsignalprotector.marketdata.client;
+
+/** The requested range spans more ISS rows than one call is allowed to page through. */
+public class IssRangeTooLargeException extends MoexClientException {
+  public IssRangeTooLargeException(long rows, int maxRows) {
+    super(
+        "MOEX ISS range too large: at least "
+            + rows
+            + " rows, limit is "
+            + maxRows
+            + ". Narrow from/till.");
+  }
+}
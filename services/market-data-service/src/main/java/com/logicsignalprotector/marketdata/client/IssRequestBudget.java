@@ -0,0 +1,77 @@
+package com.logicsignalprotector.marketdata.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Upper bound on ISS requests in flight to the ISS host, whatever issued them (bulk fan-out,
+ * paging, snapshot refresh). A request that finds no free slot waits until its deadline on a
+ * virtual thread, never on a Netty thread, and then fails with {@link IssThrottledException}. The
+ * slot is released when the request completes, fails or is cancelled.
+ *
+ * <p>Gauges {@code moex.iss.requests.in-flight} and {@code moex.iss.requests.waiting}.
+ */
+final class IssRequestBudget {
+  private final Semaphore slots;
+  private final int size;
+  private final Scheduler waiters;
+
+  IssRequestBudget(int size, Scheduler waiters, MeterRegistry meterRegistry) {
+    this.slots = new Semaphore(size, true);
+    this.size = size;
+    this.waiters = waiters;
+    Gauge.builder("moex.iss.requests.in-flight", slots, s -> size - s.availablePermits())
+        .register(meterRegistry);
+    Gauge.builder("moex.iss.requests.waiting", slots, Semaphore::getQueueLength)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Runs {@code request} in a slot, waiting for one until {@code deadline} ({@link
+   * System#nanoTime}).
+   */
+  <T> Mono<T> limit(Mono<T> request, long deadline) {
+    return Mono.usingWhen(
+        acquire(deadline), slot -> request, slot -> Mono.fromRunnable(slot::release));
+  }
+
+  private Mono<Slot> acquire(long deadline) {
+    return Mono.defer(
+            () -> {
+              if (slots.tryAcquire()) {
+                return Mono.just(new Slot());
+              }
+              return Mono.fromCallable(() -> await(deadline)).subscribeOn(waiters);
+            })
+        .doOnDiscard(Slot.class, Slot::release);
+  }
+
+  private Slot await(long deadline) throws InterruptedException {
+    long waitNanos = deadline - System.nanoTime();
+    if (!slots.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+      throw new IssThrottledException(
+          "MOEX ISS request budget exhausted: "
+              + size
+              + " requests in flight for "
+              + Duration.ofNanos(Math.max(0, waitNanos)));
+    }
+    return new Slot();
+  }
+
+  /** One acquired slot; released at most once however many paths try to. */
+  private final class Slot {
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    void release() {
+      if (released.compareAndSet(false, true)) {
+        slots.release();
+      }
+    }
+  }
+}
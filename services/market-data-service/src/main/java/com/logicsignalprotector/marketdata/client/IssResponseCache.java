@@ -0,0 +1,141 @@
+package com.logicsignalprotector.marketdata.client;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.logicsignalprotector.marketdata.config.CachePolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Single-flight cache of parsed ISS responses with per-kind freshness.
+ *
+ * <p>Backed by a Caffeine {@link AsyncCache}: the first caller for a key starts the upstream {@link
+ * Mono}, concurrent callers for the same key attach to the same in-flight future instead of issuing
+ * duplicate requests. Failed loads are evicted by Caffeine, so errors are not cached.
+ *
+ * <p>Each entry carries the {@link CachePolicy} of its data kind. Past {@code ttl} the entry is
+ * still returned for {@code staleWhileRevalidate} while one background reload replaces it, so
+ * callers do not wait on ISS at TTL boundaries.
+ *
+ * <p>Every lookup is counted in {@code moex.iss.cache.requests} with tags {@code kind} (data kind,
+ * e.g. {@code quote}) and {@code result} ({@code hit}, {@code stale}, {@code miss}, {@code
+ * coalesced}).
+ */
+final class IssResponseCache {
+  static final String METRIC = "moex.iss.cache.requests";
+
+  private static final Logger log = LoggerFactory.getLogger(IssResponseCache.class);
+
+  private final AsyncCache<String, Entry> cache;
+  private final MeterRegistry meterRegistry;
+
+  IssResponseCache(long maximumSize, MeterRegistry meterRegistry) {
+    this.cache =
+        Caffeine.newBuilder().expireAfter(new EntryExpiry()).maximumSize(maximumSize).buildAsync();
+    this.meterRegistry = meterRegistry;
+  }
+
+  <T> Mono<T> get(String kind, String key, CachePolicy policy, Supplier<Mono<T>> loader) {
+    boolean[] loaded = {false};
+    CompletableFuture<Entry> future =
+        cache.get(
+            key,
+            (k, executor) -> {
+              loaded[0] = true;
+              return load(policy, loader).toFuture();
+            });
+    String result;
+    if (loaded[0]) {
+      result = "miss";
+    } else if (!future.isDone()) {
+      result = "coalesced";
+    } else if (!future.isCompletedExceptionally() && future.join().isStale(System.nanoTime())) {
+      result = "stale";
+      refresh(kind, key, future.join(), policy, loader);
+    } else {
+      result = "hit";
+    }
+    meterRegistry.counter(METRIC, "kind", kind, "result", result).increment();
+    return Mono.fromFuture(future, true).map(Entry::<T>typed);
+  }
+
+  /** Stores a value obtained elsewhere, e.g. one row of a board-wide response. */
+  <T> void put(String key, CachePolicy policy, T value) {
+    cache.put(key, CompletableFuture.completedFuture(entry(value, policy)));
+  }
+
+  /** Loaded value for the key, fresh or stale, without triggering a load. */
+  <T> Optional<T> getIfPresent(String key) {
+    CompletableFuture<Entry> future = cache.getIfPresent(key);
+    if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+      return Optional.empty();
+    }
+    return Optional.of(future.join().typed());
+  }
+
+  private <T> void refresh(
+      String kind, String key, Entry stale, CachePolicy policy, Supplier<Mono<T>> loader) {
+    if (!stale.refreshing().compareAndSet(false, true)) {
+      return;
+    }
+    load(policy, loader)
+        .subscribe(
+            next -> cache.put(key, CompletableFuture.completedFuture(next)),
+            ex -> {
+              stale.refreshing().set(false);
+              log.warn(
+                  "MOEX ISS background refresh failed kind={} key={}: {}",
+                  kind,
+                  key,
+                  ex.toString());
+            });
+  }
+
+  private static <T> Mono<Entry> load(CachePolicy policy, Supplier<Mono<T>> loader) {
+    return loader.get().map(value -> entry(value, policy));
+  }
+
+  private static Entry entry(Object value, CachePolicy policy) {
+    return new Entry(
+        value,
+        System.nanoTime() + policy.ttl().toNanos(),
+        policy.ttl().plus(policy.staleWhileRevalidate()).toNanos(),
+        new AtomicBoolean());
+  }
+
+  private record Entry(
+      Object value, long freshUntilNanos, long lifetimeNanos, AtomicBoolean refreshing) {
+    @SuppressWarnings("unchecked")
+    <T> T typed() {
+      return (T) value;
+    }
+
+    boolean isStale(long nowNanos) {
+      return nowNanos - freshUntilNanos >= 0;
+    }
+  }
+
+  private static final class EntryExpiry implements Expiry<String, Entry> {
+    @Override
+    public long expireAfterCreate(String key, Entry entry, long currentTime) {
+      return entry.lifetimeNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+      return entry.lifetimeNanos();
+    }
+
+    @Override
+    public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,438 @@
+package com.logicsignalprotector.marketdata.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming reader for ISS "columns/data" sections.
+ *
+ * <p>Walks the raw response with a {@link JsonParser} and hands every row of one section straight
+ * to a mapper or sink, without materialising a {@code JsonNode} tree. Column positions are resolved
+ * once per response against a {@link Plan}; cell text is copied into reusable per-slot buffers and
+ * converted only by the accessor the mapper asks for.
+ */
+final class IssTableReader {
+  private static final JsonFactory JSON = new JsonFactory();
+  private static final DateTimeFormatter ISS_DATE_TIME =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss", Locale.ROOT);
+  private static final DateTimeFormatter ISS_TIME =
+      DateTimeFormatter.ofPattern("HH:mm:ss", Locale.ROOT);
+  private static final Plan CURSOR = Plan.of("cursor", "INDEX", "TOTAL", "PAGESIZE");
+
+  private IssTableReader() {}
+
+  /** Maps one row of a section. The row instance is reused, so it must not be retained. */
+  @FunctionalInterface
+  interface RowMapper<T> {
+    T map(Row row);
+  }
+
+  /** Section name plus the ordered list of columns the mapper reads by slot index. */
+  record Plan(String section, List<String> columns) {
+    static Plan of(String section, String... columns) {
+      return new Plan(section, List.of(columns));
+    }
+
+    /** Value for the ISS {@code <section>.columns} query parameter. */
+    String columnsParam() {
+      return String.join(",", columns);
+    }
+
+    int slotOf(String column) {
+      return columns.indexOf(column);
+    }
+  }
+
+  /** Receives every row of a section in order. The row instance is reused. */
+  @FunctionalInterface
+  interface RowSink {
+    void accept(Row row);
+  }
+
+  /** Rows of one page plus the ISS {@code <section>.cursor}, if the response carried one. */
+  record Page<R>(R rows, Cursor cursor) {}
+
+  /** ISS pagination cursor: offset of this page, total rows and rows per page. */
+  record Cursor(long index, long total, long pageSize) {}
+
+  static <T> List<T> read(byte[] body, Plan plan, RowMapper<T> mapper) {
+    return readPage(body, plan, mapper).rows();
+  }
+
+  static <T> Page<List<T>> readPage(byte[] body, Plan plan, RowMapper<T> mapper) {
+    List<T> rows = new ArrayList<>();
+    Cursor cursor = readInto(body, plan, row -> rows.add(mapper.map(row)));
+    return new Page<>(Collections.unmodifiableList(rows), cursor);
+  }
+
+  /**
+   * Feeds every row of the plan's section to {@code sink} and returns the page cursor, or {@code
+   * null} if the response carried none.
+   */
+  static Cursor readInto(byte[] body, Plan plan, RowSink sink) {
+    String cursorSection = plan.section() + ".cursor";
+    try (JsonParser parser = JSON.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new MoexClientException("MOEX ISS response is not a JSON object");
+      }
+      boolean found = false;
+      Cursor[] cursor = {null};
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.currentName();
+        parser.nextToken();
+        if (plan.section().equals(name)) {
+          readSection(parser, plan, sink);
+          found = true;
+        } else if (cursorSection.equals(name)) {
+          readSection(
+              parser,
+              CURSOR,
+              row -> {
+                if (cursor[0] == null) {
+                  cursor[0] =
+                      new Cursor(
+                          orZero(row.longValue(0)),
+                          orZero(row.longValue(1)),
+                          orZero(row.longValue(2)));
+                }
+              });
+        } else {
+          parser.skipChildren();
+        }
+      }
+      if (!found) {
+        throw new MoexClientException("MOEX ISS response missing section " + plan.section());
+      }
+      return cursor[0];
+    } catch (IOException ex) {
+      throw new MoexClientException("Cannot parse MOEX ISS response", ex);
+    }
+  }
+
+  private static long orZero(Long value) {
+    return value == null ? 0 : value;
+  }
+
+  private static void readSection(JsonParser parser, Plan plan, RowSink sink) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      throw new MoexClientException("MOEX ISS response missing section " + plan.section());
+    }
+    int[] slots = null;
+    boolean data = false;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String name = parser.currentName();
+      parser.nextToken();
+      if ("columns".equals(name)) {
+        slots = readColumns(parser, plan);
+      } else if ("data".equals(name)) {
+        if (slots == null) {
+          throw new MoexClientException("MOEX ISS response has invalid columns");
+        }
+        readData(parser, slots, new Row(plan.columns().size()), sink);
+        data = true;
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (slots == null) {
+      throw new MoexClientException("MOEX ISS response has invalid columns");
+    }
+    if (!data) {
+      throw new MoexClientException("MOEX ISS response has invalid data");
+    }
+  }
+
+  private static int[] readColumns(JsonParser parser, Plan plan) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      throw new MoexClientException("MOEX ISS response has invalid columns");
+    }
+    int[] slots = new int[16];
+    int count = 0;
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (count == slots.length) {
+        slots = Arrays.copyOf(slots, count * 2);
+      }
+      slots[count++] = plan.slotOf(parser.getText());
+    }
+    return Arrays.copyOf(slots, count);
+  }
+
+  private static void readData(JsonParser parser, int[] slots, Row row, RowSink sink)
+      throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      throw new MoexClientException("MOEX ISS response has invalid data");
+    }
+    while (parser.nextToken() == JsonToken.START_ARRAY) {
+      row.clear();
+      int column = 0;
+      JsonToken token;
+      while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+        int slot = column < slots.length ? slots[column] : -1;
+        if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT) {
+          parser.skipChildren();
+        } else if (slot >= 0 && token != JsonToken.VALUE_NULL) {
+          row.set(slot, parser);
+        }
+        column++;
+      }
+      sink.accept(row);
+    }
+  }
+
+  /** Current row: raw cell characters per plan slot, converted on access. */
+  static final class Row {
+    private final char[][] chars;
+    private final int[] lengths;
+
+    private Row(int size) {
+      this.chars = new char[size][];
+      this.lengths = new int[size];
+      for (int i = 0; i < size; i++) {
+        chars[i] = new char[32];
+      }
+      clear();
+    }
+
+    private void clear() {
+      Arrays.fill(lengths, -1);
+    }
+
+    private void set(int slot, JsonParser parser) throws IOException {
+      int length = parser.getTextLength();
+      if (chars[slot].length < length) {
+        chars[slot] = new char[Math.max(length, chars[slot].length * 2)];
+      }
+      System.arraycopy(parser.getTextCharacters(), parser.getTextOffset(), chars[slot], 0, length);
+      lengths[slot] = length;
+    }
+
+    private boolean blank(int slot) {
+      int length = lengths[slot];
+      if (length < 0) {
+        return true;
+      }
+      char[] buf = chars[slot];
+      for (int i = 0; i < length; i++) {
+        if (!Character.isWhitespace(buf[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    String text(int slot) {
+      int length = lengths[slot];
+      return length < 0 ? null : new String(chars[slot], 0, length);
+    }
+
+    BigDecimal decimal(int slot) {
+      return blank(slot) ? null : new BigDecimal(chars[slot], 0, lengths[slot]);
+    }
+
+    Long longValue(int slot) {
+      if (blank(slot)) {
+        return null;
+      }
+      char[] buf = chars[slot];
+      int length = lengths[slot];
+      int i = buf[0] == '-' ? 1 : 0;
+      if (i == length || length - i > 18) {
+        return decimal(slot).longValue();
+      }
+      long value = 0;
+      for (; i < length; i++) {
+        char c = buf[i];
+        if (c < '0' || c > '9') {
+          return decimal(slot).longValue();
+        }
+        value = value * 10 + (c - '0');
+      }
+      return buf[0] == '-' ? -value : value;
+    }
+
+    Integer integer(int slot) {
+      Long value = longValue(slot);
+      return value == null ? null : value.intValue();
+    }
+
+    /** Digits after the decimal point without trailing zeros; 0 for blank cells. */
+    int scale(int slot) {
+      if (blank(slot)) {
+        return 0;
+      }
+      char[] buf = chars[slot];
+      int length = lengths[slot];
+      int dot = -1;
+      for (int i = 0; i < length; i++) {
+        char c = buf[i];
+        if (c == '.' && dot < 0) {
+          dot = i;
+        } else if ((c < '0' || c > '9') && !(i == 0 && c == '-')) {
+          return Math.max(0, decimal(slot).stripTrailingZeros().scale());
+        }
+      }
+      if (dot < 0) {
+        return 0;
+      }
+      int end = length;
+      while (end > dot + 1 && buf[end - 1] == '0') {
+        end--;
+      }
+      return end - dot - 1;
+    }
+
+    /**
+     * Value as a fixed-point long with {@code scale} decimals, or {@link CandleSeries#NULL} for
+     * blank cells. {@code scale} must be at least {@link #scale(int)}.
+     */
+    long fixed(int slot, int scale) {
+      if (blank(slot)) {
+        return CandleSeries.NULL;
+      }
+      char[] buf = chars[slot];
+      int length = lengths[slot];
+      boolean negative = buf[0] == '-';
+      long value = 0;
+      int digits = 0;
+      int fraction = -1;
+      for (int i = negative ? 1 : 0; i < length; i++) {
+        char c = buf[i];
+        if (c == '.' && fraction < 0) {
+          fraction = 0;
+          continue;
+        }
+        if (c < '0' || c > '9' || digits > 17) {
+          return slowFixed(slot, scale);
+        }
+        if (fraction >= 0) {
+          if (fraction == scale) {
+            if (c != '0') {
+              return slowFixed(slot, scale);
+            }
+            continue;
+          }
+          fraction++;
+        }
+        value = value * 10 + (c - '0');
+        digits++;
+      }
+      if (digits == 0) {
+        return slowFixed(slot, scale);
+      }
+      try {
+        for (int f = Math.max(fraction, 0); f < scale; f++) {
+          value = Math.multiplyExact(value, 10);
+        }
+      } catch (ArithmeticException ex) {
+        return slowFixed(slot, scale);
+      }
+      return negative ? -value : value;
+    }
+
+    private long slowFixed(int slot, int scale) {
+      try {
+        return decimal(slot)
+            .setScale(scale, RoundingMode.UNNECESSARY)
+            .unscaledValue()
+            .longValueExact();
+      } catch (ArithmeticException | NumberFormatException ex) {
+        throw new MoexClientException("MOEX ISS value out of range: " + text(slot), ex);
+      }
+    }
+
+    /** Epoch millis of an ISS date time, or {@link CandleSeries#NULL} for blank cells. */
+    long epochMillis(int slot) {
+      if (blank(slot)) {
+        return CandleSeries.NULL;
+      }
+      char[] buf = chars[slot];
+      if (lengths[slot] == 19 && buf[4] == '-' && buf[10] == ' ' && buf[13] == ':') {
+        try {
+          long day =
+              LocalDate.of(digits(buf, 0, 4), digits(buf, 5, 2), digits(buf, 8, 2)).toEpochDay();
+          int second =
+              LocalTime.of(digits(buf, 11, 2), digits(buf, 14, 2), digits(buf, 17, 2))
+                  .toSecondOfDay();
+          return (day * 86_400 + second) * 1000;
+        } catch (RuntimeException ignored) {
+          // fallback below
+        }
+      }
+      return parseDateTime(text(slot)).toInstant().toEpochMilli();
+    }
+
+    OffsetDateTime dateTime(int slot) {
+      if (blank(slot)) {
+        return null;
+      }
+      char[] buf = chars[slot];
+      if (lengths[slot] == 19 && buf[4] == '-' && buf[10] == ' ' && buf[13] == ':') {
+        try {
+          return LocalDateTime.of(
+                  digits(buf, 0, 4),
+                  digits(buf, 5, 2),
+                  digits(buf, 8, 2),
+                  digits(buf, 11, 2),
+                  digits(buf, 14, 2),
+                  digits(buf, 17, 2))
+              .atOffset(ZoneOffset.UTC);
+        } catch (RuntimeException ignored) {
+          // fallback below
+        }
+      }
+      return parseDateTime(text(slot));
+    }
+
+    private static int digits(char[] buf, int offset, int count) {
+      int value = 0;
+      for (int i = offset; i < offset + count; i++) {
+        char c = buf[i];
+        if (c < '0' || c > '9') {
+          throw new NumberFormatException();
+        }
+        value = value * 10 + (c - '0');
+      }
+      return value;
+    }
+  }
+
+  static OffsetDateTime parseDateTime(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return OffsetDateTime.parse(value);
+    } catch (Exception ignored) {
+      // fallback below
+    }
+    try {
+      LocalDateTime localDateTime = LocalDateTime.parse(value, ISS_DATE_TIME);
+      return localDateTime.atOffset(ZoneOffset.UTC);
+    } catch (Exception ex) {
+      // fallback below
+    }
+    try {
+      LocalDateTime localDateTime =
+          LocalDateTime.of(LocalDate.now(ZoneOffset.UTC), LocalTime.parse(value, ISS_TIME));
+      return localDateTime.atOffset(ZoneOffset.UTC);
+    } catch (Exception ex) {
+      throw new MoexClientException("Cannot parse ISS date time: " + value, ex);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.logicsignalprotector.marketdata.client;
+
+/**
+ * The request was not sent to ISS because a local limit ran out first: the rate limiter, the
+ * in-flight budget or the request deadline. Says nothing about ISS health, so the circuit breaker
+ * does not count it; callers treat it like any other {@link IssUnavailableException}.
+ */
+public class IssThrottledException extends IssUnavailableException {
+  public IssThrottledException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,15 @@
+package com.logicsignalprotector.marketdata.client;
+
+/**
+ * ISS gave no usable answer: timeout, connection failure, 5xx, or the request was not sent because
+ * the circuit breaker is open or a local limit ran out ({@link IssThrottledException}).
+ */
+public class IssUnavailableException extends MoexClientException {
+  public IssUnavailableException(String message) {
+    super(message);
+  }
+
+  public IssUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
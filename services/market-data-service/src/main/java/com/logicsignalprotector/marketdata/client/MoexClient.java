@@ -1,94 +1,231 @@
 package com.logicsignalprotector.marketdata.client;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logicsignalprotector.marketdata.client.IssTableReader.Cursor;
+import com.logicsignalprotector.marketdata.client.IssTableReader.Page;
+import com.logicsignalprotector.marketdata.client.IssTableReader.Plan;
+import com.logicsignalprotector.marketdata.config.CachePolicy;
+import com.logicsignalprotector.marketdata.config.IssPagination;
 import com.logicsignalprotector.marketdata.config.MoexProperties;
-import com.logicsignalprotector.marketdata.dto.CandleDto;
 import com.logicsignalprotector.marketdata.dto.InstrumentDto;
 import com.logicsignalprotector.marketdata.dto.MarketStatusDto;
-import com.logicsignalprotector.marketdata.dto.OrderBookDto;
-import com.logicsignalprotector.marketdata.dto.OrderBookEntryDto;
 import com.logicsignalprotector.marketdata.dto.QuoteDto;
 import com.logicsignalprotector.marketdata.dto.TradeDto;
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import com.logicsignalprotector.marketdata.model.BoardMarketData;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import com.logicsignalprotector.marketdata.model.OrderBook;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 @Component
 public class MoexClient {
   private static final Logger log = LoggerFactory.getLogger(MoexClient.class);
   private static final DateTimeFormatter ISS_DATE_TIME =
       DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss", Locale.ROOT);
-  private static final DateTimeFormatter ISS_TIME =
-      DateTimeFormatter.ofPattern("HH:mm:ss", Locale.ROOT);
+
+  static final Plan INSTRUMENTS =
+      Plan.of(
+          "securities",
+          "SECID",
+          "SHORTNAME",
+          "SECNAME",
+          "LOTSIZE",
+          "PREVPRICE",
+          "LAST",
+          "CURRENCYID",
+          "BOARDID");
+  static final Plan QUOTE =
+      Plan.of("marketdata", "LAST", "CHANGE", "LASTTOPREVPRICE", "VOLTODAY", "SYSTIME");
+  static final Plan BOARD_MARKETDATA =
+      Plan.of(
+          "marketdata",
+          "SECID",
+          "BOARDID",
+          "LAST",
+          "CHANGE",
+          "LASTTOPREVPRICE",
+          "VOLTODAY",
+          "SYSTIME",
+          "TRADINGSTATUS");
+  static final Plan CANDLES =
+      Plan.of("candles", "begin", "end", "open", "close", "high", "low", "volume");
+  static final Plan ORDER_BOOK = Plan.of("orderbook", "BUYSELL", "PRICE", "QUANTITY");
+  static final Plan TRADES =
+      Plan.of("trades", "TRADENO", "TRADETIME", "PRICE", "QUANTITY", "BUYSELL");
+  static final Plan MARKET_STATUS = Plan.of("marketdata", "TRADINGSTATUS", "SYSTIME");
+
+  /** Name of the {@code resilience4j} rate limiter and circuit breaker instances. */
+  static final String RESILIENCE_NAME = "moexIss";
 
   private final WebClient webClient;
-  private final Cache<String, JsonNode> cache;
+  private final IssResponseCache cache;
+  private final IssGuard guard;
+  private final IssLastGood lastGood;
   private final MoexProperties properties;
-
-  public MoexClient(WebClient moexWebClient, MoexProperties properties) {
+  private final MeterRegistry meterRegistry;
+
+  public MoexClient(
+      WebClient moexWebClient,
+      MoexProperties properties,
+      MeterRegistry meterRegistry,
+      RateLimiterRegistry rateLimiters,
+      CircuitBreakerRegistry circuitBreakers,
+      Scheduler blockingScheduler) {
     this.webClient = moexWebClient;
     this.properties = properties;
-    this.cache =
-        Caffeine.newBuilder().expireAfterWrite(properties.cacheTtl()).maximumSize(1000).build();
+    this.meterRegistry = meterRegistry;
+    this.cache = new IssResponseCache(properties.cacheMaxEntries(), meterRegistry);
+    this.lastGood =
+        new IssLastGood(properties.lastGoodMaxEntries(), properties.lastGoodRetention());
+    this.guard =
+        new IssGuard(
+            rateLimiters.rateLimiter(RESILIENCE_NAME),
+            circuitBreakers.circuitBreaker(RESILIENCE_NAME),
+            new IssRequestBudget(properties.maxInFlight(), blockingScheduler, meterRegistry),
+            properties.timeout());
   }
 
-  public List<InstrumentDto> getInstruments(
-      String engine, String market, String board, Optional<String> filter, int limit, int offset) {
+  /**
+   * Every security listed on the board, in ISS order; one ISS call cached as {@code instruments}.
+   */
+  public List<InstrumentDto> getBoardInstruments(String engine, String market, String board) {
     String path =
         String.format("/engines/%s/markets/%s/boards/%s/securities.json", engine, market, board);
     Map<String, String> params = new HashMap<>();
     params.put("iss.only", "securities");
-    params.put(
-        "securities.columns", "SECID,SHORTNAME,SECNAME,LOTSIZE,PREVPRICE,LAST,CURRENCYID,BOARDID");
-    params.put("start", Integer.toString(offset));
-    params.put("limit", Integer.toString(limit));
-    JsonNode root = get(path, params);
-    List<InstrumentDto> instruments = parseInstruments(root);
-    if (filter.isPresent()) {
-      String query = filter.get().toLowerCase(Locale.ROOT);
-      instruments =
-          instruments.stream()
-              .filter(
-                  item ->
-                      containsIgnoreCase(item.secId(), query)
-                          || containsIgnoreCase(item.name(), query)
-                          || containsIgnoreCase(item.shortName(), query))
-              .collect(Collectors.toList());
-    }
-    return instruments;
+    params.put("securities.columns", INSTRUMENTS.columnsParam());
+    return get("instruments", path, params, MoexClient::parseInstruments);
   }
 
   public QuoteDto getQuote(String engine, String market, String board, String sec) {
-    String path =
-        String.format(
-            "/engines/%s/markets/%s/boards/%s/securities/%s.json", engine, market, board, sec);
+    return get(
+        "quote",
+        quotePath(engine, market, board, sec),
+        quoteParams(),
+        body -> parseQuote(body, sec, board));
+  }
+
+  /**
+   * Marketdata of every security on the board from one ISS call, cached as {@code quote-board}.
+   * Each row is also stored as the per-ticker {@link #getQuote} entry.
+   */
+  public BoardMarketData getBoardMarketData(String engine, String market, String board) {
+    String key = boardKey(engine, market, board);
+    return StaleReads.block(
+        cache
+            .get(
+                "quote-board",
+                key,
+                properties.cachePolicy("quote-board"),
+                () -> loadBoard(engine, market, board))
+            .onErrorResume(IssUnavailableException.class, ex -> lastGoodOr(key, ex)));
+  }
+
+  /** Same as {@link #getBoardMarketData} but always calls ISS, then refreshes the cache. */
+  public BoardMarketData loadBoardMarketData(String engine, String market, String board) {
+    String key = boardKey(engine, market, board);
+    return StaleReads.block(
+        loadBoard(engine, market, board)
+            .doOnNext(data -> cache.put(key, properties.cachePolicy("quote-board"), data))
+            .onErrorResume(IssUnavailableException.class, ex -> lastGoodOr(key, ex)));
+  }
+
+  /** Conditional board read; only answers from ISS (full or {@code 304}) update the tickers. */
+  private Mono<BoardMarketData> loadBoard(String engine, String market, String board) {
+    CachePolicy policy = properties.cachePolicy("quote");
+    return fetchConditional(
+            boardKey(engine, market, board),
+            boardPath(engine, market, board),
+            boardParams(),
+            body -> parseBoardMarketData(body, board))
+        .doOnNext(
+            data ->
+                data.quotes()
+                    .forEach(
+                        (sec, quote) ->
+                            cache.put(quoteKey(engine, market, board, sec), policy, quote)));
+  }
+
+  private static String boardPath(String engine, String market, String board) {
+    return String.format("/engines/%s/markets/%s/boards/%s/securities.json", engine, market, board);
+  }
+
+  private static Map<String, String> boardParams() {
+    Map<String, String> params = new HashMap<>();
+    params.put("iss.only", "marketdata");
+    params.put("marketdata.columns", BOARD_MARKETDATA.columnsParam());
+    return params;
+  }
+
+  private static String boardKey(String engine, String market, String board) {
+    return buildCacheKey(boardPath(engine, market, board), boardParams());
+  }
+
+  /** Last loaded per-ticker quote, fresh or stale, without calling ISS. */
+  public Optional<QuoteDto> getCachedQuote(String engine, String market, String board, String sec) {
+    return cache.getIfPresent(quoteKey(engine, market, board, sec));
+  }
+
+  private static String quotePath(String engine, String market, String board, String sec) {
+    return String.format(
+        "/engines/%s/markets/%s/boards/%s/securities/%s.json", engine, market, board, sec);
+  }
+
+  private static Map<String, String> quoteParams() {
     Map<String, String> params = new HashMap<>();
     params.put("iss.only", "securities,marketdata");
     params.put("securities.columns", "SECID,BOARDID");
-    params.put("marketdata.columns", "LAST,CHANGE,LASTTOPREVPRICE,VOLTODAY,SYSTIME");
-    JsonNode root = get(path, params);
-    return parseQuote(root, sec, board);
+    params.put("marketdata.columns", QUOTE.columnsParam());
+    return params;
   }
 
-  public List<CandleDto> getCandles(
+  private static String quoteKey(String engine, String market, String board, String sec) {
+    return buildCacheKey(quotePath(engine, market, board, sec), quoteParams());
+  }
+
+  public CandleSeries getCandles(
+      String engine,
+      String market,
+      String board,
+      String sec,
+      int interval,
+      OffsetDateTime from,
+      OffsetDateTime till) {
+    List<CandleSeries> pages =
+        StaleReads.block(
+            streamCandles(engine, market, board, sec, interval, from, till).collectList());
+    return pages == null ? CandleSeries.empty() : CandleSeries.concat(pages);
+  }
+
+  /**
+   * Candles page by page, in order. With {@code from} set the whole range is paged; without it a
+   * single ISS page is returned, as ISS would otherwise start at the beginning of history.
+   */
+  public Flux<CandleSeries> streamCandles(
       String engine,
       String market,
       String board,
@@ -101,29 +238,35 @@ public class MoexClient {
             "/engines/%s/markets/%s/boards/%s/securities/%s/candles.json",
             engine, market, board, sec);
     Map<String, String> params = new HashMap<>();
-    params.put("iss.only", "candles");
-    params.put("candles.columns", "begin,end,open,close,high,low,volume");
+    params.put("iss.only", "candles,candles.cursor");
+    params.put("candles.columns", CANDLES.columnsParam());
     params.put("interval", Integer.toString(interval));
-    if (from != null) {
-      params.put("from", formatIssDate(from));
-    }
     if (till != null) {
       params.put("till", formatIssDate(till));
     }
-    JsonNode root = get(path, params);
-    return parseCandles(root);
+    String kind = candlesKind(interval, till);
+    if (from == null) {
+      return getAsync(kind, path, params, MoexClient::parseCandles).flux();
+    }
+    params.put("from", formatIssDate(from));
+    IssPagination pagination = properties.pagination();
+    return IssPager.pages(
+        pagination.candlesPageSize(),
+        pagination.parallelism(),
+        pagination.maxRows(),
+        CandleSeries::size,
+        start -> getAsync(kind, path, withStart(params, start), MoexClient::parseCandlePage));
   }
 
-  public OrderBookDto getOrderBook(String engine, String market, String board, String sec) {
+  public OrderBook getOrderBook(String engine, String market, String board, String sec) {
     String path =
         String.format(
             "/engines/%s/markets/%s/boards/%s/securities/%s/orderbook.json",
             engine, market, board, sec);
     Map<String, String> params = new HashMap<>();
     params.put("iss.only", "orderbook");
-    params.put("orderbook.columns", "BUYSELL,PRICE,QUANTITY");
-    JsonNode root = get(path, params);
-    return parseOrderBook(root, sec, board);
+    params.put("orderbook.columns", ORDER_BOOK.columnsParam());
+    return get("orderbook", path, params, MoexClient::parseOrderBook);
   }
 
   public List<TradeDto> getTrades(
@@ -133,17 +276,40 @@ public class MoexClient {
       String sec,
       Optional<String> from,
       Optional<Integer> limit) {
+    return concat(streamTrades(engine, market, board, sec, from, limit));
+  }
+
+  /**
+   * Trades page by page, in order. An explicit {@code limit} is one ISS request; without it all
+   * trades from {@code from} are paged.
+   */
+  public Flux<List<TradeDto>> streamTrades(
+      String engine,
+      String market,
+      String board,
+      String sec,
+      Optional<String> from,
+      Optional<Integer> limit) {
     String path =
         String.format(
             "/engines/%s/markets/%s/boards/%s/securities/%s/trades.json",
             engine, market, board, sec);
     Map<String, String> params = new HashMap<>();
-    params.put("iss.only", "trades");
-    params.put("trades.columns", "TRADENO,TRADETIME,PRICE,QUANTITY,BUYSELL");
+    params.put("iss.only", "trades,trades.cursor");
+    params.put("trades.columns", TRADES.columnsParam());
     from.ifPresent(value -> params.put("from", value));
-    limit.ifPresent(value -> params.put("limit", Integer.toString(value)));
-    JsonNode root = get(path, params);
-    return parseTrades(root);
+    if (limit.isPresent()) {
+      params.put("limit", Integer.toString(limit.get()));
+      return getAsync("trades", path, params, MoexClient::parseTrades).flux();
+    }
+    IssPagination pagination = properties.pagination();
+    params.put("limit", Integer.toString(pagination.tradesPageSize()));
+    return IssPager.pages(
+        pagination.tradesPageSize(),
+        pagination.parallelism(),
+        pagination.maxRows(),
+        List::size,
+        start -> getAsync("trades", path, withStart(params, start), MoexClient::parseTradePage));
   }
 
   public MarketStatusDto getMarketStatus(String engine, String market, String board, String sec) {
@@ -152,64 +318,146 @@ public class MoexClient {
             "/engines/%s/markets/%s/boards/%s/securities/%s.json", engine, market, board, sec);
     Map<String, String> params = new HashMap<>();
     params.put("iss.only", "marketdata");
-    params.put("marketdata.columns", "TRADINGSTATUS,SYSTIME");
-    JsonNode root = get(path, params);
-    return parseMarketStatus(root, sec, board);
+    params.put("marketdata.columns", MARKET_STATUS.columnsParam());
+    return get("status", path, params, body -> parseMarketStatus(body, sec, board));
   }
 
-  private JsonNode get(String path, Map<String, String> params) {
+  private <T> T get(
+      String kind, String path, Map<String, String> params, Function<byte[], T> parser) {
+    return StaleReads.block(getAsync(kind, path, params, parser));
+  }
+
+  private <T> Mono<T> getAsync(
+      String kind, String path, Map<String, String> params, Function<byte[], T> parser) {
     String cacheKey = buildCacheKey(path, params);
-    return cache.get(cacheKey, key -> fetch(path, params));
-  }
-
-  private JsonNode fetch(String path, Map<String, String> params) {
-    log.info("MOEX ISS request {} params={}", path, params);
-    JsonNode response =
-        webClient
-            .get()
-            .uri(
-                uriBuilder -> {
-                  uriBuilder.path(path);
-                  params.forEach(uriBuilder::queryParam);
-                  return uriBuilder.build();
-                })
-            .accept(MediaType.APPLICATION_JSON)
-            .exchangeToMono(
-                clientResponse -> {
-                  if (clientResponse.statusCode().isError()) {
-                    return clientResponse
-                        .bodyToMono(String.class)
-                        .defaultIfEmpty("")
-                        .flatMap(
-                            body ->
-                                Mono.error(
-                                    new MoexClientException(
-                                        "MOEX ISS error "
-                                            + clientResponse.statusCode().value()
-                                            + " "
-                                            + body)));
-                  }
-                  MediaType contentType =
-                      clientResponse
-                          .headers()
-                          .contentType()
-                          .orElse(MediaType.APPLICATION_OCTET_STREAM);
-                  if (isJson(contentType)) {
-                    return clientResponse.bodyToMono(JsonNode.class);
-                  }
-                  return clientResponse
-                      .bodyToMono(String.class)
-                      .defaultIfEmpty("")
-                      .flatMap(
-                          body ->
-                              Mono.error(
-                                  new MoexClientException(buildNonJsonMessage(contentType, body))));
-                })
-            .block(properties.timeout());
-    if (response == null) {
-      throw new MoexClientException("MOEX ISS returned empty response");
+    return cache
+        .get(
+            kind,
+            cacheKey,
+            properties.cachePolicy(kind),
+            () -> fetchConditional(cacheKey, path, params, parser))
+        .onErrorResume(IssUnavailableException.class, ex -> lastGoodOr(cacheKey, ex));
+  }
+
+  /** The last full response for the key, if the caller can flag it as stale; else {@code error}. */
+  private <T> Mono<T> lastGoodOr(String key, IssUnavailableException error) {
+    IssLastGood.Response previous = lastGood.get(key);
+    return StaleReads.fallback(previous == null ? null : previous.<T>typed(), error);
+  }
+
+  /**
+   * Revalidates with the validators of the last full response for the key, if ISS sent any; a
+   * {@code 304} returns the value parsed back then. Counted in {@code moex.iss.responses} with tag
+   * {@code result} ({@code full}, {@code not-modified}).
+   */
+  private <T> Mono<T> fetchConditional(
+      String key, String path, Map<String, String> params, Function<byte[], T> parser) {
+    return Mono.defer(
+        () -> {
+          IssLastGood.Response stored = lastGood.get(key);
+          IssLastGood.Response previous = stored != null && stored.revalidatable() ? stored : null;
+          return guard
+              .call(request(path, params, previous))
+              .map(
+                  response -> {
+                    if (response.body() == null) {
+                      meterRegistry
+                          .counter("moex.iss.responses", "result", "not-modified")
+                          .increment();
+                      return previous.<T>typed();
+                    }
+                    meterRegistry.counter("moex.iss.responses", "result", "full").increment();
+                    T value = parser.apply(response.body());
+                    lastGood.put(key, response.etag(), response.lastModified(), value);
+                    return value;
+                  });
+        });
+  }
+
+  /**
+   * Candles whose range ended more than one interval ago never change, so they get the long-lived
+   * {@code candles-history} policy; open daily ranges get {@code candles-daily}.
+   */
+  static String candlesKind(int interval, OffsetDateTime till) {
+    if (till != null
+        && till.toInstant().isBefore(Instant.now().minus(Duration.ofMinutes(interval)))) {
+      return "candles-history";
     }
-    return response;
+    return interval == 1440 ? "candles-daily" : "candles";
+  }
+
+  /** Body is {@code null} for a {@code 304}, which is only possible with {@code previous} set. */
+  private record IssResponse(byte[] body, String etag, String lastModified) {}
+
+  private Mono<IssResponse> request(
+      String path, Map<String, String> params, IssLastGood.Response previous) {
+    return webClient
+        .get()
+        .uri(
+            uriBuilder -> {
+              uriBuilder.path(path);
+              params.forEach(uriBuilder::queryParam);
+              return uriBuilder.build();
+            })
+        .accept(MediaType.APPLICATION_JSON)
+        .headers(
+            headers -> {
+              if (previous != null && previous.etag() != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, previous.etag());
+              }
+              if (previous != null && previous.lastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+              }
+            })
+        .exchangeToMono(
+            clientResponse -> {
+              if (previous != null
+                  && clientResponse.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                return clientResponse
+                    .releaseBody()
+                    .thenReturn(new IssResponse(null, previous.etag(), previous.lastModified()));
+              }
+              if (clientResponse.statusCode().isError()) {
+                return clientResponse
+                    .bodyToMono(String.class)
+                    .defaultIfEmpty("")
+                    .flatMap(
+                        body -> {
+                          String message =
+                              "MOEX ISS error " + clientResponse.statusCode().value() + " " + body;
+                          return Mono.error(
+                              clientResponse.statusCode().is5xxServerError()
+                                  ? new IssUnavailableException(message)
+                                  : new MoexClientException(message));
+                        });
+              }
+              MediaType contentType =
+                  clientResponse.headers().contentType().orElse(MediaType.APPLICATION_OCTET_STREAM);
+              if (isJson(contentType)) {
+                HttpHeaders headers = clientResponse.headers().asHttpHeaders();
+                return clientResponse
+                    .bodyToMono(byte[].class)
+                    .map(
+                        body ->
+                            new IssResponse(
+                                body,
+                                headers.getETag(),
+                                headers.getFirst(HttpHeaders.LAST_MODIFIED)));
+              }
+              return clientResponse
+                  .bodyToMono(String.class)
+                  .defaultIfEmpty("")
+                  .flatMap(
+                      body ->
+                          Mono.error(
+                              new MoexClientException(buildNonJsonMessage(contentType, body))));
+            })
+        .onErrorMap(
+            WebClientRequestException.class,
+            ex -> new IssUnavailableException("MOEX ISS unreachable: " + ex.getMessage(), ex))
+        .switchIfEmpty(
+            Mono.error(() -> new MoexClientException("MOEX ISS returned empty response")))
+        .doOnSubscribe(subscription -> log.info("MOEX ISS request {} params={}", path, params));
   }
 
   private static boolean isJson(MediaType contentType) {
@@ -235,214 +483,170 @@ public class MoexClient {
     return message;
   }
 
-  private List<InstrumentDto> parseInstruments(JsonNode root) {
-    JsonNode section = section(root, "securities");
-    Map<String, Integer> idx = indexColumns(section);
-    return toRows(section).stream()
-        .map(
-            row ->
-                new InstrumentDto(
-                    text(row, idx, "SECID"),
-                    text(row, idx, "SHORTNAME"),
-                    text(row, idx, "SECNAME"),
-                    integer(row, idx, "LOTSIZE"),
-                    decimal(row, idx, "PREVPRICE"),
-                    decimal(row, idx, "LAST"),
-                    text(row, idx, "CURRENCYID"),
-                    text(row, idx, "BOARDID")))
-        .collect(Collectors.toList());
-  }
-
-  private QuoteDto parseQuote(JsonNode root, String sec, String board) {
-    JsonNode section = section(root, "marketdata");
-    Map<String, Integer> idx = indexColumns(section);
-    List<JsonNode> rows = toRows(section);
-    if (rows.isEmpty()) {
-      throw new MoexClientException("MOEX ISS returned empty marketdata for " + sec);
-    }
-    JsonNode row = rows.get(0);
-    return new QuoteDto(
-        sec,
-        board,
-        decimal(row, idx, "LAST"),
-        decimal(row, idx, "CHANGE"),
-        decimal(row, idx, "LASTTOPREVPRICE"),
-        decimal(row, idx, "VOLTODAY"),
-        dateTime(row, idx, "SYSTIME"));
-  }
-
-  private List<CandleDto> parseCandles(JsonNode root) {
-    JsonNode section = section(root, "candles");
-    Map<String, Integer> idx = indexColumns(section);
-    return toRows(section).stream()
-        .map(
-            row ->
-                new CandleDto(
-                    dateTime(row, idx, "begin"),
-                    dateTime(row, idx, "end"),
-                    decimal(row, idx, "open"),
-                    decimal(row, idx, "close"),
-                    decimal(row, idx, "high"),
-                    decimal(row, idx, "low"),
-                    decimal(row, idx, "volume")))
-        .collect(Collectors.toList());
-  }
-
-  private OrderBookDto parseOrderBook(JsonNode root, String sec, String board) {
-    JsonNode section = section(root, "orderbook");
-    Map<String, Integer> idx = indexColumns(section);
-    List<OrderBookEntryDto> bids = new ArrayList<>();
-    List<OrderBookEntryDto> asks = new ArrayList<>();
-    for (JsonNode row : toRows(section)) {
-      String side = text(row, idx, "BUYSELL");
-      OrderBookEntryDto entry =
-          new OrderBookEntryDto(side, decimal(row, idx, "PRICE"), decimal(row, idx, "QUANTITY"));
-      if ("B".equalsIgnoreCase(side)) {
-        bids.add(entry);
-      } else if ("S".equalsIgnoreCase(side)) {
-        asks.add(entry);
-      }
-    }
-    bids.sort(Comparator.comparing(OrderBookEntryDto::price).reversed());
-    asks.sort(Comparator.comparing(OrderBookEntryDto::price));
-    return new OrderBookDto(sec, board, null, bids, asks);
+  static List<InstrumentDto> parseInstruments(byte[] body) {
+    return IssTableReader.read(
+        body,
+        INSTRUMENTS,
+        row ->
+            new InstrumentDto(
+                row.text(0),
+                row.text(1),
+                row.text(2),
+                row.integer(3),
+                row.decimal(4),
+                row.decimal(5),
+                row.text(6),
+                row.text(7)));
   }
 
-  private List<TradeDto> parseTrades(JsonNode root) {
-    JsonNode section = section(root, "trades");
-    Map<String, Integer> idx = indexColumns(section);
-    return toRows(section).stream()
-        .map(
+  private static QuoteDto parseQuote(byte[] body, String sec, String board) {
+    List<QuoteDto> rows =
+        IssTableReader.read(
+            body,
+            QUOTE,
             row ->
-                new TradeDto(
-                    longValue(row, idx, "TRADENO"),
-                    dateTime(row, idx, "TRADETIME"),
-                    decimal(row, idx, "PRICE"),
-                    decimal(row, idx, "QUANTITY"),
-                    text(row, idx, "BUYSELL")))
-        .collect(Collectors.toList());
-  }
-
-  private MarketStatusDto parseMarketStatus(JsonNode root, String sec, String board) {
-    JsonNode section = section(root, "marketdata");
-    Map<String, Integer> idx = indexColumns(section);
-    List<JsonNode> rows = toRows(section);
+                new QuoteDto(
+                    sec,
+                    board,
+                    row.decimal(0),
+                    row.decimal(1),
+                    row.decimal(2),
+                    row.decimal(3),
+                    row.dateTime(4)));
     if (rows.isEmpty()) {
       throw new MoexClientException("MOEX ISS returned empty marketdata for " + sec);
     }
-    JsonNode row = rows.get(0);
-    return new MarketStatusDto(
-        "MOEX", board, sec, text(row, idx, "TRADINGSTATUS"), dateTime(row, idx, "SYSTIME"));
+    return rows.get(0);
   }
 
-  private static boolean containsIgnoreCase(String value, String query) {
-    return value != null && value.toLowerCase(Locale.ROOT).contains(query);
-  }
-
-  private static String formatIssDate(OffsetDateTime dateTime) {
-    return ISS_DATE_TIME.format(dateTime.withOffsetSameInstant(ZoneOffset.UTC));
+  static BoardMarketData parseBoardMarketData(byte[] body, String board) {
+    Map<String, QuoteDto> quotes = new HashMap<>();
+    Map<String, MarketStatusDto> statuses = new HashMap<>();
+    IssTableReader.readInto(
+        body,
+        BOARD_MARKETDATA,
+        row -> {
+          String sec = row.text(0);
+          if (sec == null) {
+            return;
+          }
+          String rowBoard = row.text(1) != null ? row.text(1) : board;
+          OffsetDateTime time = row.dateTime(6);
+          quotes.put(
+              sec,
+              new QuoteDto(
+                  sec,
+                  rowBoard,
+                  row.decimal(2),
+                  row.decimal(3),
+                  row.decimal(4),
+                  row.decimal(5),
+                  time));
+          statuses.put(sec, new MarketStatusDto("MOEX", rowBoard, sec, row.text(7), time));
+        });
+    return new BoardMarketData(board, quotes, statuses);
   }
 
-  private static JsonNode section(JsonNode root, String name) {
-    JsonNode section = root.get(name);
-    if (section == null) {
-      throw new MoexClientException("MOEX ISS response missing section " + name);
-    }
-    return section;
+  static CandleSeries parseCandles(byte[] body) {
+    return parseCandlePage(body).rows();
   }
 
-  private static Map<String, Integer> indexColumns(JsonNode section) {
-    JsonNode columns = section.get("columns");
-    if (columns == null || !columns.isArray()) {
-      throw new MoexClientException("MOEX ISS response has invalid columns");
-    }
-    Map<String, Integer> idx = new HashMap<>();
-    for (int i = 0; i < columns.size(); i++) {
-      idx.put(columns.get(i).asText(), i);
-    }
-    return idx;
+  /** Candles go straight from ISS text into the columnar series, without per-cell objects. */
+  private static Page<CandleSeries> parseCandlePage(byte[] body) {
+    CandleSeries.Builder series = CandleSeries.builder(64);
+    Cursor cursor =
+        IssTableReader.readInto(
+            body,
+            CANDLES,
+            row -> {
+              int priceScale =
+                  Math.max(
+                      Math.max(row.scale(2), row.scale(3)), Math.max(row.scale(4), row.scale(5)));
+              int volumeScale = row.scale(6);
+              series.add(
+                  row.epochMillis(0),
+                  row.epochMillis(1),
+                  priceScale,
+                  row.fixed(2, priceScale),
+                  row.fixed(3, priceScale),
+                  row.fixed(4, priceScale),
+                  row.fixed(5, priceScale),
+                  volumeScale,
+                  row.fixed(6, volumeScale));
+            });
+    return new Page<>(series.build(), cursor);
   }
 
-  private static List<JsonNode> toRows(JsonNode section) {
-    JsonNode data = section.get("data");
-    if (data == null || !data.isArray()) {
-      throw new MoexClientException("MOEX ISS response has invalid data");
-    }
-    List<JsonNode> rows = new ArrayList<>();
-    data.forEach(rows::add);
-    return rows;
+  /** Levels go straight into the primitive {@link OrderBook} arrays, already in ISS order. */
+  static OrderBook parseOrderBook(byte[] body) {
+    OrderBook.Builder book = OrderBook.builder();
+    IssTableReader.readInto(
+        body,
+        ORDER_BOOK,
+        row -> {
+          String side = row.text(0);
+          int priceScale = row.scale(1);
+          long price = row.fixed(1, priceScale);
+          int quantityScale = row.scale(2);
+          long quantity = row.fixed(2, quantityScale);
+          if (price == OrderBook.NULL || quantity == OrderBook.NULL) {
+            return;
+          }
+          if ("B".equalsIgnoreCase(side)) {
+            book.bid(priceScale, price, quantityScale, quantity);
+          } else if ("S".equalsIgnoreCase(side)) {
+            book.ask(priceScale, price, quantityScale, quantity);
+          }
+        });
+    return book.build();
   }
 
-  private static String text(JsonNode row, Map<String, Integer> idx, String column) {
-    JsonNode value = value(row, idx, column);
-    return value == null || value.isNull() ? null : value.asText();
+  static List<TradeDto> parseTrades(byte[] body) {
+    return IssTableReader.read(body, TRADES, MoexClient::trade);
   }
 
-  private static BigDecimal decimal(JsonNode row, Map<String, Integer> idx, String column) {
-    JsonNode value = value(row, idx, column);
-    if (value == null || value.isNull()) {
-      return null;
-    }
-    String text = value.asText();
-    return text == null || text.isBlank() ? null : new BigDecimal(text);
+  private static Page<List<TradeDto>> parseTradePage(byte[] body) {
+    return IssTableReader.readPage(body, TRADES, MoexClient::trade);
   }
 
-  private static Integer integer(JsonNode row, Map<String, Integer> idx, String column) {
-    JsonNode value = value(row, idx, column);
-    if (value == null || value.isNull()) {
-      return null;
-    }
-    return value.asInt();
+  private static TradeDto trade(IssTableReader.Row row) {
+    return new TradeDto(
+        row.longValue(0), row.dateTime(1), row.decimal(2), row.decimal(3), row.text(4));
   }
 
-  private static Long longValue(JsonNode row, Map<String, Integer> idx, String column) {
-    JsonNode value = value(row, idx, column);
-    if (value == null || value.isNull()) {
-      return null;
+  private static MarketStatusDto parseMarketStatus(byte[] body, String sec, String board) {
+    List<MarketStatusDto> rows =
+        IssTableReader.read(
+            body,
+            MARKET_STATUS,
+            row -> new MarketStatusDto("MOEX", board, sec, row.text(0), row.dateTime(1)));
+    if (rows.isEmpty()) {
+      throw new MoexClientException("MOEX ISS returned empty marketdata for " + sec);
     }
-    return value.asLong();
+    return rows.get(0);
   }
 
-  private static OffsetDateTime dateTime(JsonNode row, Map<String, Integer> idx, String column) {
-    JsonNode value = value(row, idx, column);
-    if (value == null || value.isNull()) {
-      return null;
-    }
-    return parseDateTime(value.asText());
+  private static Map<String, String> withStart(Map<String, String> params, int start) {
+    Map<String, String> page = new HashMap<>(params);
+    page.put("start", Integer.toString(start));
+    return page;
   }
 
-  private static OffsetDateTime parseDateTime(String value) {
-    if (value == null || value.isBlank()) {
-      return null;
+  private static <T> List<T> concat(Flux<List<T>> pages) {
+    List<List<T>> all = StaleReads.block(pages.collectList());
+    if (all == null || all.isEmpty()) {
+      return List.of();
     }
-    try {
-      return OffsetDateTime.parse(value);
-    } catch (Exception ignored) {
-      // fallback below
-    }
-    try {
-      LocalDateTime localDateTime = LocalDateTime.parse(value, ISS_DATE_TIME);
-      return localDateTime.atOffset(ZoneOffset.UTC);
-    } catch (Exception ex) {
-      // fallback below
-    }
-    try {
-      LocalDateTime localDateTime =
-          LocalDateTime.of(
-              OffsetDateTime.now(ZoneOffset.UTC).toLocalDate(),
-              java.time.LocalTime.parse(value, ISS_TIME));
-      return localDateTime.atOffset(ZoneOffset.UTC);
-    } catch (Exception ex) {
-      throw new MoexClientException("Cannot parse ISS date time: " + value, ex);
+    if (all.size() == 1) {
+      return all.get(0);
     }
+    List<T> out = new ArrayList<>(all.stream().mapToInt(List::size).sum());
+    all.forEach(out::addAll);
+    return out;
   }
 
-  private static JsonNode value(JsonNode row, Map<String, Integer> idx, String column) {
-    Integer pos = idx.get(column);
-    if (pos == null || pos < 0 || pos >= row.size()) {
-      return null;
-    }
-    return row.get(pos);
+  private static String formatIssDate(OffsetDateTime dateTime) {
+    return ISS_DATE_TIME.format(dateTime.withOffsetSameInstant(ZoneOffset.UTC));
   }
 
   private static String buildCacheKey(String path, Map<String, String> params) {
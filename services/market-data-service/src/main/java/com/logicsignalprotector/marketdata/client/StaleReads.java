@@ -0,0 +1,60 @@
+package com.logicsignalprotector.marketdata.client;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Lets a caller serve last-known-good ISS data while ISS is unavailable and tell it apart.
+ *
+ * <p>ISS reads made inside {@link #track} on the calling thread fall back to the last full response
+ * for the same request when they fail with {@link IssUnavailableException}, and the result is
+ * marked stale. Outside a scope there is no fallback and the error propagates, so data of unknown
+ * age is never returned to a caller that cannot flag it.
+ */
+public final class StaleReads {
+  private static final ThreadLocal<AtomicBoolean> SCOPE = new ThreadLocal<>();
+  private static final String CONTEXT_KEY = StaleReads.class.getName();
+
+  private StaleReads() {}
+
+  public record Tracked<T>(T value, boolean stale) {}
+
+  public static <T> Tracked<T> track(Supplier<T> call) {
+    AtomicBoolean outer = SCOPE.get();
+    AtomicBoolean stale = new AtomicBoolean();
+    SCOPE.set(stale);
+    try {
+      return new Tracked<>(call.get(), stale.get());
+    } finally {
+      if (outer == null) {
+        SCOPE.remove();
+      } else {
+        SCOPE.set(outer);
+        if (stale.get()) {
+          outer.set(true);
+        }
+      }
+    }
+  }
+
+  /** {@link Mono#block()} that carries the caller's scope into the pipeline. */
+  static <T> T block(Mono<T> mono) {
+    AtomicBoolean scope = SCOPE.get();
+    return scope == null ? mono.block() : mono.contextWrite(Context.of(CONTEXT_KEY, scope)).block();
+  }
+
+  /** {@code lastGood} marked stale if the subscriber is inside a scope, otherwise {@code error}. */
+  static <T> Mono<T> fallback(T lastGood, IssUnavailableException error) {
+    return Mono.deferContextual(
+        context -> {
+          AtomicBoolean scope = context.getOrDefault(CONTEXT_KEY, null);
+          if (scope == null || lastGood == null) {
+            return Mono.error(error);
+          }
+          scope.set(true);
+          return Mono.just(lastGood);
+        });
+  }
+}
@@ -0,0 +1,21 @@
+package com.logicsignalprotector.marketdata.config;
+
+import java.util.concurrent.Executors;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+public class BlockingSchedulerConfig {
+
+  /**
+   * One virtual thread per task for blocking work started from reactive pipelines: bulk fan-out
+   * calls and waits for the ISS request budget. Disposed with the context.
+   */
+  @Bean(destroyMethod = "dispose")
+  public Scheduler blockingScheduler() {
+    return Schedulers.fromExecutorService(
+        Executors.newVirtualThreadPerTaskExecutor(), "market-blocking");
+  }
+}
@@ -0,0 +1,17 @@
+package com.logicsignalprotector.marketdata.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Multi-ticker requests.
+ *
+ * @param concurrency tickers processed at once across all bulk requests
+ * @param maxTickers tickers one bulk request may ask for
+ */
+@ConfigurationProperties(prefix = "market.bulk")
+public record BulkProperties(int concurrency, int maxTickers) {
+  public BulkProperties {
+    concurrency = concurrency > 0 ? concurrency : 32;
+    maxTickers = maxTickers > 0 ? maxTickers : 100;
+  }
+}
@@ -0,0 +1,17 @@
+package com.logicsignalprotector.marketdata.config;
+
+import java.time.Duration;
+
+/**
+ * Freshness policy of one ISS data kind.
+ *
+ * @param ttl how long an entry is served as fresh
+ * @param staleWhileRevalidate how long after {@code ttl} the old entry is still served while a
+ *     background refresh runs; {@code 0} disables stale serving
+ */
+public record CachePolicy(Duration ttl, Duration staleWhileRevalidate) {
+  public CachePolicy {
+    ttl = ttl == null ? Duration.ZERO : ttl;
+    staleWhileRevalidate = staleWhileRevalidate == null ? Duration.ZERO : staleWhileRevalidate;
+  }
+}
@@ -0,0 +1,11 @@
+package com.logicsignalprotector.marketdata.config;
+
+import java.nio.file.Path;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param enabled serve candle history from local files and fetch only missing segments from ISS
+ * @param dir root directory; one file per {@code engine/market/board/sec/interval}
+ */
+@ConfigurationProperties(prefix = "market.candle-store")
+public record CandleStoreProperties(boolean enabled, Path dir) {}
@@ -0,0 +1,25 @@
+package com.logicsignalprotector.marketdata.config;
+
+import java.time.Duration;
+
+/**
+ * HTTP transport to ISS.
+ *
+ * @param maxConnections pooled connections to the ISS host
+ * @param maxIdleTime a pooled connection idle this long is closed
+ * @param maxLifeTime any pooled connection is closed after this, so DNS changes are picked up
+ * @param compress ask for gzip and decompress while the body streams in
+ * @param http2 offer HTTP/2 via ALPN on {@code https} base URLs, falling back to HTTP/1.1
+ */
+public record IssHttp(
+    int maxConnections,
+    Duration maxIdleTime,
+    Duration maxLifeTime,
+    boolean compress,
+    boolean http2) {
+  public IssHttp {
+    maxConnections = maxConnections > 0 ? maxConnections : 16;
+    maxIdleTime = maxIdleTime == null ? Duration.ofSeconds(30) : maxIdleTime;
+    maxLifeTime = maxLifeTime == null ? Duration.ofMinutes(5) : maxLifeTime;
+  }
+}
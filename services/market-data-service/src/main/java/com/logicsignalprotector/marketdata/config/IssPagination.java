@@ -0,0 +1,18 @@
+package com.logicsignalprotector.marketdata.config;
+
+/**
+ * ISS pagination limits.
+ *
+ * @param candlesPageSize rows per ISS candles page (fixed by ISS)
+ * @param tradesPageSize rows requested per ISS trades page
+ * @param parallelism pages fetched concurrently for one request
+ * @param maxRows upper bound of rows one request may page through
+ */
+public record IssPagination(int candlesPageSize, int tradesPageSize, int parallelism, int maxRows) {
+  public IssPagination {
+    candlesPageSize = candlesPageSize > 0 ? candlesPageSize : 500;
+    tradesPageSize = tradesPageSize > 0 ? tradesPageSize : 5000;
+    parallelism = parallelism > 0 ? parallelism : 4;
+    maxRows = maxRows > 0 ? maxRows : 100_000;
+  }
+}
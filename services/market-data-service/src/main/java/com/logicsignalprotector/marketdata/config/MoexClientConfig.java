@@ -1,28 +1,65 @@
 package com.logicsignalprotector.marketdata.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 public class MoexClientConfig {
 
+  /**
+   * Keep-alive pool for the ISS host. Pool gauges are published as {@code
+   * reactor.netty.connection.provider.*}; idle connections are evicted in the background.
+   */
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider moexConnectionProvider(MoexProperties properties) {
+    IssHttp http = properties.http();
+    return ConnectionProvider.builder("moex-iss")
+        .maxConnections(http.maxConnections())
+        .pendingAcquireTimeout(properties.timeout())
+        .maxIdleTime(http.maxIdleTime())
+        .maxLifeTime(http.maxLifeTime())
+        .evictInBackground(http.maxIdleTime())
+        .metrics(true)
+        .build();
+  }
+
+  /**
+   * New connections are counted in {@code moex.iss.connections.opened}; against the request count
+   * in {@code moex.iss.responses} it shows how well keep-alive works. A response timeout is used
+   * instead of a read-timeout handler, which would also fire on connections idling in the pool.
+   */
   @Bean
-  public WebClient moexWebClient(MoexProperties properties) {
+  public WebClient moexWebClient(
+      MoexProperties properties,
+      ConnectionProvider moexConnectionProvider,
+      MeterRegistry meterRegistry) {
     Duration timeout = properties.timeout();
+    IssHttp http = properties.http();
+    Counter opened = meterRegistry.counter("moex.iss.connections.opened");
     HttpClient httpClient =
-        HttpClient.create()
+        HttpClient.create(moexConnectionProvider)
             .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(timeout.toMillis()))
-            .doOnConnected(
-                conn ->
-                    conn.addHandlerLast(
-                        new ReadTimeoutHandler(timeout.toMillis(), TimeUnit.MILLISECONDS)));
+            .responseTimeout(timeout)
+            .compress(http.compress())
+            .observe(
+                (connection, state) -> {
+                  if (state == ConnectionObserver.State.CONNECTED) {
+                    opened.increment();
+                  }
+                });
+    if (http.http2() && properties.baseUrl().startsWith("https:")) {
+      httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+    }
     return WebClient.builder()
         .baseUrl(properties.baseUrl())
         .clientConnector(new ReactorClientHttpConnector(httpClient))
@@ -1,7 +1,45 @@
 package com.logicsignalprotector.marketdata.config;
 
 import java.time.Duration;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+/**
+ * @param cacheTtl default TTL for data kinds without an explicit entry in {@code cache}
+ * @param cache per data kind cache policy ({@code quote}, {@code status}, {@code candles}, ...)
+ * @param cacheMaxEntries parsed ISS responses kept in memory, across all kinds
+ * @param pagination paging of long candle/trade ranges
+ * @param http connection pool and protocol settings
+ * @param maxInFlight ISS requests in flight at once; further requests wait for a slot within {@code
+ *     timeout}, which also covers the rate limiter wait and the request itself
+ * @param lastGoodMaxEntries last full ISS responses kept for conditional GETs and stale reads
+ * @param lastGoodRetention how long such a response is kept
+ */
 @ConfigurationProperties(prefix = "market.moex")
-public record MoexProperties(String baseUrl, Duration timeout, Duration cacheTtl) {}
+public record MoexProperties(
+    String baseUrl,
+    Duration timeout,
+    Duration cacheTtl,
+    Map<String, CachePolicy> cache,
+    int cacheMaxEntries,
+    IssPagination pagination,
+    IssHttp http,
+    int maxInFlight,
+    int lastGoodMaxEntries,
+    Duration lastGoodRetention) {
+
+  public MoexProperties {
+    cache = cache == null ? Map.of() : Map.copyOf(cache);
+    cacheMaxEntries = cacheMaxEntries > 0 ? cacheMaxEntries : 1000;
+    pagination = pagination == null ? new IssPagination(0, 0, 0, 0) : pagination;
+    http = http == null ? new IssHttp(0, null, null, true, true) : http;
+    maxInFlight = maxInFlight > 0 ? maxInFlight : 16;
+    lastGoodMaxEntries = lastGoodMaxEntries > 0 ? lastGoodMaxEntries : 1000;
+    lastGoodRetention = lastGoodRetention == null ? Duration.ofHours(24) : lastGoodRetention;
+  }
+
+  public CachePolicy cachePolicy(String kind) {
+    CachePolicy policy = cache.get(kind);
+    return policy != null ? policy : new CachePolicy(cacheTtl, Duration.ZERO);
+  }
+}
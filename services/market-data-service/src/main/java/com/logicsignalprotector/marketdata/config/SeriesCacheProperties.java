@@ -0,0 +1,21 @@
+package com.logicsignalprotector.marketdata.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Incremental results kept per candle series.
+ *
+ * @param resampledMaxEntries series whose resampled bars are kept for extension
+ * @param indicatorMaxEntries indicator states kept per series and spec
+ * @param expireAfterAccess how long an unused entry is kept
+ */
+@ConfigurationProperties(prefix = "market.series-cache")
+public record SeriesCacheProperties(
+    int resampledMaxEntries, int indicatorMaxEntries, Duration expireAfterAccess) {
+  public SeriesCacheProperties {
+    resampledMaxEntries = resampledMaxEntries > 0 ? resampledMaxEntries : 1000;
+    indicatorMaxEntries = indicatorMaxEntries > 0 ? indicatorMaxEntries : 2000;
+    expireAfterAccess = expireAfterAccess == null ? Duration.ofHours(1) : expireAfterAccess;
+  }
+}
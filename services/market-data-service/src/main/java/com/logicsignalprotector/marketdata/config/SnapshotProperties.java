@@ -0,0 +1,25 @@
+package com.logicsignalprotector.marketdata.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Board-wide marketdata snapshot refreshed every {@code market.snapshot.refresh-ms}.
+ *
+ * @param enabled keep the snapshot and serve quotes/status of its boards from memory
+ * @param engine ISS engine of the boards
+ * @param market ISS market of the boards
+ * @param boards boards loaded on every refresh, one ISS call each
+ * @param maxAge a snapshot older than this is not served; lookups fall back to ISS
+ */
+@ConfigurationProperties(prefix = "market.snapshot")
+public record SnapshotProperties(
+    boolean enabled, String engine, String market, List<String> boards, Duration maxAge) {
+  public SnapshotProperties {
+    engine = engine == null || engine.isBlank() ? "stock" : engine;
+    market = market == null || market.isBlank() ? "shares" : market;
+    boards = boards == null ? List.of() : List.copyOf(boards);
+    maxAge = maxAge == null ? Duration.ofSeconds(60) : maxAge;
+  }
+}
@@ -0,0 +1,23 @@
+package com.logicsignalprotector.marketdata.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Quote streaming.
+ *
+ * @param pollInterval how often the shared poller of a ticker reads its quote
+ * @param grace how long a poller keeps running after its last subscriber left
+ * @param heartbeat interval of SSE keep-alive comments
+ * @param maxTickers tickers one stream may subscribe to
+ */
+@ConfigurationProperties(prefix = "market.stream")
+public record StreamProperties(
+    Duration pollInterval, Duration grace, Duration heartbeat, int maxTickers) {
+  public StreamProperties {
+    pollInterval = pollInterval == null ? Duration.ofSeconds(1) : pollInterval;
+    grace = grace == null ? Duration.ofSeconds(5) : grace;
+    heartbeat = heartbeat == null ? Duration.ofSeconds(15) : heartbeat;
+    maxTickers = maxTickers > 0 ? maxTickers : 50;
+  }
+}
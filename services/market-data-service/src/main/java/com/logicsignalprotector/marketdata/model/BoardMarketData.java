@@ -0,0 +1,14 @@
+package com.logicsignalprotector.marketdata.model;
+
+import com.logicsignalprotector.marketdata.dto.MarketStatusDto;
+import com.logicsignalprotector.marketdata.dto.QuoteDto;
+import java.util.Map;
+
+/** Marketdata of every security on one board from a single ISS call, keyed by {@code SECID}. */
+public record BoardMarketData(
+    String board, Map<String, QuoteDto> quotes, Map<String, MarketStatusDto> statuses) {
+  public BoardMarketData {
+    quotes = Map.copyOf(quotes);
+    statuses = Map.copyOf(statuses);
+  }
+}
@@ -0,0 +1,125 @@
+package com.logicsignalprotector.marketdata.model;
+
+/**
+ * Builds coarser candles from a finer {@link CandleSeries}.
+ *
+ * <p>Supported intervals (minutes) are the divisors of a day plus {@link #WEEK}. Intraday buckets
+ * are aligned to midnight, weekly buckets to Monday. Each interval is derived from the coarsest
+ * native ISS interval that divides it ({@link #baseInterval}), so e.g. 5/15/30 minutes share the
+ * same 1-minute series and 4 hours reuse hourly bars.
+ */
+public final class CandleResampler {
+  public static final int DAY = 1440;
+  public static final int WEEK = 7 * DAY;
+
+  private static final int[] NATIVE = {DAY, 60, 10, 1};
+  private static final long MINUTE_MILLIS = 60_000L;
+  private static final long MONDAY_OFFSET_MILLIS = 4 * DAY * MINUTE_MILLIS; // 1970-01-05
+
+  private CandleResampler() {}
+
+  public static boolean supported(int interval) {
+    return interval > 0 && (DAY % interval == 0 || interval == WEEK);
+  }
+
+  /** Whether ISS serves the interval directly. */
+  public static boolean isNative(int interval) {
+    return baseInterval(interval) == interval;
+  }
+
+  public static int baseInterval(int interval) {
+    for (int candidate : NATIVE) {
+      if (interval % candidate == 0) {
+        return candidate;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported interval " + interval);
+  }
+
+  public static long bucketStart(long millis, int interval) {
+    long length = interval * MINUTE_MILLIS;
+    if (interval == WEEK) {
+      return Math.floorDiv(millis - MONDAY_OFFSET_MILLIS, length) * length + MONDAY_OFFSET_MILLIS;
+    }
+    return Math.floorDiv(millis, length) * length;
+  }
+
+  /** All buckets of {@code base}. Bars without a begin time are skipped. */
+  public static CandleSeries resample(CandleSeries base, int interval) {
+    CandleSeries.Builder out = CandleSeries.builder(0);
+    int n = base.size();
+    int i = 0;
+    while (i < n) {
+      if (base.begin(i) == CandleSeries.NULL) {
+        i++;
+        continue;
+      }
+      long bucket = bucketStart(base.begin(i), interval);
+      int j = i + 1;
+      while (j < n && bucketStart(base.begin(j), interval) == bucket) {
+        j++;
+      }
+      addBucket(out, base, bucket, i, j);
+      i = j;
+    }
+    return out.build();
+  }
+
+  /** Only the last {@code limit} buckets; earlier bars of {@code base} are not touched. */
+  public static CandleSeries resampleTail(CandleSeries base, int interval, int limit) {
+    int i = base.size();
+    int buckets = 0;
+    long current = CandleSeries.NULL;
+    while (i > 0 && base.begin(i - 1) != CandleSeries.NULL) {
+      long bucket = bucketStart(base.begin(i - 1), interval);
+      if (bucket != current) {
+        if (buckets == limit) {
+          break;
+        }
+        buckets++;
+        current = bucket;
+      }
+      i--;
+    }
+    return resample(base.slice(i, base.size()), interval);
+  }
+
+  private static void addBucket(
+      CandleSeries.Builder out, CandleSeries base, long bucket, int from, int to) {
+    long open = CandleSeries.NULL;
+    long close = CandleSeries.NULL;
+    long high = CandleSeries.NULL;
+    long low = CandleSeries.NULL;
+    long volume = CandleSeries.NULL;
+    for (int k = from; k < to; k++) {
+      if (open == CandleSeries.NULL) {
+        open = base.open(k);
+      }
+      if (base.close(k) != CandleSeries.NULL) {
+        close = base.close(k);
+      }
+      long h = base.high(k);
+      if (h != CandleSeries.NULL && (high == CandleSeries.NULL || h > high)) {
+        high = h;
+      }
+      long l = base.low(k);
+      if (l != CandleSeries.NULL && (low == CandleSeries.NULL || l < low)) {
+        low = l;
+      }
+      long v = base.volume(k);
+      if (v != CandleSeries.NULL) {
+        volume = volume == CandleSeries.NULL ? v : volume + v;
+      }
+    }
+    out.add(
+        bucket,
+        base.end(to - 1),
+        base.priceScale(),
+        open,
+        close,
+        high,
+        low,
+        base.volumeScale(),
+        volume);
+  }
+}
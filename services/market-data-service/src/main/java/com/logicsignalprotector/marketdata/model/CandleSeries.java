@@ -0,0 +1,367 @@
+package com.logicsignalprotector.marketdata.model;
+
+import com.logicsignalprotector.marketdata.dto.CandleDto;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable columnar candle series sorted by {@code begin}.
+ *
+ * <p>Times are epoch millis; open/close/high/low are fixed-point longs with a shared {@link
+ * #priceScale()} (the most decimals any price in the series has, trailing zeros ignored; this is
+ * not the exchange's price step), volume uses its own {@link #volumeScale()}. A bar costs 56 bytes
+ * instead of six {@code BigDecimal}s and two {@code OffsetDateTime}s. Missing values are {@link
+ * #NULL}. {@link #toDto} gives every value back without trailing zeros, as ISS sends it.
+ *
+ * <p>{@link #slice} and {@link #range} are views over the same arrays; {@link CandleDto}s are only
+ * built on demand via {@link #toDtos()}.
+ */
+public final class CandleSeries {
+  public static final long NULL = Long.MIN_VALUE;
+
+  private static final CandleSeries EMPTY = new Builder(0).build();
+
+  private final long[] begin;
+  private final long[] end;
+  private final long[] open;
+  private final long[] close;
+  private final long[] high;
+  private final long[] low;
+  private final long[] volume;
+  private final int offset;
+  private final int size;
+  private final int priceScale;
+  private final int volumeScale;
+
+  private CandleSeries(
+      long[] begin,
+      long[] end,
+      long[] open,
+      long[] close,
+      long[] high,
+      long[] low,
+      long[] volume,
+      int offset,
+      int size,
+      int priceScale,
+      int volumeScale) {
+    this.begin = begin;
+    this.end = end;
+    this.open = open;
+    this.close = close;
+    this.high = high;
+    this.low = low;
+    this.volume = volume;
+    this.offset = offset;
+    this.size = size;
+    this.priceScale = priceScale;
+    this.volumeScale = volumeScale;
+  }
+
+  public static CandleSeries empty() {
+    return EMPTY;
+  }
+
+  public static Builder builder(int capacity) {
+    return new Builder(capacity);
+  }
+
+  public static CandleSeries of(List<CandleDto> candles) {
+    Builder builder = new Builder(candles.size());
+    candles.forEach(builder::add);
+    return builder.build();
+  }
+
+  /** Concatenates series that follow each other in time. */
+  public static CandleSeries concat(List<CandleSeries> parts) {
+    List<CandleSeries> nonEmpty = parts.stream().filter(part -> part.size > 0).toList();
+    if (nonEmpty.isEmpty()) {
+      return EMPTY;
+    }
+    if (nonEmpty.size() == 1) {
+      return nonEmpty.get(0);
+    }
+    Builder builder = new Builder(nonEmpty.stream().mapToInt(CandleSeries::size).sum());
+    for (CandleSeries part : nonEmpty) {
+      for (int i = 0; i < part.size; i++) {
+        builder.add(
+            part.begin(i),
+            part.end(i),
+            part.priceScale,
+            part.open(i),
+            part.close(i),
+            part.high(i),
+            part.low(i),
+            part.volumeScale,
+            part.volume(i));
+      }
+    }
+    return builder.build();
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int priceScale() {
+    return priceScale;
+  }
+
+  public int volumeScale() {
+    return volumeScale;
+  }
+
+  public long begin(int i) {
+    return begin[offset + i];
+  }
+
+  public long end(int i) {
+    return end[offset + i];
+  }
+
+  public long open(int i) {
+    return open[offset + i];
+  }
+
+  public long close(int i) {
+    return close[offset + i];
+  }
+
+  public long high(int i) {
+    return high[offset + i];
+  }
+
+  public long low(int i) {
+    return low[offset + i];
+  }
+
+  public long volume(int i) {
+    return volume[offset + i];
+  }
+
+  /** Bars {@code [from, to)} as a view. */
+  public CandleSeries slice(int from, int to) {
+    if (from < 0 || to > size || from > to) {
+      throw new IndexOutOfBoundsException("slice " + from + ".." + to + " of " + size);
+    }
+    if (from == 0 && to == size) {
+      return this;
+    }
+    return new CandleSeries(
+        begin,
+        end,
+        open,
+        close,
+        high,
+        low,
+        volume,
+        offset + from,
+        to - from,
+        priceScale,
+        volumeScale);
+  }
+
+  /** Last {@code count} bars as a view. */
+  public CandleSeries tail(int count) {
+    return slice(Math.max(0, size - count), size);
+  }
+
+  /** Bars with {@code from <= begin <= till} as a view. */
+  public CandleSeries range(long fromMillis, long tillMillis) {
+    int lo = lowerBound(fromMillis);
+    int hi = lowerBound(tillMillis == Long.MAX_VALUE ? tillMillis : tillMillis + 1);
+    return slice(lo, Math.max(lo, hi));
+  }
+
+  /** Index of the first bar with {@code begin >= millis}. */
+  public int lowerBound(long millis) {
+    int lo = 0;
+    int hi = size;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (begin(mid) < millis) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  public CandleDto toDto(int i) {
+    return new CandleDto(
+        time(begin(i)),
+        time(end(i)),
+        plain(open(i), priceScale),
+        plain(close(i), priceScale),
+        plain(high(i), priceScale),
+        plain(low(i), priceScale),
+        plain(volume(i), volumeScale));
+  }
+
+  public List<CandleDto> toDtos() {
+    List<CandleDto> out = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      out.add(toDto(i));
+    }
+    return out;
+  }
+
+  public static BigDecimal decimal(long unscaled, int scale) {
+    return unscaled == NULL ? null : BigDecimal.valueOf(unscaled, scale);
+  }
+
+  private static BigDecimal plain(long unscaled, int scale) {
+    if (unscaled == NULL) {
+      return null;
+    }
+    BigDecimal value = BigDecimal.valueOf(unscaled, scale).stripTrailingZeros();
+    return value.scale() < 0 ? value.setScale(0) : value;
+  }
+
+  private static OffsetDateTime time(long millis) {
+    return millis == NULL
+        ? null
+        : OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+  }
+
+  public static long millis(OffsetDateTime time) {
+    return time == null ? NULL : time.toInstant().toEpochMilli();
+  }
+
+  /**
+   * Appends bars in time order. Prices and volumes may arrive with any scale; the builder keeps the
+   * largest one seen and rescales earlier values when it grows.
+   */
+  public static final class Builder {
+    private long[] begin;
+    private long[] end;
+    private long[] open;
+    private long[] close;
+    private long[] high;
+    private long[] low;
+    private long[] volume;
+    private int size;
+    private int priceScale;
+    private int volumeScale;
+
+    private Builder(int capacity) {
+      int cap = Math.max(capacity, 0);
+      begin = new long[cap];
+      end = new long[cap];
+      open = new long[cap];
+      close = new long[cap];
+      high = new long[cap];
+      low = new long[cap];
+      volume = new long[cap];
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public Builder add(CandleDto candle) {
+      int scale = Math.max(scale(candle.open()), scale(candle.close()));
+      scale = Math.max(scale, Math.max(scale(candle.high()), scale(candle.low())));
+      return add(
+          millis(candle.begin()),
+          millis(candle.end()),
+          scale,
+          unscaled(candle.open(), scale),
+          unscaled(candle.close(), scale),
+          unscaled(candle.high(), scale),
+          unscaled(candle.low(), scale),
+          scale(candle.volume()),
+          unscaled(candle.volume(), scale(candle.volume())));
+    }
+
+    /** Adds one bar; prices share {@code priceScale}, {@link #NULL} marks a missing value. */
+    public Builder add(
+        long beginMillis,
+        long endMillis,
+        int priceScale,
+        long open,
+        long close,
+        long high,
+        long low,
+        int volumeScale,
+        long volume) {
+      if (size == begin.length) {
+        grow();
+      }
+      if (priceScale > this.priceScale) {
+        long factor = pow10(priceScale - this.priceScale);
+        rescale(this.open, factor);
+        rescale(this.close, factor);
+        rescale(this.high, factor);
+        rescale(this.low, factor);
+        this.priceScale = priceScale;
+      }
+      if (volumeScale > this.volumeScale) {
+        rescale(this.volume, pow10(volumeScale - this.volumeScale));
+        this.volumeScale = volumeScale;
+      }
+      long priceFactor = pow10(this.priceScale - priceScale);
+      this.begin[size] = beginMillis;
+      this.end[size] = endMillis;
+      this.open[size] = times(open, priceFactor);
+      this.close[size] = times(close, priceFactor);
+      this.high[size] = times(high, priceFactor);
+      this.low[size] = times(low, priceFactor);
+      this.volume[size] = times(volume, pow10(this.volumeScale - volumeScale));
+      size++;
+      return this;
+    }
+
+    public CandleSeries build() {
+      return new CandleSeries(
+          begin, end, open, close, high, low, volume, 0, size, priceScale, volumeScale);
+    }
+
+    private void rescale(long[] values, long factor) {
+      for (int i = 0; i < size; i++) {
+        values[i] = times(values[i], factor);
+      }
+    }
+
+    private void grow() {
+      int cap = Math.max(16, begin.length * 2);
+      begin = Arrays.copyOf(begin, cap);
+      end = Arrays.copyOf(end, cap);
+      open = Arrays.copyOf(open, cap);
+      close = Arrays.copyOf(close, cap);
+      high = Arrays.copyOf(high, cap);
+      low = Arrays.copyOf(low, cap);
+      volume = Arrays.copyOf(volume, cap);
+    }
+
+    private static long times(long value, long factor) {
+      return value == NULL || factor == 1 ? value : Math.multiplyExact(value, factor);
+    }
+
+    private static int scale(BigDecimal value) {
+      return value == null ? 0 : Math.max(0, value.stripTrailingZeros().scale());
+    }
+
+    private static long unscaled(BigDecimal value, int scale) {
+      return value == null ? NULL : value.setScale(scale).unscaledValue().longValueExact();
+    }
+
+    private static long pow10(int exponent) {
+      long result = 1;
+      for (int i = 0; i < exponent; i++) {
+        result = Math.multiplyExact(result, 10);
+      }
+      return result;
+    }
+  }
+}
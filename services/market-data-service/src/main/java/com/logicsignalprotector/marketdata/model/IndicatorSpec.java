@@ -0,0 +1,127 @@
+package com.logicsignalprotector.marketdata.model;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One requested indicator, written as {@code type[:param...]}: {@code sma:20}, {@code ema:50},
+ * {@code rsi:14}, {@code macd:12:26:9}, {@code bb:20:2}, {@code atr:14}. Missing parameters take
+ * the usual defaults.
+ */
+public record IndicatorSpec(Type type, int period, int slow, int signal, double width) {
+  private static final int MAX_PERIOD = 500;
+
+  public enum Type {
+    SMA,
+    EMA,
+    RSI,
+    MACD,
+    BB,
+    ATR
+  }
+
+  /** Parses one spec; throws {@link IllegalArgumentException} with a readable message. */
+  public static IndicatorSpec parse(String text) {
+    String[] parts = text.trim().toLowerCase(Locale.ROOT).split(":");
+    Type type;
+    try {
+      type = Type.valueOf(parts[0].toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException ex) {
+      throw new IllegalArgumentException(
+          "unknown indicator '" + parts[0] + "' (sma, ema, rsi, macd, bb, atr)");
+    }
+    return switch (type) {
+      case SMA, EMA -> new IndicatorSpec(type, param(parts, 1, 20), 0, 0, 0);
+      case RSI, ATR -> new IndicatorSpec(type, param(parts, 1, 14), 0, 0, 0);
+      case MACD -> {
+        int fast = param(parts, 1, 12);
+        int slow = param(parts, 2, 26);
+        if (fast >= slow) {
+          throw new IllegalArgumentException("macd fast period must be below slow: " + text);
+        }
+        yield new IndicatorSpec(type, fast, slow, param(parts, 3, 9), 0);
+      }
+      case BB -> new IndicatorSpec(type, param(parts, 1, 20), 0, 0, width(parts, text));
+    };
+  }
+
+  private static int param(String[] parts, int index, int defaultValue) {
+    if (parts.length <= index) {
+      return defaultValue;
+    }
+    try {
+      int value = Integer.parseInt(parts[index]);
+      if (value >= 1 && value <= MAX_PERIOD) {
+        return value;
+      }
+    } catch (NumberFormatException ignored) {
+      // reported below
+    }
+    throw new IllegalArgumentException(
+        "indicator period must be 1.." + MAX_PERIOD + ": " + String.join(":", parts));
+  }
+
+  private static double width(String[] parts, String text) {
+    if (parts.length <= 2) {
+      return 2;
+    }
+    try {
+      double value = Double.parseDouble(parts[2]);
+      if (value > 0 && value <= 10) {
+        return value;
+      }
+    } catch (NumberFormatException ignored) {
+      // reported below
+    }
+    throw new IllegalArgumentException("bb width must be in (0, 10]: " + text);
+  }
+
+  /** Canonical name, also the key of the response entry. */
+  public String id() {
+    String name = type.name().toLowerCase(Locale.ROOT);
+    return switch (type) {
+      case SMA, EMA, RSI, ATR -> name + ":" + period;
+      case MACD -> name + ":" + period + ":" + slow + ":" + signal;
+      case BB ->
+          name
+              + ":"
+              + period
+              + ":"
+              + (width == Math.rint(width)
+                  ? Integer.toString((int) width)
+                  : Double.toString(width));
+    };
+  }
+
+  /** Output columns, in the order {@link IndicatorState#update} writes them. */
+  public List<String> lines() {
+    return switch (type) {
+      case SMA, EMA, RSI, ATR -> List.of("value");
+      case MACD -> List.of("macd", "signal", "histogram");
+      case BB -> List.of("middle", "upper", "lower");
+    };
+  }
+
+  /**
+   * Bars to load before the first returned one: the first value needs {@code period} bars, and
+   * exponential smoothing needs a few periods more to forget its seed.
+   */
+  public int warmup() {
+    return switch (type) {
+      case SMA, BB -> period;
+      case EMA, RSI, ATR -> period * 4;
+      case MACD -> slow * 4 + signal;
+    };
+  }
+
+  public IndicatorState newState() {
+    return switch (type) {
+      case SMA -> IndicatorState.sma(period);
+      case EMA -> IndicatorState.ema(period);
+      case RSI -> IndicatorState.rsi(period);
+      case MACD -> IndicatorState.macd(period, slow, signal);
+      case BB -> IndicatorState.bollinger(period, width);
+      case ATR -> IndicatorState.atr(period);
+    };
+  }
+}
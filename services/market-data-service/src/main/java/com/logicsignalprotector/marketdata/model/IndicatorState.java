@@ -0,0 +1,351 @@
+package com.logicsignalprotector.marketdata.model;
+
+/**
+ * Running state of one indicator. {@link #update} consumes the next bar in O(1) and writes the
+ * indicator's columns at index {@code i}; values are {@code NaN} until enough bars were seen and
+ * for bars without a close. Moving averages use rolling sums, RSI and ATR use Wilder smoothing. A
+ * {@link #copy()} taken after any bar can continue the computation from there.
+ */
+public abstract class IndicatorState {
+  IndicatorState() {}
+
+  public abstract void update(double high, double low, double close, double[][] out, int i);
+
+  public abstract IndicatorState copy();
+
+  static IndicatorState sma(int period) {
+    return new Sma(period);
+  }
+
+  static IndicatorState ema(int period) {
+    return new Single(new Ema(period));
+  }
+
+  static IndicatorState rsi(int period) {
+    return new Rsi(period);
+  }
+
+  static IndicatorState macd(int fast, int slow, int signal) {
+    return new Macd(new Ema(fast), new Ema(slow), new Ema(signal));
+  }
+
+  static IndicatorState bollinger(int period, double width) {
+    return new Bollinger(period, width);
+  }
+
+  static IndicatorState atr(int period) {
+    return new Atr(period);
+  }
+
+  /** Exponential average seeded with the simple average of the first {@code period} values. */
+  private static final class Ema {
+    private final int period;
+    private final double alpha;
+    private int count;
+    private double sum;
+    private double value = Double.NaN;
+
+    private Ema(int period) {
+      this.period = period;
+      this.alpha = 2.0 / (period + 1);
+    }
+
+    double next(double x) {
+      count++;
+      if (count < period) {
+        sum += x;
+        return Double.NaN;
+      }
+      if (count == period) {
+        value = (sum + x) / period;
+      } else {
+        value += alpha * (x - value);
+      }
+      return value;
+    }
+
+    Ema copy() {
+      Ema copy = new Ema(period);
+      copy.count = count;
+      copy.sum = sum;
+      copy.value = value;
+      return copy;
+    }
+  }
+
+  /** Average of {@code period} values with a ring buffer and running sums. */
+  private static final class Window {
+    private final double[] ring;
+    private int pos;
+    private int count;
+    private double sum;
+    private double sumSquares;
+
+    private Window(int period) {
+      this.ring = new double[period];
+    }
+
+    void add(double x) {
+      if (count == ring.length) {
+        double old = ring[pos];
+        sum -= old;
+        sumSquares -= old * old;
+      } else {
+        count++;
+      }
+      ring[pos] = x;
+      pos = pos + 1 == ring.length ? 0 : pos + 1;
+      sum += x;
+      sumSquares += x * x;
+    }
+
+    boolean full() {
+      return count == ring.length;
+    }
+
+    double mean() {
+      return sum / ring.length;
+    }
+
+    double deviation() {
+      double mean = mean();
+      return Math.sqrt(Math.max(0, sumSquares / ring.length - mean * mean));
+    }
+
+    Window copy() {
+      Window copy = new Window(ring.length);
+      System.arraycopy(ring, 0, copy.ring, 0, ring.length);
+      copy.pos = pos;
+      copy.count = count;
+      copy.sum = sum;
+      copy.sumSquares = sumSquares;
+      return copy;
+    }
+  }
+
+  /**
+   * Wilder's smoothing: simple average of the first {@code period} values, then (prev*(n-1)+x)/n.
+   */
+  private static final class Wilder {
+    private final int period;
+    private int count;
+    private double value;
+
+    private Wilder(int period) {
+      this.period = period;
+    }
+
+    double next(double x) {
+      count++;
+      if (count <= period) {
+        value += x;
+        if (count < period) {
+          return Double.NaN;
+        }
+        value /= period;
+        return value;
+      }
+      value = (value * (period - 1) + x) / period;
+      return value;
+    }
+
+    Wilder copy() {
+      Wilder copy = new Wilder(period);
+      copy.count = count;
+      copy.value = value;
+      return copy;
+    }
+  }
+
+  private static final class Sma extends IndicatorState {
+    private final Window window;
+
+    private Sma(int period) {
+      this(new Window(period));
+    }
+
+    private Sma(Window window) {
+      this.window = window;
+    }
+
+    @Override
+    public void update(double high, double low, double close, double[][] out, int i) {
+      if (Double.isNaN(close)) {
+        out[0][i] = Double.NaN;
+        return;
+      }
+      window.add(close);
+      out[0][i] = window.full() ? window.mean() : Double.NaN;
+    }
+
+    @Override
+    public IndicatorState copy() {
+      return new Sma(window.copy());
+    }
+  }
+
+  private static final class Single extends IndicatorState {
+    private final Ema ema;
+
+    private Single(Ema ema) {
+      this.ema = ema;
+    }
+
+    @Override
+    public void update(double high, double low, double close, double[][] out, int i) {
+      out[0][i] = Double.isNaN(close) ? Double.NaN : ema.next(close);
+    }
+
+    @Override
+    public IndicatorState copy() {
+      return new Single(ema.copy());
+    }
+  }
+
+  private static final class Rsi extends IndicatorState {
+    private final Wilder gains;
+    private final Wilder losses;
+    private double previous = Double.NaN;
+
+    private Rsi(int period) {
+      this(new Wilder(period), new Wilder(period));
+    }
+
+    private Rsi(Wilder gains, Wilder losses) {
+      this.gains = gains;
+      this.losses = losses;
+    }
+
+    @Override
+    public void update(double high, double low, double close, double[][] out, int i) {
+      out[0][i] = Double.NaN;
+      if (Double.isNaN(close)) {
+        return;
+      }
+      if (Double.isNaN(previous)) {
+        previous = close;
+        return;
+      }
+      double change = close - previous;
+      previous = close;
+      double gain = gains.next(Math.max(change, 0));
+      double loss = losses.next(Math.max(-change, 0));
+      if (Double.isNaN(gain)) {
+        return;
+      }
+      out[0][i] = loss == 0 ? (gain == 0 ? 50 : 100) : 100 - 100 / (1 + gain / loss);
+    }
+
+    @Override
+    public IndicatorState copy() {
+      Rsi copy = new Rsi(gains.copy(), losses.copy());
+      copy.previous = previous;
+      return copy;
+    }
+  }
+
+  private static final class Macd extends IndicatorState {
+    private final Ema fast;
+    private final Ema slow;
+    private final Ema signal;
+
+    private Macd(Ema fast, Ema slow, Ema signal) {
+      this.fast = fast;
+      this.slow = slow;
+      this.signal = signal;
+    }
+
+    @Override
+    public void update(double high, double low, double close, double[][] out, int i) {
+      double macd = Double.NaN;
+      double line = Double.NaN;
+      if (!Double.isNaN(close)) {
+        macd = fast.next(close) - slow.next(close);
+        if (!Double.isNaN(macd)) {
+          line = signal.next(macd);
+        }
+      }
+      out[0][i] = macd;
+      out[1][i] = line;
+      out[2][i] = macd - line;
+    }
+
+    @Override
+    public IndicatorState copy() {
+      return new Macd(fast.copy(), slow.copy(), signal.copy());
+    }
+  }
+
+  private static final class Bollinger extends IndicatorState {
+    private final Window window;
+    private final double width;
+
+    private Bollinger(int period, double width) {
+      this(new Window(period), width);
+    }
+
+    private Bollinger(Window window, double width) {
+      this.window = window;
+      this.width = width;
+    }
+
+    @Override
+    public void update(double high, double low, double close, double[][] out, int i) {
+      if (!Double.isNaN(close)) {
+        window.add(close);
+      }
+      if (Double.isNaN(close) || !window.full()) {
+        out[0][i] = Double.NaN;
+        out[1][i] = Double.NaN;
+        out[2][i] = Double.NaN;
+        return;
+      }
+      double mean = window.mean();
+      double band = width * window.deviation();
+      out[0][i] = mean;
+      out[1][i] = mean + band;
+      out[2][i] = mean - band;
+    }
+
+    @Override
+    public IndicatorState copy() {
+      return new Bollinger(window.copy(), width);
+    }
+  }
+
+  private static final class Atr extends IndicatorState {
+    private final Wilder ranges;
+    private double previousClose = Double.NaN;
+
+    private Atr(int period) {
+      this(new Wilder(period));
+    }
+
+    private Atr(Wilder ranges) {
+      this.ranges = ranges;
+    }
+
+    @Override
+    public void update(double high, double low, double close, double[][] out, int i) {
+      if (Double.isNaN(close)) {
+        out[0][i] = Double.NaN;
+        return;
+      }
+      double h = Double.isNaN(high) ? close : high;
+      double l = Double.isNaN(low) ? close : low;
+      double range = h - l;
+      if (!Double.isNaN(previousClose)) {
+        range = Math.max(range, Math.max(Math.abs(h - previousClose), Math.abs(l - previousClose)));
+      }
+      previousClose = close;
+      out[0][i] = ranges.next(range);
+    }
+
+    @Override
+    public IndicatorState copy() {
+      Atr copy = new Atr(ranges.copy());
+      copy.previousClose = previousClose;
+      return copy;
+    }
+  }
+}
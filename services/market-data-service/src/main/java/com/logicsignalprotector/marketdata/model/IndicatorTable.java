@@ -0,0 +1,10 @@
+package com.logicsignalprotector.marketdata.model;
+
+import java.util.List;
+
+/**
+ * Indicator values aligned with {@code bars}: {@code values.get(k)[line][i]} is line {@code line}
+ * of {@code specs.get(k)} at bar {@code i}, {@code NaN} where undefined.
+ */
+public record IndicatorTable(
+    CandleSeries bars, List<IndicatorSpec> specs, List<double[][]> values) {}
@@ -0,0 +1,388 @@
+package com.logicsignalprotector.marketdata.model;
+
+import com.logicsignalprotector.marketdata.dto.InstrumentDto;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable search index over the instruments of one board.
+ *
+ * <p>SECID, SHORTNAME and SECNAME are {@link #fold folded} and every substring of up to {@value
+ * #GRAM} characters points to a sorted posting list of instrument positions. A query of up to
+ * {@value #GRAM} characters is a single lookup; a longer one intersects the postings of its
+ * trigrams and verifies the few survivors with {@code contains}. Results keep the semantics of a
+ * case-insensitive substring match on any of the three fields.
+ *
+ * <p>{@link #resolve} is the forgiving variant for a single typed ticker or name: query and fields
+ * are compared in {@link Transliteration#latin Latin spelling} (so {@code сбер} finds {@code
+ * SBER}), the query is also tried on the other keyboard layout, and SECIDs and name words within a
+ * small edit distance count as matches. It scans the board, which takes well under a millisecond
+ * for a few thousand instruments.
+ */
+public final class InstrumentIndex {
+  private static final int GRAM = 3;
+  private static final int[] NONE = new int[0];
+  private static final double LAYOUT_PENALTY = 0.9;
+
+  private final List<InstrumentDto> items;
+  private final String[][] folded;
+  private final Map<String, int[]> postings;
+  private final String[][] latin;
+  private final String[][] words;
+  private final long[][] wordMasks;
+  private final long[] itemMasks;
+
+  private InstrumentIndex(
+      List<InstrumentDto> items,
+      String[][] folded,
+      Map<String, int[]> postings,
+      String[][] latin,
+      String[][] words) {
+    this.items = items;
+    this.folded = folded;
+    this.postings = postings;
+    this.latin = latin;
+    this.words = words;
+    this.wordMasks = new long[words.length][];
+    this.itemMasks = new long[words.length];
+    for (int i = 0; i < words.length; i++) {
+      itemMasks[i] = mask(latin[i][0]) | mask(latin[i][1]) | mask(latin[i][2]);
+      wordMasks[i] = new long[words[i].length + 1];
+      wordMasks[i][0] = mask(latin[i][0]);
+      for (int w = 0; w < words[i].length; w++) {
+        wordMasks[i][w + 1] = mask(words[i][w]);
+      }
+    }
+  }
+
+  /** How a {@link Candidate} matched, strongest first. */
+  public enum Match {
+    EXACT,
+    PREFIX,
+    NAME,
+    CONTAINS,
+    FUZZY
+  }
+
+  /** A {@link #resolve} hit; {@code score} is in {@code (0, 1]}, 1 for an exact SECID. */
+  public record Candidate(int position, double score, Match match) {}
+
+  public static InstrumentIndex of(List<InstrumentDto> instruments) {
+    List<InstrumentDto> items = List.copyOf(instruments);
+    String[][] folded = new String[items.size()][];
+    String[][] latin = new String[items.size()][];
+    String[][] words = new String[items.size()][];
+    Map<String, PostingList> grams = new HashMap<>();
+    for (int i = 0; i < items.size(); i++) {
+      InstrumentDto item = items.get(i);
+      folded[i] = new String[] {fold(item.secId()), fold(item.shortName()), fold(item.name())};
+      latin[i] = new String[folded[i].length];
+      Set<String> itemWords = new LinkedHashSet<>();
+      for (int f = 0; f < folded[i].length; f++) {
+        latin[i][f] = Transliteration.latin(folded[i][f]);
+        if (f > 0 && !latin[i][f].isEmpty()) {
+          itemWords.addAll(Arrays.asList(latin[i][f].split(" ")));
+        }
+      }
+      words[i] = itemWords.toArray(String[]::new);
+      for (String text : folded[i]) {
+        for (int start = 0; start < text.length(); start++) {
+          for (int end = start + 1; end <= Math.min(text.length(), start + GRAM); end++) {
+            grams.computeIfAbsent(text.substring(start, end), k -> new PostingList()).add(i);
+          }
+        }
+      }
+    }
+    Map<String, int[]> postings = new HashMap<>(grams.size() * 4 / 3 + 1);
+    grams.forEach((gram, list) -> postings.put(gram, list.toArray()));
+    return new InstrumentIndex(items, folded, postings, latin, words);
+  }
+
+  public int size() {
+    return items.size();
+  }
+
+  public InstrumentDto get(int position) {
+    return items.get(position);
+  }
+
+  /**
+   * Positions of instruments whose SECID, SHORTNAME or SECNAME contains {@code query}, best first:
+   * exact SECID, SECID prefix, word prefix in any field, then any other match. Ties keep board
+   * order. A blank query matches everything in board order.
+   */
+  public int[] search(String query) {
+    String q = fold(query);
+    if (q.isEmpty()) {
+      int[] all = new int[items.size()];
+      Arrays.setAll(all, i -> i);
+      return all;
+    }
+    return rank(q, candidates(q));
+  }
+
+  /** Up to {@code limit} best matches for a typed ticker or name, best first. */
+  public List<Candidate> resolve(String query, int limit) {
+    String q = Transliteration.latin(fold(query));
+    if (q.isEmpty()) {
+      return List.of();
+    }
+    String swapped = Transliteration.swapLayout(query);
+    String alt = swapped == null ? null : Transliteration.latin(fold(swapped));
+    long qMask = mask(q);
+    long altMask = alt == null ? 0 : mask(alt);
+    List<Candidate> hits = new ArrayList<>();
+    for (int i = 0; i < items.size(); i++) {
+      Candidate best = match(i, q, qMask, 1.0);
+      if (alt != null && !alt.equals(q)) {
+        Candidate other = match(i, alt, altMask, LAYOUT_PENALTY);
+        if (other != null && (best == null || other.score() > best.score())) {
+          best = other;
+        }
+      }
+      if (best != null) {
+        hits.add(best);
+      }
+    }
+    hits.sort(
+        Comparator.comparingDouble(Candidate::score)
+            .reversed()
+            .thenComparingInt(Candidate::position));
+    return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+  }
+
+  private Candidate match(int i, String q, long qMask, double weight) {
+    int maxDistance = q.length() <= 3 ? 0 : q.length() <= 5 ? 1 : 2;
+    if (Long.bitCount(qMask & ~itemMasks[i]) > maxDistance) {
+      return null;
+    }
+    String secId = latin[i][0];
+    if (secId.equals(q)) {
+      return new Candidate(i, weight, Match.EXACT);
+    }
+    if (secId.startsWith(q)) {
+      return new Candidate(
+          i, weight * (0.9 - 0.01 * Math.min(secId.length() - q.length(), 10)), Match.PREFIX);
+    }
+    for (String word : words[i]) {
+      if (word.startsWith(q)) {
+        return new Candidate(i, weight * (word.length() == q.length() ? 0.8 : 0.75), Match.NAME);
+      }
+    }
+    if (q.length() >= 2 && (latin[i][1].contains(q) || latin[i][2].contains(q))) {
+      return new Candidate(i, weight * 0.6, Match.CONTAINS);
+    }
+    if (maxDistance == 0) {
+      return null;
+    }
+    // Every edit leaves at most one query character missing from the other string, so a string
+    // lacking more than maxDistance of the query's characters cannot be close enough.
+    long[] masks = wordMasks[i];
+    double score = 0;
+    if (Long.bitCount(qMask & ~masks[0]) <= maxDistance) {
+      int d = distance(q, secId, maxDistance);
+      score = d <= maxDistance ? 0.65 - 0.15 * d : 0;
+    }
+    for (int w = 0; w < words[i].length; w++) {
+      if (Long.bitCount(qMask & ~masks[w + 1]) > maxDistance) {
+        continue;
+      }
+      int d = distance(q, words[i][w], maxDistance);
+      if (d <= maxDistance && 0.5 - 0.1 * d > score) {
+        score = 0.5 - 0.1 * d;
+      }
+    }
+    return score > 0 ? new Candidate(i, weight * score, Match.FUZZY) : null;
+  }
+
+  private static long mask(String text) {
+    long mask = 0;
+    for (int k = 0; k < text.length(); k++) {
+      mask |= 1L << (text.charAt(k) & 63);
+    }
+    return mask;
+  }
+
+  /**
+   * Optimal string alignment distance (edits plus adjacent swaps) or {@code max + 1} once it is
+   * known to exceed {@code max}.
+   */
+  static int distance(String a, String b, int max) {
+    if (Math.abs(a.length() - b.length()) > max) {
+      return max + 1;
+    }
+    int[] prevPrev = new int[b.length() + 1];
+    int[] prev = new int[b.length() + 1];
+    int[] cur = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      prev[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      cur[0] = i;
+      int rowMin = cur[0];
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        int d = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+        if (i > 1
+            && j > 1
+            && a.charAt(i - 1) == b.charAt(j - 2)
+            && a.charAt(i - 2) == b.charAt(j - 1)) {
+          d = Math.min(d, prevPrev[j - 2] + 1);
+        }
+        cur[j] = d;
+        rowMin = Math.min(rowMin, d);
+      }
+      if (rowMin > max) {
+        return max + 1;
+      }
+      int[] rotate = prevPrev;
+      prevPrev = prev;
+      prev = cur;
+      cur = rotate;
+    }
+    return prev[b.length()];
+  }
+
+  private int[] candidates(String q) {
+    if (q.length() <= GRAM) {
+      return postings.getOrDefault(q, NONE);
+    }
+    int[][] lists = new int[q.length() - GRAM + 1][];
+    for (int start = 0; start < lists.length; start++) {
+      int[] list = postings.get(q.substring(start, start + GRAM));
+      if (list == null) {
+        return NONE;
+      }
+      lists[start] = list;
+    }
+    Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+    int[] hits = lists[0];
+    for (int k = 1; k < lists.length && hits.length > 0; k++) {
+      hits = intersect(hits, lists[k]);
+    }
+    int n = 0;
+    int[] verified = new int[hits.length];
+    for (int position : hits) {
+      if (contains(folded[position], q)) {
+        verified[n++] = position;
+      }
+    }
+    return Arrays.copyOf(verified, n);
+  }
+
+  private int[] rank(String q, int[] hits) {
+    int[] scores = new int[hits.length];
+    int[] counts = new int[5];
+    for (int k = 0; k < hits.length; k++) {
+      scores[k] = score(folded[hits[k]], q);
+      counts[scores[k] + 1]++;
+    }
+    for (int s = 1; s < counts.length; s++) {
+      counts[s] += counts[s - 1];
+    }
+    int[] ranked = new int[hits.length];
+    for (int k = 0; k < hits.length; k++) {
+      ranked[counts[scores[k]]++] = hits[k];
+    }
+    return ranked;
+  }
+
+  private static int score(String[] fields, String q) {
+    String secId = fields[0];
+    if (secId.equals(q)) {
+      return 0;
+    }
+    if (secId.startsWith(q)) {
+      return 1;
+    }
+    for (String field : fields) {
+      if (field.startsWith(q) || field.contains(" " + q)) {
+        return 2;
+      }
+    }
+    return 3;
+  }
+
+  private static boolean contains(String[] fields, String q) {
+    for (String field : fields) {
+      if (field.contains(q)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int[] intersect(int[] a, int[] b) {
+    int[] out = new int[Math.min(a.length, b.length)];
+    int i = 0;
+    int j = 0;
+    int n = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] < b[j]) {
+        i++;
+      } else if (a[i] > b[j]) {
+        j++;
+      } else {
+        out[n++] = a[i];
+        i++;
+        j++;
+      }
+    }
+    return Arrays.copyOf(out, n);
+  }
+
+  /**
+   * Search form of a name: lower case (Latin and Cyrillic), {@code ё} as {@code е}, anything other
+   * than letters and digits as a single space, trimmed.
+   */
+  public static String fold(String value) {
+    if (value == null) {
+      return "";
+    }
+    StringBuilder out = new StringBuilder(value.length());
+    boolean space = true;
+    for (int i = 0; i < value.length(); i++) {
+      char c = Character.toLowerCase(value.charAt(i));
+      if (c == 'ё') {
+        c = 'е';
+      }
+      if (Character.isLetterOrDigit(c)) {
+        out.append(c);
+        space = false;
+      } else if (!space) {
+        out.append(' ');
+        space = true;
+      }
+    }
+    int length = out.length();
+    if (length > 0 && out.charAt(length - 1) == ' ') {
+      out.setLength(length - 1);
+    }
+    return out.toString();
+  }
+
+  private static final class PostingList {
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int position) {
+      if (size > 0 && values[size - 1] == position) {
+        return;
+      }
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = position;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
@@ -0,0 +1,234 @@
+package com.logicsignalprotector.marketdata.model;
+
+import com.logicsignalprotector.marketdata.dto.OrderBookDto;
+import com.logicsignalprotector.marketdata.dto.OrderBookEntryDto;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable order book with primitive price levels.
+ *
+ * <p>Each side keeps fixed-point prices and quantities (shared {@link #priceScale()} / {@link
+ * #quantityScale()}) in parallel {@code long[]}s sorted best first, so the top of book is index 0
+ * and {@link #top(int)} is a view over the same arrays.
+ */
+public final class OrderBook {
+  public static final long NULL = CandleSeries.NULL;
+
+  private static final OrderBook EMPTY =
+      new OrderBook(
+          new Side(new long[0], new long[0], 0), new Side(new long[0], new long[0], 0), 0, 0);
+
+  private final Side bids;
+  private final Side asks;
+  private final int priceScale;
+  private final int quantityScale;
+
+  private OrderBook(Side bids, Side asks, int priceScale, int quantityScale) {
+    this.bids = bids;
+    this.asks = asks;
+    this.priceScale = priceScale;
+    this.quantityScale = quantityScale;
+  }
+
+  public static OrderBook empty() {
+    return EMPTY;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public Side bids() {
+    return bids;
+  }
+
+  public Side asks() {
+    return asks;
+  }
+
+  public int priceScale() {
+    return priceScale;
+  }
+
+  public int quantityScale() {
+    return quantityScale;
+  }
+
+  public boolean isEmpty() {
+    return bids.size == 0 && asks.size == 0;
+  }
+
+  /** Best {@code depth} levels of each side as a view. */
+  public OrderBook top(int depth) {
+    if (bids.size <= depth && asks.size <= depth) {
+      return this;
+    }
+    return new OrderBook(bids.limit(depth), asks.limit(depth), priceScale, quantityScale);
+  }
+
+  public OrderBookDto toDto(String secId, String board, OffsetDateTime time) {
+    return new OrderBookDto(secId, board, time, entries(bids, "B"), entries(asks, "S"));
+  }
+
+  private List<OrderBookEntryDto> entries(Side side, String code) {
+    List<OrderBookEntryDto> out = new ArrayList<>(side.size);
+    for (int i = 0; i < side.size; i++) {
+      out.add(
+          new OrderBookEntryDto(
+              code,
+              BigDecimal.valueOf(side.prices[i], priceScale),
+              BigDecimal.valueOf(side.quantities[i], quantityScale)));
+    }
+    return out;
+  }
+
+  private static long pow10(int exponent) {
+    long result = 1;
+    for (int i = 0; i < exponent; i++) {
+      result = Math.multiplyExact(result, 10);
+    }
+    return result;
+  }
+
+  /** One side, best level first: bids by descending price, asks by ascending price. */
+  public static final class Side {
+    private final long[] prices;
+    private final long[] quantities;
+    private final int size;
+
+    private Side(long[] prices, long[] quantities, int size) {
+      this.prices = prices;
+      this.quantities = quantities;
+      this.size = size;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public long price(int level) {
+      return prices[level];
+    }
+
+    public long quantity(int level) {
+      return quantities[level];
+    }
+
+    private Side limit(int depth) {
+      return depth >= size ? this : new Side(prices, quantities, Math.max(depth, 0));
+    }
+  }
+
+  /**
+   * Collects levels in any order and scale. {@link #build()} drops empty levels. A repeated price
+   * keeps the last quantity.
+   */
+  public static final class Builder {
+    private final Levels bids = new Levels(true);
+    private final Levels asks = new Levels(false);
+    private int priceScale;
+    private int quantityScale;
+
+    private Builder() {}
+
+    public Builder bid(int priceScale, long price, int quantityScale, long quantity) {
+      return add(bids, priceScale, price, quantityScale, quantity);
+    }
+
+    public Builder ask(int priceScale, long price, int quantityScale, long quantity) {
+      return add(asks, priceScale, price, quantityScale, quantity);
+    }
+
+    public OrderBook build() {
+      return new OrderBook(bids.side(), asks.side(), priceScale, quantityScale);
+    }
+
+    private Builder add(Levels side, int ps, long price, int qs, long quantity) {
+      if (ps > priceScale) {
+        long factor = pow10(ps - priceScale);
+        bids.rescalePrices(factor);
+        asks.rescalePrices(factor);
+        priceScale = ps;
+      }
+      if (qs > quantityScale) {
+        long factor = pow10(qs - quantityScale);
+        bids.rescaleQuantities(factor);
+        asks.rescaleQuantities(factor);
+        quantityScale = qs;
+      }
+      side.add(
+          Math.multiplyExact(price, pow10(priceScale - ps)),
+          Math.multiplyExact(quantity, pow10(quantityScale - qs)));
+      return this;
+    }
+  }
+
+  private static final class Levels {
+    private final boolean bid;
+    private long[] prices = new long[16];
+    private long[] quantities = new long[16];
+    private int size;
+
+    private Levels(boolean bid) {
+      this.bid = bid;
+    }
+
+    /**
+     * Insertion into the sorted arrays, scanning from the worst level. ISS lists the whole book by
+     * descending price, so bids arrive best first and are appended, while every ask is better than
+     * the ones before it and shifts them; that is fine for the few dozen levels of a book.
+     */
+    void add(long price, long quantity) {
+      int i = size;
+      while (i > 0 && better(price, prices[i - 1])) {
+        i--;
+      }
+      if (i > 0 && prices[i - 1] == price) {
+        quantities[i - 1] = quantity;
+        return;
+      }
+      if (size == prices.length) {
+        prices = Arrays.copyOf(prices, size * 2);
+        quantities = Arrays.copyOf(quantities, size * 2);
+      }
+      System.arraycopy(prices, i, prices, i + 1, size - i);
+      System.arraycopy(quantities, i, quantities, i + 1, size - i);
+      prices[i] = price;
+      quantities[i] = quantity;
+      size++;
+    }
+
+    private boolean better(long a, long b) {
+      return bid ? a > b : a < b;
+    }
+
+    void rescalePrices(long factor) {
+      for (int i = 0; i < size; i++) {
+        prices[i] = Math.multiplyExact(prices[i], factor);
+      }
+    }
+
+    void rescaleQuantities(long factor) {
+      for (int i = 0; i < size; i++) {
+        quantities[i] = Math.multiplyExact(quantities[i], factor);
+      }
+    }
+
+    Side side() {
+      long[] p = new long[size];
+      long[] q = new long[size];
+      int n = 0;
+      for (int i = 0; i < size; i++) {
+        if (quantities[i] != 0) {
+          p[n] = prices[i];
+          q[n++] = quantities[i];
+        }
+      }
+      return new Side(p, q, n);
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package com.logicsignalprotector.marketdata.model;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A value and, if it was served from the in-memory board snapshot rather than ISS, the age of that
+ * snapshot.
+ */
+public record SnapshotRead<T>(T value, Optional<Duration> snapshotAge) {
+  public static <T> SnapshotRead<T> fromSnapshot(T value, Duration age) {
+    return new SnapshotRead<>(value, Optional.of(age));
+  }
+
+  public static <T> SnapshotRead<T> direct(T value) {
+    return new SnapshotRead<>(value, Optional.empty());
+  }
+}
@@ -0,0 +1,22 @@
+package com.logicsignalprotector.marketdata.model;
+
+import java.util.function.Function;
+
+/**
+ * Outcome for one ticker of a multi-ticker request: either {@code value}, or an {@code error} code
+ * ({@code NOT_FOUND}, {@code MOEX_ISS_ERROR}, {@code RANGE_TOO_LARGE}, {@code INTERNAL_ERROR}) with
+ * a message.
+ */
+public record TickerResult<T>(String secId, T value, String error, String message) {
+  public static <T> TickerResult<T> ok(String secId, T value) {
+    return new TickerResult<>(secId, value, null, null);
+  }
+
+  public static <T> TickerResult<T> failed(String secId, String error, String message) {
+    return new TickerResult<>(secId, null, error, message);
+  }
+
+  public <R> TickerResult<R> map(Function<T, R> mapper) {
+    return new TickerResult<>(secId, value == null ? null : mapper.apply(value), error, message);
+  }
+}
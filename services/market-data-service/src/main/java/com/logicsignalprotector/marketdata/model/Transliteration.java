@@ -0,0 +1,59 @@
+package com.logicsignalprotector.marketdata.model;
+
+/**
+ * Cyrillic to Latin spelling and keyboard layout swap for {@link InstrumentIndex#fold folded} text.
+ */
+public final class Transliteration {
+  private static final String[] LATIN = {
+    "a", "b", "v", "g", "d", "e", "zh", "z", "i", "y", "k", "l", "m", "n", "o", "p", "r", "s", "t",
+    "u", "f", "kh", "ts", "ch", "sh", "sch", "", "y", "", "e", "yu", "ya"
+  };
+  private static final String QWERTY = "qwertyuiop[]asdfghjkl;'zxcvbnm,.`";
+  private static final String JCUKEN = "йцукенгшщзхъфывапролджэячсмитьбюё";
+
+  private Transliteration() {}
+
+  /**
+   * {@code сбербанк} → {@code sberbank}; {@code x} is spelled {@code ks} so that {@code yandex} and
+   * {@code яндекс} agree. Other characters are kept.
+   */
+  public static String latin(String folded) {
+    StringBuilder out = null;
+    for (int i = 0; i < folded.length(); i++) {
+      char c = folded.charAt(i);
+      if ((c >= 'а' && c <= 'я') || c == 'x') {
+        if (out == null) {
+          out = new StringBuilder(folded.length() + 4).append(folded, 0, i);
+        }
+        out.append(c == 'x' ? "ks" : LATIN[c - 'а']);
+      } else if (out != null) {
+        out.append(c);
+      }
+    }
+    return out == null ? folded : out.toString();
+  }
+
+  /**
+   * The same keys on the other layout ({@code ыиук} ↔ {@code sber}), or {@code null} if the text
+   * has no key to swap.
+   */
+  public static String swapLayout(String text) {
+    StringBuilder out = new StringBuilder(text.length());
+    boolean swapped = false;
+    for (int i = 0; i < text.length(); i++) {
+      char c = Character.toLowerCase(text.charAt(i));
+      int latin = QWERTY.indexOf(c);
+      int cyrillic = JCUKEN.indexOf(c);
+      if (latin >= 0) {
+        out.append(JCUKEN.charAt(latin));
+        swapped = true;
+      } else if (cyrillic >= 0) {
+        out.append(QWERTY.charAt(cyrillic));
+        swapped = true;
+      } else {
+        out.append(c);
+      }
+    }
+    return swapped ? out.toString() : null;
+  }
+}
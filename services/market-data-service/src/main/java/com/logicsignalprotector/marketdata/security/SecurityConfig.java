@@ -1,5 +1,7 @@
 package com.logicsignalprotector.marketdata.security;
 
+import com.logicsignalprotector.security.jwt.JwtAuthConverter;
+import com.logicsignalprotector.security.jwt.PermissionDictionaryClient;
 import java.nio.charset.StandardCharsets;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
@@ -19,7 +21,8 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
   @Bean
-  public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain securityFilterChain(
+      HttpSecurity http, JwtAuthenticationConverter jwtAuthenticationConverter) throws Exception {
     http.csrf(csrf -> csrf.disable())
         .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(
@@ -36,15 +39,19 @@ public class SecurityConfig {
                     .authenticated())
         .oauth2ResourceServer(
             oauth2 ->
-                oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter())));
+                oauth2.jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter)));
 
     return http.build();
   }
 
   @Bean
-  public JwtAuthenticationConverter jwtAuthenticationConverter() {
+  public JwtAuthenticationConverter jwtAuthenticationConverter(
+      @Value("${security.jwt.permissions-url:http://localhost:8086/api/auth/permissions}")
+          String permissionsUrl,
+      @Value("${security.jwt.permissions-token:}") String permissionsToken) {
     JwtAuthenticationConverter c = new JwtAuthenticationConverter();
-    c.setJwtGrantedAuthoritiesConverter(new JwtAuthConverter());
+    c.setJwtGrantedAuthoritiesConverter(
+        new JwtAuthConverter(new PermissionDictionaryClient(permissionsUrl, permissionsToken)));
     return c;
   }
 
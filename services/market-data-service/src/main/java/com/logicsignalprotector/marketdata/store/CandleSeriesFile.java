@@ -0,0 +1,208 @@
+package com.logicsignalprotector.marketdata.store;
+
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only file of closed candles for one series.
+ *
+ * <p>Layout: a fixed header ({@code magic, version, coveredFrom, coveredTill, count}) followed by
+ * fixed-size records sorted by {@code begin}. Each record holds {@code begin/end} as epoch millis
+ * and five decimals as {@code unscaled long + scale byte}; records are encoded from and decoded
+ * into a {@link CandleSeries} column by column, so values round-trip exactly. The header is written
+ * after the records, so a torn append leaves the previous state readable. Reads binary-search
+ * {@code begin} with positional reads and copy only the requested records to the heap; nothing
+ * stays mapped, so {@link #rewrite} can replace the file on any platform.
+ */
+final class CandleSeriesFile {
+  private static final int MAGIC = 0x4C535043; // "LSPC"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 32;
+  private static final int DECIMAL_SIZE = Long.BYTES + 1;
+  static final int RECORD_SIZE = 2 * Long.BYTES + 5 * DECIMAL_SIZE;
+  private static final byte NULL_SCALE = Byte.MIN_VALUE;
+
+  private final Path path;
+
+  CandleSeriesFile(Path path) {
+    this.path = path;
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+
+  /** Inclusive range of {@code begin} values (epoch millis) known to be complete on disk. */
+  record Coverage(long from, long till, int count) {}
+
+  Coverage coverage() throws IOException {
+    if (!Files.exists(path)) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      if (channel.read(header, 0) < HEADER_SIZE) {
+        return null;
+      }
+      header.flip();
+      if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+        throw new IOException("Unsupported candle file " + path);
+      }
+      return new Coverage(header.getLong(), header.getLong(), header.getInt());
+    }
+  }
+
+  /** Candles with {@code from <= begin <= till}. */
+  CandleSeries read(Coverage coverage, long from, long till) throws IOException {
+    if (coverage.count() == 0 || from > till) {
+      return CandleSeries.empty();
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      int lo = lowerBound(channel, coverage.count(), from);
+      int hi = lowerBound(channel, coverage.count(), till == Long.MAX_VALUE ? till : till + 1);
+      ByteBuffer buf = ByteBuffer.allocate((hi - lo) * RECORD_SIZE);
+      readFully(channel, buf, HEADER_SIZE + (long) lo * RECORD_SIZE);
+      CandleSeries.Builder out = CandleSeries.builder(hi - lo);
+      for (int i = 0; i < hi - lo; i++) {
+        decode(buf, i * RECORD_SIZE, out);
+      }
+      return out.build();
+    }
+  }
+
+  /** Appends candles (sorted, all after the current tail) and moves {@code coveredTill}. */
+  void append(Coverage coverage, CandleSeries candles, long coveredTill) throws IOException {
+    ByteBuffer records = encode(candles);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.write(records, HEADER_SIZE + (long) coverage.count() * RECORD_SIZE);
+      channel.force(false);
+      channel.write(header(coverage.from(), coveredTill, coverage.count() + candles.size()), 0);
+    }
+  }
+
+  /** Replaces the file content atomically. */
+  void rewrite(CandleSeries candles, long coveredFrom, long coveredTill) throws IOException {
+    Files.createDirectories(path.getParent());
+    Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+    try (FileChannel channel =
+        FileChannel.open(
+            tmp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      channel.write(header(coveredFrom, coveredTill, candles.size()), 0);
+      channel.write(encode(candles), HEADER_SIZE);
+      channel.force(false);
+    }
+    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static ByteBuffer header(long coveredFrom, long coveredTill, int count) {
+    return ByteBuffer.allocate(HEADER_SIZE)
+        .putInt(MAGIC)
+        .putInt(VERSION)
+        .putLong(coveredFrom)
+        .putLong(coveredTill)
+        .putInt(count)
+        .putInt(0)
+        .flip();
+  }
+
+  private static ByteBuffer encode(CandleSeries candles) {
+    ByteBuffer buf = ByteBuffer.allocate(candles.size() * RECORD_SIZE);
+    int priceScale = candles.priceScale();
+    int volumeScale = candles.volumeScale();
+    for (int i = 0; i < candles.size(); i++) {
+      buf.putLong(candles.begin(i));
+      buf.putLong(candles.end(i));
+      putDecimal(buf, candles.open(i), priceScale);
+      putDecimal(buf, candles.close(i), priceScale);
+      putDecimal(buf, candles.high(i), priceScale);
+      putDecimal(buf, candles.low(i), priceScale);
+      putDecimal(buf, candles.volume(i), volumeScale);
+    }
+    return buf.flip();
+  }
+
+  /** Appends one record; the builder brings values of different scales to a common one. */
+  private static void decode(ByteBuffer buf, int offset, CandleSeries.Builder out) {
+    int pos = offset + 2 * Long.BYTES;
+    int priceScale = 0;
+    for (int i = 0; i < 4; i++) {
+      priceScale = Math.max(priceScale, scale(buf, pos + i * DECIMAL_SIZE));
+    }
+    int volumeScale = scale(buf, pos + 4 * DECIMAL_SIZE);
+    out.add(
+        buf.getLong(offset),
+        buf.getLong(offset + Long.BYTES),
+        priceScale,
+        unscaled(buf, pos, priceScale),
+        unscaled(buf, pos + DECIMAL_SIZE, priceScale),
+        unscaled(buf, pos + 2 * DECIMAL_SIZE, priceScale),
+        unscaled(buf, pos + 3 * DECIMAL_SIZE, priceScale),
+        volumeScale,
+        unscaled(buf, pos + 4 * DECIMAL_SIZE, volumeScale));
+  }
+
+  private int lowerBound(FileChannel channel, int count, long begin) throws IOException {
+    ByteBuffer key = ByteBuffer.allocate(Long.BYTES);
+    int lo = 0;
+    int hi = count;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      key.clear();
+      readFully(channel, key, HEADER_SIZE + (long) mid * RECORD_SIZE);
+      if (key.getLong(0) < begin) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  private void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+    while (buf.hasRemaining()) {
+      if (channel.read(buf, position + buf.position()) < 0) {
+        throw new IOException("Truncated candle file " + path);
+      }
+    }
+  }
+
+  private static void putDecimal(ByteBuffer buf, long unscaled, int scale) {
+    if (unscaled == CandleSeries.NULL) {
+      buf.putLong(0).put(NULL_SCALE);
+      return;
+    }
+    buf.putLong(unscaled).put((byte) scale);
+  }
+
+  private static int scale(ByteBuffer buf, int offset) {
+    byte scale = buf.get(offset + Long.BYTES);
+    return scale == NULL_SCALE ? 0 : Math.max(0, scale);
+  }
+
+  /** Stored decimal rescaled to {@code scale}, or {@link CandleSeries#NULL}. */
+  private static long unscaled(ByteBuffer buf, int offset, int scale) {
+    byte stored = buf.get(offset + Long.BYTES);
+    if (stored == NULL_SCALE) {
+      return CandleSeries.NULL;
+    }
+    long value = buf.getLong(offset);
+    if (stored < 0) {
+      return BigDecimal.valueOf(value, stored).setScale(scale).unscaledValue().longValueExact();
+    }
+    for (int i = stored; i < scale; i++) {
+      value = Math.multiplyExact(value, 10);
+    }
+    return value;
+  }
+}
@@ -0,0 +1,205 @@
+package com.logicsignalprotector.marketdata.store;
+
+import com.logicsignalprotector.marketdata.config.CandleStoreProperties;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import com.logicsignalprotector.marketdata.store.CandleSeriesFile.Coverage;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local history of closed candles per {@code engine/market/board/sec/interval}.
+ *
+ * <p>Each series remembers the contiguous range it has fully downloaded. A request inside that
+ * range is served from disk; only the missing head/tail segments are fetched from ISS and then
+ * merged into the file. A request disjoint from the stored range goes straight to ISS so the stored
+ * range stays contiguous. Candles that may still change (the last interval before now) are never
+ * persisted. Fetched segments are complete because {@code MoexClient} pages through the whole
+ * range. Any I/O problem falls back to a plain ISS fetch.
+ */
+@Component
+public class CandleStore {
+  private static final Logger log = LoggerFactory.getLogger(CandleStore.class);
+  private static final Pattern SAFE_SEGMENT = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+  private static final long SECOND = 1000L;
+
+  private final CandleStoreProperties properties;
+  private final ConcurrentMap<String, Series> series = new ConcurrentHashMap<>();
+
+  public CandleStore(CandleStoreProperties properties) {
+    this.properties = properties;
+  }
+
+  /** Fetches candles with {@code from <= begin <= till} from ISS. */
+  @FunctionalInterface
+  public interface CandleFetcher {
+    CandleSeries fetch(OffsetDateTime from, OffsetDateTime till);
+  }
+
+  public CandleSeries getCandles(
+      String engine,
+      String market,
+      String board,
+      String sec,
+      int interval,
+      OffsetDateTime from,
+      OffsetDateTime till,
+      CandleFetcher fetcher) {
+    if (!properties.enabled()
+        || from == null
+        || !safe(engine)
+        || !safe(market)
+        || !safe(board)
+        || !safe(sec)) {
+      return fetcher.fetch(from, till);
+    }
+    OffsetDateTime until = till != null ? till : OffsetDateTime.now(ZoneOffset.UTC);
+    String key = String.join("/", engine, market, board, sec, Integer.toString(interval));
+    Series s =
+        series.computeIfAbsent(
+            key, k -> new Series(new CandleSeriesFile(properties.dir().resolve(k + ".candles"))));
+    return s.read(from, until, interval, fetcher);
+  }
+
+  private static boolean safe(String segment) {
+    return segment != null && SAFE_SEGMENT.matcher(segment).matches();
+  }
+
+  private static final class Series {
+    private final CandleSeriesFile file;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Series(CandleSeriesFile file) {
+      this.file = file;
+    }
+
+    /**
+     * ISS is called without the lock so that a slow fetch does not hold up other requests for the
+     * series; the lock only covers file reads and writes. A write is skipped if another request
+     * changed the coverage in between.
+     */
+    private CandleSeries read(
+        OffsetDateTime from, OffsetDateTime till, int interval, CandleFetcher fetcher) {
+      long fromMillis = CandleSeries.millis(from);
+      long tillMillis = CandleSeries.millis(till);
+      long closedLimit = System.currentTimeMillis() - Duration.ofMinutes(interval).toMillis();
+      Coverage coverage;
+      CandleSeries stored = CandleSeries.empty();
+      lock.lock();
+      try {
+        coverage = file.coverage();
+        if (coverage != null && overlaps(coverage, fromMillis, tillMillis)) {
+          stored =
+              file.read(
+                  coverage,
+                  Math.max(fromMillis, coverage.from()),
+                  Math.min(tillMillis, coverage.till()));
+        }
+      } catch (IOException ex) {
+        log.warn("Candle store unreadable, fetching from ISS: {}", ex.toString());
+        coverage = null;
+        stored = null;
+      } finally {
+        lock.unlock();
+      }
+      if (stored == null) {
+        return fetcher.fetch(from, till);
+      }
+
+      if (coverage == null) {
+        CandleSeries rows = fetcher.fetch(from, till);
+        long coveredTill = Math.min(tillMillis, closedLimit);
+        if (coveredTill >= fromMillis) {
+          persist(
+              Objects::isNull,
+              current -> file.rewrite(closed(rows, coveredTill), fromMillis, coveredTill));
+        }
+        return rows;
+      }
+      if (!overlaps(coverage, fromMillis, tillMillis)) {
+        return fetcher.fetch(from, till);
+      }
+
+      CandleSeries head = CandleSeries.empty();
+      if (fromMillis < coverage.from()) {
+        head = fetcher.fetch(from, time(coverage.from() - SECOND));
+      }
+      CandleSeries tail = CandleSeries.empty();
+      if (tillMillis > coverage.till()) {
+        tail = fetcher.fetch(time(coverage.till() + SECOND), till);
+      }
+
+      long storedFrom = coverage.from();
+      long storedTill = coverage.till();
+      if (fromMillis < storedFrom) {
+        CandleSeries prefix = head;
+        persist(
+            current -> current != null && current.from() == storedFrom,
+            current ->
+                file.rewrite(
+                    CandleSeries.concat(
+                        List.of(
+                            closed(prefix, storedFrom),
+                            file.read(current, current.from(), current.till()))),
+                    fromMillis,
+                    current.till()));
+      }
+      long coveredTill = Math.min(tillMillis, closedLimit);
+      if (coveredTill > storedTill) {
+        CandleSeries suffix = tail;
+        persist(
+            current -> current != null && current.till() == storedTill,
+            current -> file.append(current, closed(suffix, coveredTill), coveredTill));
+      }
+
+      return CandleSeries.concat(List.of(head, stored, tail));
+    }
+
+    private static boolean overlaps(Coverage coverage, long fromMillis, long tillMillis) {
+      return fromMillis <= coverage.till() + SECOND && tillMillis >= coverage.from() - SECOND;
+    }
+
+    private static CandleSeries closed(CandleSeries rows, long coveredTill) {
+      if (!rows.isEmpty() && rows.begin(0) == CandleSeries.NULL) {
+        throw new IllegalArgumentException("Candle without begin time");
+      }
+      return rows.range(Long.MIN_VALUE, coveredTill);
+    }
+
+    /** Writes under the lock, against the current coverage, if it is still the one expected. */
+    private void persist(Predicate<Coverage> expected, IoAction action) {
+      lock.lock();
+      try {
+        Coverage current = file.coverage();
+        if (expected.test(current)) {
+          action.run(current);
+        }
+      } catch (IOException | RuntimeException ex) {
+        log.warn("Candle store write skipped for {}", file, ex);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private static OffsetDateTime time(long millis) {
+      return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+  }
+
+  @FunctionalInterface
+  private interface IoAction {
+    void run(Coverage current) throws IOException;
+  }
+}
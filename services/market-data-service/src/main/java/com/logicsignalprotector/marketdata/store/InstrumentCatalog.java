@@ -0,0 +1,65 @@
+package com.logicsignalprotector.marketdata.store;
+
+import com.logicsignalprotector.marketdata.client.MoexClient;
+import com.logicsignalprotector.marketdata.model.InstrumentIndex;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory instrument list of every board that has been asked for.
+ *
+ * <p>A board is loaded with one ISS call on first use and indexed into an immutable {@link
+ * InstrumentIndex}; searches and pagination then run locally. The listing changes at most once a
+ * day, so loaded boards are reloaded by {@code market.instruments.refresh-cron} (before the morning
+ * session by default) and swapped in by reference. A failed reload keeps the previous index.
+ */
+@Component
+public class InstrumentCatalog {
+  private static final Logger log = LoggerFactory.getLogger(InstrumentCatalog.class);
+
+  private final MoexClient moexClient;
+  private final ConcurrentMap<Key, InstrumentIndex> boards = new ConcurrentHashMap<>();
+
+  public InstrumentCatalog(MoexClient moexClient) {
+    this.moexClient = moexClient;
+  }
+
+  private record Key(String engine, String market, String board) {}
+
+  public InstrumentIndex get(String engine, String market, String board) {
+    Key key = new Key(engine, market, board);
+    InstrumentIndex index = boards.get(key);
+    if (index == null) {
+      index = load(key);
+      InstrumentIndex raced = boards.putIfAbsent(key, index);
+      if (raced != null) {
+        index = raced;
+      }
+    }
+    return index;
+  }
+
+  @Scheduled(
+      cron = "${market.instruments.refresh-cron:0 30 6 * * *}",
+      zone = "${market.instruments.refresh-zone:Europe/Moscow}")
+  public void refresh() {
+    for (Key key : boards.keySet()) {
+      try {
+        boards.put(key, load(key));
+      } catch (RuntimeException ex) {
+        log.warn("Instrument catalog refresh failed board={}: {}", key.board(), ex.toString());
+      }
+    }
+  }
+
+  private InstrumentIndex load(Key key) {
+    InstrumentIndex index =
+        InstrumentIndex.of(moexClient.getBoardInstruments(key.engine(), key.market(), key.board()));
+    log.info("Instrument catalog loaded board={} instruments={}", key.board(), index.size());
+    return index;
+  }
+}
@@ -0,0 +1,90 @@
+package com.logicsignalprotector.marketdata.store;
+
+import com.logicsignalprotector.marketdata.client.MoexClient;
+import com.logicsignalprotector.marketdata.config.SnapshotProperties;
+import com.logicsignalprotector.marketdata.model.BoardMarketData;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory marketdata of whole boards.
+ *
+ * <p>A scheduler reloads every configured board with one ISS call and replaces its immutable {@link
+ * BoardMarketData} in a single reference swap, so readers never see a half-updated board. A failed
+ * refresh keeps the previous snapshot until it exceeds {@code maxAge}. Snapshot age is published as
+ * gauge {@code market.snapshot.age} (seconds, tag {@code board}).
+ */
+@Component
+public class MarketSnapshotStore {
+  static final String AGE_METRIC = "market.snapshot.age";
+
+  private static final Logger log = LoggerFactory.getLogger(MarketSnapshotStore.class);
+
+  private final MoexClient moexClient;
+  private final SnapshotProperties properties;
+  private final ConcurrentMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+  public MarketSnapshotStore(
+      MoexClient moexClient, SnapshotProperties properties, MeterRegistry meterRegistry) {
+    this.moexClient = moexClient;
+    this.properties = properties;
+    if (properties.enabled()) {
+      for (String board : properties.boards()) {
+        Gauge.builder(AGE_METRIC, this, store -> store.ageSeconds(board))
+            .tag("board", board)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+      }
+    }
+  }
+
+  public record Snapshot(BoardMarketData data, Instant loadedAt) {
+    public Duration age() {
+      return Duration.between(loadedAt, Instant.now());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${market.snapshot.refresh-ms:5000}")
+  public void refresh() {
+    if (!properties.enabled()) {
+      return;
+    }
+    for (String board : properties.boards()) {
+      try {
+        BoardMarketData data =
+            moexClient.loadBoardMarketData(properties.engine(), properties.market(), board);
+        snapshots.put(board, new Snapshot(data, Instant.now()));
+      } catch (RuntimeException ex) {
+        log.warn("Market snapshot refresh failed board={}: {}", board, ex.toString());
+      }
+    }
+  }
+
+  /** Snapshot of the board if it is configured, loaded and not older than {@code maxAge}. */
+  public Optional<Snapshot> get(String engine, String market, String board) {
+    if (!properties.enabled()
+        || !properties.engine().equals(engine)
+        || !properties.market().equals(market)) {
+      return Optional.empty();
+    }
+    Snapshot snapshot = snapshots.get(board);
+    if (snapshot == null || snapshot.age().compareTo(properties.maxAge()) > 0) {
+      return Optional.empty();
+    }
+    return Optional.of(snapshot);
+  }
+
+  private double ageSeconds(String board) {
+    Snapshot snapshot = snapshots.get(board);
+    return snapshot == null ? Double.NaN : snapshot.age().toMillis() / 1000.0;
+  }
+}
@@ -0,0 +1,78 @@
+package com.logicsignalprotector.marketdata.usecase;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logicsignalprotector.marketdata.config.SeriesCacheProperties;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import com.logicsignalprotector.marketdata.model.IndicatorSpec;
+import com.logicsignalprotector.marketdata.model.IndicatorState;
+import org.springframework.stereotype.Component;
+
+/**
+ * Last computed values and state per indicator and series.
+ *
+ * <p>The state is saved after the second-to-last bar, the last one may still be open. When the same
+ * series (same first bar) is requested again, values up to that bar are reused and only the bars
+ * after it are fed into a copy of the saved state, so a new or updated bar costs O(1) per indicator
+ * instead of a pass over the whole history.
+ */
+@Component
+final class IndicatorCache {
+  private final Cache<String, Checkpoint> cache;
+
+  IndicatorCache(SeriesCacheProperties properties) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(properties.indicatorMaxEntries())
+            .expireAfterAccess(properties.expireAfterAccess())
+            .build();
+  }
+
+  double[][] get(String key, CandleSeries bars, IndicatorSpec spec) {
+    int n = bars.size();
+    double[][] out = new double[spec.lines().size()][n];
+    Checkpoint previous = cache.getIfPresent(key);
+    int start;
+    IndicatorState state;
+    if (previous != null && previous.resumableOn(bars)) {
+      start = previous.index() + 1;
+      state = previous.state().copy();
+      for (int line = 0; line < out.length; line++) {
+        System.arraycopy(previous.values()[line], 0, out[line], 0, start);
+      }
+    } else {
+      start = 0;
+      state = spec.newState();
+    }
+    double unit = Math.pow(10, -bars.priceScale());
+    IndicatorState saved = null;
+    for (int i = start; i < n; i++) {
+      if (i == n - 1 && n >= 2) {
+        saved = state.copy();
+      }
+      state.update(
+          price(bars.high(i), unit), price(bars.low(i), unit), price(bars.close(i), unit), out, i);
+    }
+    if (saved != null) {
+      cache.put(key, new Checkpoint(bars.begin(0), n - 2, bars.begin(n - 2), saved, out));
+    }
+    return out;
+  }
+
+  private static double price(long fixed, double unit) {
+    return fixed == CandleSeries.NULL ? Double.NaN : fixed * unit;
+  }
+
+  /**
+   * State after bar {@code index} (begin {@code indexBegin}) of a series starting at {@code
+   * firstBegin}.
+   */
+  private record Checkpoint(
+      long firstBegin, int index, long indexBegin, IndicatorState state, double[][] values) {
+    boolean resumableOn(CandleSeries bars) {
+      return index < bars.size() - 1
+          && bars.begin(0) == firstBegin
+          && bars.begin(index) == indexBegin;
+    }
+  }
+}
@@ -1,59 +1,321 @@
 package com.logicsignalprotector.marketdata.usecase;
 
 import com.logicsignalprotector.marketdata.client.MoexClient;
-import com.logicsignalprotector.marketdata.dto.CandleDto;
+import com.logicsignalprotector.marketdata.client.MoexClientException;
+import com.logicsignalprotector.marketdata.dto.InstrumentCandidateDto;
 import com.logicsignalprotector.marketdata.dto.InstrumentDto;
+import com.logicsignalprotector.marketdata.dto.InstrumentPageDto;
 import com.logicsignalprotector.marketdata.dto.MarketStatusDto;
 import com.logicsignalprotector.marketdata.dto.OrderBookDto;
-import com.logicsignalprotector.marketdata.dto.OrderBookEntryDto;
+import com.logicsignalprotector.marketdata.dto.QuoteBatchDto;
 import com.logicsignalprotector.marketdata.dto.QuoteDto;
+import com.logicsignalprotector.marketdata.dto.QuoteErrorDto;
 import com.logicsignalprotector.marketdata.dto.TradeDto;
+import com.logicsignalprotector.marketdata.model.CandleResampler;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import com.logicsignalprotector.marketdata.model.IndicatorSpec;
+import com.logicsignalprotector.marketdata.model.IndicatorTable;
+import com.logicsignalprotector.marketdata.model.InstrumentIndex;
+import com.logicsignalprotector.marketdata.model.SnapshotRead;
+import com.logicsignalprotector.marketdata.model.TickerResult;
+import com.logicsignalprotector.marketdata.store.CandleStore;
+import com.logicsignalprotector.marketdata.store.InstrumentCatalog;
+import com.logicsignalprotector.marketdata.store.MarketSnapshotStore;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 @Service
 public class MarketDataService implements MarketDataUseCase {
+  private static final Logger log = LoggerFactory.getLogger(MarketDataService.class);
+  private static final int DEFAULT_RESAMPLED_BARS = 500;
+
   private final MoexClient moexClient;
+  private final CandleStore candleStore;
+  private final MarketSnapshotStore snapshots;
+  private final InstrumentCatalog instruments;
+  private final ResampledCandles resampled;
+  private final IndicatorCache indicators;
+  private final TickerFanOut fanOut;
 
-  public MarketDataService(MoexClient moexClient) {
+  public MarketDataService(
+      MoexClient moexClient,
+      CandleStore candleStore,
+      MarketSnapshotStore snapshots,
+      InstrumentCatalog instruments,
+      ResampledCandles resampled,
+      IndicatorCache indicators,
+      TickerFanOut fanOut) {
     this.moexClient = moexClient;
+    this.candleStore = candleStore;
+    this.snapshots = snapshots;
+    this.instruments = instruments;
+    this.resampled = resampled;
+    this.indicators = indicators;
+    this.fanOut = fanOut;
   }
 
+  /**
+   * Filtered and paged locally over the board catalogue. The listing is loaded once a day, so last
+   * prices are taken from the board snapshot when it is fresh.
+   */
   @Override
-  public List<InstrumentDto> getInstruments(
+  public InstrumentPageDto getInstruments(
       String engine, String market, String board, Optional<String> filter, int limit, int offset) {
-    return moexClient.getInstruments(engine, market, board, filter, limit, offset);
+    InstrumentIndex index = instruments.get(engine, market, board);
+    int[] hits = index.search(filter.orElse(""));
+    Map<String, QuoteDto> quotes =
+        snapshots
+            .get(engine, market, board)
+            .map(snapshot -> snapshot.data().quotes())
+            .orElse(Map.of());
+    List<InstrumentDto> page = new ArrayList<>();
+    for (int k = offset; k < hits.length && k < (long) offset + limit; k++) {
+      page.add(withLastPrice(index.get(hits[k]), quotes));
+    }
+    return new InstrumentPageDto(page, hits.length);
+  }
+
+  @Override
+  public List<InstrumentCandidateDto> resolveInstrument(
+      String engine, String market, String board, String query, int limit) {
+    InstrumentIndex index = instruments.get(engine, market, board);
+    List<InstrumentCandidateDto> out = new ArrayList<>();
+    for (InstrumentIndex.Candidate candidate : index.resolve(query, limit)) {
+      InstrumentDto item = index.get(candidate.position());
+      out.add(
+          new InstrumentCandidateDto(
+              item.secId(),
+              item.shortName(),
+              item.name(),
+              item.board(),
+              Math.round(candidate.score() * 1000) / 1000.0,
+              candidate.match().name()));
+    }
+    return out;
+  }
+
+  private static InstrumentDto withLastPrice(InstrumentDto item, Map<String, QuoteDto> quotes) {
+    QuoteDto quote = quotes.get(item.secId());
+    if (quote == null || quote.lastPrice() == null) {
+      return item;
+    }
+    return new InstrumentDto(
+        item.secId(),
+        item.shortName(),
+        item.name(),
+        item.lotSize(),
+        item.prevPrice(),
+        quote.lastPrice(),
+        item.currency(),
+        item.board());
+  }
+
+  /** Served from the board snapshot when it holds the ticker, otherwise from ISS. */
+  @Override
+  public SnapshotRead<QuoteDto> getQuote(String engine, String market, String board, String sec) {
+    return snapshots
+        .get(engine, market, board)
+        .flatMap(
+            snapshot ->
+                Optional.ofNullable(snapshot.data().quotes().get(sec.toUpperCase(Locale.ROOT)))
+                    .map(quote -> SnapshotRead.fromSnapshot(quote, snapshot.age())))
+        .orElseGet(() -> SnapshotRead.direct(moexClient.getQuote(engine, market, board, sec)));
+  }
+
+  /** Tickers held by a fresh board snapshot complete at once; only the rest wait on ISS. */
+  @Override
+  public Flux<TickerResult<QuoteDto>> getQuotesBulk(
+      String engine, String market, String board, List<String> secs) {
+    return fanOut.run(secs, sec -> getQuote(engine, market, board, sec).value());
+  }
+
+  /**
+   * One board-level lookup for all tickers: the snapshot if fresh, otherwise one ISS call. Tickers
+   * missing from the board are reported as {@code NOT_FOUND}; if ISS fails, cached quotes are still
+   * returned and only the rest fail.
+   */
+  @Override
+  public SnapshotRead<QuoteBatchDto> getQuotes(
+      String engine, String market, String board, List<String> secs) {
+    Map<String, QuoteDto> boardQuotes;
+    Optional<Duration> age = Optional.empty();
+    MoexClientException failure = null;
+    try {
+      Optional<MarketSnapshotStore.Snapshot> snapshot = snapshots.get(engine, market, board);
+      if (snapshot.isPresent()) {
+        boardQuotes = snapshot.get().data().quotes();
+        age = Optional.of(snapshot.get().age());
+      } else {
+        boardQuotes = moexClient.getBoardMarketData(engine, market, board).quotes();
+      }
+    } catch (MoexClientException ex) {
+      log.warn("Board quotes unavailable for {}: {}", board, ex.getMessage());
+      boardQuotes = Map.of();
+      failure = ex;
+    }
+    List<QuoteDto> quotes = new ArrayList<>();
+    List<QuoteErrorDto> errors = new ArrayList<>();
+    Set<String> seen = new HashSet<>();
+    for (String raw : secs) {
+      String sec = raw.trim().toUpperCase(Locale.ROOT);
+      if (!seen.add(sec)) {
+        continue;
+      }
+      QuoteDto quote = boardQuotes.get(sec);
+      if (quote == null && failure != null) {
+        quote = moexClient.getCachedQuote(engine, market, board, sec).orElse(null);
+      }
+      if (quote != null) {
+        quotes.add(quote);
+      } else if (failure != null) {
+        errors.add(new QuoteErrorDto(sec, "MOEX_ISS_ERROR", failure.getMessage()));
+      } else {
+        errors.add(
+            new QuoteErrorDto(sec, "NOT_FOUND", "No marketdata for " + sec + " on " + board));
+      }
+    }
+    return new SnapshotRead<>(new QuoteBatchDto(quotes, errors), age);
+  }
+
+  /**
+   * Native ISS intervals are read through the candle store; other intervals are resampled from the
+   * coarsest native interval that divides them. With {@code limit} and no {@code from} only a
+   * lookback window long enough for {@code limit} bars is loaded, and only the tail is resampled.
+   */
+  @Override
+  public CandleSeries getCandles(
+      String engine,
+      String market,
+      String board,
+      String sec,
+      int interval,
+      OffsetDateTime from,
+      OffsetDateTime till,
+      Optional<Integer> limit) {
+    boolean resample = !CandleResampler.isNative(interval);
+    OffsetDateTime rangeFrom = from;
+    if (rangeFrom == null && (limit.isPresent() || resample)) {
+      rangeFrom = lookbackFrom(interval, limit.orElse(DEFAULT_RESAMPLED_BARS), till);
+    }
+    if (resample) {
+      rangeFrom = time(CandleResampler.bucketStart(CandleSeries.millis(rangeFrom), interval));
+    }
+    int baseInterval = CandleResampler.baseInterval(interval);
+    CandleSeries base =
+        candleStore.getCandles(
+            engine,
+            market,
+            board,
+            sec,
+            baseInterval,
+            rangeFrom,
+            till,
+            (a, b) -> moexClient.getCandles(engine, market, board, sec, baseInterval, a, b));
+    if (!resample) {
+      return limit.map(base::tail).orElse(base);
+    }
+    String key =
+        String.join(
+            "/",
+            engine,
+            market,
+            board,
+            sec,
+            Integer.toString(interval),
+            Long.toString(CandleSeries.millis(rangeFrom)));
+    return resampled.get(key, base, interval, limit.orElse(null));
   }
 
   @Override
-  public QuoteDto getQuote(String engine, String market, String board, String sec) {
-    return moexClient.getQuote(engine, market, board, sec);
+  public Flux<TickerResult<CandleSeries>> getCandlesBulk(
+      String engine,
+      String market,
+      String board,
+      List<String> secs,
+      int interval,
+      OffsetDateTime from,
+      OffsetDateTime till,
+      Optional<Integer> limit) {
+    return fanOut.run(
+        secs, sec -> getCandles(engine, market, board, sec, interval, from, till, limit));
   }
 
+  /**
+   * Indicators are computed over the whole loaded range so that smoothing has warmed up at the
+   * first returned bar. Without {@code from} the range starts at a day-aligned lookback, so
+   * repeated requests see the same first bar and {@link IndicatorCache} only feeds new bars.
+   */
   @Override
-  public List<CandleDto> getCandles(
+  public IndicatorTable getIndicators(
       String engine,
       String market,
       String board,
       String sec,
       int interval,
+      List<IndicatorSpec> specs,
       OffsetDateTime from,
-      OffsetDateTime till) {
-    return moexClient.getCandles(engine, market, board, sec, interval, from, till);
+      OffsetDateTime till,
+      int limit) {
+    int warmup = specs.stream().mapToInt(IndicatorSpec::warmup).max().orElse(0);
+    OffsetDateTime rangeFrom = from != null ? from : lookbackFrom(interval, limit + warmup, till);
+    CandleSeries bars =
+        getCandles(engine, market, board, sec, interval, rangeFrom, till, Optional.empty());
+    String key =
+        String.join(
+            "/",
+            engine,
+            market,
+            board,
+            sec,
+            Integer.toString(interval),
+            Long.toString(CandleSeries.millis(rangeFrom)),
+            till == null ? "open" : Long.toString(CandleSeries.millis(till)));
+    int start = Math.max(0, bars.size() - limit);
+    List<double[][]> values = new ArrayList<>(specs.size());
+    for (IndicatorSpec spec : specs) {
+      double[][] all = indicators.get(key + "/" + spec.id(), bars, spec);
+      double[][] tail = new double[all.length][];
+      for (int line = 0; line < all.length; line++) {
+        tail[line] = Arrays.copyOfRange(all[line], start, bars.size());
+      }
+      values.add(tail);
+    }
+    return new IndicatorTable(bars.slice(start, bars.size()), specs, values);
+  }
+
+  /**
+   * Calendar window that should hold {@code bars} bars: nights, weekends and holidays are covered
+   * by a 3x margin and at least a week. Aligned to midnight so repeated requests share a key.
+   */
+  private static OffsetDateTime lookbackFrom(int interval, int bars, OffsetDateTime till) {
+    long minutes = Math.max((long) interval * bars * 3, CandleResampler.WEEK);
+    OffsetDateTime end = till != null ? till : OffsetDateTime.now(ZoneOffset.UTC);
+    return end.minusMinutes(minutes).truncatedTo(ChronoUnit.DAYS);
+  }
+
+  private static OffsetDateTime time(long millis) {
+    return OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
   }
 
   @Override
   public OrderBookDto getOrderBook(
       String engine, String market, String board, String sec, int depth) {
-    OrderBookDto orderBook = moexClient.getOrderBook(engine, market, board, sec);
-    List<OrderBookEntryDto> bids =
-        orderBook.bids().stream().limit(depth).collect(Collectors.toList());
-    List<OrderBookEntryDto> asks =
-        orderBook.asks().stream().limit(depth).collect(Collectors.toList());
-    return new OrderBookDto(orderBook.secId(), orderBook.board(), orderBook.time(), bids, asks);
+    return moexClient.getOrderBook(engine, market, board, sec).top(depth).toDto(sec, board, null);
   }
 
   @Override
@@ -68,7 +330,21 @@ public class MarketDataService implements MarketDataUseCase {
   }
 
   @Override
-  public MarketStatusDto getMarketStatus(String engine, String market, String board, String sec) {
-    return moexClient.getMarketStatus(engine, market, board, sec);
+  public SnapshotRead<MarketStatusDto> getMarketStatus(
+      String engine, String market, String board, String sec) {
+    return snapshots
+        .get(engine, market, board)
+        .flatMap(
+            snapshot ->
+                Optional.ofNullable(snapshot.data().statuses().get(sec.toUpperCase(Locale.ROOT)))
+                    .map(status -> SnapshotRead.fromSnapshot(status, snapshot.age())))
+        .orElseGet(
+            () -> SnapshotRead.direct(moexClient.getMarketStatus(engine, market, board, sec)));
+  }
+
+  @Override
+  public Flux<TickerResult<MarketStatusDto>> getMarketStatusBulk(
+      String engine, String market, String board, List<String> secs) {
+    return fanOut.run(secs, sec -> getMarketStatus(engine, market, board, sec).value());
   }
 }
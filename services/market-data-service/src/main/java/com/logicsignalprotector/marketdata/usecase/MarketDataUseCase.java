@@ -1,29 +1,70 @@
 package com.logicsignalprotector.marketdata.usecase;
 
-import com.logicsignalprotector.marketdata.dto.CandleDto;
-import com.logicsignalprotector.marketdata.dto.InstrumentDto;
+import com.logicsignalprotector.marketdata.dto.InstrumentCandidateDto;
+import com.logicsignalprotector.marketdata.dto.InstrumentPageDto;
 import com.logicsignalprotector.marketdata.dto.MarketStatusDto;
 import com.logicsignalprotector.marketdata.dto.OrderBookDto;
+import com.logicsignalprotector.marketdata.dto.QuoteBatchDto;
 import com.logicsignalprotector.marketdata.dto.QuoteDto;
 import com.logicsignalprotector.marketdata.dto.TradeDto;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import com.logicsignalprotector.marketdata.model.IndicatorSpec;
+import com.logicsignalprotector.marketdata.model.IndicatorTable;
+import com.logicsignalprotector.marketdata.model.SnapshotRead;
+import com.logicsignalprotector.marketdata.model.TickerResult;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import reactor.core.publisher.Flux;
 
 public interface MarketDataUseCase {
-  List<InstrumentDto> getInstruments(
+  InstrumentPageDto getInstruments(
       String engine, String market, String board, Optional<String> filter, int limit, int offset);
 
-  QuoteDto getQuote(String engine, String market, String board, String sec);
+  List<InstrumentCandidateDto> resolveInstrument(
+      String engine, String market, String board, String query, int limit);
 
-  List<CandleDto> getCandles(
+  SnapshotRead<QuoteDto> getQuote(String engine, String market, String board, String sec);
+
+  SnapshotRead<QuoteBatchDto> getQuotes(
+      String engine, String market, String board, List<String> secs);
+
+  /** {@link #getQuote} per ticker, fanned out; results are emitted as each ticker completes. */
+  Flux<TickerResult<QuoteDto>> getQuotesBulk(
+      String engine, String market, String board, List<String> secs);
+
+  CandleSeries getCandles(
       String engine,
       String market,
       String board,
       String sec,
       int interval,
       OffsetDateTime from,
-      OffsetDateTime till);
+      OffsetDateTime till,
+      Optional<Integer> limit);
+
+  /** {@link #getCandles} per ticker, fanned out; results are emitted as each ticker completes. */
+  Flux<TickerResult<CandleSeries>> getCandlesBulk(
+      String engine,
+      String market,
+      String board,
+      List<String> secs,
+      int interval,
+      OffsetDateTime from,
+      OffsetDateTime till,
+      Optional<Integer> limit);
+
+  /** The last {@code limit} bars with the requested indicators computed over enough history. */
+  IndicatorTable getIndicators(
+      String engine,
+      String market,
+      String board,
+      String sec,
+      int interval,
+      List<IndicatorSpec> specs,
+      OffsetDateTime from,
+      OffsetDateTime till,
+      int limit);
 
   OrderBookDto getOrderBook(String engine, String market, String board, String sec, int depth);
 
@@ -35,5 +76,10 @@ public interface MarketDataUseCase {
       Optional<String> from,
       Optional<Integer> limit);
 
-  MarketStatusDto getMarketStatus(String engine, String market, String board, String sec);
+  SnapshotRead<MarketStatusDto> getMarketStatus(
+      String engine, String market, String board, String sec);
+
+  /** {@link #getMarketStatus} per ticker, fanned out; results are emitted as each completes. */
+  Flux<TickerResult<MarketStatusDto>> getMarketStatusBulk(
+      String engine, String market, String board, List<String> secs);
 }
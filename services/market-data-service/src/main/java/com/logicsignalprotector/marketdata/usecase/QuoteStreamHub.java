@@ -0,0 +1,133 @@
+package com.logicsignalprotector.marketdata.usecase;
+
+import com.logicsignalprotector.marketdata.config.StreamProperties;
+import com.logicsignalprotector.marketdata.dto.QuoteDto;
+import com.logicsignalprotector.marketdata.dto.QuoteUpdateDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Shared quote pollers for streaming subscribers.
+ *
+ * <p>There is one poller per {@code engine/market/board/sec}, however many clients subscribe: it
+ * reads {@link MarketDataUseCase#getQuote} every {@code pollInterval}, emits only when the quote
+ * changed and replays the latest quote to new subscribers. It stops {@code grace} after the last
+ * subscriber left. Active pollers are counted in gauge {@code market.stream.pollers}. A poller that
+ * stopped while a new subscriber was already holding it starts again for that subscriber and
+ * re-registers itself if the ticker has no poller by then.
+ *
+ * <p>Each subscriber conflates: a slow consumer skips intermediate quotes and gets the latest one,
+ * as a diff against the last quote it actually received.
+ */
+@Component
+public class QuoteStreamHub {
+  private static final Logger log = LoggerFactory.getLogger(QuoteStreamHub.class);
+
+  private final MarketDataUseCase marketDataUseCase;
+  private final StreamProperties properties;
+  private final ConcurrentMap<String, Flux<QuoteDto>> pollers = new ConcurrentHashMap<>();
+
+  public QuoteStreamHub(
+      MarketDataUseCase marketDataUseCase,
+      StreamProperties properties,
+      MeterRegistry meterRegistry) {
+    this.marketDataUseCase = marketDataUseCase;
+    this.properties = properties;
+    Gauge.builder("market.stream.pollers", pollers, Map::size).register(meterRegistry);
+  }
+
+  public Flux<QuoteUpdateDto> subscribe(String engine, String market, String board, String sec) {
+    String ticker = sec.trim().toUpperCase(Locale.ROOT);
+    String key = String.join("/", engine, market, board, ticker);
+    Flux<QuoteDto> shared =
+        pollers.compute(
+            key,
+            (k, existing) ->
+                existing != null ? existing : poller(k, engine, market, board, ticker));
+    return Flux.defer(
+        () -> {
+          AtomicReference<QuoteDto> delivered = new AtomicReference<>();
+          return shared
+              .onBackpressureLatest()
+              .map(quote -> diff(delivered.getAndSet(quote), quote));
+        });
+  }
+
+  private Flux<QuoteDto> poller(
+      String key, String engine, String market, String board, String sec) {
+    AtomicReference<Flux<QuoteDto>> self = new AtomicReference<>();
+    Flux<QuoteDto> flux =
+        Flux.interval(Duration.ZERO, properties.pollInterval())
+            .onBackpressureDrop()
+            .concatMap(
+                tick ->
+                    Mono.fromCallable(
+                            () -> marketDataUseCase.getQuote(engine, market, board, sec).value())
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(
+                            ex -> {
+                              log.debug("Quote poll failed {}: {}", key, ex.toString());
+                              return Mono.empty();
+                            }),
+                1)
+            .distinctUntilChanged()
+            .doOnSubscribe(subscription -> pollers.putIfAbsent(key, self.get()))
+            .doFinally(signal -> pollers.remove(key, self.get()))
+            .replay(1)
+            .refCount(1, properties.grace());
+    self.set(flux);
+    return flux;
+  }
+
+  static QuoteUpdateDto diff(QuoteDto previous, QuoteDto current) {
+    if (previous == null) {
+      return new QuoteUpdateDto(
+          current.secId(),
+          current.board(),
+          true,
+          current.lastPrice(),
+          current.change(),
+          current.changePercent(),
+          current.volume(),
+          current.time(),
+          null);
+    }
+    List<String> cleared = new ArrayList<>();
+    return new QuoteUpdateDto(
+        current.secId(),
+        current.board(),
+        false,
+        changed("lastPrice", previous.lastPrice(), current.lastPrice(), cleared),
+        changed("change", previous.change(), current.change(), cleared),
+        changed("changePercent", previous.changePercent(), current.changePercent(), cleared),
+        changed("volume", previous.volume(), current.volume(), cleared),
+        changed("time", previous.time(), current.time(), cleared),
+        cleared.isEmpty() ? null : List.copyOf(cleared));
+  }
+
+  /** {@code current} if it changed, else null; a change to null is recorded in {@code cleared}. */
+  private static <T> T changed(String field, T previous, T current, List<String> cleared) {
+    if (Objects.equals(previous, current)) {
+      return null;
+    }
+    if (current == null) {
+      cleared.add(field);
+    }
+    return current;
+  }
+}
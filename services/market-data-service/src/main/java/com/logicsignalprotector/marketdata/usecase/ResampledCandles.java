@@ -0,0 +1,74 @@
+package com.logicsignalprotector.marketdata.usecase;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.logicsignalprotector.marketdata.config.SeriesCacheProperties;
+import com.logicsignalprotector.marketdata.model.CandleResampler;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Last resampled result per series, updated incrementally.
+ *
+ * <p>Closed base bars never change, so when the same series is requested again with more base bars
+ * only the last (possibly still open) bucket and the new bars are resampled; earlier buckets are
+ * reused. A result computed for a {@code limit} is marked {@code truncated} and only reused for
+ * requests that need at most that many bars.
+ */
+@Component
+final class ResampledCandles {
+  private final Cache<String, Aggregate> cache;
+
+  ResampledCandles(SeriesCacheProperties properties) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(properties.resampledMaxEntries())
+            .expireAfterAccess(properties.expireAfterAccess())
+            .build();
+  }
+
+  CandleSeries get(String key, CandleSeries base, int interval, Integer limit) {
+    Aggregate previous = cache.getIfPresent(key);
+    CandleSeries bars;
+    boolean truncated;
+    if (previous != null && previous.extendableBy(base, limit)) {
+      CandleSeries done = previous.bars().slice(0, previous.bars().size() - 1);
+      long openBucket = previous.bars().begin(previous.bars().size() - 1);
+      bars =
+          CandleSeries.concat(
+              List.of(
+                  done,
+                  CandleResampler.resample(base.range(openBucket, Long.MAX_VALUE), interval)));
+      truncated = previous.truncated();
+    } else if (limit != null) {
+      bars = CandleResampler.resampleTail(base, interval, limit);
+      truncated = bars.size() >= limit;
+    } else {
+      bars = CandleResampler.resample(base, interval);
+      truncated = false;
+    }
+    if (!base.isEmpty()
+        && (previous == null || lastBegin(base) >= previous.lastBaseBegin())
+        && !bars.isEmpty()) {
+      cache.put(key, new Aggregate(bars, lastBegin(base), truncated));
+    }
+    return limit == null ? bars : bars.tail(limit);
+  }
+
+  private static long lastBegin(CandleSeries series) {
+    return series.begin(series.size() - 1);
+  }
+
+  private record Aggregate(CandleSeries bars, long lastBaseBegin, boolean truncated) {
+    boolean extendableBy(CandleSeries base, Integer limit) {
+      if (bars.isEmpty() || base.isEmpty() || lastBegin(base) < lastBaseBegin) {
+        return false;
+      }
+      if (truncated && (limit == null || bars.size() < limit)) {
+        return false;
+      }
+      return base.begin(0) <= bars.begin(bars.size() - 1);
+    }
+  }
+}
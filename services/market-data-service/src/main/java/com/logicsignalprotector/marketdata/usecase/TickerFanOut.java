@@ -0,0 +1,64 @@
+package com.logicsignalprotector.marketdata.usecase;
+
+import com.logicsignalprotector.marketdata.client.IssRangeTooLargeException;
+import com.logicsignalprotector.marketdata.client.MoexClientException;
+import com.logicsignalprotector.marketdata.config.BulkProperties;
+import com.logicsignalprotector.marketdata.model.TickerResult;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Runs a blocking single-ticker call for many tickers, each on its own virtual thread, and emits
+ * results in completion order. At most {@code concurrency} calls run at once across all fan-outs;
+ * ISS itself is further limited by the client's request budget. A failing ticker becomes an error
+ * result and does not fail the others.
+ */
+@Component
+final class TickerFanOut {
+  private static final Logger log = LoggerFactory.getLogger(TickerFanOut.class);
+
+  private final Semaphore slots;
+  private final Scheduler workers;
+
+  TickerFanOut(BulkProperties properties, Scheduler blockingScheduler) {
+    this.slots = new Semaphore(properties.concurrency(), true);
+    this.workers = blockingScheduler;
+  }
+
+  <T> Flux<TickerResult<T>> run(List<String> secs, Function<String, T> call) {
+    List<String> tickers =
+        secs.stream().map(sec -> sec.trim().toUpperCase(Locale.ROOT)).distinct().toList();
+    return Flux.fromIterable(tickers)
+        .flatMap(
+            sec -> Mono.fromCallable(() -> call(sec, call)).subscribeOn(workers),
+            Math.max(1, tickers.size()));
+  }
+
+  private <T> TickerResult<T> call(String sec, Function<String, T> call)
+      throws InterruptedException {
+    slots.acquire();
+    try {
+      T value = call.apply(sec);
+      return value == null
+          ? TickerResult.failed(sec, "NOT_FOUND", "No data for " + sec)
+          : TickerResult.ok(sec, value);
+    } catch (IssRangeTooLargeException ex) {
+      return TickerResult.failed(sec, "RANGE_TOO_LARGE", ex.getMessage());
+    } catch (MoexClientException ex) {
+      return TickerResult.failed(sec, "MOEX_ISS_ERROR", ex.getMessage());
+    } catch (RuntimeException ex) {
+      log.warn("Bulk call failed for {}", sec, ex);
+      return TickerResult.failed(sec, "INTERNAL_ERROR", ex.getMessage());
+    } finally {
+      slots.release();
+    }
+  }
+}
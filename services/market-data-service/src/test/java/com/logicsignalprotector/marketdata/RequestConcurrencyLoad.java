@@ -0,0 +1,141 @@
+package com.logicsignalprotector.marketdata;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test for the request threading mode: {@code REQUESTS} concurrent {@code GET /quotes} for
+ * distinct tickers against a local ISS stub that answers after {@code ISS_DELAY}. The service runs
+ * once with a Tomcat pool of {@code TOMCAT_THREADS} and once with {@code
+ * spring.threads.virtual.enabled}; for each mode it prints wall time and the peak number of ISS
+ * requests in flight, i.e. how many requests were served concurrently.
+ *
+ * <p>Run manually via {@link #main}; it is not part of the test suite.
+ */
+public final class RequestConcurrencyLoad {
+  private static final int REQUESTS = 500;
+  private static final int TOMCAT_THREADS = 32;
+  private static final Duration ISS_DELAY = Duration.ofMillis(300);
+  private static final String SECRET = "dev-only-change-me-dev-only-change-me";
+  private static final byte[] QUOTE =
+      ("{\"marketdata\":{\"columns\":[\"LAST\",\"CHANGE\",\"LASTTOPREVPRICE\",\"VOLTODAY\","
+              + "\"SYSTIME\"],\"data\":[[100.5,1,0.5,10,\"2026-01-12 10:00:00\"]]}}")
+          .getBytes(StandardCharsets.UTF_8);
+
+  private static final AtomicInteger inFlight = new AtomicInteger();
+  private static final AtomicInteger peak = new AtomicInteger();
+
+  public static void main(String[] args) throws Exception {
+    HttpServer iss = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+    iss.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    iss.createContext(
+        "/iss",
+        exchange -> {
+          peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          try {
+            Thread.sleep(ISS_DELAY.toMillis());
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, QUOTE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+              body.write(QUOTE);
+            }
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          } finally {
+            inFlight.decrementAndGet();
+          }
+        });
+    iss.start();
+    try {
+      String issUrl = "http://127.0.0.1:" + iss.getAddress().getPort() + "/iss";
+      run(issUrl, false);
+      run(issUrl, true);
+    } finally {
+      iss.stop(0);
+    }
+  }
+
+  private static void run(String issUrl, boolean virtualThreads) throws Exception {
+    ConfigurableApplicationContext context =
+        SpringApplication.run(
+            MarketDataServiceApplication.class,
+            "--server.port=0",
+            "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+            "--spring.threads.virtual.enabled=" + virtualThreads,
+            "--market.moex.base-url=" + issUrl,
+            "--market.moex.max-in-flight=" + REQUESTS,
+            "--market.moex.http.max-connections=" + REQUESTS,
+            "--resilience4j.ratelimiter.instances.moexIss.limitForPeriod=100000",
+            "--market.snapshot.enabled=false",
+            "--market.candle-store.enabled=false",
+            "--logging.level.com.logicsignalprotector=WARN");
+    try {
+      String base = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+      String token = token();
+      HttpClient client =
+          HttpClient.newBuilder()
+              .executor(Executors.newVirtualThreadPerTaskExecutor())
+              .connectTimeout(Duration.ofSeconds(5))
+              .build();
+      peak.set(0);
+      long start = System.nanoTime();
+      List<CompletableFuture<HttpResponse<Void>>> calls = new ArrayList<>();
+      for (int i = 0; i < REQUESTS; i++) {
+        HttpRequest request =
+            HttpRequest.newBuilder(URI.create(base + "/api/market/v1/quotes?board=TQTF&sec=T" + i))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+      }
+      long ok =
+          calls.stream().map(CompletableFuture::join).filter(r -> r.statusCode() == 200).count();
+      long millis = (System.nanoTime() - start) / 1_000_000;
+      System.out.printf(
+          "%s: %d/%d ok in %d ms, peak concurrent ISS requests %d (tomcat pool %d)%n",
+          virtualThreads ? "virtual threads" : "platform pool",
+          ok,
+          REQUESTS,
+          millis,
+          peak.get(),
+          TOMCAT_THREADS);
+    } finally {
+      context.close();
+    }
+  }
+
+  private static String token() throws Exception {
+    JWTClaimsSet claims =
+        new JWTClaimsSet.Builder()
+            .subject("load")
+            .issuer("lsp-api-gateway")
+            .issueTime(new Date())
+            .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(1))))
+            .claim("perms", List.of("MARKETDATA_READ"))
+            .build();
+    SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+    jwt.sign(new MACSigner(SECRET));
+    return jwt.serialize();
+  }
+}
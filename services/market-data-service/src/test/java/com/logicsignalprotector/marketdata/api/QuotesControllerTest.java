@@ -0,0 +1,44 @@
+package com.logicsignalprotector.marketdata.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.logicsignalprotector.marketdata.dto.QuoteDto;
+import com.logicsignalprotector.marketdata.dto.QuoteResponse;
+import com.logicsignalprotector.marketdata.model.SnapshotRead;
+import com.logicsignalprotector.marketdata.usecase.MarketDataUseCase;
+import java.math.BigDecimal;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+class QuotesControllerTest {
+
+  private static final QuoteDto SBER =
+      new QuoteDto("SBER", "TQBR", new BigDecimal("271.5"), null, null, null, null);
+
+  private final MarketDataUseCase useCase = mock(MarketDataUseCase.class);
+  private final QuotesController controller = new QuotesController(useCase);
+
+  @Test
+  void snapshotAgeHeaderIsSetForSnapshotReads() {
+    when(useCase.getQuote("stock", "shares", "TQBR", "SBER"))
+        .thenReturn(SnapshotRead.fromSnapshot(SBER, Duration.ofMillis(1234)));
+
+    ResponseEntity<QuoteResponse> response =
+        controller.getQuotes("stock", "shares", "TQBR", "SBER", null);
+
+    assertThat(response.getHeaders().getFirst(SnapshotAgeHeader.NAME)).isEqualTo("1234");
+  }
+
+  @Test
+  void noSnapshotAgeHeaderForIssReads() {
+    when(useCase.getQuote("stock", "shares", "TQBR", "SBER")).thenReturn(SnapshotRead.direct(SBER));
+
+    ResponseEntity<QuoteResponse> response =
+        controller.getQuotes("stock", "shares", "TQBR", "SBER", null);
+
+    assertThat(response.getHeaders().containsKey(SnapshotAgeHeader.NAME)).isFalse();
+  }
+}
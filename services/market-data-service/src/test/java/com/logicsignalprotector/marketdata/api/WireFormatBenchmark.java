@@ -0,0 +1,146 @@
+package com.logicsignalprotector.marketdata.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.logicsignalprotector.marketdata.dto.CandleDto;
+import com.logicsignalprotector.marketdata.dto.CandlesResponse;
+import com.logicsignalprotector.marketdata.dto.TradeDto;
+import com.logicsignalprotector.marketdata.dto.TradesResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON vs CBOR vs Smile for candle and trade responses: encoding on market-data ({@code encode})
+ * and decoding into the shared DTOs on the client ({@code decode}). Mappers are configured as in
+ * the services (ISO dates). Payload sizes, raw and gzip, are printed once per trial.
+ *
+ * <p>Run from the IDE via {@link #main} or with {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+  private static final OffsetDateTime START =
+      OffsetDateTime.of(2024, 1, 3, 10, 0, 0, 0, ZoneOffset.UTC);
+
+  @Param({"candles", "trades"})
+  String payload;
+
+  @Param({"json", "cbor", "smile"})
+  String format;
+
+  @Param({"500", "5000"})
+  int rows;
+
+  private ObjectMapper mapper;
+  private Object response;
+  private Class<?> type;
+  private byte[] body;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    Jackson2ObjectMapperBuilder builder =
+        Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    mapper =
+        switch (format) {
+          case "cbor" -> builder.factory(new CBORFactory()).build();
+          case "smile" -> builder.factory(new SmileFactory()).build();
+          default -> builder.build();
+        };
+    if ("candles".equals(payload)) {
+      response = candles(rows);
+      type = CandlesResponse.class;
+    } else {
+      response = trades(rows);
+      type = TradesResponse.class;
+    }
+    body = mapper.writeValueAsBytes(response);
+    System.out.printf(
+        "%n%s %s x%d: %d bytes, %d gzipped%n", payload, format, rows, body.length, gzip(body));
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return mapper.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public Object decode() throws IOException {
+    return mapper.readValue(body, type);
+  }
+
+  private static CandlesResponse candles(int rows) {
+    List<CandleDto> candles = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      long open = 27_000 + (i * 37L) % 1_000;
+      OffsetDateTime begin = START.plusMinutes(i);
+      candles.add(
+          new CandleDto(
+              begin,
+              begin.plusSeconds(59),
+              BigDecimal.valueOf(open, 2),
+              BigDecimal.valueOf(open + 5, 2),
+              BigDecimal.valueOf(open + 10, 2),
+              BigDecimal.valueOf(open - 10, 2),
+              BigDecimal.valueOf(4_500L + i)));
+    }
+    return new CandlesResponse(
+        null, "SBER", "TQBR", 1, START, START.plusMinutes(rows), candles, false);
+  }
+
+  private static TradesResponse trades(int rows) {
+    List<TradeDto> trades = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      trades.add(
+          new TradeDto(
+              12_345_678_900L + i,
+              START.plusSeconds(i),
+              BigDecimal.valueOf(27_000 + (i * 37L) % 1_000, 2),
+              BigDecimal.valueOf(1 + i % 50),
+              i % 2 == 0 ? "B" : "S"));
+    }
+    return new TradesResponse(null, null, rows, trades);
+  }
+
+  private static int gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+      gz.write(data);
+    }
+    return out.size();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(WireFormatBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
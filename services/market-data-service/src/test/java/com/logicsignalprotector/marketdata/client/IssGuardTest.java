@@ -0,0 +1,154 @@
+package com.logicsignalprotector.marketdata.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class IssGuardTest {
+
+  private final CircuitBreaker breaker =
+      CircuitBreaker.of(
+          "test",
+          CircuitBreakerConfig.custom()
+              .slidingWindowSize(2)
+              .minimumNumberOfCalls(2)
+              .failureRateThreshold(50)
+              .waitDurationInOpenState(Duration.ofMinutes(1))
+              .build());
+  private final AtomicInteger sent = new AtomicInteger();
+
+  @Test
+  void issFailuresOpenTheBreakerAndItRejectsWithoutSending() {
+    IssGuard guard = guard(unlimited(), 4, Duration.ofSeconds(1));
+
+    for (int i = 0; i < 2; i++) {
+      assertThatThrownBy(
+              () -> guard.call(send(Mono.error(new IssUnavailableException("503")))).block())
+          .isInstanceOf(IssUnavailableException.class);
+    }
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThatThrownBy(() -> guard.call(send(Mono.just("ok"))).block())
+        .isInstanceOf(IssUnavailableException.class)
+        .hasMessageContaining("circuit breaker is open");
+    assertThat(sent).hasValue(2);
+  }
+
+  @Test
+  void answersFromIssDoNotCountAsFailures() {
+    IssGuard guard = guard(unlimited(), 4, Duration.ofSeconds(1));
+
+    for (int i = 0; i < 3; i++) {
+      assertThatThrownBy(() -> guard.call(send(Mono.error(new MoexClientException("404")))).block())
+          .isInstanceOf(MoexClientException.class);
+    }
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+  }
+
+  @Test
+  void exhaustedBudgetIsThrottledAndNotABreakerFailure() {
+    IssRequestBudget budget = budget(1);
+    Disposable holder =
+        guard(unlimited(), budget, Duration.ofMinutes(1)).call(send(Mono.never())).subscribe();
+    IssGuard guard = guard(unlimited(), budget, Duration.ofMillis(200));
+    try {
+      for (int i = 0; i < 3; i++) {
+        assertThatThrownBy(() -> guard.call(send(Mono.just("ok"))).block())
+            .isInstanceOf(IssThrottledException.class);
+      }
+    } finally {
+      holder.dispose();
+    }
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+    assertThat(sent).hasValue(1);
+  }
+
+  @Test
+  void permitBeyondTheDeadlineIsThrottledAtOnce() {
+    RateLimiter limiter =
+        RateLimiter.of(
+            "test",
+            RateLimiterConfig.custom()
+                .limitForPeriod(1)
+                .limitRefreshPeriod(Duration.ofSeconds(10))
+                .timeoutDuration(Duration.ofSeconds(30))
+                .build());
+    IssGuard guard = guard(limiter, 4, Duration.ofMillis(500));
+    assertThat(guard.call(send(Mono.just("ok"))).block()).isEqualTo("ok");
+
+    long start = System.nanoTime();
+    assertThatThrownBy(() -> guard.call(send(Mono.just("ok"))).block())
+        .isInstanceOf(IssThrottledException.class);
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(400));
+    assertThat(sent).hasValue(1);
+  }
+
+  @Test
+  void limiterWaitAndRequestShareOneDeadline() {
+    RateLimiter limiter =
+        RateLimiter.of(
+            "test",
+            RateLimiterConfig.custom()
+                .limitForPeriod(1)
+                .limitRefreshPeriod(Duration.ofMillis(400))
+                .timeoutDuration(Duration.ofSeconds(1))
+                .build());
+    IssGuard guard = guard(limiter, 4, Duration.ofMillis(700));
+    guard.call(send(Mono.just("ok"))).block();
+
+    // ~400ms for the permit leaves ~300ms of the 700ms deadline for a 500ms answer.
+    long start = System.nanoTime();
+    assertThatThrownBy(
+            () -> guard.call(send(Mono.delay(Duration.ofMillis(500)).thenReturn("late"))).block())
+        .isInstanceOf(IssUnavailableException.class)
+        .isNotInstanceOf(IssThrottledException.class)
+        .hasMessageContaining("timeout");
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(850));
+    assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+  }
+
+  private IssGuard guard(RateLimiter limiter, int inFlight, Duration timeout) {
+    return guard(limiter, budget(inFlight), timeout);
+  }
+
+  private IssGuard guard(RateLimiter limiter, IssRequestBudget budget, Duration timeout) {
+    return new IssGuard(limiter, breaker, budget, timeout);
+  }
+
+  private static IssRequestBudget budget(int inFlight) {
+    return new IssRequestBudget(inFlight, Schedulers.boundedElastic(), new SimpleMeterRegistry());
+  }
+
+  private <T> Mono<T> send(Mono<T> response) {
+    return Mono.defer(
+        () -> {
+          sent.incrementAndGet();
+          return response;
+        });
+  }
+
+  private static RateLimiter unlimited() {
+    return RateLimiter.of(
+        "test",
+        RateLimiterConfig.custom()
+            .limitForPeriod(1000)
+            .limitRefreshPeriod(Duration.ofSeconds(1))
+            .timeoutDuration(Duration.ZERO)
+            .build());
+  }
+}
@@ -0,0 +1,89 @@
+package com.logicsignalprotector.marketdata.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.logicsignalprotector.marketdata.client.IssTableReader.Cursor;
+import com.logicsignalprotector.marketdata.client.IssTableReader.Page;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class IssPagerTest {
+
+  private final Set<Integer> requested = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  @Test
+  void cursorPagesAreFetchedConcurrentlyAndEmittedInOrder() {
+    // Later pages answer first; the output must still follow the offsets.
+    List<Integer> rows =
+        all(IssPager.pages(100, 4, 1000, List::size, start -> page(start, 250, 100, true)));
+
+    assertThat(rows).containsExactlyElementsOf(IntStream.range(0, 250).boxed().toList());
+    assertThat(requested).containsExactlyInAnyOrder(0, 100, 200);
+    assertThat(maxInFlight.get()).isGreaterThan(1);
+  }
+
+  @Test
+  void readAheadStopsAtTheFirstShortPageWithoutACursor() {
+    List<Integer> rows =
+        all(IssPager.pages(10, 3, 1000, List::size, start -> page(start, 25, 10, false)));
+
+    assertThat(rows).containsExactlyElementsOf(IntStream.range(0, 25).boxed().toList());
+    assertThat(requested).contains(0, 10, 20);
+    // At most one window of read-ahead past the short page.
+    assertThat(requested).allMatch(start -> start <= 20 + 3 * 10);
+  }
+
+  @Test
+  void cursorTotalAboveMaxRowsFailsAfterTheFirstPage() {
+    assertThatThrownBy(
+            () ->
+                all(IssPager.pages(100, 4, 500, List::size, start -> page(start, 1000, 100, true))))
+        .isInstanceOf(IssRangeTooLargeException.class);
+    assertThat(requested).containsExactly(0);
+  }
+
+  @Test
+  void readAheadPastMaxRowsFailsInsteadOfTruncating() {
+    assertThatThrownBy(
+            () -> all(IssPager.pages(10, 2, 30, List::size, start -> page(start, 1000, 10, false))))
+        .isInstanceOf(IssRangeTooLargeException.class);
+    assertThat(requested).allMatch(start -> start < 30);
+  }
+
+  @Test
+  void rangeThatFitsMaxRowsExactlyIsRead() {
+    List<Integer> rows =
+        all(IssPager.pages(10, 2, 30, List::size, start -> page(start, 29, 10, false)));
+
+    assertThat(rows).hasSize(29);
+  }
+
+  /** Rows {@code start..} of a {@code total}-row range; later offsets answer sooner. */
+  private Mono<Page<List<Integer>>> page(int start, int total, int size, boolean withCursor) {
+    return Mono.defer(
+        () -> {
+          requested.add(start);
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          List<Integer> rows =
+              IntStream.range(start, Math.min(total, start + size)).boxed().toList();
+          Cursor cursor = withCursor ? new Cursor(start, total, size) : null;
+          return Mono.delay(Duration.ofMillis(Math.max(1, 60 - start / 5)))
+              .thenReturn(new Page<>(rows, cursor))
+              .doFinally(signal -> inFlight.decrementAndGet());
+        });
+  }
+
+  private static List<Integer> all(Flux<List<Integer>> pages) {
+    return pages.collectList().block(Duration.ofSeconds(5)).stream().flatMap(List::stream).toList();
+  }
+}
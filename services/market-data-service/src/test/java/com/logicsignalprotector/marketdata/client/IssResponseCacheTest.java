@@ -0,0 +1,83 @@
+package com.logicsignalprotector.marketdata.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.logicsignalprotector.marketdata.config.CachePolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class IssResponseCacheTest {
+
+  private static final CachePolicy MINUTE = new CachePolicy(Duration.ofMinutes(1), Duration.ZERO);
+  // Fresh for 50ms, then served stale for a minute while it reloads.
+  private static final CachePolicy SWR =
+      new CachePolicy(Duration.ofMillis(50), Duration.ofMinutes(1));
+
+  private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+  private final IssResponseCache cache = new IssResponseCache(100, meters);
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  void concurrentIdenticalGetsShareOneLoad() {
+    Sinks.One<String> iss = Sinks.one();
+    List<Mono<String>> callers = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      callers.add(cache.get("quote", "k", MINUTE, () -> load(iss.asMono())));
+    }
+
+    iss.tryEmitValue("v1");
+
+    for (Mono<String> caller : callers) {
+      assertThat(caller.block(Duration.ofSeconds(1))).isEqualTo("v1");
+    }
+    assertThat(loads).hasValue(1);
+    assertThat(count("miss")).isEqualTo(1);
+    assertThat(count("coalesced")).isEqualTo(4);
+  }
+
+  @Test
+  void staleEntryIsServedWhileOneRefreshRuns() throws InterruptedException {
+    cache.get("quote", "k", SWR, () -> load(Mono.just("v1"))).block();
+    Thread.sleep(100);
+
+    Sinks.One<String> iss = Sinks.one();
+    assertThat(cache.get("quote", "k", SWR, () -> load(iss.asMono())).block()).isEqualTo("v1");
+    assertThat(cache.get("quote", "k", SWR, () -> load(iss.asMono())).block()).isEqualTo("v1");
+    assertThat(loads).hasValue(2);
+    assertThat(count("stale")).isEqualTo(2);
+
+    iss.tryEmitValue("v2");
+
+    assertThat(cache.get("quote", "k", SWR, () -> load(Mono.just("v3"))).block()).isEqualTo("v2");
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void failedRefreshKeepsTheOldValueAndIsRetried() throws InterruptedException {
+    cache.get("quote", "k", SWR, () -> load(Mono.just("v1"))).block();
+    Thread.sleep(100);
+
+    Mono<String> down = Mono.error(new IssUnavailableException("ISS is down"));
+    assertThat(cache.get("quote", "k", SWR, () -> load(down)).block()).isEqualTo("v1");
+    assertThat(cache.<String>getIfPresent("k")).contains("v1");
+
+    assertThat(cache.get("quote", "k", SWR, () -> load(Mono.just("v2"))).block()).isEqualTo("v1");
+    assertThat(loads).hasValue(3);
+    assertThat(cache.<String>getIfPresent("k")).contains("v2");
+  }
+
+  private Mono<String> load(Mono<String> response) {
+    loads.incrementAndGet();
+    return response;
+  }
+
+  private double count(String result) {
+    return meters.counter(IssResponseCache.METRIC, "kind", "quote", "result", result).count();
+  }
+}
@@ -0,0 +1,133 @@
+package com.logicsignalprotector.marketdata.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.logicsignalprotector.marketdata.dto.CandleDto;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Tree ({@code JsonNode}) vs streaming ({@link IssTableReader}) parsing of an ISS candles payload.
+ * {@code streaming} parses into the columnar {@link CandleSeries}; {@code streamingToDtos} adds the
+ * REST-edge conversion.
+ *
+ * <p>Run from the IDE via {@link #main} or with {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IssTableReaderBenchmark {
+  private static final DateTimeFormatter ISS_DATE_TIME =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss", Locale.ROOT);
+
+  @Param({"500", "5000"})
+  int rows;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private byte[] body;
+
+  @Setup
+  public void setUp() {
+    StringBuilder sb =
+        new StringBuilder(
+            "{\"candles\":{\"metadata\":{},"
+                + "\"columns\":[\"open\",\"close\",\"high\",\"low\",\"value\",\"volume\","
+                + "\"begin\",\"end\"],\"data\":[");
+    LocalDateTime begin = LocalDateTime.of(2024, 1, 3, 10, 0);
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      double open = 270 + (i % 97) * 0.01;
+      sb.append('[')
+          .append(open)
+          .append(',')
+          .append(open + 0.05)
+          .append(',')
+          .append(open + 0.1)
+          .append(',')
+          .append(open - 0.1)
+          .append(',')
+          .append(1_234_567.5 + i)
+          .append(',')
+          .append(4_500 + i)
+          .append(",\"")
+          .append(ISS_DATE_TIME.format(begin.plusMinutes(i)))
+          .append("\",\"")
+          .append(ISS_DATE_TIME.format(begin.plusMinutes(i).plusSeconds(59)))
+          .append("\"]");
+    }
+    sb.append("]}}");
+    body = sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public CandleSeries streaming() {
+    return MoexClient.parseCandles(body);
+  }
+
+  @Benchmark
+  public List<CandleDto> streamingToDtos() {
+    return MoexClient.parseCandles(body).toDtos();
+  }
+
+  @Benchmark
+  public List<CandleDto> tree() throws IOException {
+    JsonNode section = mapper.readTree(body).get("candles");
+    Map<String, Integer> idx = new HashMap<>();
+    JsonNode columns = section.get("columns");
+    for (int i = 0; i < columns.size(); i++) {
+      idx.put(columns.get(i).asText(), i);
+    }
+    List<JsonNode> data = new ArrayList<>();
+    section.get("data").forEach(data::add);
+    List<CandleDto> out = new ArrayList<>(data.size());
+    for (JsonNode row : data) {
+      out.add(
+          new CandleDto(
+              LocalDateTime.parse(row.get(idx.get("begin")).asText(), ISS_DATE_TIME)
+                  .atOffset(ZoneOffset.UTC),
+              LocalDateTime.parse(row.get(idx.get("end")).asText(), ISS_DATE_TIME)
+                  .atOffset(ZoneOffset.UTC),
+              new BigDecimal(row.get(idx.get("open")).asText()),
+              new BigDecimal(row.get(idx.get("close")).asText()),
+              new BigDecimal(row.get(idx.get("high")).asText()),
+              new BigDecimal(row.get(idx.get("low")).asText()),
+              new BigDecimal(row.get(idx.get("volume")).asText())));
+    }
+    return out;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(IssTableReaderBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,186 @@
+package com.logicsignalprotector.marketdata.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.logicsignalprotector.marketdata.client.IssTableReader.Cursor;
+import com.logicsignalprotector.marketdata.client.IssTableReader.Page;
+import com.logicsignalprotector.marketdata.client.IssTableReader.Plan;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class IssTableReaderTest {
+
+  private static final Plan PLAN = Plan.of("marketdata", "SECID", "LAST", "VOLTODAY", "SYSTIME");
+
+  private static byte[] json(String s) {
+    return s.replace('\'', '"').getBytes(StandardCharsets.UTF_8);
+  }
+
+  private record Quote(String secId, BigDecimal last, Long volume, OffsetDateTime time) {}
+
+  private static Quote quote(IssTableReader.Row row) {
+    return new Quote(row.text(0), row.decimal(1), row.longValue(2), row.dateTime(3));
+  }
+
+  @Test
+  void mapsColumnsByNameWhateverTheirOrder() {
+    byte[] body =
+        json(
+            "{'marketdata':{'metadata':{'SECID':{'type':'string'}},"
+                + "'columns':['SYSTIME','BOARDID','LAST','SECID','VOLTODAY'],"
+                + "'data':[['2024-01-03 10:00:00','TQBR',271.5,'SBER',1200],"
+                + "['2024-01-03 10:00:01','TQBR',160.02,'GAZP',7]]}}");
+
+    List<Quote> rows = IssTableReader.read(body, PLAN, IssTableReaderTest::quote);
+
+    assertThat(rows)
+        .containsExactly(
+            new Quote(
+                "SBER",
+                new BigDecimal("271.5"),
+                1200L,
+                OffsetDateTime.of(2024, 1, 3, 10, 0, 0, 0, ZoneOffset.UTC)),
+            new Quote(
+                "GAZP",
+                new BigDecimal("160.02"),
+                7L,
+                OffsetDateTime.of(2024, 1, 3, 10, 0, 1, 0, ZoneOffset.UTC)));
+  }
+
+  @Test
+  void nullsBlanksAndMissingColumnsReadAsNull() {
+    byte[] body =
+        json(
+            "{'marketdata':{'columns':['SECID','LAST','SYSTIME'],"
+                + "'data':[['SBER',null,''],['GAZP',' ',null]]}}");
+
+    List<Quote> rows = IssTableReader.read(body, PLAN, IssTableReaderTest::quote);
+
+    assertThat(rows)
+        .containsExactly(new Quote("SBER", null, null, null), new Quote("GAZP", null, null, null));
+  }
+
+  @Test
+  void rowIsClearedBetweenRows() {
+    byte[] body =
+        json("{'marketdata':{'columns':['SECID','LAST'],'data':[['SBER',271.5],['GAZP',null]]}}");
+
+    List<Quote> rows = IssTableReader.read(body, PLAN, IssTableReaderTest::quote);
+
+    assertThat(rows.get(1).last()).isNull();
+  }
+
+  @Test
+  void skipsNestedValuesAndCellsBeyondTheColumns() {
+    byte[] body =
+        json(
+            "{'marketdata':{'columns':['SECID','LAST'],"
+                + "'data':[[{'x':[1,2]},12.5,'extra'],[['a'],1]]}}");
+
+    List<Quote> rows = IssTableReader.read(body, PLAN, IssTableReaderTest::quote);
+
+    assertThat(rows)
+        .containsExactly(
+            new Quote(null, new BigDecimal("12.5"), null, null),
+            new Quote(null, BigDecimal.ONE, null, null));
+  }
+
+  @Test
+  void readsOnlyThePlannedSectionAndItsCursor() {
+    byte[] body =
+        json(
+            "{'history':{'columns':['SECID'],'data':[['OTHER']]},"
+                + "'trades':{'columns':['SECID'],'data':[['SBER'],['GAZP']]},"
+                + "'trades.cursor':{'columns':['INDEX','TOTAL','PAGESIZE'],'data':[[100,2500,100]]}}");
+
+    Page<List<String>> page =
+        IssTableReader.readPage(body, Plan.of("trades", "SECID"), row -> row.text(0));
+
+    assertThat(page.rows()).containsExactly("SBER", "GAZP");
+    assertThat(page.cursor()).isEqualTo(new Cursor(100, 2500, 100));
+  }
+
+  @Test
+  void cursorColumnsAreMatchedByName() {
+    byte[] body =
+        json(
+            "{'trades.cursor':{'columns':['PAGESIZE','INDEX','TOTAL'],'data':[[5000,0,12]]},"
+                + "'trades':{'columns':['SECID'],'data':[]}}");
+
+    Page<List<String>> page =
+        IssTableReader.readPage(body, Plan.of("trades", "SECID"), row -> row.text(0));
+
+    assertThat(page.rows()).isEmpty();
+    assertThat(page.cursor()).isEqualTo(new Cursor(0, 12, 5000));
+  }
+
+  @Test
+  void noCursorSectionMeansNullCursor() {
+    byte[] body = json("{'trades':{'columns':['SECID'],'data':[['SBER']]}}");
+
+    assertThat(IssTableReader.readPage(body, Plan.of("trades", "SECID"), r -> r.text(0)).cursor())
+        .isNull();
+  }
+
+  @Test
+  void rejectsMissingSectionAndDataBeforeColumns() {
+    assertThatThrownBy(
+            () -> IssTableReader.read(json("{'other':{}}"), PLAN, IssTableReaderTest::quote))
+        .isInstanceOf(MoexClientException.class)
+        .hasMessageContaining("missing section marketdata");
+    assertThatThrownBy(
+            () ->
+                IssTableReader.read(
+                    json("{'marketdata':{'data':[['SBER']],'columns':['SECID']}}"),
+                    PLAN,
+                    IssTableReaderTest::quote))
+        .isInstanceOf(MoexClientException.class)
+        .hasMessageContaining("invalid columns");
+    assertThatThrownBy(() -> IssTableReader.read(json("[1]"), PLAN, IssTableReaderTest::quote))
+        .isInstanceOf(MoexClientException.class);
+  }
+
+  @Test
+  void fixedPointAccessors() {
+    byte[] body =
+        json(
+            "{'candles':{'columns':['OPEN','BEGIN'],"
+                + "'data':[['271.50','2024-01-03 10:00:00'],[-3,null],['1e2','2024-01-03T10:00:00+03:00']]}}");
+    Plan plan = Plan.of("candles", "OPEN", "BEGIN");
+    List<long[]> out = new ArrayList<>();
+
+    IssTableReader.readInto(
+        body, plan, row -> out.add(new long[] {row.scale(0), row.fixed(0, 2), row.epochMillis(1)}));
+
+    long begin = OffsetDateTime.of(2024, 1, 3, 10, 0, 0, 0, ZoneOffset.UTC).toEpochSecond() * 1000;
+    assertThat(out.get(0)).containsExactly(1, 27_150, begin);
+    assertThat(out.get(1)).containsExactly(0, -300, CandleSeries.NULL);
+    assertThat(out.get(2)).containsExactly(0, 10_000, begin - 3 * 3_600_000);
+  }
+
+  @Test
+  void fixedRejectsValuesThatDoNotFitTheScale() {
+    byte[] body = json("{'candles':{'columns':['OPEN'],'data':[['1.234']]}}");
+
+    assertThatThrownBy(
+            () -> IssTableReader.readInto(body, Plan.of("candles", "OPEN"), row -> row.fixed(0, 2)))
+        .isInstanceOf(MoexClientException.class);
+  }
+
+  @Test
+  void longValueHandlesSignsAndDecimals() {
+    byte[] body = json("{'t':{'columns':['N'],'data':[[-42],['7.0']]}}");
+    List<Long> out = new ArrayList<>();
+
+    IssTableReader.readInto(body, Plan.of("t", "N"), row -> out.add(row.longValue(0)));
+
+    assertThat(out).containsExactly(-42L, 7L);
+  }
+}
@@ -0,0 +1,103 @@
+package com.logicsignalprotector.marketdata.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.logicsignalprotector.marketdata.config.MoexProperties;
+import com.logicsignalprotector.marketdata.model.BoardMarketData;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class MoexClientTest {
+
+  private static final String BOARD =
+      "{\"marketdata\":{\"columns\":[\"SECID\",\"BOARDID\",\"LAST\",\"SYSTIME\",\"TRADINGSTATUS\"],"
+          + "\"data\":[[\"SBER\",\"TQBR\",271.5,\"2024-01-03 10:00:00\",\"T\"]]}}";
+
+  private final Deque<Supplier<ClientResponse>> responses = new ArrayDeque<>();
+  private final List<String> ifNoneMatch = new ArrayList<>();
+  private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+  private final MoexClient client =
+      new MoexClient(
+          WebClient.builder()
+              .baseUrl("http://iss.test")
+              .exchangeFunction(
+                  request -> {
+                    ifNoneMatch.add(request.headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+                    return Mono.just(responses.removeFirst().get());
+                  })
+              .build(),
+          new MoexProperties(
+              "http://iss.test",
+              Duration.ofSeconds(2),
+              Duration.ofSeconds(30),
+              null,
+              0,
+              null,
+              null,
+              0,
+              0,
+              null),
+          meters,
+          RateLimiterRegistry.ofDefaults(),
+          CircuitBreakerRegistry.ofDefaults(),
+          Schedulers.boundedElastic());
+
+  @Test
+  void boardReadRevalidatesWithTheStoredEtag() {
+    responses.add(() -> json(BOARD, "\"e1\""));
+    responses.add(() -> ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+
+    BoardMarketData first = client.loadBoardMarketData("stock", "shares", "TQBR");
+    BoardMarketData second = client.loadBoardMarketData("stock", "shares", "TQBR");
+
+    assertThat(second).isEqualTo(first);
+    assertThat(first.quotes().get("SBER").lastPrice())
+        .isEqualByComparingTo(new BigDecimal("271.5"));
+    assertThat(ifNoneMatch).containsExactly(null, "\"e1\"");
+    assertThat(meters.counter("moex.iss.responses", "result", "not-modified").count()).isEqualTo(1);
+  }
+
+  @Test
+  void unavailableIssServesTheLastBoardOnlyToCallersThatFlagStaleness() {
+    responses.add(() -> json(BOARD, null));
+    BoardMarketData good = client.loadBoardMarketData("stock", "shares", "TQBR");
+
+    responses.add(() -> ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+    StaleReads.Tracked<BoardMarketData> tracked =
+        StaleReads.track(() -> client.loadBoardMarketData("stock", "shares", "TQBR"));
+    assertThat(tracked.value()).isEqualTo(good);
+    assertThat(tracked.stale()).isTrue();
+
+    responses.add(() -> ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+    assertThatThrownBy(() -> client.loadBoardMarketData("stock", "shares", "TQBR"))
+        .isInstanceOf(IssUnavailableException.class);
+  }
+
+  private static ClientResponse json(String body, String etag) {
+    ClientResponse.Builder response =
+        ClientResponse.create(HttpStatus.OK)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .body(body);
+    if (etag != null) {
+      response.header(HttpHeaders.ETAG, etag);
+    }
+    return response.build();
+  }
+}
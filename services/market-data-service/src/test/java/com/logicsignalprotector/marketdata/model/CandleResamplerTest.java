@@ -0,0 +1,129 @@
+package com.logicsignalprotector.marketdata.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class CandleResamplerTest {
+
+  private static final LocalDate WEDNESDAY = LocalDate.of(2024, 1, 3);
+
+  /** ISS times are exchange-local; like the reader, read them as if they were UTC. */
+  private static long millis(LocalDateTime time) {
+    return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+  }
+
+  /** Hourly bars of the session 10:00..18:59, bar h: open 100+h, close 101+h, volume h. */
+  private static CandleSeries sessionHours(int fromHour, int toHour) {
+    CandleSeries.Builder series = CandleSeries.builder(0);
+    for (int h = fromHour; h <= toHour; h++) {
+      long begin = millis(WEDNESDAY.atTime(h, 0));
+      series.add(begin, begin + 3_599_000, 0, 100 + h, 101 + h, 105 + h, 95 + h, 0, h);
+    }
+    return series.build();
+  }
+
+  @Test
+  void fourHourBucketsAlignToMidnightNotToTheSessionStart() {
+    CandleSeries bars = CandleResampler.resample(sessionHours(10, 18), 240);
+
+    assertThat(bars.size()).isEqualTo(3);
+    // 08:00 bucket holds only the first two session hours.
+    assertBar(
+        bars, 0, WEDNESDAY.atTime(8, 0), WEDNESDAY.atTime(11, 59, 59), 110, 112, 116, 105, 21);
+    assertBar(
+        bars, 1, WEDNESDAY.atTime(12, 0), WEDNESDAY.atTime(15, 59, 59), 112, 116, 120, 107, 54);
+    // Partial last bucket: ends with the last base bar, not at 19:59:59.
+    assertBar(
+        bars, 2, WEDNESDAY.atTime(16, 0), WEDNESDAY.atTime(18, 59, 59), 116, 119, 123, 111, 51);
+  }
+
+  @Test
+  void weeksStartOnMonday() {
+    assertThat(
+            CandleResampler.bucketStart(
+                millis(LocalDateTime.of(2024, 1, 7, 23, 0)), CandleResampler.WEEK))
+        .isEqualTo(millis(LocalDateTime.of(2024, 1, 1, 0, 0)));
+    assertThat(
+            CandleResampler.bucketStart(
+                millis(LocalDateTime.of(2024, 1, 8, 0, 0)), CandleResampler.WEEK))
+        .isEqualTo(millis(LocalDateTime.of(2024, 1, 8, 0, 0)));
+    // Before the 1970-01-05 anchor as well.
+    assertThat(
+            CandleResampler.bucketStart(
+                millis(LocalDateTime.of(1970, 1, 1, 0, 0)), CandleResampler.WEEK))
+        .isEqualTo(millis(LocalDateTime.of(1969, 12, 29, 0, 0)));
+  }
+
+  @Test
+  void dailyBarsFormMondayWeeksWithAPartialLastWeek() {
+    CandleSeries.Builder days = CandleSeries.builder(0);
+    int[] dates = {5, 8, 9, 10}; // Fri, then Mon..Wed of the next week
+    for (int i = 0; i < dates.length; i++) {
+      long begin = millis(LocalDateTime.of(2024, 1, dates[i], 0, 0));
+      days.add(begin, begin + 86_399_000, 0, 10 + i, 11 + i, 20 + i, 5 + i, 0, 100);
+    }
+
+    CandleSeries weeks = CandleResampler.resample(days.build(), CandleResampler.WEEK);
+
+    assertThat(weeks.size()).isEqualTo(2);
+    assertBar(
+        weeks,
+        0,
+        LocalDateTime.of(2024, 1, 1, 0, 0),
+        LocalDateTime.of(2024, 1, 5, 23, 59, 59),
+        10,
+        11,
+        20,
+        5,
+        100);
+    assertBar(
+        weeks,
+        1,
+        LocalDateTime.of(2024, 1, 8, 0, 0),
+        LocalDateTime.of(2024, 1, 10, 23, 59, 59),
+        11,
+        14,
+        23,
+        6,
+        300);
+  }
+
+  @Test
+  void tailResamplesOnlyTheLastBuckets() {
+    CandleSeries base = sessionHours(10, 18);
+
+    CandleSeries tail = CandleResampler.resampleTail(base, 240, 2);
+
+    assertThat(tail.toDtos()).isEqualTo(CandleResampler.resample(base, 240).tail(2).toDtos());
+    assertThat(CandleResampler.resampleTail(base, 240, 10).size()).isEqualTo(3);
+  }
+
+  @Test
+  void nativeIntervalsAndBases() {
+    assertThat(CandleResampler.baseInterval(240)).isEqualTo(60);
+    assertThat(CandleResampler.baseInterval(15)).isEqualTo(1);
+    assertThat(CandleResampler.baseInterval(CandleResampler.WEEK)).isEqualTo(CandleResampler.DAY);
+    assertThat(CandleResampler.supported(7)).isFalse();
+    assertThat(CandleResampler.isNative(10)).isTrue();
+  }
+
+  private static void assertBar(
+      CandleSeries bars,
+      int i,
+      LocalDateTime begin,
+      LocalDateTime end,
+      long open,
+      long close,
+      long high,
+      long low,
+      long volume) {
+    assertThat(bars.begin(i)).isEqualTo(millis(begin));
+    assertThat(bars.end(i)).isEqualTo(millis(end));
+    assertThat(new long[] {bars.open(i), bars.close(i), bars.high(i), bars.low(i), bars.volume(i)})
+        .containsExactly(open, close, high, low, volume);
+  }
+}
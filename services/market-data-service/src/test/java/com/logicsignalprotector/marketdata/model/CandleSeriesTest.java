@@ -0,0 +1,88 @@
+package com.logicsignalprotector.marketdata.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.logicsignalprotector.marketdata.dto.CandleDto;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CandleSeriesTest {
+
+  private static final OffsetDateTime T0 =
+      OffsetDateTime.of(2024, 3, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+  private static CandleDto candle(int minute, String open, String close, String volume) {
+    return new CandleDto(
+        T0.plusMinutes(minute),
+        T0.plusMinutes(minute).plusSeconds(59),
+        new BigDecimal(open),
+        new BigDecimal(close),
+        new BigDecimal(open).max(new BigDecimal(close)),
+        new BigDecimal(open).min(new BigDecimal(close)),
+        volume == null ? null : new BigDecimal(volume));
+  }
+
+  @Test
+  void builderRescalesEarlierBarsWhenAWiderScaleArrives() {
+    CandleSeries series =
+        CandleSeries.builder(1)
+            .add(0, 59_000, 1, 2505, 2510, 2510, 2500, 0, 10)
+            .add(60_000, 119_000, 3, 250_125, 250_500, 250_500, 250_125, 2, 1_050)
+            .add(120_000, 179_000, 0, 251, 252, 252, 251, 0, 3)
+            .build();
+
+    assertThat(series.priceScale()).isEqualTo(3);
+    assertThat(series.volumeScale()).isEqualTo(2);
+    assertThat(series.open(0)).isEqualTo(250_500);
+    assertThat(series.close(1)).isEqualTo(250_500);
+    assertThat(series.open(2)).isEqualTo(251_000);
+    assertThat(series.volume(0)).isEqualTo(1_000);
+    assertThat(series.volume(2)).isEqualTo(300);
+  }
+
+  @Test
+  void rescaleKeepsMissingValues() {
+    CandleSeries series =
+        CandleSeries.builder(2)
+            .add(0, 59_000, 0, CandleSeries.NULL, 5, 5, 5, 0, CandleSeries.NULL)
+            .add(60_000, 119_000, 2, 501, 502, 502, 501, 1, 15)
+            .build();
+
+    assertThat(series.open(0)).isEqualTo(CandleSeries.NULL);
+    assertThat(series.close(0)).isEqualTo(500);
+    assertThat(series.volume(0)).isEqualTo(CandleSeries.NULL);
+    assertThat(series.toDto(0).open()).isNull();
+  }
+
+  @Test
+  void dtosKeepEachValuesOwnScale() {
+    List<CandleDto> candles =
+        List.of(candle(0, "250.5", "250", "100"), candle(1, "250.55", "251.1", "2.5"));
+
+    CandleSeries series = CandleSeries.of(candles);
+
+    assertThat(series.priceScale()).isEqualTo(2);
+    assertThat(series.toDtos()).isEqualTo(candles);
+    assertThat(series.toDto(0).close().toPlainString()).isEqualTo("250");
+  }
+
+  @Test
+  void concatMergesScalesAndRangeSelectsByBegin() {
+    CandleSeries first = CandleSeries.of(List.of(candle(0, "10", "11", "1")));
+    CandleSeries second =
+        CandleSeries.of(List.of(candle(1, "11.25", "11.5", "2"), candle(2, "11.5", "12", "3")));
+
+    CandleSeries all = CandleSeries.concat(List.of(first, CandleSeries.empty(), second));
+
+    assertThat(all.size()).isEqualTo(3);
+    assertThat(all.priceScale()).isEqualTo(2);
+    assertThat(all.open(0)).isEqualTo(1_000);
+    assertThat(all.range(CandleSeries.millis(T0.plusMinutes(1)), Long.MAX_VALUE).toDtos())
+        .isEqualTo(second.toDtos());
+    assertThat(all.range(0, CandleSeries.millis(T0) - 1).isEmpty()).isTrue();
+    assertThat(all.tail(2).toDtos()).isEqualTo(second.toDtos());
+  }
+}
@@ -0,0 +1,111 @@
+package com.logicsignalprotector.marketdata.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class IndicatorStateTest {
+
+  private static final double NAN = Double.NaN;
+
+  /** Runs closes through the state and returns its columns. */
+  private static double[][] run(IndicatorState state, int columns, double... closes) {
+    double[][] out = new double[columns][closes.length];
+    for (int i = 0; i < closes.length; i++) {
+      state.update(NAN, NAN, closes[i], out, i);
+    }
+    return out;
+  }
+
+  private static void assertSeries(double[] actual, double... expected) {
+    assertThat(actual).hasSize(expected.length);
+    for (int i = 0; i < expected.length; i++) {
+      if (Double.isNaN(expected[i])) {
+        assertThat(actual[i]).as("bar %d", i).isNaN();
+      } else {
+        assertThat(actual[i]).as("bar %d", i).isCloseTo(expected[i], within(1e-9));
+      }
+    }
+  }
+
+  @Test
+  void smaAveragesTheLastPeriodCloses() {
+    assertSeries(run(IndicatorState.sma(3), 1, 1, 2, 3, 4, 8)[0], NAN, NAN, 2, 3, 5);
+  }
+
+  @Test
+  void smaSkipsBarsWithoutClose() {
+    assertSeries(run(IndicatorState.sma(2), 1, 1, NAN, 3, 5)[0], NAN, NAN, 2, 4);
+  }
+
+  @Test
+  void emaIsSeededWithTheSimpleAverage() {
+    // alpha = 2 / (3 + 1) = 0.5; seed = (2 + 4 + 6) / 3.
+    assertSeries(run(IndicatorState.ema(3), 1, 2, 4, 6, 8, 4)[0], NAN, NAN, 4, 6, 5);
+  }
+
+  @Test
+  void rsiUsesWilderSmoothing() {
+    // Changes +1, -0.5, +1, -0.5. Averages after two changes: gain 0.5, loss 0.25 -> RS 2;
+    // then gain (0.5 + 1) / 2 = 0.75, loss 0.25 / 2 = 0.125 -> RS 6;
+    // then gain 0.375, loss (0.125 + 0.5) / 2 = 0.3125 -> RS 1.2.
+    assertSeries(
+        run(IndicatorState.rsi(2), 1, 10, 11, 10.5, 11.5, 11)[0],
+        NAN,
+        NAN,
+        100 - 100 / 3.0,
+        100 - 100 / 7.0,
+        100 - 100 / 2.2);
+  }
+
+  @Test
+  void rsiWithoutLossesIs100AndFlatIs50() {
+    assertSeries(run(IndicatorState.rsi(2), 1, 1, 2, 3, 4)[0], NAN, NAN, 100, 100);
+    assertSeries(run(IndicatorState.rsi(2), 1, 5, 5, 5)[0], NAN, NAN, 50);
+  }
+
+  @Test
+  void atrUsesTrueRangeAndWilderSmoothing() {
+    IndicatorState atr = IndicatorState.atr(2);
+    double[][] bars = {{10, 8, 9}, {11, 9, 10}, {13, 10, 12}, {12, 11, 11.5}, {15, 14, 14.5}};
+    double[][] out = new double[1][bars.length];
+    for (int i = 0; i < bars.length; i++) {
+      atr.update(bars[i][0], bars[i][1], bars[i][2], out, i);
+    }
+
+    // True ranges 2, 2, 3, 1, 3.5 (the last one from the gap above the previous close).
+    assertSeries(out[0], NAN, 2, 2.5, 1.75, 2.625);
+  }
+
+  @Test
+  void bollingerBandsUsePopulationDeviation() {
+    double[][] out = run(IndicatorState.bollinger(3, 2), 3, 1, 2, 3, 5);
+    double first = Math.sqrt(2.0 / 3);
+    double second = Math.sqrt(14.0 / 9);
+
+    assertSeries(out[0], NAN, NAN, 2, 10.0 / 3);
+    assertSeries(out[1], NAN, NAN, 2 + 2 * first, 10.0 / 3 + 2 * second);
+    assertSeries(out[2], NAN, NAN, 2 - 2 * first, 10.0 / 3 - 2 * second);
+  }
+
+  @Test
+  void copyContinuesFromTheSameBar() {
+    IndicatorState original = IndicatorState.rsi(3);
+    double[][] out = new double[1][8];
+    double[] closes = {10, 11, 10.5, 12, 11, 11.5, 13, 12};
+    for (int i = 0; i < 4; i++) {
+      original.update(NAN, NAN, closes[i], out, i);
+    }
+    IndicatorState copy = original.copy();
+    double[][] copied = new double[1][8];
+    for (int i = 4; i < closes.length; i++) {
+      original.update(NAN, NAN, closes[i], out, i);
+      copy.update(NAN, NAN, closes[i], copied, i);
+    }
+
+    for (int i = 4; i < closes.length; i++) {
+      assertThat(copied[0][i]).isEqualTo(out[0][i]);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.logicsignalprotector.marketdata.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.logicsignalprotector.marketdata.dto.InstrumentDto;
+import com.logicsignalprotector.marketdata.model.InstrumentIndex.Candidate;
+import com.logicsignalprotector.marketdata.model.InstrumentIndex.Match;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class InstrumentIndexTest {
+
+  private static final InstrumentIndex INDEX =
+      InstrumentIndex.of(
+          List.of(
+              instrument("SBERP", "Сбербанк-п", "Сбербанк России ПАО ап"),
+              instrument("SBER", "Сбербанк", "Сбербанк России ПАО ао"),
+              instrument("YDEX", "Яндекс", "МКПАО Яндекс"),
+              instrument("GAZP", "ГАЗПРОМ ао", "Газпром ПАО"),
+              instrument("AFLT", "Аэрофлот", "Аэрофлот-росс.авиалин(ПАО)ао"),
+              instrument("MOEX", "МосБиржа", "ПАО Московская Биржа")));
+
+  private static InstrumentDto instrument(String secId, String shortName, String name) {
+    return new InstrumentDto(secId, shortName, name, 1, null, null, "RUB", "TQBR");
+  }
+
+  @Test
+  void exactSecIdRanksBeforePrefix() {
+    assertThat(INDEX.search("sber")).containsExactly(1, 0);
+    assertThat(INDEX.search("SBERP")).containsExactly(0);
+  }
+
+  @Test
+  void wordPrefixRanksBeforeInnerMatchAndTiesKeepBoardOrder() {
+    // "МКПАО" only contains the query; every other name has ПАО as a word.
+    assertThat(INDEX.search("пао")).containsExactly(0, 1, 3, 4, 5, 2);
+  }
+
+  @Test
+  void longQueryIsVerifiedAfterTrigramIntersection() {
+    assertThat(INDEX.search("Газпром")).containsExactly(3);
+    assertThat(INDEX.search("россии пао ао")).containsExactly(1);
+    assertThat(INDEX.search("бербанк р")).containsExactly(0, 1);
+  }
+
+  @Test
+  void blankQueryMatchesAllAndUnknownMatchesNothing() {
+    assertThat(INDEX.search("  ")).containsExactly(0, 1, 2, 3, 4, 5);
+    assertThat(INDEX.search("xyz")).isEmpty();
+    assertThat(INDEX.search("сбербанкк")).isEmpty();
+  }
+
+  @Test
+  void resolveComparesInLatinSpelling() {
+    assertThat(INDEX.resolve("сбер", 2))
+        .containsExactly(new Candidate(1, 1.0, Match.EXACT), new Candidate(0, 0.89, Match.PREFIX));
+    assertThat(INDEX.resolve("яндекс", 1)).containsExactly(new Candidate(2, 0.8, Match.NAME));
+    assertThat(INDEX.resolve("yandex", 1)).containsExactly(new Candidate(2, 0.8, Match.NAME));
+  }
+
+  @Test
+  void resolveTriesTheOtherLayoutWithPenalty() {
+    assertThat(INDEX.resolve("ЫИУК", 1)).containsExactly(new Candidate(1, 0.9, Match.EXACT));
+  }
+
+  @Test
+  void resolveAcceptsSmallTypos() {
+    List<Candidate> hits = INDEX.resolve("sbre", 1);
+
+    assertThat(hits).hasSize(1);
+    assertThat(hits.get(0).position()).isEqualTo(1);
+    assertThat(hits.get(0).match()).isEqualTo(Match.FUZZY);
+    assertThat(INDEX.resolve("sb", 5)).extracting(Candidate::position).containsExactly(1, 0, 5);
+    assertThat(INDEX.resolve("   ", 5)).isEmpty();
+  }
+
+  @Test
+  void distanceCountsAdjacentSwapAsOneEdit() {
+    assertThat(InstrumentIndex.distance("sber", "sbre", 2)).isEqualTo(1);
+    assertThat(InstrumentIndex.distance("kitten", "sitting", 5)).isEqualTo(3);
+    assertThat(InstrumentIndex.distance("abc", "abcdef", 1)).isEqualTo(2);
+    assertThat(InstrumentIndex.distance("abcd", "dcba", 2)).isEqualTo(3);
+  }
+
+  @Test
+  void foldLowersAndCollapsesSeparators() {
+    assertThat(InstrumentIndex.fold("  Сбербанк-п, ПАО  ")).isEqualTo("сбербанк п пао");
+    assertThat(InstrumentIndex.fold("Ёлка")).isEqualTo("елка");
+    assertThat(InstrumentIndex.fold(null)).isEmpty();
+  }
+}
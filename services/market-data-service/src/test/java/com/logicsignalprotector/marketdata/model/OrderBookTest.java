@@ -0,0 +1,88 @@
+package com.logicsignalprotector.marketdata.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.logicsignalprotector.marketdata.dto.OrderBookDto;
+import com.logicsignalprotector.marketdata.dto.OrderBookEntryDto;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class OrderBookTest {
+
+  private static List<String> prices(List<OrderBookEntryDto> entries) {
+    return entries.stream().map(e -> e.price().toPlainString()).toList();
+  }
+
+  @Test
+  void levelsInIssOrderComeOutBestFirst() {
+    // ISS lists the whole book by descending price: asks first, then bids.
+    OrderBook book =
+        OrderBook.builder()
+            .ask(2, 25_030, 0, 5)
+            .ask(2, 25_020, 0, 7)
+            .ask(2, 25_010, 0, 9)
+            .bid(2, 25_000, 0, 4)
+            .bid(2, 24_990, 0, 3)
+            .build();
+
+    OrderBookDto dto = book.toDto("SBER", "TQBR", null);
+
+    assertThat(prices(dto.asks())).containsExactly("250.10", "250.20", "250.30");
+    assertThat(prices(dto.bids())).containsExactly("250.00", "249.90");
+    assertThat(book.asks().quantity(0)).isEqualTo(9);
+    assertThat(book.bids().price(0)).isEqualTo(25_000);
+  }
+
+  @Test
+  void levelsInAnyOrderAreSortedAndRepeatedPriceKeepsLastQuantity() {
+    OrderBook book =
+        OrderBook.builder()
+            .bid(0, 99, 0, 1)
+            .bid(0, 101, 0, 2)
+            .bid(0, 100, 0, 3)
+            .bid(0, 101, 0, 5)
+            .ask(0, 103, 0, 1)
+            .ask(0, 102, 0, 0)
+            .build();
+
+    assertThat(book.bids().size()).isEqualTo(3);
+    assertThat(book.bids().price(0)).isEqualTo(101);
+    assertThat(book.bids().quantity(0)).isEqualTo(5);
+    assertThat(book.bids().price(2)).isEqualTo(99);
+    // Empty levels are dropped.
+    assertThat(book.asks().size()).isEqualTo(1);
+    assertThat(book.asks().price(0)).isEqualTo(103);
+  }
+
+  @Test
+  void widerScaleRescalesEarlierLevels() {
+    OrderBook book = OrderBook.builder().bid(1, 2_505, 0, 10).ask(3, 250_525, 1, 15).build();
+
+    assertThat(book.priceScale()).isEqualTo(3);
+    assertThat(book.quantityScale()).isEqualTo(1);
+    assertThat(book.bids().price(0)).isEqualTo(250_500);
+    assertThat(book.bids().quantity(0)).isEqualTo(100);
+    assertThat(book.toDto("SBER", "TQBR", null).asks().get(0).quantity())
+        .isEqualByComparingTo(new BigDecimal("1.5"));
+  }
+
+  @Test
+  void topIsAViewOfTheBestLevels() {
+    OrderBook book =
+        OrderBook.builder()
+            .bid(0, 100, 0, 1)
+            .bid(0, 99, 0, 1)
+            .bid(0, 98, 0, 1)
+            .ask(0, 101, 0, 1)
+            .build();
+
+    OrderBook top = book.top(2);
+
+    assertThat(top.bids().size()).isEqualTo(2);
+    assertThat(top.bids().price(1)).isEqualTo(99);
+    assertThat(top.asks().size()).isEqualTo(1);
+    assertThat(book.top(5)).isSameAs(book);
+    assertThat(OrderBook.empty().isEmpty()).isTrue();
+  }
+}
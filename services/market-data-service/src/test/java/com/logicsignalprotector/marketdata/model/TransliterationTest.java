@@ -0,0 +1,43 @@
+package com.logicsignalprotector.marketdata.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TransliterationTest {
+
+  @Test
+  void latinSpellsCyrillicLetters() {
+    assertThat(Transliteration.latin("сбербанк")).isEqualTo("sberbank");
+    assertThat(Transliteration.latin("щука 1")).isEqualTo("schuka 1");
+    assertThat(Transliteration.latin("подъезд")).isEqualTo("podezd");
+    assertThat(Transliteration.latin("мьюзик")).isEqualTo("myuzik");
+    assertThat(Transliteration.latin("хэш")).isEqualTo("khesh");
+  }
+
+  @Test
+  void latinSpellsXAsKs() {
+    assertThat(Transliteration.latin("yandex")).isEqualTo(Transliteration.latin("яндекс"));
+    assertThat(Transliteration.latin("moex")).isEqualTo("moeks");
+  }
+
+  @Test
+  void latinReturnsTextWithoutCyrillicAsIs() {
+    String text = "sber 2";
+
+    assertThat(Transliteration.latin(text)).isSameAs(text);
+  }
+
+  @Test
+  void swapLayoutMapsBothWays() {
+    assertThat(Transliteration.swapLayout("sber")).isEqualTo("ыиук");
+    assertThat(Transliteration.swapLayout("ЫИУК")).isEqualTo("sber");
+    assertThat(Transliteration.swapLayout("ghbdtn")).isEqualTo("привет");
+    assertThat(Transliteration.swapLayout("газ1")).isEqualTo("ufp1");
+  }
+
+  @Test
+  void swapLayoutReturnsNullWithoutKeysToSwap() {
+    assertThat(Transliteration.swapLayout("123 -")).isNull();
+  }
+}
@@ -0,0 +1,101 @@
+package com.logicsignalprotector.marketdata.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import com.logicsignalprotector.marketdata.store.CandleSeriesFile.Coverage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CandleSeriesFileTest {
+
+  private static final long HOUR = 3_600_000L;
+
+  @TempDir Path dir;
+
+  private static CandleSeries candles(long fromHour, int count) {
+    CandleSeries.Builder builder = CandleSeries.builder(count);
+    for (int i = 0; i < count; i++) {
+      long hour = fromHour + i;
+      builder.add(
+          hour * HOUR, (hour + 1) * HOUR - 1000, 2, 10_050 + hour, 10_100, 10_200, 10_000, 0, hour);
+    }
+    return builder.build();
+  }
+
+  @Test
+  void missingFileHasNoCoverage() throws IOException {
+    assertThat(new CandleSeriesFile(dir.resolve("none.candles")).coverage()).isNull();
+  }
+
+  @Test
+  void rewriteThenReadRoundTripsEveryValue() throws IOException {
+    CandleSeriesFile file = new CandleSeriesFile(dir.resolve("a/b.candles"));
+    CandleSeries written = candles(10, 5);
+
+    file.rewrite(written, 10 * HOUR, 14 * HOUR);
+    Coverage coverage = file.coverage();
+    CandleSeries read = file.read(coverage, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    assertThat(coverage).isEqualTo(new Coverage(10 * HOUR, 14 * HOUR, 5));
+    assertThat(read.toDtos()).isEqualTo(written.toDtos());
+    assertThat(read.priceScale()).isEqualTo(2);
+  }
+
+  @Test
+  void readReturnsOnlyTheRequestedRange() throws IOException {
+    CandleSeriesFile file = new CandleSeriesFile(dir.resolve("s.candles"));
+    file.rewrite(candles(10, 5), 10 * HOUR, 14 * HOUR);
+    Coverage coverage = file.coverage();
+
+    assertThat(file.read(coverage, 11 * HOUR, 13 * HOUR).toDtos())
+        .isEqualTo(candles(11, 3).toDtos());
+    assertThat(file.read(coverage, 11 * HOUR + 1, 12 * HOUR - 1).size()).isZero();
+    assertThat(file.read(coverage, 20 * HOUR, 30 * HOUR).size()).isZero();
+  }
+
+  @Test
+  void appendExtendsRecordsAndCoverage() throws IOException {
+    CandleSeriesFile file = new CandleSeriesFile(dir.resolve("s.candles"));
+    file.rewrite(candles(10, 2), 10 * HOUR, 11 * HOUR);
+
+    file.append(file.coverage(), candles(12, 3), 15 * HOUR);
+    Coverage coverage = file.coverage();
+
+    assertThat(coverage).isEqualTo(new Coverage(10 * HOUR, 15 * HOUR, 5));
+    assertThat(file.read(coverage, 0, Long.MAX_VALUE).toDtos()).isEqualTo(candles(10, 5).toDtos());
+  }
+
+  @Test
+  void nullsAndMixedScalesSurvive() throws IOException {
+    CandleSeriesFile file = new CandleSeriesFile(dir.resolve("s.candles"));
+    CandleSeries written =
+        CandleSeries.builder(2)
+            .add(0, HOUR - 1000, 1, 1005, CandleSeries.NULL, 1010, 1000, 0, 3)
+            .add(HOUR, 2 * HOUR - 1000, 3, 100_125, 100_250, 101_000, 99_999, 2, CandleSeries.NULL)
+            .build();
+
+    file.rewrite(written, 0, HOUR);
+    CandleSeries read = file.read(file.coverage(), 0, HOUR);
+
+    assertThat(read.toDtos()).isEqualTo(written.toDtos());
+    assertThat(read.close(0)).isEqualTo(CandleSeries.NULL);
+    assertThat(read.volume(1)).isEqualTo(CandleSeries.NULL);
+  }
+
+  @Test
+  void rewriteReplacesAFileThatWasJustRead() throws IOException {
+    Path path = dir.resolve("s.candles");
+    CandleSeriesFile file = new CandleSeriesFile(path);
+    file.rewrite(candles(10, 3), 10 * HOUR, 12 * HOUR);
+    file.read(file.coverage(), 0, Long.MAX_VALUE);
+
+    file.rewrite(candles(8, 5), 8 * HOUR, 12 * HOUR);
+
+    assertThat(file.coverage()).isEqualTo(new Coverage(8 * HOUR, 12 * HOUR, 5));
+    assertThat(Files.exists(dir.resolve("s.candles.tmp"))).isFalse();
+  }
+}
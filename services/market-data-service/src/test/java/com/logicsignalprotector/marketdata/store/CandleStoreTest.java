@@ -0,0 +1,142 @@
+package com.logicsignalprotector.marketdata.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.logicsignalprotector.marketdata.config.CandleStoreProperties;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CandleStoreTest {
+
+  private static final OffsetDateTime DAY =
+      OffsetDateTime.of(2024, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+  @TempDir Path dir;
+
+  private CandleStore store;
+  private final List<String> fetches = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    store = new CandleStore(new CandleStoreProperties(true, dir));
+  }
+
+  private static OffsetDateTime at(int hour) {
+    return DAY.plusHours(hour);
+  }
+
+  /** Hourly bars as ISS would return them: every hour with {@code from <= begin <= till}. */
+  private CandleSeries iss(OffsetDateTime from, OffsetDateTime till) {
+    fetches.add(from.toLocalTime() + ".." + till.toLocalTime());
+    CandleSeries.Builder builder = CandleSeries.builder(24);
+    OffsetDateTime begin = from.truncatedTo(ChronoUnit.HOURS);
+    if (begin.isBefore(from)) {
+      begin = begin.plusHours(1);
+    }
+    for (; !begin.isAfter(till); begin = begin.plusHours(1)) {
+      long millis = CandleSeries.millis(begin);
+      int hour = begin.getHour();
+      builder.add(
+          millis, millis + 3_599_000, 2, 10_000 + hour, 10_001 + hour, 10_100, 9_900, 0, hour);
+    }
+    return builder.build();
+  }
+
+  private CandleSeries get(int fromHour, int tillHour) {
+    return store.getCandles(
+        "stock", "shares", "TQBR", "SBER", 60, at(fromHour), at(tillHour), this::iss);
+  }
+
+  private List<Integer> hours(CandleSeries candles) {
+    List<Integer> hours = new ArrayList<>();
+    for (int i = 0; i < candles.size(); i++) {
+      hours.add((int) (candles.volume(i)));
+    }
+    return hours;
+  }
+
+  @Test
+  void repeatedRequestIsServedFromDisk() {
+    CandleSeries first = get(10, 14);
+    CandleSeries second = get(11, 13);
+
+    assertThat(fetches).containsExactly("10:00..14:00");
+    assertThat(hours(first)).containsExactly(10, 11, 12, 13, 14);
+    assertThat(second.toDtos())
+        .isEqualTo(first.range(CandleSeries.millis(at(11)), CandleSeries.millis(at(13))).toDtos());
+  }
+
+  @Test
+  void onlyMissingHeadAndTailAreFetchedAndMerged() {
+    get(10, 14);
+    fetches.clear();
+
+    CandleSeries wider = get(8, 16);
+
+    assertThat(fetches).containsExactly("08:00..09:59:59", "14:00:01..16:00");
+    assertThat(hours(wider)).containsExactly(8, 9, 10, 11, 12, 13, 14, 15, 16);
+
+    fetches.clear();
+    assertThat(get(8, 16).toDtos()).isEqualTo(wider.toDtos());
+    assertThat(fetches).isEmpty();
+  }
+
+  @Test
+  void adjacentRangeExtendsCoverage() {
+    get(10, 14);
+    fetches.clear();
+
+    get(14, 18);
+    get(10, 18);
+
+    assertThat(fetches).containsExactly("14:00:01..18:00");
+  }
+
+  @Test
+  void disjointRangeBypassesTheStore() {
+    get(10, 12);
+    fetches.clear();
+
+    assertThat(hours(get(16, 18))).containsExactly(16, 17, 18);
+    get(10, 12);
+    get(16, 18);
+
+    assertThat(fetches).containsExactly("16:00..18:00", "16:00..18:00");
+  }
+
+  @Test
+  void unclosedCandlesAreNotPersisted() {
+    OffsetDateTime from =
+        OffsetDateTime.now(ZoneOffset.UTC).minusHours(3).truncatedTo(ChronoUnit.HOURS);
+    List<String> calls = new ArrayList<>();
+    CandleStore.CandleFetcher fetcher =
+        (f, t) -> {
+          calls.add("fetch");
+          return CandleSeries.empty();
+        };
+
+    store.getCandles("stock", "shares", "TQBR", "GAZP", 60, from, null, fetcher);
+    store.getCandles("stock", "shares", "TQBR", "GAZP", 60, from, null, fetcher);
+
+    // The second call still fetches the tail that was open during the first one.
+    assertThat(calls).hasSize(2);
+  }
+
+  @Test
+  void disabledStoreAlwaysFetches() {
+    store = new CandleStore(new CandleStoreProperties(false, dir));
+
+    get(10, 12);
+    get(10, 12);
+
+    assertThat(fetches).hasSize(2);
+  }
+}
@@ -0,0 +1,72 @@
+package com.logicsignalprotector.marketdata.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.logicsignalprotector.marketdata.client.IssUnavailableException;
+import com.logicsignalprotector.marketdata.client.MoexClient;
+import com.logicsignalprotector.marketdata.config.SnapshotProperties;
+import com.logicsignalprotector.marketdata.model.BoardMarketData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class MarketSnapshotStoreTest {
+
+  private static final BoardMarketData TQBR = new BoardMarketData("TQBR", Map.of(), Map.of());
+
+  private final MoexClient moex = mock(MoexClient.class);
+  private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+  @Test
+  void freshSnapshotIsServedForItsBoardOnly() {
+    when(moex.loadBoardMarketData("stock", "shares", "TQBR")).thenReturn(TQBR);
+    MarketSnapshotStore store = store(Duration.ofMinutes(1));
+
+    store.refresh();
+
+    assertThat(store.get("stock", "shares", "TQBR"))
+        .get()
+        .extracting(s -> s.data())
+        .isEqualTo(TQBR);
+    assertThat(store.get("stock", "shares", "TQTF")).isEmpty();
+    assertThat(store.get("currency", "selt", "TQBR")).isEmpty();
+    assertThat(meters.get("market.snapshot.age").tag("board", "TQBR").gauge().value())
+        .isLessThan(1.0);
+  }
+
+  @Test
+  void snapshotOlderThanMaxAgeIsNotServed() throws InterruptedException {
+    when(moex.loadBoardMarketData("stock", "shares", "TQBR")).thenReturn(TQBR);
+    MarketSnapshotStore store = store(Duration.ofMillis(100));
+    store.refresh();
+
+    Thread.sleep(200);
+
+    assertThat(store.get("stock", "shares", "TQBR")).isEmpty();
+  }
+
+  @Test
+  void failedRefreshKeepsThePreviousSnapshot() {
+    when(moex.loadBoardMarketData("stock", "shares", "TQBR"))
+        .thenReturn(TQBR)
+        .thenThrow(new IssUnavailableException("ISS is down"));
+    MarketSnapshotStore store = store(Duration.ofMinutes(1));
+
+    store.refresh();
+    store.refresh();
+
+    assertThat(store.get("stock", "shares", "TQBR"))
+        .get()
+        .extracting(s -> s.data())
+        .isEqualTo(TQBR);
+  }
+
+  private MarketSnapshotStore store(Duration maxAge) {
+    return new MarketSnapshotStore(
+        moex, new SnapshotProperties(true, null, null, List.of("TQBR"), maxAge), meters);
+  }
+}
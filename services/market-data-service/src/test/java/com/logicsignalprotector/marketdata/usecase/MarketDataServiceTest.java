@@ -0,0 +1,73 @@
+package com.logicsignalprotector.marketdata.usecase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.logicsignalprotector.marketdata.client.MoexClient;
+import com.logicsignalprotector.marketdata.config.SnapshotProperties;
+import com.logicsignalprotector.marketdata.dto.QuoteDto;
+import com.logicsignalprotector.marketdata.model.BoardMarketData;
+import com.logicsignalprotector.marketdata.model.SnapshotRead;
+import com.logicsignalprotector.marketdata.store.MarketSnapshotStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class MarketDataServiceTest {
+
+  private static final QuoteDto SNAPSHOT_SBER =
+      new QuoteDto("SBER", "TQBR", new BigDecimal("271.5"), null, null, null, null);
+  private static final QuoteDto ISS_SBER =
+      new QuoteDto("SBER", "TQBR", new BigDecimal("272"), null, null, null, null);
+
+  private final MoexClient moex = mock(MoexClient.class);
+
+  @Test
+  void quoteComesFromAFreshSnapshotWithItsAge() {
+    MarketDataService service = service(Duration.ofMinutes(1));
+
+    SnapshotRead<QuoteDto> read = service.getQuote("stock", "shares", "TQBR", "sber");
+
+    assertThat(read.value()).isEqualTo(SNAPSHOT_SBER);
+    assertThat(read.snapshotAge()).isPresent();
+    verify(moex, never()).getQuote("stock", "shares", "TQBR", "sber");
+  }
+
+  @Test
+  void oldSnapshotFallsBackToIssWithoutAnAge() throws InterruptedException {
+    when(moex.getQuote("stock", "shares", "TQBR", "SBER")).thenReturn(ISS_SBER);
+    MarketDataService service = service(Duration.ofMillis(100));
+    Thread.sleep(200);
+
+    SnapshotRead<QuoteDto> read = service.getQuote("stock", "shares", "TQBR", "SBER");
+
+    assertThat(read.value()).isEqualTo(ISS_SBER);
+    assertThat(read.snapshotAge()).isEmpty();
+  }
+
+  @Test
+  void tickerMissingFromTheSnapshotGoesToIss() {
+    when(moex.getQuote("stock", "shares", "TQBR", "GAZP")).thenReturn(ISS_SBER);
+    MarketDataService service = service(Duration.ofMinutes(1));
+
+    assertThat(service.getQuote("stock", "shares", "TQBR", "GAZP").snapshotAge()).isEmpty();
+  }
+
+  private MarketDataService service(Duration maxAge) {
+    when(moex.loadBoardMarketData("stock", "shares", "TQBR"))
+        .thenReturn(new BoardMarketData("TQBR", Map.of("SBER", SNAPSHOT_SBER), Map.of()));
+    MarketSnapshotStore snapshots =
+        new MarketSnapshotStore(
+            moex,
+            new SnapshotProperties(true, null, null, List.of("TQBR"), maxAge),
+            new SimpleMeterRegistry());
+    snapshots.refresh();
+    return new MarketDataService(moex, null, snapshots, null, null, null, null);
+  }
+}
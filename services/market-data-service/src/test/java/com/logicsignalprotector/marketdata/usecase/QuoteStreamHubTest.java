@@ -0,0 +1,93 @@
+package com.logicsignalprotector.marketdata.usecase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.logicsignalprotector.marketdata.config.StreamProperties;
+import com.logicsignalprotector.marketdata.dto.QuoteDto;
+import com.logicsignalprotector.marketdata.dto.QuoteUpdateDto;
+import com.logicsignalprotector.marketdata.model.SnapshotRead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+class QuoteStreamHubTest {
+
+  private static final OffsetDateTime T0 =
+      OffsetDateTime.of(2024, 1, 3, 10, 0, 0, 0, ZoneOffset.UTC);
+
+  @Test
+  void unchangedFieldsAreAbsentAndNotCleared() {
+    QuoteUpdateDto update = QuoteStreamHub.diff(quote("271.5", "1.2"), quote("271.6", "1.2"));
+
+    assertThat(update.full()).isFalse();
+    assertThat(update.lastPrice()).isEqualByComparingTo("271.6");
+    assertThat(update.change()).isNull();
+    assertThat(update.cleared()).isNull();
+  }
+
+  @Test
+  void fieldThatBecameEmptyIsNamedInCleared() {
+    QuoteUpdateDto update = QuoteStreamHub.diff(quote("271.5", "1.2"), quote(null, "1.2"));
+
+    assertThat(update.lastPrice()).isNull();
+    assertThat(update.change()).isNull();
+    assertThat(update.cleared()).containsExactly("lastPrice");
+  }
+
+  @Test
+  void firstEventIsFull() {
+    QuoteUpdateDto update = QuoteStreamHub.diff(null, quote("271.5", null));
+
+    assertThat(update.full()).isTrue();
+    assertThat(update.lastPrice()).isEqualByComparingTo("271.5");
+    assertThat(update.cleared()).isNull();
+  }
+
+  @Test
+  void subscribersShareOnePollerThatStopsAfterTheGrace() throws InterruptedException {
+    MarketDataUseCase useCase = mock(MarketDataUseCase.class);
+    when(useCase.getQuote(anyString(), anyString(), anyString(), anyString()))
+        .thenReturn(new SnapshotRead<>(quote("271.5", "1.2"), Optional.empty()));
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    QuoteStreamHub hub =
+        new QuoteStreamHub(
+            useCase,
+            new StreamProperties(Duration.ofMillis(20), Duration.ofMillis(50), null, 0),
+            meters);
+
+    Disposable first = hub.subscribe("stock", "shares", "TQBR", "sber").subscribe();
+    Disposable second = hub.subscribe("stock", "shares", "TQBR", "SBER").subscribe();
+    assertThat(pollers(meters)).isEqualTo(1);
+
+    first.dispose();
+    second.dispose();
+    Thread.sleep(300);
+    assertThat(pollers(meters)).isZero();
+
+    QuoteUpdateDto again = hub.subscribe("stock", "shares", "TQBR", "SBER").blockFirst();
+    assertThat(again.full()).isTrue();
+  }
+
+  private static double pollers(SimpleMeterRegistry meters) {
+    return meters.get("market.stream.pollers").gauge().value();
+  }
+
+  private static QuoteDto quote(String last, String change) {
+    return new QuoteDto(
+        "SBER",
+        "TQBR",
+        last == null ? null : new BigDecimal(last),
+        change == null ? null : new BigDecimal(change),
+        null,
+        BigDecimal.TEN,
+        T0);
+  }
+}
@@ -0,0 +1,62 @@
+package com.logicsignalprotector.marketdata.usecase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.logicsignalprotector.marketdata.config.SeriesCacheProperties;
+import com.logicsignalprotector.marketdata.model.CandleResampler;
+import com.logicsignalprotector.marketdata.model.CandleSeries;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class ResampledCandlesTest {
+
+  private final ResampledCandles resampled =
+      new ResampledCandles(new SeriesCacheProperties(0, 0, null));
+
+  @Test
+  void limitIsPushedDownAndNotReusedForAFullRequest() {
+    CandleSeries base = hours(10, 18);
+
+    CandleSeries last = resampled.get("SBER/240", base, 240, 1);
+    assertThat(last.size()).isEqualTo(1);
+    assertThat(last.begin(0)).isEqualTo(millis(16));
+    assertThat(last.volume(0)).isEqualTo(16 + 17 + 18);
+
+    CandleSeries all = resampled.get("SBER/240", base, 240, null);
+    assertThat(all.toDtos()).isEqualTo(CandleResampler.resample(base, 240).toDtos());
+  }
+
+  @Test
+  void newBarsExtendTheOpenBucket() {
+    resampled.get("SBER/240", hours(10, 16), 240, null);
+
+    CandleSeries extended = resampled.get("SBER/240", hours(10, 18), 240, null);
+
+    assertThat(extended.toDtos()).isEqualTo(CandleResampler.resample(hours(10, 18), 240).toDtos());
+    assertThat(extended.close(2)).isEqualTo(119);
+  }
+
+  @Test
+  void onlyTheRequestedTailIsReturnedFromAFullAggregate() {
+    resampled.get("SBER/240", hours(10, 18), 240, null);
+
+    CandleSeries tail = resampled.get("SBER/240", hours(10, 18), 240, 2);
+
+    assertThat(tail.size()).isEqualTo(2);
+    assertThat(tail.begin(0)).isEqualTo(millis(12));
+  }
+
+  private static long millis(int hour) {
+    return LocalDateTime.of(2024, 1, 3, hour, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+  }
+
+  /** Hourly bars, bar h: open 100+h, close 101+h, volume h. */
+  private static CandleSeries hours(int fromHour, int toHour) {
+    CandleSeries.Builder series = CandleSeries.builder(0);
+    for (int h = fromHour; h <= toHour; h++) {
+      series.add(millis(h), millis(h) + 3_599_000, 0, 100 + h, 101 + h, 105 + h, 95 + h, 0, h);
+    }
+    return series.build();
+  }
+}
@@ -2,6 +2,8 @@ package com.logicsignalprotector.virtualbroker.api;
 
 import java.util.Map;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,12 +17,22 @@ public class SecureDemoController {
 
   @GetMapping("/secure-sample")
   @PreAuthorize("hasAuthority('PERM_BROKER_READ')")
-  public Map<String, Object> secureSample(@AuthenticationPrincipal Jwt jwt) {
+  public Map<String, Object> secureSample(
+      @AuthenticationPrincipal Jwt jwt, Authentication authentication) {
     return Map.of(
-        "status", "ok",
-        "subject", jwt.getSubject(),
-        "uid", jwt.getClaim("uid"),
-        "perms", jwt.getClaim("perms"));
+        "status",
+        "ok",
+        "subject",
+        jwt.getSubject(),
+        "uid",
+        jwt.getClaim("uid"),
+        "perms",
+        authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .filter(a -> a.startsWith("PERM_"))
+            .map(a -> a.substring("PERM_".length()))
+            .sorted()
+            .toList());
   }
 
   @PostMapping("/trade-sample")